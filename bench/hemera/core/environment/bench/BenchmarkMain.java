@@ -0,0 +1,36 @@
+package hemera.core.environment.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <code>BenchmarkMain</code> defines the entry point
+ * that runs the benchmarks with the GC profiler, which
+ * reports the allocation rate and the allocated bytes
+ * per operation along with the timing.
+ * <p>
+ * Any given arguments are passed on as the JMH command
+ * line options, for example <code>ModelBenchmark.hbm
+ * -p resources=1000</code> to run a subset.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class BenchmarkMain {
+
+	/**
+	 * Run the benchmarks.
+	 * @param args The <code>String</code> array of JMH
+	 * command line options.
+	 * @throws Exception If running failed.
+	 */
+	public static void main(final String[] args) throws Exception {
+		final OptionsBuilder builder = new OptionsBuilder();
+		if (args.length > 0) builder.parent(new CommandLineOptions(args));
+		else builder.include("hemera\\.core\\.environment\\.bench\\..*Benchmark");
+		builder.addProfiler(GCProfiler.class);
+		new Runner(builder.build()).run();
+	}
+}
@@ -0,0 +1,93 @@
+package hemera.core.environment.bench;
+
+import hemera.core.environment.config.Configuration;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+
+/**
+ * <code>ConfigurationBenchmark</code> defines the
+ * steady state throughput benchmarks of parsing and
+ * serializing the environment configuration, in both
+ * the XML and the snapshot forms.
+ * <p>
+ * The environment configuration does not contain any
+ * resources, so it is only measured at its default
+ * size.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ConfigurationBenchmark {
+	/**
+	 * The <code>ModelFixture</code> of the inputs.
+	 */
+	private ModelFixture fixture;
+	/**
+	 * The parsed configuration <code>Document</code>.
+	 */
+	private Document document;
+	/**
+	 * The parsed <code>Configuration</code>.
+	 */
+	private Configuration config;
+
+	/**
+	 * Generate and parse the inputs.
+	 * @throws Exception If generating failed.
+	 */
+	@Setup
+	public void setup() throws Exception {
+		this.fixture = new ModelFixture(1);
+		this.document = this.fixture.parse(this.fixture.config);
+		this.config = new Configuration(this.document);
+	}
+
+	@Benchmark
+	public Configuration fromDocument() {
+		return new Configuration(this.document);
+	}
+
+	@Benchmark
+	public Configuration dom() throws Exception {
+		return new Configuration(this.fixture.parse(this.fixture.config));
+	}
+
+	@Benchmark
+	public Configuration fromSnapshot() {
+		return new Configuration(ByteBuffer.wrap(this.fixture.snapshot));
+	}
+
+	@Benchmark
+	public Document toDocument() throws Exception {
+		return this.config.toDocument();
+	}
+
+	@Benchmark
+	public byte[] serialize() throws Exception {
+		return this.fixture.serialize(this.config.toDocument());
+	}
+
+	@Benchmark
+	public byte[] writeSnapshot() throws Exception {
+		return this.fixture.snapshot(this.config);
+	}
+}
@@ -0,0 +1,84 @@
+package hemera.core.environment.bench;
+
+import hemera.core.environment.config.Configuration;
+import hemera.core.environment.hbm.HBM;
+import hemera.core.environment.util.UModelReader;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <code>FirstParseBenchmark</code> defines the time to
+ * first parse benchmarks, which measure a single parse
+ * in a fresh JVM, including class loading and the
+ * initialization of the XML stack, as experienced when
+ * an environment starts or an application is deployed.
+ * <p>
+ * The inputs are built as plain bytes without the XML
+ * stack, so the setup does not warm up the code being
+ * measured. Every measurement runs in its own fork, so
+ * the number of forks is the number of samples.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(20)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class FirstParseBenchmark {
+	/**
+	 * The <code>int</code> number of resources.
+	 */
+	@Param({"1", "1000", "10000"})
+	public int resources;
+	/**
+	 * The <code>byte</code> array configuration content.
+	 */
+	private byte[] config;
+	/**
+	 * The <code>byte</code> array HBM content.
+	 */
+	private byte[] hbm;
+
+	/**
+	 * Build the inputs.
+	 * @throws Exception If building failed.
+	 */
+	@Setup
+	public void setup() throws Exception {
+		this.config = ModelFixture.MinimalConfiguration.getBytes("UTF-8");
+		this.hbm = ModelFixture.buildHBM(this.resources).getBytes("UTF-8");
+	}
+
+	@Benchmark
+	public Configuration configurationDom() throws Exception {
+		return new Configuration(DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(this.config)));
+	}
+
+	@Benchmark
+	public HBM hbmDom() throws Exception {
+		return new HBM(DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(this.hbm)));
+	}
+
+	@Benchmark
+	public HBM hbmStax() throws Exception {
+		return UModelReader.instance.readHBM(new ByteArrayInputStream(this.hbm));
+	}
+}
@@ -0,0 +1,127 @@
+package hemera.core.environment.bench;
+
+import hemera.core.environment.ham.HAM;
+import hemera.core.environment.hbm.HBM;
+import hemera.core.environment.util.UModelReader;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+
+/**
+ * <code>ModelBenchmark</code> defines the steady state
+ * throughput benchmarks of parsing and serializing the
+ * HBM and HAM models, with the number of resources
+ * scaled from 1 to 10 thousand.
+ * <p>
+ * The DOM benchmarks are measured both from a parsed
+ * document, which isolates the model constructors, and
+ * from the file content, which is comparable with the
+ * single pass StAX benchmarks.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ModelBenchmark {
+	/**
+	 * The <code>int</code> number of resources.
+	 */
+	@Param({"1", "10", "100", "1000", "10000"})
+	public int resources;
+	/**
+	 * The <code>ModelFixture</code> of the inputs.
+	 */
+	private ModelFixture fixture;
+	/**
+	 * The parsed HBM <code>Document</code>.
+	 */
+	private Document hbmDocument;
+	/**
+	 * The parsed HAM <code>Document</code>.
+	 */
+	private Document hamDocument;
+	/**
+	 * The parsed <code>HBM</code>.
+	 */
+	private HBM hbm;
+	/**
+	 * The parsed <code>HAM</code>.
+	 */
+	private HAM ham;
+
+	/**
+	 * Generate and parse the inputs.
+	 * @throws Exception If generating failed.
+	 */
+	@Setup
+	public void setup() throws Exception {
+		this.fixture = new ModelFixture(this.resources);
+		this.hbmDocument = this.fixture.parse(this.fixture.hbm);
+		this.hamDocument = this.fixture.parse(this.fixture.ham);
+		this.hbm = new HBM(this.hbmDocument);
+		this.ham = new HAM(this.hamDocument);
+	}
+
+	@Benchmark
+	public HBM hbmFromDocument() {
+		return new HBM(this.hbmDocument);
+	}
+
+	@Benchmark
+	public HBM hbmDom() throws Exception {
+		return new HBM(this.fixture.parse(this.fixture.hbm));
+	}
+
+	@Benchmark
+	public HBM hbmStax() throws Exception {
+		return UModelReader.instance.readHBM(new ByteArrayInputStream(this.fixture.hbm));
+	}
+
+	@Benchmark
+	public HAM hamFromDocument() {
+		return new HAM(this.hamDocument);
+	}
+
+	@Benchmark
+	public HAM hamDom() throws Exception {
+		return new HAM(this.fixture.parse(this.fixture.ham));
+	}
+
+	@Benchmark
+	public HAM hamStax() throws Exception {
+		return UModelReader.instance.readHAM(new ByteArrayInputStream(this.fixture.ham));
+	}
+
+	@Benchmark
+	public HAM hamFromHBM() {
+		return new HAM(this.hbm);
+	}
+
+	@Benchmark
+	public Document hamToXML() throws Exception {
+		return this.ham.toXML();
+	}
+
+	@Benchmark
+	public byte[] hamSerialize() throws Exception {
+		return this.fixture.serialize(this.ham.toXML());
+	}
+}
@@ -0,0 +1,149 @@
+package hemera.core.environment.bench;
+
+import hemera.core.environment.config.Configuration;
+import hemera.core.environment.ham.HAM;
+import hemera.core.environment.hbm.HBM;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.w3c.dom.Document;
+
+/**
+ * <code>ModelFixture</code> defines the synthetic
+ * inputs of the benchmarks, which are generated for a
+ * given number of resources.
+ * <p>
+ * Every resource has a source directory, a class name
+ * and a Jar directory dependency. Every second resource
+ * has a configuration file, every third a resources
+ * directory, every fifth a priority lane and every tenth
+ * a dedicated execution pool, so all the parsing
+ * branches are exercised.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class ModelFixture {
+	/**
+	 * The <code>String</code> minimal environment
+	 * configuration file content, which only contains
+	 * the required tags.
+	 */
+	public static final String MinimalConfiguration = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><hemera-runtime-environment><version>1.0.7</version><jvm><memory-min>256m</memory-min><memory-max>1024m</memory-max><file-encoding>UTF-8</file-encoding></jvm><runtime><launcher/><execution-service><mode>assisted</mode><listener><jar-file/><classname/></listener><exception-handler><jar-file/><classname/></exception-handler><assisted-service><executor-count>1000</executor-count><buffer-size>10</buffer-size><idle-time>200 MILLISECONDS</idle-time></assisted-service><scalable-service><min-executor>200</min-executor><max-executor>1000</max-executor><timeout>10 SECONDS</timeout></scalable-service></execution-service><socket><port>80</port><timeout>30000</timeout><buffer-size>524288</buffer-size><cert/><key-password/></socket><logging><enabled>true</enabled><dir>/opt/hemera/log/</dir><file-size>1048576</file-size><file-count>1</file-count></logging></runtime></hemera-runtime-environment>";
+	/**
+	 * The <code>int</code> number of resources.
+	 */
+	public final int resources;
+	/**
+	 * The <code>byte</code> array HBM file content.
+	 */
+	public final byte[] hbm;
+	/**
+	 * The <code>byte</code> array HAM file content
+	 * generated from the HBM.
+	 */
+	public final byte[] ham;
+	/**
+	 * The <code>byte</code> array default environment
+	 * configuration file content.
+	 */
+	public final byte[] config;
+	/**
+	 * The <code>byte</code> array default environment
+	 * configuration snapshot content.
+	 */
+	public final byte[] snapshot;
+
+	/**
+	 * Constructor of <code>ModelFixture</code>.
+	 * @param resources The <code>int</code> number of
+	 * resources.
+	 * @throws Exception If generating the inputs failed.
+	 */
+	public ModelFixture(final int resources) throws Exception {
+		this.resources = resources;
+		this.hbm = ModelFixture.buildHBM(resources).getBytes("UTF-8");
+		final HBM hbm = new HBM(this.parse(this.hbm));
+		this.ham = this.serialize(new HAM(hbm).toXML());
+		final Configuration config = new Configuration("/opt/hemera/");
+		this.config = this.serialize(config.toDocument());
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		config.write(new DataOutputStream(output));
+		this.snapshot = output.toByteArray();
+	}
+
+	/**
+	 * Build the HBM file content. The content is built
+	 * without the XML stack, so it can be used by the
+	 * time to first parse benchmarks.
+	 * @param resources The <code>int</code> number of
+	 * resources.
+	 * @return The <code>String</code> content.
+	 */
+	public static String buildHBM(final int resources) {
+		final StringBuilder builder = new StringBuilder(256 * resources + 512);
+		builder.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+		builder.append("<hemera-bundle-model>");
+		builder.append("<application-name>bench</application-name>");
+		builder.append("<shared><config-file>conf/shared.xml</config-file><resources-dir>shared/</resources-dir>");
+		builder.append("<dependencies><dependency><type>jar-dir</type><value>lib/</value></dependency></dependencies></shared>");
+		builder.append("<resources>");
+		for (int i = 0; i < resources; i++) {
+			builder.append("<resource>");
+			builder.append("<src-dir>src/</src-dir>");
+			builder.append("<classname>bench.resource.Resource").append(i).append("</classname>");
+			if (i % 2 == 0) builder.append("<config-file>conf/resource").append(i).append(".xml</config-file>");
+			if (i % 3 == 0) builder.append("<resources-dir>resources/").append(i).append("/</resources-dir>");
+			builder.append("<dependencies><dependency><type>jar-dir</type><value>lib/").append(i).append("/</value></dependency></dependencies>");
+			if (i % 5 == 0) builder.append("<lane>default</lane>");
+			if (i % 10 == 0) builder.append("<execution><pool-size>4</pool-size><queue-bound>100</queue-bound></execution>");
+			builder.append("</resource>");
+		}
+		builder.append("</resources>");
+		builder.append("</hemera-bundle-model>");
+		return builder.toString();
+	}
+
+	/**
+	 * Parse the given content into a new document.
+	 * @param content The <code>byte</code> array XML
+	 * content.
+	 * @return The <code>Document</code>.
+	 * @throws Exception If parsing failed.
+	 */
+	public Document parse(final byte[] content) throws Exception {
+		return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(content));
+	}
+
+	/**
+	 * Serialize the given document.
+	 * @param document The <code>Document</code>.
+	 * @return The <code>byte</code> array XML content.
+	 * @throws Exception If serializing failed.
+	 */
+	public byte[] serialize(final Document document) throws Exception {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		TransformerFactory.newInstance().newTransformer().transform(new DOMSource(document), new StreamResult(output));
+		return output.toByteArray();
+	}
+
+	/**
+	 * Write the given configuration snapshot.
+	 * @param config The <code>Configuration</code>.
+	 * @return The <code>byte</code> array snapshot.
+	 * @throws IOException If writing failed.
+	 */
+	public byte[] snapshot(final Configuration config) throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream(this.snapshot.length);
+		config.write(new DataOutputStream(output));
+		return output.toByteArray();
+	}
+}
@@ -0,0 +1,52 @@
+#!/bin/sh
+#
+# Fetch JMH, build the benchmarks against the sources
+# and run them. Any arguments are passed on to
+# BenchmarkMain as the JMH command line options, for
+# example: bench/run.sh ModelBenchmark -p resources=1000
+#
+# The Hemera Core Utility classes are expected in the
+# Eclipse output folder of the sibling project, unless
+# HEMERA_CORE_UTILITY is set to their directory or Jar.
+
+set -e
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+LIB="$ROOT/lib"
+OUT="$ROOT/build/bench"
+UTILITY=${HEMERA_CORE_UTILITY:-"$ROOT/../Hemera-Core-Utility/bin"}
+REPOSITORY=${MAVEN_REPOSITORY:-"https://repo1.maven.org/maven2"}
+
+JMH_VERSION=1.21
+JARS="org/openjdk/jmh/jmh-core/$JMH_VERSION/jmh-core-$JMH_VERSION.jar
+org/openjdk/jmh/jmh-generator-annprocess/$JMH_VERSION/jmh-generator-annprocess-$JMH_VERSION.jar
+net/sf/jopt-simple/jopt-simple/4.6/jopt-simple-4.6.jar
+org/apache/commons/commons-math3/3.2/commons-math3-3.2.jar"
+
+# Fetch the libraries the .classpath refers to.
+mkdir -p "$LIB"
+CLASSPATH_LIB=""
+for JAR in $JARS; do
+	FILE="$LIB/$(basename "$JAR")"
+	if [ ! -f "$FILE" ]; then
+		echo "Fetching $(basename "$JAR")"
+		curl -fsSL -o "$FILE.part" "$REPOSITORY/$JAR"
+		mv "$FILE.part" "$FILE"
+	fi
+	CLASSPATH_LIB="$CLASSPATH_LIB:$FILE"
+done
+CLASSPATH_LIB=${CLASSPATH_LIB#:}
+
+if [ ! -e "$UTILITY" ]; then
+	echo "Hemera Core Utility not found at $UTILITY. Set HEMERA_CORE_UTILITY." >&2
+	exit 1
+fi
+
+# Build the sources and the benchmarks. The annotation
+# processor generates the JMH harness and benchmark list.
+rm -rf "$OUT"
+mkdir -p "$OUT/classes" "$OUT/generated"
+find "$ROOT/src" "$ROOT/bench" -name '*.java' > "$OUT/sources"
+javac -Xlint:all -encoding UTF-8 -cp "$UTILITY:$CLASSPATH_LIB" -processorpath "$CLASSPATH_LIB" -s "$OUT/generated" -d "$OUT/classes" @"$OUT/sources"
+
+exec java -cp "$OUT/classes:$UTILITY:$CLASSPATH_LIB" hemera.core.environment.bench.BenchmarkMain "$@"
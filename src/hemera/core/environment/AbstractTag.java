@@ -1,14 +1,22 @@
 package hemera.core.environment;
 
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
 /**
  * <code>AbstractTag</code> defines the abstraction
  * of a tag that can parse values.
+ * <p>
+ * A tag can be parsed either from a DOM node, or
+ * in a single forward pass from a streaming reader
+ * positioned at the start of the tag.
  *
  * @author Yi Wang (Neakor)
- * @version 1.0.0
+ * @version 1.0.1
  */
 public class AbstractTag {
 	
@@ -53,4 +61,89 @@ public class AbstractTag {
 		}
 		return list.item(0).getTextContent();
 	}
+
+	/**
+	 * Constructor of <code>AbstractTag</code>.
+	 * @param reader The <code>XMLStreamReader</code>
+	 * positioned at the start of this tag.
+	 * @param expectedName The <code>String</code>
+	 * expected name of this tag.
+	 */
+	protected AbstractTag(final XMLStreamReader reader, final String expectedName) {
+		// Verify reader position and tag name.
+		if (!reader.isStartElement()) {
+			throw new IllegalArgumentException("Invalid reader position. Must be at the start of " + expectedName + ".");
+		}
+		final String tagname = reader.getLocalName();
+		if (!tagname.equalsIgnoreCase(expectedName)) {
+			throw new IllegalArgumentException("Invalid tag: " + tagname);
+		}
+	}
+
+	/**
+	 * Advance the given reader to the next direct child
+	 * tag of the tag the reader is currently in.
+	 * @param reader The <code>XMLStreamReader</code>
+	 * to advance.
+	 * @return The <code>String</code> name of the child
+	 * tag the reader is now at the start of. Or
+	 * <code>null</code> if the reader reached the end
+	 * of the current tag.
+	 * @throws XMLStreamException If reading failed.
+	 */
+	protected String nextChildTag(final XMLStreamReader reader) throws XMLStreamException {
+		final int event = reader.nextTag();
+		if (event == XMLStreamConstants.START_ELEMENT) return reader.getLocalName();
+		else return null;
+	}
+
+	/**
+	 * Read the text value of the tag the given reader
+	 * is at the start of. The reader is left at the end
+	 * of the tag.
+	 * @param reader The <code>XMLStreamReader</code>
+	 * at the start of a text-only tag.
+	 * @param current The <code>String</code> value
+	 * already read for the same tag. <code>null</code>
+	 * if the tag has not been seen yet.
+	 * @return The <code>String</code> tag value.
+	 * @throws XMLStreamException If reading failed.
+	 */
+	protected String readTagValue(final XMLStreamReader reader, final String current) throws XMLStreamException {
+		if (current != null) {
+			throw new IllegalArgumentException("Invalid tag. Must contain one " + reader.getLocalName() + ".");
+		}
+		return reader.getElementText();
+	}
+
+	/**
+	 * Skip the tag the given reader is at the start of,
+	 * including all of its children. The reader is left
+	 * at the end of the tag.
+	 * @param reader The <code>XMLStreamReader</code>
+	 * at the start of the tag to skip.
+	 * @throws XMLStreamException If reading failed.
+	 */
+	protected void skipTag(final XMLStreamReader reader) throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0) {
+			final int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) depth++;
+			else if (event == XMLStreamConstants.END_ELEMENT) depth--;
+		}
+	}
+
+	/**
+	 * Verify the given value of a required tag has
+	 * been read.
+	 * @param value The <code>String</code> value read.
+	 * @param tag The <code>String</code> tag.
+	 * @return The <code>String</code> value.
+	 */
+	protected String verifyTagValue(final String value, final String tag) {
+		if (value == null) {
+			throw new IllegalArgumentException("Invalid tag. Must contain one " + tag + ".");
+		}
+		return value;
+	}
 }
@@ -0,0 +1,357 @@
+package hemera.core.environment.config;
+
+import hemera.core.environment.config.key.KConfigAdaptiveSizing;
+import hemera.core.environment.enumn.EChangeImpact;
+import hemera.core.environment.enumn.EConfigSection;
+import hemera.core.environment.enumn.ESizingAlgorithm;
+import hemera.core.environment.util.USnapshot;
+import hemera.core.environment.util.UTime;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * <code>ConfigAdaptiveSizing</code> defines the structure
+ * of the adaptive sizing configuration of the scalable
+ * execution service. When enabled, the pool size is
+ * periodically moved between the minimum and maximum
+ * executor counts based on the measured load.
+ * <p>
+ * This section is optional. Configuration files that do
+ * not contain it use the default values, which disable
+ * adaptive sizing.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class ConfigAdaptiveSizing {
+	/**
+	 * The <code>boolean</code> flag indicating if the
+	 * adaptive sizing is enabled.
+	 */
+	public final boolean enabled;
+	/**
+	 * The <code>ESizingAlgorithm</code> used to compute
+	 * the target pool size.
+	 */
+	public final ESizingAlgorithm algorithm;
+	/**
+	 * The <code>String</code> interval between two load
+	 * samples.
+	 */
+	public final String sampleInterval;
+	/**
+	 * The <code>String</code> target average time a task
+	 * waits in the queue before it is executed.
+	 */
+	public final String targetWait;
+	/**
+	 * The <code>double</code> weight between
+	 * <code>0</code> inclusive and <code>1</code>
+	 * exclusive given to the history when smoothing the
+	 * samples. Higher values react slower to bursts.
+	 */
+	public final double dampening;
+	/**
+	 * The <code>int</code> maximum number of executors
+	 * added or removed by a single decision.
+	 */
+	public final int maxStep;
+	/**
+	 * The <code>double</code> processor utilization
+	 * between <code>0</code> and <code>1</code> above
+	 * which the pool is not grown, since more threads
+	 * cannot increase the throughput.
+	 */
+	public final double cpuCeiling;
+
+	/**
+	 * Constructor of <code>ConfigAdaptiveSizing</code>.
+	 */
+	public ConfigAdaptiveSizing() {
+		this.enabled = false;
+		this.algorithm = ESizingAlgorithm.LittlesLaw;
+		this.sampleInterval = "1 " + TimeUnit.SECONDS.name();
+		this.targetWait = "20 " + TimeUnit.MILLISECONDS.name();
+		this.dampening = 0.7;
+		this.maxStep = 32;
+		this.cpuCeiling = 0.9;
+	}
+
+	/**
+	 * Constructor of <code>ConfigAdaptiveSizing</code>.
+	 * @param scalable The <code>Element</code> of the
+	 * scalable service tag to parse from.
+	 */
+	public ConfigAdaptiveSizing(final Element scalable) {
+		final Element adaptive = this.parseAdaptive(scalable);
+		if (adaptive == null) {
+			this.enabled = false;
+			this.algorithm = ESizingAlgorithm.LittlesLaw;
+			this.sampleInterval = "1 " + TimeUnit.SECONDS.name();
+			this.targetWait = "20 " + TimeUnit.MILLISECONDS.name();
+			this.dampening = 0.7;
+			this.maxStep = 32;
+			this.cpuCeiling = 0.9;
+		} else {
+			this.enabled = this.parseEnabled(adaptive);
+			this.algorithm = this.parseAlgorithm(adaptive);
+			this.sampleInterval = this.parseSampleInterval(adaptive);
+			this.targetWait = this.parseTargetWait(adaptive);
+			this.dampening = this.parseDampening(adaptive);
+			this.maxStep = this.parseMaxStep(adaptive);
+			this.cpuCeiling = this.parseCpuCeiling(adaptive);
+		}
+	}
+
+	/**
+	 * Constructor of <code>ConfigAdaptiveSizing</code>.
+	 * @param buffer The <code>ByteBuffer</code> of a
+	 * configuration snapshot to read the values from.
+	 */
+	public ConfigAdaptiveSizing(final ByteBuffer buffer) {
+		this.enabled = USnapshot.instance.readBoolean(buffer);
+		this.algorithm = ESizingAlgorithm.parse(USnapshot.instance.readString(buffer));
+		this.sampleInterval = USnapshot.instance.readString(buffer);
+		this.targetWait = USnapshot.instance.readString(buffer);
+		this.dampening = buffer.getDouble();
+		this.maxStep = buffer.getInt();
+		this.cpuCeiling = buffer.getDouble();
+	}
+
+	/**
+	 * Parse the optional adaptive sizing tag.
+	 * @param scalable The <code>Element</code> of the
+	 * scalable service tag to parse from.
+	 * @return The adaptive sizing <code>Element</code>.
+	 * Or <code>null</code> if there is no such tag.
+	 */
+	private Element parseAdaptive(final Element scalable) {
+		final NodeList list = scalable.getElementsByTagName(KConfigAdaptiveSizing.Root.tag);
+		if (list == null || list.getLength() == 0) return null;
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid scalable service configuration. Must contain at most one adaptive sizing tag.");
+		}
+		return (Element)list.item(0);
+	}
+
+	/**
+	 * Parse the enabled value.
+	 * @param adaptive The adaptive sizing <code>Element</code>
+	 * to parse from.
+	 * @return The <code>boolean</code> value.
+	 */
+	private boolean parseEnabled(final Element adaptive) {
+		final NodeList list = adaptive.getElementsByTagName(KConfigAdaptiveSizing.Enabled.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid adaptive sizing configuration. Must contain one enabled tag.");
+		}
+		return Boolean.valueOf(list.item(0).getTextContent());
+	}
+
+	/**
+	 * Parse the algorithm value.
+	 * @param adaptive The adaptive sizing <code>Element</code>
+	 * to parse from.
+	 * @return The <code>ESizingAlgorithm</code> value.
+	 */
+	private ESizingAlgorithm parseAlgorithm(final Element adaptive) {
+		final NodeList list = adaptive.getElementsByTagName(KConfigAdaptiveSizing.Algorithm.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid adaptive sizing configuration. Must contain one algorithm tag.");
+		}
+		return ESizingAlgorithm.parse(list.item(0).getTextContent());
+	}
+
+	/**
+	 * Parse the sample interval value.
+	 * @param adaptive The adaptive sizing <code>Element</code>
+	 * to parse from.
+	 * @return The <code>String</code> value.
+	 */
+	private String parseSampleInterval(final Element adaptive) {
+		final NodeList list = adaptive.getElementsByTagName(KConfigAdaptiveSizing.SampleInterval.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid adaptive sizing configuration. Must contain one sample interval tag.");
+		}
+		return list.item(0).getTextContent();
+	}
+
+	/**
+	 * Parse the target wait value.
+	 * @param adaptive The adaptive sizing <code>Element</code>
+	 * to parse from.
+	 * @return The <code>String</code> value.
+	 */
+	private String parseTargetWait(final Element adaptive) {
+		final NodeList list = adaptive.getElementsByTagName(KConfigAdaptiveSizing.TargetWait.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid adaptive sizing configuration. Must contain one target wait tag.");
+		}
+		return list.item(0).getTextContent();
+	}
+
+	/**
+	 * Parse the dampening value.
+	 * @param adaptive The adaptive sizing <code>Element</code>
+	 * to parse from.
+	 * @return The <code>double</code> value.
+	 */
+	private double parseDampening(final Element adaptive) {
+		final NodeList list = adaptive.getElementsByTagName(KConfigAdaptiveSizing.Dampening.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid adaptive sizing configuration. Must contain one dampening tag.");
+		}
+		return Double.valueOf(list.item(0).getTextContent());
+	}
+
+	/**
+	 * Parse the maximum step value.
+	 * @param adaptive The adaptive sizing <code>Element</code>
+	 * to parse from.
+	 * @return The <code>int</code> value.
+	 */
+	private int parseMaxStep(final Element adaptive) {
+		final NodeList list = adaptive.getElementsByTagName(KConfigAdaptiveSizing.MaxStep.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid adaptive sizing configuration. Must contain one maximum step tag.");
+		}
+		return Integer.valueOf(list.item(0).getTextContent());
+	}
+
+	/**
+	 * Parse the processor ceiling value.
+	 * @param adaptive The adaptive sizing <code>Element</code>
+	 * to parse from.
+	 * @return The <code>double</code> value.
+	 */
+	private double parseCpuCeiling(final Element adaptive) {
+		final NodeList list = adaptive.getElementsByTagName(KConfigAdaptiveSizing.CpuCeiling.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid adaptive sizing configuration. Must contain one processor ceiling tag.");
+		}
+		return Double.valueOf(list.item(0).getTextContent());
+	}
+
+	/**
+	 * Retrieve the sample interval.
+	 * @param unit The <code>TimeUnit</code> to retrieve
+	 * the interval in.
+	 * @return The <code>long</code> interval.
+	 */
+	public long getSampleInterval(final TimeUnit unit) {
+		return UTime.instance.parse(this.sampleInterval, unit);
+	}
+
+	/**
+	 * Retrieve the target queue wait time.
+	 * @param unit The <code>TimeUnit</code> to retrieve
+	 * the time in.
+	 * @return The <code>long</code> time.
+	 */
+	public long getTargetWait(final TimeUnit unit) {
+		return UTime.instance.parse(this.targetWait, unit);
+	}
+
+	/**
+	 * Create the adaptive sizing tag.
+	 * @param document The <code>Document</code> to
+	 * create the new tags from.
+	 * @return The <code>Element</code> for adaptive
+	 * sizing.
+	 */
+	public Element toXML(final Document document) {
+		final Element adaptive = document.createElement(KConfigAdaptiveSizing.Root.tag);
+		// Enabled tag.
+		final Element enabled = document.createElement(KConfigAdaptiveSizing.Enabled.tag);
+		enabled.setTextContent(String.valueOf(this.enabled));
+		adaptive.appendChild(enabled);
+		// Algorithm tag.
+		final Element algorithm = document.createElement(KConfigAdaptiveSizing.Algorithm.tag);
+		algorithm.setTextContent(this.algorithm.value);
+		adaptive.appendChild(algorithm);
+		// Sample interval tag.
+		final Element sampleInterval = document.createElement(KConfigAdaptiveSizing.SampleInterval.tag);
+		sampleInterval.setTextContent(this.sampleInterval);
+		adaptive.appendChild(sampleInterval);
+		// Target wait tag.
+		final Element targetWait = document.createElement(KConfigAdaptiveSizing.TargetWait.tag);
+		targetWait.setTextContent(this.targetWait);
+		adaptive.appendChild(targetWait);
+		// Dampening tag.
+		final Element dampening = document.createElement(KConfigAdaptiveSizing.Dampening.tag);
+		dampening.setTextContent(String.valueOf(this.dampening));
+		adaptive.appendChild(dampening);
+		// Maximum step tag.
+		final Element maxStep = document.createElement(KConfigAdaptiveSizing.MaxStep.tag);
+		maxStep.setTextContent(String.valueOf(this.maxStep));
+		adaptive.appendChild(maxStep);
+		// Processor ceiling tag.
+		final Element cpuCeiling = document.createElement(KConfigAdaptiveSizing.CpuCeiling.tag);
+		cpuCeiling.setTextContent(String.valueOf(this.cpuCeiling));
+		adaptive.appendChild(cpuCeiling);
+		return adaptive;
+	}
+
+	/**
+	 * Write this configuration to the given snapshot
+	 * output.
+	 * @param output The <code>DataOutput</code> to
+	 * write to.
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final DataOutput output) throws IOException {
+		output.writeBoolean(this.enabled);
+		USnapshot.instance.writeString(output, this.algorithm.value);
+		USnapshot.instance.writeString(output, this.sampleInterval);
+		USnapshot.instance.writeString(output, this.targetWait);
+		output.writeDouble(this.dampening);
+		output.writeInt(this.maxStep);
+		output.writeDouble(this.cpuCeiling);
+	}
+
+	/**
+	 * Validate the values of this configuration.
+	 * @throws IllegalArgumentException If any value
+	 * is invalid.
+	 */
+	public void validate() {
+		if (this.getSampleInterval(TimeUnit.MILLISECONDS) <= 0) {
+			throw new IllegalArgumentException("Invalid adaptive sizing configuration. Sample interval must be at least one millisecond.");
+		}
+		this.getTargetWait(TimeUnit.NANOSECONDS);
+		if (this.dampening < 0 || this.dampening >= 1) {
+			throw new IllegalArgumentException("Invalid adaptive sizing configuration. Dampening must be between 0 inclusive and 1 exclusive.");
+		} else if (this.maxStep <= 0) {
+			throw new IllegalArgumentException("Invalid adaptive sizing configuration. Maximum step must be positive.");
+		} else if (this.cpuCeiling <= 0 || this.cpuCeiling > 1) {
+			throw new IllegalArgumentException("Invalid adaptive sizing configuration. Processor ceiling must be between 0 exclusive and 1 inclusive.");
+		}
+	}
+
+	/**
+	 * Record the differences between this configuration
+	 * and the given one.
+	 * @param current The current <code>ConfigAdaptiveSizing</code>.
+	 * @param path The <code>String</code> path of this
+	 * configuration tag.
+	 * @param diff The <code>ConfigDiff</code> to record
+	 * the changes into.
+	 */
+	void diff(final ConfigAdaptiveSizing current, final String path, final ConfigDiff diff) {
+		// The controller reads the values on every sample.
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigAdaptiveSizing.Enabled.tag, this.enabled, current.enabled, EChangeImpact.Live);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigAdaptiveSizing.Algorithm.tag, this.algorithm, current.algorithm, EChangeImpact.Live);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigAdaptiveSizing.SampleInterval.tag, this.sampleInterval, current.sampleInterval, EChangeImpact.Live);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigAdaptiveSizing.TargetWait.tag, this.targetWait, current.targetWait, EChangeImpact.Live);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigAdaptiveSizing.Dampening.tag, this.dampening, current.dampening, EChangeImpact.Live);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigAdaptiveSizing.MaxStep.tag, this.maxStep, current.maxStep, EChangeImpact.Live);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigAdaptiveSizing.CpuCeiling.tag, this.cpuCeiling, current.cpuCeiling, EChangeImpact.Live);
+	}
+}
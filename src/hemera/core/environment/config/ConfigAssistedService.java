@@ -1,7 +1,16 @@
 package hemera.core.environment.config;
 
 import hemera.core.environment.config.key.KConfigAssistedService;
+import hemera.core.environment.config.key.KConfigBatching;
+import hemera.core.environment.config.key.KConfigOverflow;
+import hemera.core.environment.enumn.EChangeImpact;
+import hemera.core.environment.enumn.EConfigSection;
+import hemera.core.environment.util.USizing;
+import hemera.core.environment.util.USnapshot;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.concurrent.TimeUnit;
 
 import org.w3c.dom.Document;
@@ -21,6 +30,11 @@ public class ConfigAssistedService {
 	 * executor count.
 	 */
 	public final int executorCount;
+	/**
+	 * The <code>String</code> sizing expression the
+	 * executor count is resolved from.
+	 */
+	public final String executorCountExpression;
 	/**
 	 * The <code>int</code> assisted execution service
 	 * executor maximum buffer size.
@@ -31,14 +45,25 @@ public class ConfigAssistedService {
 	 * executor idle time.
 	 */
 	public final String idleTime;
+	/**
+	 * The <code>ConfigOverflow</code> instance.
+	 */
+	public final ConfigOverflow overflow;
+	/**
+	 * The <code>ConfigBatching</code> instance.
+	 */
+	public final ConfigBatching batching;
 	
 	/**
 	 * Constructor of <code>ConfigAssistedService</code>.
 	 */
 	public ConfigAssistedService() {
 		this.executorCount = 1000;
+		this.executorCountExpression = String.valueOf(this.executorCount);
 		this.maxBufferSize = 10;
 		this.idleTime = "200 " + TimeUnit.MILLISECONDS.name();
+		this.overflow = new ConfigOverflow();
+		this.batching = new ConfigBatching();
 	}
 	
 	/**
@@ -48,9 +73,26 @@ public class ConfigAssistedService {
 	 */
 	public ConfigAssistedService(final Element execution) {
 		final Element assisted = this.parseAssisted(execution);
-		this.executorCount = this.parseExecutorCount(assisted);
+		this.executorCountExpression = this.parseExecutorCount(assisted);
+		this.executorCount = USizing.instance.resolve(this.executorCountExpression);
 		this.maxBufferSize = this.parseMaxBufferSize(assisted);
 		this.idleTime = this.parseIdleTime(assisted);
+		this.overflow = new ConfigOverflow(assisted);
+		this.batching = new ConfigBatching(assisted);
+	}
+	
+	/**
+	 * Constructor of <code>ConfigAssistedService</code>.
+	 * @param buffer The <code>ByteBuffer</code> of a
+	 * configuration snapshot to read the values from.
+	 */
+	public ConfigAssistedService(final ByteBuffer buffer) {
+		this.executorCountExpression = USnapshot.instance.readString(buffer);
+		this.executorCount = USizing.instance.resolve(this.executorCountExpression);
+		this.maxBufferSize = buffer.getInt();
+		this.idleTime = USnapshot.instance.readString(buffer);
+		this.overflow = new ConfigOverflow(buffer);
+		this.batching = new ConfigBatching(buffer);
 	}
 	
 	/**
@@ -71,14 +113,14 @@ public class ConfigAssistedService {
 	 * Parse the executor count value.
 	 * @param assisted The assisted <code>Element</code>
 	 * to parse from.
-	 * @return The <code>int</code> value.
+	 * @return The <code>String</code> sizing expression.
 	 */
-	private int parseExecutorCount(final Element assisted) {
+	private String parseExecutorCount(final Element assisted) {
 		final NodeList list = assisted.getElementsByTagName(KConfigAssistedService.ExecutorCount.tag);
 		if (list == null || list.getLength() != 1) {
 			throw new IllegalArgumentException("Invalid assisted service configuration. Must contain one executor count tag.");
 		}
-		return Integer.valueOf(list.item(0).getTextContent());
+		return list.item(0).getTextContent().trim();
 	}
 	
 	/**
@@ -120,7 +162,7 @@ public class ConfigAssistedService {
 		final Element assisted = document.createElement(KConfigAssistedService.Root.tag);
 		// Executor count tag.
 		final Element executorCount = document.createElement(KConfigAssistedService.ExecutorCount.tag);
-		executorCount.setTextContent(String.valueOf(this.executorCount));
+		executorCount.setTextContent(this.executorCountExpression);
 		assisted.appendChild(executorCount);
 		// Buffer size tag.
 		final Element bufferSize = document.createElement(KConfigAssistedService.MaxBufferSize.tag);
@@ -130,6 +172,61 @@ public class ConfigAssistedService {
 		final Element idleTime = document.createElement(KConfigAssistedService.IdleTime.tag);
 		idleTime.setTextContent(this.idleTime);
 		assisted.appendChild(idleTime);
+		// Overflow tag.
+		final Element overflow = this.overflow.toXML(document);
+		assisted.appendChild(overflow);
+		// Batching tag.
+		final Element batching = this.batching.toXML(document);
+		assisted.appendChild(batching);
 		return assisted;
 	}
+	
+	/**
+	 * Write this configuration to the given snapshot
+	 * output.
+	 * @param output The <code>DataOutput</code> to
+	 * write to.
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final DataOutput output) throws IOException {
+		USnapshot.instance.writeString(output, this.executorCountExpression);
+		output.writeInt(this.maxBufferSize);
+		USnapshot.instance.writeString(output, this.idleTime);
+		this.overflow.write(output);
+		this.batching.write(output);
+	}
+	
+	/**
+	 * Validate the values of this configuration.
+	 * @throws IllegalArgumentException If any value
+	 * is invalid.
+	 */
+	public void validate() {
+		if (this.executorCount <= 0) {
+			throw new IllegalArgumentException("Invalid assisted service configuration. Executor count must be positive.");
+		} else if (this.maxBufferSize <= 0) {
+			throw new IllegalArgumentException("Invalid assisted service configuration. Maximum buffer size must be positive.");
+		}
+		this.overflow.validate();
+		this.batching.validate();
+	}
+	
+	/**
+	 * Record the differences between this configuration
+	 * and the given one.
+	 * @param current The current <code>ConfigAssistedService</code>.
+	 * @param path The <code>String</code> path of this
+	 * configuration tag.
+	 * @param diff The <code>ConfigDiff</code> to record
+	 * the changes into.
+	 */
+	void diff(final ConfigAssistedService current, final String path, final ConfigDiff diff) {
+		// Executors and their buffers are allocated when the
+		// pool is created, idle time is read on every wait.
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigAssistedService.ExecutorCount.tag, this.executorCount, current.executorCount, EChangeImpact.PoolRebuild);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigAssistedService.MaxBufferSize.tag, this.maxBufferSize, current.maxBufferSize, EChangeImpact.PoolRebuild);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigAssistedService.IdleTime.tag, this.idleTime, current.idleTime, EChangeImpact.Live);
+		this.overflow.diff(current.overflow, path+"/"+KConfigOverflow.Root.tag, diff);
+		this.batching.diff(current.batching, path+"/"+KConfigBatching.Root.tag, diff);
+	}
 }
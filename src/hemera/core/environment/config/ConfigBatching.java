@@ -0,0 +1,223 @@
+package hemera.core.environment.config;
+
+import hemera.core.environment.config.key.KConfigBatching;
+import hemera.core.environment.enumn.EChangeImpact;
+import hemera.core.environment.enumn.EConfigSection;
+import hemera.core.environment.util.USnapshot;
+import hemera.core.environment.util.UTime;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * <code>ConfigBatching</code> defines the structure of
+ * the task batching configuration of the assisted
+ * execution service executors.
+ * <p>
+ * When batching is enabled, an executor drains up to
+ * the maximum batch size of tasks from its buffer at a
+ * time, waiting at most the maximum linger time for
+ * the batch to fill after the first task, and executes
+ * them as a batch.
+ * <p>
+ * This section is optional. Configuration files that do
+ * not contain it use the default values, which disable
+ * batching.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class ConfigBatching {
+	/**
+	 * The <code>boolean</code> flag indicating if tasks
+	 * are executed in batches.
+	 */
+	public final boolean enabled;
+	/**
+	 * The <code>int</code> maximum number of tasks in
+	 * a batch.
+	 */
+	public final int maxBatchSize;
+	/**
+	 * The <code>String</code> maximum time to wait for
+	 * more tasks after the first task of a batch.
+	 */
+	public final String maxLinger;
+
+	/**
+	 * Constructor of <code>ConfigBatching</code>.
+	 */
+	public ConfigBatching() {
+		this.enabled = false;
+		this.maxBatchSize = 64;
+		this.maxLinger = "1 " + TimeUnit.MILLISECONDS.name();
+	}
+
+	/**
+	 * Constructor of <code>ConfigBatching</code>.
+	 * @param assisted The <code>Element</code> of the
+	 * assisted service tag to parse from.
+	 */
+	public ConfigBatching(final Element assisted) {
+		final Element batching = this.parseBatching(assisted);
+		if (batching == null) {
+			this.enabled = false;
+			this.maxBatchSize = 64;
+			this.maxLinger = "1 " + TimeUnit.MILLISECONDS.name();
+		} else {
+			this.enabled = this.parseEnabled(batching);
+			this.maxBatchSize = this.parseMaxBatchSize(batching);
+			this.maxLinger = this.parseMaxLinger(batching);
+		}
+	}
+
+	/**
+	 * Constructor of <code>ConfigBatching</code>.
+	 * @param buffer The <code>ByteBuffer</code> of a
+	 * configuration snapshot to read the values from.
+	 */
+	public ConfigBatching(final ByteBuffer buffer) {
+		this.enabled = USnapshot.instance.readBoolean(buffer);
+		this.maxBatchSize = buffer.getInt();
+		this.maxLinger = USnapshot.instance.readString(buffer);
+	}
+
+	/**
+	 * Parse the optional batching tag.
+	 * @param assisted The <code>Element</code> of the
+	 * assisted service tag to parse from.
+	 * @return The batching <code>Element</code>. Or
+	 * <code>null</code> if there is no such tag.
+	 */
+	private Element parseBatching(final Element assisted) {
+		final NodeList list = assisted.getElementsByTagName(KConfigBatching.Root.tag);
+		if (list == null || list.getLength() == 0) return null;
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid assisted service configuration. Must contain at most one batching tag.");
+		}
+		return (Element)list.item(0);
+	}
+
+	/**
+	 * Parse the enabled value.
+	 * @param batching The batching <code>Element</code>
+	 * to parse from.
+	 * @return The <code>boolean</code> value.
+	 */
+	private boolean parseEnabled(final Element batching) {
+		final NodeList list = batching.getElementsByTagName(KConfigBatching.Enabled.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid batching configuration. Must contain one enabled tag.");
+		}
+		return Boolean.valueOf(list.item(0).getTextContent().trim());
+	}
+
+	/**
+	 * Parse the maximum batch size value.
+	 * @param batching The batching <code>Element</code>
+	 * to parse from.
+	 * @return The <code>int</code> value.
+	 */
+	private int parseMaxBatchSize(final Element batching) {
+		final NodeList list = batching.getElementsByTagName(KConfigBatching.MaxBatchSize.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid batching configuration. Must contain one maximum batch size tag.");
+		}
+		return Integer.valueOf(list.item(0).getTextContent().trim());
+	}
+
+	/**
+	 * Parse the maximum linger value.
+	 * @param batching The batching <code>Element</code>
+	 * to parse from.
+	 * @return The <code>String</code> value.
+	 */
+	private String parseMaxLinger(final Element batching) {
+		final NodeList list = batching.getElementsByTagName(KConfigBatching.MaxLinger.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid batching configuration. Must contain one maximum linger tag.");
+		}
+		return list.item(0).getTextContent();
+	}
+
+	/**
+	 * Retrieve the maximum linger time.
+	 * @param unit The <code>TimeUnit</code> to retrieve
+	 * the time in.
+	 * @return The <code>long</code> time.
+	 */
+	public long getMaxLinger(final TimeUnit unit) {
+		return UTime.instance.parse(this.maxLinger, unit);
+	}
+
+	/**
+	 * Create the batching tag.
+	 * @param document The <code>Document</code> to
+	 * create the new tags from.
+	 * @return The <code>Element</code> for batching.
+	 */
+	public Element toXML(final Document document) {
+		final Element batching = document.createElement(KConfigBatching.Root.tag);
+		// Enabled tag.
+		final Element enabled = document.createElement(KConfigBatching.Enabled.tag);
+		enabled.setTextContent(String.valueOf(this.enabled));
+		batching.appendChild(enabled);
+		// Maximum batch size tag.
+		final Element maxBatchSize = document.createElement(KConfigBatching.MaxBatchSize.tag);
+		maxBatchSize.setTextContent(String.valueOf(this.maxBatchSize));
+		batching.appendChild(maxBatchSize);
+		// Maximum linger tag.
+		final Element maxLinger = document.createElement(KConfigBatching.MaxLinger.tag);
+		maxLinger.setTextContent(this.maxLinger);
+		batching.appendChild(maxLinger);
+		return batching;
+	}
+
+	/**
+	 * Write this configuration to the given snapshot
+	 * output.
+	 * @param output The <code>DataOutput</code> to
+	 * write to.
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final DataOutput output) throws IOException {
+		output.writeBoolean(this.enabled);
+		output.writeInt(this.maxBatchSize);
+		USnapshot.instance.writeString(output, this.maxLinger);
+	}
+
+	/**
+	 * Validate the values of this configuration.
+	 * @throws IllegalArgumentException If any value
+	 * is invalid.
+	 */
+	public void validate() {
+		if (this.maxBatchSize <= 0) {
+			throw new IllegalArgumentException("Invalid batching configuration. Maximum batch size must be positive.");
+		} else if (this.getMaxLinger(TimeUnit.NANOSECONDS) < 0) {
+			throw new IllegalArgumentException("Invalid batching configuration. Maximum linger must not be negative.");
+		}
+	}
+
+	/**
+	 * Record the differences between this configuration
+	 * and the given one.
+	 * @param current The current <code>ConfigBatching</code>.
+	 * @param path The <code>String</code> path of this
+	 * configuration tag.
+	 * @param diff The <code>ConfigDiff</code> to record
+	 * the changes into.
+	 */
+	void diff(final ConfigBatching current, final String path, final ConfigDiff diff) {
+		// The executors read the values on every drain.
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigBatching.Enabled.tag, this.enabled, current.enabled, EChangeImpact.Live);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigBatching.MaxBatchSize.tag, this.maxBatchSize, current.maxBatchSize, EChangeImpact.Live);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigBatching.MaxLinger.tag, this.maxLinger, current.maxLinger, EChangeImpact.Live);
+	}
+}
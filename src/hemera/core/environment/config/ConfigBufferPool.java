@@ -0,0 +1,272 @@
+package hemera.core.environment.config;
+
+import hemera.core.environment.config.key.KConfigBufferPool;
+import hemera.core.environment.enumn.EChangeImpact;
+import hemera.core.environment.enumn.EConfigSection;
+import hemera.core.environment.util.USizing;
+import hemera.core.environment.util.USnapshot;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * <code>ConfigBufferPool</code> defines the structure of
+ * the pool of the direct buffers the connections borrow
+ * while reading and writing.
+ * <p>
+ * The buffers are grouped into size classes of powers
+ * of two, from the smallest size class up to the socket
+ * buffer size. The buffers of a size class are carved
+ * from direct memory slabs. Each thread caches a few
+ * released buffers of every size class, and the memory
+ * of all the slabs is bounded by the maximum memory.
+ * <p>
+ * This section is optional. Configuration files that do
+ * not contain it use the default values.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class ConfigBufferPool {
+	/**
+	 * The <code>int</code> size in bytes of the smallest
+	 * size class.
+	 */
+	public final int minClassSize;
+	/**
+	 * The <code>String</code> sizing expression the
+	 * smallest size class is resolved from.
+	 */
+	public final String minClassSizeExpression;
+	/**
+	 * The <code>int</code> size in bytes of the slabs
+	 * the buffers are carved from. The buffers of a size
+	 * class larger than a slab are allocated one per slab.
+	 */
+	public final int slabSize;
+	/**
+	 * The <code>String</code> sizing expression the slab
+	 * size is resolved from.
+	 */
+	public final String slabSizeExpression;
+	/**
+	 * The <code>int</code> maximum number of released
+	 * buffers of each size class cached by each thread.
+	 */
+	public final int threadCacheSize;
+	/**
+	 * The <code>long</code> maximum size in bytes of all
+	 * the slabs.
+	 */
+	public final long maxMemory;
+	/**
+	 * The <code>String</code> sizing expression the
+	 * maximum memory is resolved from.
+	 */
+	public final String maxMemoryExpression;
+
+	/**
+	 * Constructor of <code>ConfigBufferPool</code>.
+	 */
+	public ConfigBufferPool() {
+		this.minClassSizeExpression = "4096";
+		this.minClassSize = USizing.instance.resolve(this.minClassSizeExpression);
+		this.slabSizeExpression = "4194304";
+		this.slabSize = USizing.instance.resolve(this.slabSizeExpression);
+		this.threadCacheSize = 16;
+		this.maxMemoryExpression = "heap/4";
+		this.maxMemory = USizing.instance.resolveLong(this.maxMemoryExpression);
+	}
+
+	/**
+	 * Constructor of <code>ConfigBufferPool</code>.
+	 * @param socket The <code>Element</code> of the
+	 * socket tag to parse from.
+	 */
+	public ConfigBufferPool(final Element socket) {
+		final Element pool = this.parseBufferPool(socket);
+		if (pool == null) {
+			this.minClassSizeExpression = "4096";
+			this.slabSizeExpression = "4194304";
+			this.threadCacheSize = 16;
+			this.maxMemoryExpression = "heap/4";
+		} else {
+			this.minClassSizeExpression = this.parseMinClassSize(pool);
+			this.slabSizeExpression = this.parseSlabSize(pool);
+			this.threadCacheSize = this.parseThreadCacheSize(pool);
+			this.maxMemoryExpression = this.parseMaxMemory(pool);
+		}
+		this.minClassSize = USizing.instance.resolve(this.minClassSizeExpression);
+		this.slabSize = USizing.instance.resolve(this.slabSizeExpression);
+		this.maxMemory = USizing.instance.resolveLong(this.maxMemoryExpression);
+	}
+
+	/**
+	 * Constructor of <code>ConfigBufferPool</code>.
+	 * @param buffer The <code>ByteBuffer</code> of a
+	 * configuration snapshot to read the values from.
+	 */
+	public ConfigBufferPool(final ByteBuffer buffer) {
+		this.minClassSizeExpression = USnapshot.instance.readString(buffer);
+		this.minClassSize = USizing.instance.resolve(this.minClassSizeExpression);
+		this.slabSizeExpression = USnapshot.instance.readString(buffer);
+		this.slabSize = USizing.instance.resolve(this.slabSizeExpression);
+		this.threadCacheSize = buffer.getInt();
+		this.maxMemoryExpression = USnapshot.instance.readString(buffer);
+		this.maxMemory = USizing.instance.resolveLong(this.maxMemoryExpression);
+	}
+
+	/**
+	 * Parse the optional buffer pool tag.
+	 * @param socket The <code>Element</code> of the
+	 * socket tag to parse from.
+	 * @return The buffer pool <code>Element</code>. Or
+	 * <code>null</code> if there is no such tag.
+	 */
+	private Element parseBufferPool(final Element socket) {
+		final NodeList list = socket.getElementsByTagName(KConfigBufferPool.Root.tag);
+		if (list == null || list.getLength() == 0) return null;
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid socket configuration. Must contain at most one buffer pool tag.");
+		}
+		return (Element)list.item(0);
+	}
+
+	/**
+	 * Parse the smallest size class value.
+	 * @param pool The buffer pool <code>Element</code>
+	 * to parse from.
+	 * @return The <code>String</code> sizing expression.
+	 */
+	private String parseMinClassSize(final Element pool) {
+		final NodeList list = pool.getElementsByTagName(KConfigBufferPool.MinClassSize.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid buffer pool configuration. Must contain one minimum class size tag.");
+		}
+		return list.item(0).getTextContent().trim();
+	}
+
+	/**
+	 * Parse the slab size value.
+	 * @param pool The buffer pool <code>Element</code>
+	 * to parse from.
+	 * @return The <code>String</code> sizing expression.
+	 */
+	private String parseSlabSize(final Element pool) {
+		final NodeList list = pool.getElementsByTagName(KConfigBufferPool.SlabSize.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid buffer pool configuration. Must contain one slab size tag.");
+		}
+		return list.item(0).getTextContent().trim();
+	}
+
+	/**
+	 * Parse the thread cache size value.
+	 * @param pool The buffer pool <code>Element</code>
+	 * to parse from.
+	 * @return The <code>int</code> value.
+	 */
+	private int parseThreadCacheSize(final Element pool) {
+		final NodeList list = pool.getElementsByTagName(KConfigBufferPool.ThreadCacheSize.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid buffer pool configuration. Must contain one thread cache size tag.");
+		}
+		return Integer.valueOf(list.item(0).getTextContent().trim());
+	}
+
+	/**
+	 * Parse the maximum memory value.
+	 * @param pool The buffer pool <code>Element</code>
+	 * to parse from.
+	 * @return The <code>String</code> sizing expression.
+	 */
+	private String parseMaxMemory(final Element pool) {
+		final NodeList list = pool.getElementsByTagName(KConfigBufferPool.MaxMemory.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid buffer pool configuration. Must contain one maximum memory tag.");
+		}
+		return list.item(0).getTextContent().trim();
+	}
+
+	/**
+	 * Create the buffer pool tag.
+	 * @param document The <code>Document</code> to
+	 * create the new tags from.
+	 * @return The <code>Element</code> for buffer pool.
+	 */
+	public Element toXML(final Document document) {
+		final Element pool = document.createElement(KConfigBufferPool.Root.tag);
+		// Minimum class size tag.
+		final Element minClassSize = document.createElement(KConfigBufferPool.MinClassSize.tag);
+		minClassSize.setTextContent(this.minClassSizeExpression);
+		pool.appendChild(minClassSize);
+		// Slab size tag.
+		final Element slabSize = document.createElement(KConfigBufferPool.SlabSize.tag);
+		slabSize.setTextContent(this.slabSizeExpression);
+		pool.appendChild(slabSize);
+		// Thread cache size tag.
+		final Element threadCacheSize = document.createElement(KConfigBufferPool.ThreadCacheSize.tag);
+		threadCacheSize.setTextContent(String.valueOf(this.threadCacheSize));
+		pool.appendChild(threadCacheSize);
+		// Maximum memory tag.
+		final Element maxMemory = document.createElement(KConfigBufferPool.MaxMemory.tag);
+		maxMemory.setTextContent(this.maxMemoryExpression);
+		pool.appendChild(maxMemory);
+		return pool;
+	}
+
+	/**
+	 * Write this configuration to the given snapshot
+	 * output.
+	 * @param output The <code>DataOutput</code> to
+	 * write to.
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final DataOutput output) throws IOException {
+		USnapshot.instance.writeString(output, this.minClassSizeExpression);
+		USnapshot.instance.writeString(output, this.slabSizeExpression);
+		output.writeInt(this.threadCacheSize);
+		USnapshot.instance.writeString(output, this.maxMemoryExpression);
+	}
+
+	/**
+	 * Validate the values of this configuration.
+	 * @throws IllegalArgumentException If any value
+	 * is invalid.
+	 */
+	public void validate() {
+		if (this.minClassSize <= 0 || Integer.bitCount(this.minClassSize) != 1) {
+			throw new IllegalArgumentException("Invalid buffer pool configuration. Minimum class size must be a power of two.");
+		} else if (this.slabSize < this.minClassSize) {
+			throw new IllegalArgumentException("Invalid buffer pool configuration. Slab size must not be less than the minimum class size.");
+		} else if (this.threadCacheSize < 0) {
+			throw new IllegalArgumentException("Invalid buffer pool configuration. Thread cache size must not be negative.");
+		} else if (this.maxMemory < this.slabSize) {
+			throw new IllegalArgumentException("Invalid buffer pool configuration. Maximum memory must not be less than the slab size.");
+		}
+	}
+
+	/**
+	 * Record the differences between this configuration
+	 * and the given one.
+	 * @param current The current <code>ConfigBufferPool</code>.
+	 * @param path The <code>String</code> path of this
+	 * configuration tag.
+	 * @param diff The <code>ConfigDiff</code> to record
+	 * the changes into.
+	 */
+	void diff(final ConfigBufferPool current, final String path, final ConfigDiff diff) {
+		// The size classes and slabs are laid out when the
+		// pool is created, the cap is read on every slab
+		// allocation.
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigBufferPool.MinClassSize.tag, this.minClassSize, current.minClassSize, EChangeImpact.Restart);
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigBufferPool.SlabSize.tag, this.slabSize, current.slabSize, EChangeImpact.Restart);
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigBufferPool.ThreadCacheSize.tag, this.threadCacheSize, current.threadCacheSize, EChangeImpact.Restart);
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigBufferPool.MaxMemory.tag, this.maxMemory, current.maxMemory, EChangeImpact.Live);
+	}
+}
@@ -0,0 +1,62 @@
+package hemera.core.environment.config;
+
+import hemera.core.environment.enumn.EChangeImpact;
+import hemera.core.environment.enumn.EConfigSection;
+
+/**
+ * <code>ConfigChange</code> defines the immutable unit
+ * representing a single value change between two
+ * environment configurations.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class ConfigChange {
+	/**
+	 * The <code>EConfigSection</code> the changed value
+	 * belongs to.
+	 */
+	public final EConfigSection section;
+	/**
+	 * The <code>String</code> path of the changed value
+	 * formed by its configuration tags, such as
+	 * <code>runtime/socket/timeout</code>.
+	 */
+	public final String path;
+	/**
+	 * The <code>Object</code> previous value.
+	 */
+	public final Object previous;
+	/**
+	 * The <code>Object</code> current value.
+	 */
+	public final Object current;
+	/**
+	 * The <code>EChangeImpact</code> of applying the
+	 * change.
+	 */
+	public final EChangeImpact impact;
+
+	/**
+	 * Constructor of <code>ConfigChange</code>.
+	 * @param section The <code>EConfigSection</code>.
+	 * @param path The <code>String</code> value path.
+	 * @param previous The <code>Object</code> previous
+	 * value.
+	 * @param current The <code>Object</code> current
+	 * value.
+	 * @param impact The <code>EChangeImpact</code>.
+	 */
+	ConfigChange(final EConfigSection section, final String path, final Object previous, final Object current, final EChangeImpact impact) {
+		this.section = section;
+		this.path = path;
+		this.previous = previous;
+		this.current = current;
+		this.impact = impact;
+	}
+
+	@Override
+	public String toString() {
+		return this.path + ": " + this.previous + " -> " + this.current + " (" + this.impact.name() + ")";
+	}
+}
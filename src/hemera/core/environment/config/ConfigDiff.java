@@ -0,0 +1,155 @@
+package hemera.core.environment.config;
+
+import hemera.core.environment.enumn.EChangeImpact;
+import hemera.core.environment.enumn.EConfigSection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <code>ConfigDiff</code> defines the immutable unit
+ * representing all the value changes between two
+ * environment configurations, each classified by the
+ * cost of applying it to a running environment.
+ * <p>
+ * The runtime can use the overall impact to perform
+ * the cheapest possible update, such as adjusting the
+ * running services directly when all changes are live
+ * applicable.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class ConfigDiff {
+	/**
+	 * The previous <code>Configuration</code>.
+	 */
+	public final Configuration previous;
+	/**
+	 * The current <code>Configuration</code>.
+	 */
+	public final Configuration current;
+	/**
+	 * The <code>List</code> of all the changes.
+	 */
+	private final List<ConfigChange> changes;
+
+	/**
+	 * Constructor of <code>ConfigDiff</code>.
+	 * @param previous The previous <code>Configuration</code>.
+	 * @param current The current <code>Configuration</code>.
+	 */
+	public ConfigDiff(final Configuration previous, final Configuration current) {
+		this.previous = previous;
+		this.current = current;
+		this.changes = new ArrayList<ConfigChange>();
+		previous.diff(current, this);
+	}
+
+	/**
+	 * Compare the given values and record a change if
+	 * they are different.
+	 * @param section The <code>EConfigSection</code> the
+	 * values belong to.
+	 * @param path The <code>String</code> value path.
+	 * @param previous The <code>Object</code> previous
+	 * value.
+	 * @param current The <code>Object</code> current
+	 * value.
+	 * @param impact The <code>EChangeImpact</code> of
+	 * the change.
+	 */
+	void compare(final EConfigSection section, final String path, final Object previous, final Object current, final EChangeImpact impact) {
+		final boolean equal = (previous==null) ? (current==null) : previous.equals(current);
+		if (equal) return;
+		this.changes.add(new ConfigChange(section, path, previous, current, impact));
+	}
+
+	/**
+	 * Compare the given secret values and record a
+	 * change with masked values if they are different.
+	 * @param section The <code>EConfigSection</code> the
+	 * values belong to.
+	 * @param path The <code>String</code> value path.
+	 * @param previous The <code>String</code> previous
+	 * value.
+	 * @param current The <code>String</code> current
+	 * value.
+	 * @param impact The <code>EChangeImpact</code> of
+	 * the change.
+	 */
+	void compareSecret(final EConfigSection section, final String path, final String previous, final String current, final EChangeImpact impact) {
+		final boolean equal = (previous==null) ? (current==null) : previous.equals(current);
+		if (equal) return;
+		final String masked = "********";
+		this.changes.add(new ConfigChange(section, path, (previous==null) ? null : masked, (current==null) ? null : masked, impact));
+	}
+
+	/**
+	 * Check if there are no changes.
+	 * @return <code>true</code> if the configurations
+	 * are equal. <code>false</code> otherwise.
+	 */
+	public boolean isEmpty() {
+		return this.changes.isEmpty();
+	}
+
+	/**
+	 * Check if the given section has any changes.
+	 * @param section The <code>EConfigSection</code>.
+	 * @return <code>true</code> if the section has
+	 * changes. <code>false</code> otherwise.
+	 */
+	public boolean hasChanges(final EConfigSection section) {
+		for (final ConfigChange change : this.changes) {
+			if (change.section == section) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Retrieve the overall impact of applying all the
+	 * changes, which is the most expensive impact of
+	 * any single change.
+	 * @return The <code>EChangeImpact</code>. Or
+	 * <code>null</code> if there are no changes.
+	 */
+	public EChangeImpact getImpact() {
+		EChangeImpact impact = null;
+		for (final ConfigChange change : this.changes) {
+			if (impact == null || change.impact.compareTo(impact) > 0) {
+				impact = change.impact;
+			}
+		}
+		return impact;
+	}
+
+	/**
+	 * Retrieve all the changes.
+	 * @return The unmodifiable <code>List</code> of
+	 * all the <code>ConfigChange</code>.
+	 */
+	public List<ConfigChange> getChanges() {
+		return Collections.unmodifiableList(this.changes);
+	}
+
+	/**
+	 * Retrieve all the changes of the given impact.
+	 * @param impact The <code>EChangeImpact</code>.
+	 * @return The <code>List</code> of all the
+	 * <code>ConfigChange</code> with the impact.
+	 */
+	public List<ConfigChange> getChanges(final EChangeImpact impact) {
+		final ArrayList<ConfigChange> list = new ArrayList<ConfigChange>();
+		for (final ConfigChange change : this.changes) {
+			if (change.impact == impact) list.add(change);
+		}
+		return list;
+	}
+
+	@Override
+	public String toString() {
+		return this.changes.toString();
+	}
+}
@@ -1,6 +1,22 @@
 package hemera.core.environment.config;
 
+import hemera.core.environment.config.key.KConfigAssistedService;
 import hemera.core.environment.config.key.KConfigExecutionService;
+import hemera.core.environment.config.key.KConfigForkJoinService;
+import hemera.core.environment.config.key.KConfigHandler;
+import hemera.core.environment.config.key.KConfigLanes;
+import hemera.core.environment.config.key.KConfigListener;
+import hemera.core.environment.config.key.KConfigScalableService;
+import hemera.core.environment.config.key.KConfigVirtualService;
+import hemera.core.environment.enumn.EChangeImpact;
+import hemera.core.environment.enumn.EConfigSection;
+import hemera.core.environment.enumn.EExecutionMode;
+import hemera.core.environment.util.USnapshot;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -9,16 +25,21 @@ import org.w3c.dom.NodeList;
 /**
  * <code>ConfigExecutionService</code> defines the
  * structure of the execution service configuration.
+ * <p>
+ * Configuration files written before the execution
+ * mode was introduced only contain the use scalable
+ * service flag, which is parsed into the assisted or
+ * the scalable mode.
  *
  * @author Yi Wang (Neakor)
- * @version 1.0.0
+ * @version 1.0.2
  */
 public class ConfigExecutionService {
 	/**
-	 * The <code>boolean</code> use scalable service
-	 * instead of default assisted service flag.
+	 * The <code>EExecutionMode</code> selecting the
+	 * execution service to use.
 	 */
-	public final boolean useScalableService;
+	public final EExecutionMode mode;
 	/**
 	 * The <code>ConfigListener</code> instance.
 	 */
@@ -35,16 +56,31 @@ public class ConfigExecutionService {
 	 * The <code>ConfigScalableService</code> instance.
 	 */
 	public final ConfigScalableService scalable;
+	/**
+	 * The <code>ConfigVirtualService</code> instance.
+	 */
+	public final ConfigVirtualService virtual;
+	/**
+	 * The <code>ConfigForkJoinService</code> instance.
+	 */
+	public final ConfigForkJoinService forkJoin;
+	/**
+	 * The <code>ConfigLanes</code> instance.
+	 */
+	public final ConfigLanes lanes;
 	
 	/**
 	 * Constructor of <code>ConfigExecutionService</code>.
 	 */
 	public ConfigExecutionService() {
-		this.useScalableService = false;
+		this.mode = EExecutionMode.Assisted;
 		this.listener = new ConfigListener();
 		this.handler = new ConfigHandler();
 		this.assisted = new ConfigAssistedService();
 		this.scalable = new ConfigScalableService();
+		this.virtual = new ConfigVirtualService();
+		this.forkJoin = new ConfigForkJoinService();
+		this.lanes = new ConfigLanes();
 	}
 	
 	/**
@@ -54,11 +90,30 @@ public class ConfigExecutionService {
 	 */
 	public ConfigExecutionService(final Element runtime) {
 		final Element execution = this.parseExecutionService(runtime);
-		this.useScalableService = this.parseUseScalableService(execution);
+		this.mode = this.parseMode(execution);
 		this.listener = new ConfigListener(execution);
 		this.handler = new ConfigHandler(execution);
 		this.assisted = new ConfigAssistedService(execution);
 		this.scalable = new ConfigScalableService(execution);
+		this.virtual = new ConfigVirtualService(execution);
+		this.forkJoin = new ConfigForkJoinService(execution);
+		this.lanes = new ConfigLanes(execution);
+	}
+	
+	/**
+	 * Constructor of <code>ConfigExecutionService</code>.
+	 * @param buffer The <code>ByteBuffer</code> of a
+	 * configuration snapshot to read the values from.
+	 */
+	public ConfigExecutionService(final ByteBuffer buffer) {
+		this.mode = EExecutionMode.parse(USnapshot.instance.readString(buffer));
+		this.listener = new ConfigListener(buffer);
+		this.handler = new ConfigHandler(buffer);
+		this.assisted = new ConfigAssistedService(buffer);
+		this.scalable = new ConfigScalableService(buffer);
+		this.virtual = new ConfigVirtualService(buffer);
+		this.forkJoin = new ConfigForkJoinService(buffer);
+		this.lanes = new ConfigLanes(buffer);
 	}
 	
 	/**
@@ -75,16 +130,35 @@ public class ConfigExecutionService {
 		return (Element)list.item(0);
 	}
 	
+	/**
+	 * Parse the execution mode value, falling back to
+	 * the use scalable service flag if there is no
+	 * mode tag.
+	 * @param execution The <code>Element</code> of the
+	 * execution service tag to parse from.
+	 * @return The <code>EExecutionMode</code> value.
+	 */
+	private EExecutionMode parseMode(final Element execution) {
+		final NodeList list = execution.getElementsByTagName(KConfigExecutionService.Mode.tag);
+		if (list != null && list.getLength() == 1) {
+			return EExecutionMode.parse(list.item(0).getTextContent().trim());
+		} else if (list != null && list.getLength() > 1) {
+			throw new IllegalArgumentException("Invalid execution service configuration. Must contain at most one mode tag.");
+		}
+		final boolean useScalable = this.parseUseScalableService(execution);
+		return (useScalable) ? EExecutionMode.Scalable : EExecutionMode.Assisted;
+	}
+	
 	/**
 	 * Parse the use scalable service value.
 	 * @param execution The <code>Element</code> of the
 	 * execution service tag to parse from.
-	 * @return The <code>int</code> value.
+	 * @return The <code>boolean</code> value.
 	 */
 	private boolean parseUseScalableService(final Element execution) {
 		final NodeList list = execution.getElementsByTagName(KConfigExecutionService.UseScalableService.tag);
 		if (list == null || list.getLength() != 1) {
-			throw new IllegalArgumentException("Invalid execution service configuration. Must contain one use scalable service tag.");
+			throw new IllegalArgumentException("Invalid execution service configuration. Must contain one mode or use scalable service tag.");
 		}
 		return Boolean.valueOf(list.item(0).getTextContent());
 	}
@@ -98,9 +172,13 @@ public class ConfigExecutionService {
 	 */
 	public Element toXML(final Document document) {
 		final Element executionService = document.createElement(KConfigExecutionService.Root.tag);
-		// Use scalable service tag.
+		// Mode tag.
+		final Element mode = document.createElement(KConfigExecutionService.Mode.tag);
+		mode.setTextContent(this.mode.value);
+		executionService.appendChild(mode);
+		// Use scalable service tag kept for earlier runtimes.
 		final Element useScalable = document.createElement(KConfigExecutionService.UseScalableService.tag);
-		useScalable.setTextContent(String.valueOf(false));
+		useScalable.setTextContent(String.valueOf(this.mode == EExecutionMode.Scalable));
 		executionService.appendChild(useScalable);
 		// Listener tag.
 		final Element listener = this.listener.toXML(document);
@@ -114,6 +192,93 @@ public class ConfigExecutionService {
 		// Scalable service tag.
 		final Element scalable = this.scalable.toXML(document);
 		executionService.appendChild(scalable);
+		// Virtual service tag.
+		final Element virtual = this.virtual.toXML(document);
+		executionService.appendChild(virtual);
+		// Fork-join service tag.
+		final Element forkJoin = this.forkJoin.toXML(document);
+		executionService.appendChild(forkJoin);
+		// Priority lanes tag.
+		final Element lanes = this.lanes.toXML(document);
+		executionService.appendChild(lanes);
 		return executionService;
 	}
+	
+	/**
+	 * Write this configuration to the given snapshot
+	 * output.
+	 * @param output The <code>DataOutput</code> to
+	 * write to.
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final DataOutput output) throws IOException {
+		USnapshot.instance.writeString(output, this.mode.value);
+		this.listener.write(output);
+		this.handler.write(output);
+		this.assisted.write(output);
+		this.scalable.write(output);
+		this.virtual.write(output);
+		this.forkJoin.write(output);
+		this.lanes.write(output);
+	}
+	
+	/**
+	 * Add the JVM arguments of the platform flags this
+	 * configuration depends on.
+	 * @param arguments The <code>List</code> of
+	 * <code>String</code> arguments to add to.
+	 */
+	void addArguments(final List<String> arguments) {
+		this.virtual.addArguments(arguments);
+	}
+	
+	/**
+	 * Validate the values of this configuration.
+	 * @throws IllegalArgumentException If any value
+	 * is invalid.
+	 */
+	public void validate() {
+		this.listener.validate();
+		this.handler.validate();
+		this.assisted.validate();
+		this.scalable.validate();
+		this.virtual.validate();
+		this.forkJoin.validate();
+		this.lanes.validate();
+	}
+	
+	/**
+	 * Retrieve the maximum number of tasks the execution
+	 * service of the configured mode executes at the same
+	 * time.
+	 * @return The <code>int</code> number of executors.
+	 */
+	public int getMaxExecutors() {
+		switch (this.mode) {
+		case Scalable: return this.scalable.maxExecutor;
+		case Virtual: return this.virtual.maxConcurrency;
+		case ForkJoin: return this.forkJoin.getParallelism() + this.forkJoin.spareThreads;
+		default: return this.assisted.executorCount;
+		}
+	}
+	
+	/**
+	 * Record the differences between this configuration
+	 * and the given one.
+	 * @param current The current <code>ConfigExecutionService</code>.
+	 * @param path The <code>String</code> path of this
+	 * configuration tag.
+	 * @param diff The <code>ConfigDiff</code> to record
+	 * the changes into.
+	 */
+	void diff(final ConfigExecutionService current, final String path, final ConfigDiff diff) {
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigExecutionService.Mode.tag, this.mode, current.mode, EChangeImpact.PoolRebuild);
+		this.listener.diff(current.listener, path+"/"+KConfigListener.Root.tag, diff);
+		this.handler.diff(current.handler, path+"/"+KConfigHandler.Root.tag, diff);
+		this.assisted.diff(current.assisted, path+"/"+KConfigAssistedService.Root.tag, diff);
+		this.scalable.diff(current.scalable, path+"/"+KConfigScalableService.Root.tag, diff);
+		this.virtual.diff(current.virtual, path+"/"+KConfigVirtualService.Root.tag, diff);
+		this.forkJoin.diff(current.forkJoin, path+"/"+KConfigForkJoinService.Root.tag, diff);
+		this.lanes.diff(current.lanes, path+"/"+KConfigLanes.Root.tag, diff);
+	}
 }
@@ -0,0 +1,251 @@
+package hemera.core.environment.config;
+
+import hemera.core.environment.config.key.KConfigForkJoinService;
+import hemera.core.environment.enumn.EChangeImpact;
+import hemera.core.environment.enumn.EConfigSection;
+import hemera.core.environment.enumn.ESaturationPolicy;
+import hemera.core.environment.util.USnapshot;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * <code>ConfigForkJoinService</code> defines the structure
+ * of the work-stealing fork-join execution service
+ * configuration.
+ * <p>
+ * This section is optional. Configuration files that do
+ * not contain it use the default values.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class ConfigForkJoinService {
+	/**
+	 * The <code>int</code> target number of actively
+	 * executing worker threads. <code>0</code> means
+	 * the number of available processors is used.
+	 */
+	public final int parallelism;
+	/**
+	 * The <code>boolean</code> flag indicating if the
+	 * locally queued tasks that are never joined are
+	 * executed in first-in-first-out order instead of
+	 * the default last-in-first-out order.
+	 */
+	public final boolean asyncMode;
+	/**
+	 * The <code>int</code> maximum number of spare
+	 * threads created in addition to the parallelism
+	 * to compensate for blocked workers.
+	 */
+	public final int spareThreads;
+	/**
+	 * The <code>ESaturationPolicy</code> applied when a
+	 * blocked worker requires compensation but all the
+	 * spare threads are in use.
+	 */
+	public final ESaturationPolicy saturation;
+
+	/**
+	 * Constructor of <code>ConfigForkJoinService</code>.
+	 */
+	public ConfigForkJoinService() {
+		this.parallelism = 0;
+		this.asyncMode = false;
+		this.spareThreads = 256;
+		this.saturation = ESaturationPolicy.Reject;
+	}
+
+	/**
+	 * Constructor of <code>ConfigForkJoinService</code>.
+	 * @param execution The <code>Element</code> of
+	 * execution service tag to parse from.
+	 */
+	public ConfigForkJoinService(final Element execution) {
+		final Element forkJoin = this.parseForkJoin(execution);
+		if (forkJoin == null) {
+			this.parallelism = 0;
+			this.asyncMode = false;
+			this.spareThreads = 256;
+			this.saturation = ESaturationPolicy.Reject;
+		} else {
+			this.parallelism = this.parseParallelism(forkJoin);
+			this.asyncMode = this.parseAsyncMode(forkJoin);
+			this.spareThreads = this.parseSpareThreads(forkJoin);
+			this.saturation = this.parseSaturation(forkJoin);
+		}
+	}
+
+	/**
+	 * Constructor of <code>ConfigForkJoinService</code>.
+	 * @param buffer The <code>ByteBuffer</code> of a
+	 * configuration snapshot to read the values from.
+	 */
+	public ConfigForkJoinService(final ByteBuffer buffer) {
+		this.parallelism = buffer.getInt();
+		this.asyncMode = USnapshot.instance.readBoolean(buffer);
+		this.spareThreads = buffer.getInt();
+		this.saturation = ESaturationPolicy.parse(USnapshot.instance.readString(buffer));
+	}
+
+	/**
+	 * Parse the optional fork-join service tag.
+	 * @param execution The <code>Element</code> of
+	 * execution service tag to parse from.
+	 * @return The fork-join service <code>Element</code>.
+	 * Or <code>null</code> if there is no such tag.
+	 */
+	private Element parseForkJoin(final Element execution) {
+		final NodeList list = execution.getElementsByTagName(KConfigForkJoinService.Root.tag);
+		if (list == null || list.getLength() == 0) return null;
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid execution service configuration. Must contain at most one fork-join service tag.");
+		}
+		return (Element)list.item(0);
+	}
+
+	/**
+	 * Parse the parallelism value.
+	 * @param forkJoin The fork-join <code>Element</code>
+	 * to parse from.
+	 * @return The <code>int</code> value.
+	 */
+	private int parseParallelism(final Element forkJoin) {
+		final NodeList list = forkJoin.getElementsByTagName(KConfigForkJoinService.Parallelism.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid fork-join service configuration. Must contain one parallelism tag.");
+		}
+		return Integer.valueOf(list.item(0).getTextContent());
+	}
+
+	/**
+	 * Parse the asynchronous mode value.
+	 * @param forkJoin The fork-join <code>Element</code>
+	 * to parse from.
+	 * @return The <code>boolean</code> value.
+	 */
+	private boolean parseAsyncMode(final Element forkJoin) {
+		final NodeList list = forkJoin.getElementsByTagName(KConfigForkJoinService.AsyncMode.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid fork-join service configuration. Must contain one async mode tag.");
+		}
+		return Boolean.valueOf(list.item(0).getTextContent());
+	}
+
+	/**
+	 * Parse the spare threads value.
+	 * @param forkJoin The fork-join <code>Element</code>
+	 * to parse from.
+	 * @return The <code>int</code> value.
+	 */
+	private int parseSpareThreads(final Element forkJoin) {
+		final NodeList list = forkJoin.getElementsByTagName(KConfigForkJoinService.SpareThreads.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid fork-join service configuration. Must contain one spare threads tag.");
+		}
+		return Integer.valueOf(list.item(0).getTextContent());
+	}
+
+	/**
+	 * Parse the saturation policy value.
+	 * @param forkJoin The fork-join <code>Element</code>
+	 * to parse from.
+	 * @return The <code>ESaturationPolicy</code> value.
+	 */
+	private ESaturationPolicy parseSaturation(final Element forkJoin) {
+		final NodeList list = forkJoin.getElementsByTagName(KConfigForkJoinService.Saturation.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid fork-join service configuration. Must contain one saturation tag.");
+		}
+		return ESaturationPolicy.parse(list.item(0).getTextContent());
+	}
+
+	/**
+	 * Retrieve the resolved parallelism.
+	 * @return The <code>int</code> parallelism, which
+	 * is the number of available processors if the
+	 * configured value is <code>0</code>.
+	 */
+	public int getParallelism() {
+		if (this.parallelism > 0) return this.parallelism;
+		return Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * Create the fork-join execution service tag.
+	 * @param document The <code>Document</code> to
+	 * create the new tags from.
+	 * @return The <code>Element</code> for fork-join
+	 * service.
+	 */
+	public Element toXML(final Document document) {
+		final Element forkJoin = document.createElement(KConfigForkJoinService.Root.tag);
+		// Parallelism tag.
+		final Element parallelism = document.createElement(KConfigForkJoinService.Parallelism.tag);
+		parallelism.setTextContent(String.valueOf(this.parallelism));
+		forkJoin.appendChild(parallelism);
+		// Async mode tag.
+		final Element asyncMode = document.createElement(KConfigForkJoinService.AsyncMode.tag);
+		asyncMode.setTextContent(String.valueOf(this.asyncMode));
+		forkJoin.appendChild(asyncMode);
+		// Spare threads tag.
+		final Element spareThreads = document.createElement(KConfigForkJoinService.SpareThreads.tag);
+		spareThreads.setTextContent(String.valueOf(this.spareThreads));
+		forkJoin.appendChild(spareThreads);
+		// Saturation tag.
+		final Element saturation = document.createElement(KConfigForkJoinService.Saturation.tag);
+		saturation.setTextContent(this.saturation.value);
+		forkJoin.appendChild(saturation);
+		return forkJoin;
+	}
+
+	/**
+	 * Write this configuration to the given snapshot
+	 * output.
+	 * @param output The <code>DataOutput</code> to
+	 * write to.
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final DataOutput output) throws IOException {
+		output.writeInt(this.parallelism);
+		output.writeBoolean(this.asyncMode);
+		output.writeInt(this.spareThreads);
+		USnapshot.instance.writeString(output, this.saturation.value);
+	}
+
+	/**
+	 * Validate the values of this configuration.
+	 * @throws IllegalArgumentException If any value
+	 * is invalid.
+	 */
+	public void validate() {
+		if (this.parallelism < 0) {
+			throw new IllegalArgumentException("Invalid fork-join service configuration. Parallelism must not be negative.");
+		} else if (this.spareThreads < 0) {
+			throw new IllegalArgumentException("Invalid fork-join service configuration. Spare threads must not be negative.");
+		}
+	}
+
+	/**
+	 * Record the differences between this configuration
+	 * and the given one.
+	 * @param current The current <code>ConfigForkJoinService</code>.
+	 * @param path The <code>String</code> path of this
+	 * configuration tag.
+	 * @param diff The <code>ConfigDiff</code> to record
+	 * the changes into.
+	 */
+	void diff(final ConfigForkJoinService current, final String path, final ConfigDiff diff) {
+		// All values are fixed when the pool is created.
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigForkJoinService.Parallelism.tag, this.parallelism, current.parallelism, EChangeImpact.PoolRebuild);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigForkJoinService.AsyncMode.tag, this.asyncMode, current.asyncMode, EChangeImpact.PoolRebuild);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigForkJoinService.SpareThreads.tag, this.spareThreads, current.spareThreads, EChangeImpact.PoolRebuild);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigForkJoinService.Saturation.tag, this.saturation, current.saturation, EChangeImpact.PoolRebuild);
+	}
+}
@@ -1,6 +1,16 @@
 package hemera.core.environment.config;
 
 import hemera.core.environment.config.key.KConfigHandler;
+import hemera.core.environment.enumn.EChangeImpact;
+import hemera.core.environment.enumn.EConfigSection;
+import hemera.core.environment.enumn.EHandlerType;
+import hemera.core.environment.util.USnapshot;
+import hemera.core.environment.util.UTime;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -9,9 +19,14 @@ import org.w3c.dom.NodeList;
 /**
  * <code>ConfigHandler</code> defines the structure of
  * the execution service exception handler configuration.
+ * <p>
+ * Configuration files written before the handler
+ * type was introduced use the custom handler if a
+ * class name is given, and the internal logging
+ * handler otherwise.
  *
  * @author Yi Wang (Neakor)
- * @version 1.0.0
+ * @version 1.0.1
  */
 public class ConfigHandler {
 	/**
@@ -26,6 +41,28 @@ public class ConfigHandler {
 	 * the internal exception handler is used.
 	 */
 	public final String classname;
+	/**
+	 * The <code>EHandlerType</code> selecting the
+	 * exception handler implementation.
+	 */
+	public final EHandlerType type;
+	/**
+	 * The <code>int</code> number of top stack frames
+	 * that, along with the exception type, identify
+	 * exceptions of the sampled handler.
+	 */
+	public final int frameDepth;
+	/**
+	 * The <code>int</code> number of exceptions of the
+	 * same fingerprint the sampled handler logs with
+	 * full stack traces in each window.
+	 */
+	public final int sampleLimit;
+	/**
+	 * The <code>String</code> sampling window of the
+	 * sampled handler.
+	 */
+	public final String window;
 	
 	/**
 	 * Constructor of <code>ConfigHandler</code>.
@@ -33,6 +70,10 @@ public class ConfigHandler {
 	public ConfigHandler() {
 		this.jarLocation = null;
 		this.classname = null;
+		this.type = EHandlerType.Logging;
+		this.frameDepth = 3;
+		this.sampleLimit = 10;
+		this.window = "1 " + TimeUnit.MINUTES.name();
 	}
 	
 	/**
@@ -44,6 +85,24 @@ public class ConfigHandler {
 		final Element handler = this.parseHandler(execution);
 		this.jarLocation = this.parseJarFile(handler);
 		this.classname = this.parseClassname(handler);
+		this.type = this.parseType(handler);
+		this.frameDepth = this.parseFrameDepth(handler);
+		this.sampleLimit = this.parseSampleLimit(handler);
+		this.window = this.parseWindow(handler);
+	}
+	
+	/**
+	 * Constructor of <code>ConfigHandler</code>.
+	 * @param buffer The <code>ByteBuffer</code> of a
+	 * configuration snapshot to read the values from.
+	 */
+	public ConfigHandler(final ByteBuffer buffer) {
+		this.jarLocation = USnapshot.instance.readString(buffer);
+		this.classname = USnapshot.instance.readString(buffer);
+		this.type = EHandlerType.parse(USnapshot.instance.readString(buffer));
+		this.frameDepth = buffer.getInt();
+		this.sampleLimit = buffer.getInt();
+		this.window = USnapshot.instance.readString(buffer);
 	}
 	
 	/**
@@ -92,6 +151,81 @@ public class ConfigHandler {
 		else return text;
 	}
 	
+	/**
+	 * Parse the optional type value, falling back to
+	 * the class name if there is no type tag.
+	 * @param handler The <code>Element</code> of the
+	 * exception handler tag to parse from.
+	 * @return The <code>EHandlerType</code> value.
+	 */
+	private EHandlerType parseType(final Element handler) {
+		final NodeList list = handler.getElementsByTagName(KConfigHandler.Type.tag);
+		if (list != null && list.getLength() == 1) {
+			return EHandlerType.parse(list.item(0).getTextContent().trim());
+		} else if (list != null && list.getLength() > 1) {
+			throw new IllegalArgumentException("Invalid exception handler configuration. Must contain at most one type tag.");
+		}
+		return (this.classname == null) ? EHandlerType.Logging : EHandlerType.Custom;
+	}
+	
+	/**
+	 * Parse the optional frame depth value.
+	 * @param handler The <code>Element</code> of the
+	 * exception handler tag to parse from.
+	 * @return The <code>int</code> value. Or
+	 * <code>3</code> if there is no such tag.
+	 */
+	private int parseFrameDepth(final Element handler) {
+		final NodeList list = handler.getElementsByTagName(KConfigHandler.FrameDepth.tag);
+		if (list == null || list.getLength() == 0) return 3;
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid exception handler configuration. Must contain at most one frame depth tag.");
+		}
+		return Integer.valueOf(list.item(0).getTextContent().trim());
+	}
+	
+	/**
+	 * Parse the optional sample limit value.
+	 * @param handler The <code>Element</code> of the
+	 * exception handler tag to parse from.
+	 * @return The <code>int</code> value. Or
+	 * <code>10</code> if there is no such tag.
+	 */
+	private int parseSampleLimit(final Element handler) {
+		final NodeList list = handler.getElementsByTagName(KConfigHandler.SampleLimit.tag);
+		if (list == null || list.getLength() == 0) return 10;
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid exception handler configuration. Must contain at most one sample limit tag.");
+		}
+		return Integer.valueOf(list.item(0).getTextContent().trim());
+	}
+	
+	/**
+	 * Parse the optional window value.
+	 * @param handler The <code>Element</code> of the
+	 * exception handler tag to parse from.
+	 * @return The <code>String</code> value. Or one
+	 * minute if there is no such tag.
+	 */
+	private String parseWindow(final Element handler) {
+		final NodeList list = handler.getElementsByTagName(KConfigHandler.Window.tag);
+		if (list == null || list.getLength() == 0) return "1 " + TimeUnit.MINUTES.name();
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid exception handler configuration. Must contain at most one window tag.");
+		}
+		return list.item(0).getTextContent();
+	}
+	
+	/**
+	 * Retrieve the sampling window.
+	 * @param unit The <code>TimeUnit</code> to retrieve
+	 * the window in.
+	 * @return The <code>long</code> window.
+	 */
+	public long getWindow(final TimeUnit unit) {
+		return UTime.instance.parse(this.window, unit);
+	}
+	
 	/**
 	 * Create the execution service exception handler
 	 * tag.
@@ -114,6 +248,76 @@ public class ConfigHandler {
 			classname.setTextContent(this.classname);
 		}
 		handler.appendChild(classname);
+		// Type tag.
+		final Element type = document.createElement(KConfigHandler.Type.tag);
+		type.setTextContent(this.type.value);
+		handler.appendChild(type);
+		// Frame depth tag.
+		final Element frameDepth = document.createElement(KConfigHandler.FrameDepth.tag);
+		frameDepth.setTextContent(String.valueOf(this.frameDepth));
+		handler.appendChild(frameDepth);
+		// Sample limit tag.
+		final Element sampleLimit = document.createElement(KConfigHandler.SampleLimit.tag);
+		sampleLimit.setTextContent(String.valueOf(this.sampleLimit));
+		handler.appendChild(sampleLimit);
+		// Window tag.
+		final Element window = document.createElement(KConfigHandler.Window.tag);
+		window.setTextContent(this.window);
+		handler.appendChild(window);
 		return handler;
 	}
+	
+	/**
+	 * Write this configuration to the given snapshot
+	 * output.
+	 * @param output The <code>DataOutput</code> to
+	 * write to.
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final DataOutput output) throws IOException {
+		USnapshot.instance.writeString(output, this.jarLocation);
+		USnapshot.instance.writeString(output, this.classname);
+		USnapshot.instance.writeString(output, this.type.value);
+		output.writeInt(this.frameDepth);
+		output.writeInt(this.sampleLimit);
+		USnapshot.instance.writeString(output, this.window);
+	}
+	
+	/**
+	 * Validate the values of this configuration.
+	 * @throws IllegalArgumentException If any value
+	 * is invalid.
+	 */
+	public void validate() {
+		if (this.type == EHandlerType.Custom && this.classname == null) {
+			throw new IllegalArgumentException("Invalid exception handler configuration. Custom handler must specify a class name.");
+		} else if (this.frameDepth < 0) {
+			throw new IllegalArgumentException("Invalid exception handler configuration. Frame depth must not be negative.");
+		} else if (this.sampleLimit < 0) {
+			throw new IllegalArgumentException("Invalid exception handler configuration. Sample limit must not be negative.");
+		} else if (this.getWindow(TimeUnit.MILLISECONDS) <= 0) {
+			throw new IllegalArgumentException("Invalid exception handler configuration. Window must be positive.");
+		}
+	}
+	
+	/**
+	 * Record the differences between this configuration
+	 * and the given one.
+	 * @param current The current <code>ConfigHandler</code>.
+	 * @param path The <code>String</code> path of this
+	 * configuration tag.
+	 * @param diff The <code>ConfigDiff</code> to record
+	 * the changes into.
+	 */
+	void diff(final ConfigHandler current, final String path, final ConfigDiff diff) {
+		// The instance is attached to the execution service.
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigHandler.JarFile.tag, this.jarLocation, current.jarLocation, EChangeImpact.PoolRebuild);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigHandler.Classname.tag, this.classname, current.classname, EChangeImpact.PoolRebuild);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigHandler.Type.tag, this.type, current.type, EChangeImpact.PoolRebuild);
+		// The sampled handler reads the values on every
+		// exception.
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigHandler.FrameDepth.tag, this.frameDepth, current.frameDepth, EChangeImpact.Live);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigHandler.SampleLimit.tag, this.sampleLimit, current.sampleLimit, EChangeImpact.Live);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigHandler.Window.tag, this.window, current.window, EChangeImpact.Live);
+	}
 }
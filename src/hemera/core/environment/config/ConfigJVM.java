@@ -1,6 +1,15 @@
 package hemera.core.environment.config;
 
 import hemera.core.environment.config.key.KConfigJVM;
+import hemera.core.environment.enumn.EChangeImpact;
+import hemera.core.environment.enumn.EConfigSection;
+import hemera.core.environment.util.USnapshot;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -9,9 +18,14 @@ import org.w3c.dom.NodeList;
 /**
  * <code>ConfigJVM</code> defines the structure of the
  * JVM configuration.
+ * <p>
+ * The values are applied by the launcher as the
+ * arguments of the JVM, along with the arguments the
+ * runtime sections contribute for the platform flags
+ * that the JVM only reads once.
  *
  * @author Yi Wang (Neakor)
- * @version 1.0.0
+ * @version 1.0.2
  */
 public class ConfigJVM {
 	/**
@@ -48,6 +62,17 @@ public class ConfigJVM {
 		this.fileEncoding = this.parseFileEncoding(jvm);
 	}
 	
+	/**
+	 * Constructor of <code>ConfigJVM</code>.
+	 * @param buffer The <code>ByteBuffer</code> of a
+	 * configuration snapshot to read the values from.
+	 */
+	public ConfigJVM(final ByteBuffer buffer) {
+		this.memoryMin = USnapshot.instance.readString(buffer);
+		this.memoryMax = USnapshot.instance.readString(buffer);
+		this.fileEncoding = USnapshot.instance.readString(buffer);
+	}
+	
 	/**
 	 * Parse the JVM configuration element.
 	 * @param environment The <code>Element</code> of
@@ -127,4 +152,50 @@ public class ConfigJVM {
 		jvm.appendChild(fileEncoding);
 		return jvm;
 	}
+	
+	/**
+	 * Retrieve the arguments the launcher passes to the
+	 * JVM.
+	 * @param runtime The <code>ConfigRuntime</code> whose
+	 * sections contribute their JVM arguments.
+	 * @return The <code>List</code> of <code>String</code>
+	 * arguments.
+	 */
+	public List<String> getArguments(final ConfigRuntime runtime) {
+		final List<String> arguments = new ArrayList<String>();
+		arguments.add("-Xms" + this.memoryMin);
+		arguments.add("-Xmx" + this.memoryMax);
+		arguments.add("-Dfile.encoding=" + this.fileEncoding);
+		runtime.addArguments(arguments);
+		return arguments;
+	}
+	
+	/**
+	 * Write this configuration to the given snapshot
+	 * output.
+	 * @param output The <code>DataOutput</code> to
+	 * write to.
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final DataOutput output) throws IOException {
+		USnapshot.instance.writeString(output, this.memoryMin);
+		USnapshot.instance.writeString(output, this.memoryMax);
+		USnapshot.instance.writeString(output, this.fileEncoding);
+	}
+	
+	/**
+	 * Record the differences between this configuration
+	 * and the given one.
+	 * @param current The current <code>ConfigJVM</code>.
+	 * @param path The <code>String</code> path of this
+	 * configuration tag.
+	 * @param diff The <code>ConfigDiff</code> to record
+	 * the changes into.
+	 */
+	void diff(final ConfigJVM current, final String path, final ConfigDiff diff) {
+		// All JVM values are process arguments.
+		diff.compare(EConfigSection.JVM, path+"/"+KConfigJVM.MemoryMinimum.tag, this.memoryMin, current.memoryMin, EChangeImpact.Restart);
+		diff.compare(EConfigSection.JVM, path+"/"+KConfigJVM.MemoryMaximum.tag, this.memoryMax, current.memoryMax, EChangeImpact.Restart);
+		diff.compare(EConfigSection.JVM, path+"/"+KConfigJVM.FileEncoding.tag, this.fileEncoding, current.fileEncoding, EChangeImpact.Restart);
+	}
 }
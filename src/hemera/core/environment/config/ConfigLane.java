@@ -0,0 +1,172 @@
+package hemera.core.environment.config;
+
+import hemera.core.environment.config.key.KConfigLanes;
+import hemera.core.environment.util.USnapshot;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * <code>ConfigLane</code> defines the structure of a
+ * single priority lane of the execution service.
+ * <p>
+ * A strict lane is always served before all the
+ * weighted lanes, and the strict lanes are served in
+ * the order they are declared. The weighted lanes
+ * share the remaining capacity in proportion to their
+ * weights.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class ConfigLane {
+	/**
+	 * The <code>String</code> unique lane name.
+	 */
+	public final String name;
+	/**
+	 * The <code>int</code> weighted round-robin weight
+	 * of the lane. Not used by strict lanes.
+	 */
+	public final int weight;
+	/**
+	 * The <code>boolean</code> flag indicating if the
+	 * lane has strict priority.
+	 */
+	public final boolean strict;
+
+	/**
+	 * Constructor of <code>ConfigLane</code>.
+	 * @param name The <code>String</code> lane name.
+	 * @param weight The <code>int</code> weight.
+	 * @param strict <code>true</code> if the lane has
+	 * strict priority.
+	 */
+	public ConfigLane(final String name, final int weight, final boolean strict) {
+		this.name = name;
+		this.weight = weight;
+		this.strict = strict;
+	}
+
+	/**
+	 * Constructor of <code>ConfigLane</code>.
+	 * @param lane The <code>Element</code> of the lane
+	 * tag to parse from.
+	 */
+	public ConfigLane(final Element lane) {
+		this.name = this.parseName(lane);
+		this.weight = this.parseWeight(lane);
+		this.strict = this.parseStrict(lane);
+	}
+
+	/**
+	 * Constructor of <code>ConfigLane</code>.
+	 * @param buffer The <code>ByteBuffer</code> of a
+	 * configuration snapshot to read the values from.
+	 */
+	public ConfigLane(final ByteBuffer buffer) {
+		this.name = USnapshot.instance.readString(buffer);
+		this.weight = buffer.getInt();
+		this.strict = USnapshot.instance.readBoolean(buffer);
+	}
+
+	/**
+	 * Parse the name value.
+	 * @param lane The lane <code>Element</code> to
+	 * parse from.
+	 * @return The <code>String</code> value.
+	 */
+	private String parseName(final Element lane) {
+		final NodeList list = lane.getElementsByTagName(KConfigLanes.Name.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid lane configuration. Must contain one name tag.");
+		}
+		return list.item(0).getTextContent().trim();
+	}
+
+	/**
+	 * Parse the optional weight value.
+	 * @param lane The lane <code>Element</code> to
+	 * parse from.
+	 * @return The <code>int</code> value. Or
+	 * <code>1</code> if there is no such tag.
+	 */
+	private int parseWeight(final Element lane) {
+		final NodeList list = lane.getElementsByTagName(KConfigLanes.Weight.tag);
+		if (list == null || list.getLength() == 0) return 1;
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid lane configuration. Must contain at most one weight tag.");
+		}
+		return Integer.valueOf(list.item(0).getTextContent().trim());
+	}
+
+	/**
+	 * Parse the optional strict value.
+	 * @param lane The lane <code>Element</code> to
+	 * parse from.
+	 * @return The <code>boolean</code> value. Or
+	 * <code>false</code> if there is no such tag.
+	 */
+	private boolean parseStrict(final Element lane) {
+		final NodeList list = lane.getElementsByTagName(KConfigLanes.Strict.tag);
+		if (list == null || list.getLength() == 0) return false;
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid lane configuration. Must contain at most one strict tag.");
+		}
+		return Boolean.valueOf(list.item(0).getTextContent().trim());
+	}
+
+	/**
+	 * Create the lane tag.
+	 * @param document The <code>Document</code> to
+	 * create the new tags from.
+	 * @return The <code>Element</code> for lane.
+	 */
+	public Element toXML(final Document document) {
+		final Element lane = document.createElement(KConfigLanes.Lane.tag);
+		// Name tag.
+		final Element name = document.createElement(KConfigLanes.Name.tag);
+		name.setTextContent(this.name);
+		lane.appendChild(name);
+		// Weight tag.
+		final Element weight = document.createElement(KConfigLanes.Weight.tag);
+		weight.setTextContent(String.valueOf(this.weight));
+		lane.appendChild(weight);
+		// Strict tag.
+		final Element strict = document.createElement(KConfigLanes.Strict.tag);
+		strict.setTextContent(String.valueOf(this.strict));
+		lane.appendChild(strict);
+		return lane;
+	}
+
+	/**
+	 * Write this configuration to the given snapshot
+	 * output.
+	 * @param output The <code>DataOutput</code> to
+	 * write to.
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final DataOutput output) throws IOException {
+		USnapshot.instance.writeString(output, this.name);
+		output.writeInt(this.weight);
+		output.writeBoolean(this.strict);
+	}
+
+	/**
+	 * Validate the values of this configuration.
+	 * @throws IllegalArgumentException If any value
+	 * is invalid.
+	 */
+	public void validate() {
+		if (this.name == null || this.name.length() <= 0) {
+			throw new IllegalArgumentException("Invalid lane configuration. Name must not be empty.");
+		} else if (this.weight <= 0) {
+			throw new IllegalArgumentException("Invalid lane configuration. Weight of lane " + this.name + " must be positive.");
+		}
+	}
+}
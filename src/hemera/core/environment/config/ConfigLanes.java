@@ -0,0 +1,239 @@
+package hemera.core.environment.config;
+
+import hemera.core.environment.config.key.KConfigLanes;
+import hemera.core.environment.enumn.EChangeImpact;
+import hemera.core.environment.enumn.EConfigSection;
+import hemera.core.environment.util.USnapshot;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * <code>ConfigLanes</code> defines the structure of
+ * the priority lanes configuration of the execution
+ * service.
+ * <p>
+ * Each lane has its own task queue. Resources are
+ * mapped to a lane by name in their HAM resource
+ * node, and the resources without a lane use the
+ * default lane.
+ * <p>
+ * This section is optional. Configuration files that do
+ * not contain it use a single default lane, which
+ * schedules all tasks in submission order.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class ConfigLanes {
+	/**
+	 * The <code>String</code> name of the lane used when
+	 * no lane is specified.
+	 */
+	public final String defaultLane;
+	/**
+	 * The unmodifiable <code>List</code> of all the
+	 * <code>ConfigLane</code> in declaration order.
+	 */
+	public final List<ConfigLane> lanes;
+
+	/**
+	 * Constructor of <code>ConfigLanes</code>.
+	 */
+	public ConfigLanes() {
+		this.defaultLane = "default";
+		this.lanes = Collections.singletonList(new ConfigLane(this.defaultLane, 1, false));
+	}
+
+	/**
+	 * Constructor of <code>ConfigLanes</code>.
+	 * @param execution The <code>Element</code> of the
+	 * execution service tag to parse from.
+	 */
+	public ConfigLanes(final Element execution) {
+		final Element lanes = this.parseLanes(execution);
+		if (lanes == null) {
+			this.defaultLane = "default";
+			this.lanes = Collections.singletonList(new ConfigLane(this.defaultLane, 1, false));
+		} else {
+			this.defaultLane = this.parseDefaultLane(lanes);
+			this.lanes = this.parseLaneList(lanes);
+		}
+	}
+
+	/**
+	 * Constructor of <code>ConfigLanes</code>.
+	 * @param buffer The <code>ByteBuffer</code> of a
+	 * configuration snapshot to read the values from.
+	 */
+	public ConfigLanes(final ByteBuffer buffer) {
+		this.defaultLane = USnapshot.instance.readString(buffer);
+		final int count = buffer.getInt();
+		final List<ConfigLane> lanes = new ArrayList<ConfigLane>(count);
+		for (int i = 0; i < count; i++) {
+			lanes.add(new ConfigLane(buffer));
+		}
+		this.lanes = Collections.unmodifiableList(lanes);
+	}
+
+	/**
+	 * Parse the optional lanes tag.
+	 * @param execution The <code>Element</code> of the
+	 * execution service tag to parse from.
+	 * @return The lanes <code>Element</code>. Or
+	 * <code>null</code> if there is no such tag.
+	 */
+	private Element parseLanes(final Element execution) {
+		final NodeList list = execution.getElementsByTagName(KConfigLanes.Root.tag);
+		if (list == null || list.getLength() == 0) return null;
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid execution service configuration. Must contain at most one lanes tag.");
+		}
+		return (Element)list.item(0);
+	}
+
+	/**
+	 * Parse the default lane value.
+	 * @param lanes The lanes <code>Element</code> to
+	 * parse from.
+	 * @return The <code>String</code> value.
+	 */
+	private String parseDefaultLane(final Element lanes) {
+		final NodeList list = lanes.getElementsByTagName(KConfigLanes.DefaultLane.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid lanes configuration. Must contain one default lane tag.");
+		}
+		return list.item(0).getTextContent().trim();
+	}
+
+	/**
+	 * Parse all the lane tags.
+	 * @param lanes The lanes <code>Element</code> to
+	 * parse from.
+	 * @return The unmodifiable <code>List</code> of
+	 * <code>ConfigLane</code>.
+	 */
+	private List<ConfigLane> parseLaneList(final Element lanes) {
+		final NodeList list = lanes.getElementsByTagName(KConfigLanes.Lane.tag);
+		if (list == null || list.getLength() == 0) {
+			throw new IllegalArgumentException("Invalid lanes configuration. Must contain at least one lane tag.");
+		}
+		final int size = list.getLength();
+		final List<ConfigLane> result = new ArrayList<ConfigLane>(size);
+		for (int i = 0; i < size; i++) {
+			result.add(new ConfigLane((Element)list.item(i)));
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Retrieve the lane with the given name.
+	 * @param name The <code>String</code> lane name.
+	 * @return The <code>ConfigLane</code>. Or
+	 * <code>null</code> if there is no such lane.
+	 */
+	public ConfigLane getLane(final String name) {
+		for (final ConfigLane lane : this.lanes) {
+			if (lane.name.equals(name)) return lane;
+		}
+		return null;
+	}
+
+	/**
+	 * Retrieve the names of all the lanes.
+	 * @return The <code>List</code> of lane names in
+	 * declaration order.
+	 */
+	public List<String> getLaneNames() {
+		final List<String> names = new ArrayList<String>(this.lanes.size());
+		for (final ConfigLane lane : this.lanes) {
+			names.add(lane.name);
+		}
+		return names;
+	}
+
+	/**
+	 * Create the lanes tag.
+	 * @param document The <code>Document</code> to
+	 * create the new tags from.
+	 * @return The <code>Element</code> for lanes.
+	 */
+	public Element toXML(final Document document) {
+		final Element lanes = document.createElement(KConfigLanes.Root.tag);
+		// Default lane tag.
+		final Element defaultLane = document.createElement(KConfigLanes.DefaultLane.tag);
+		defaultLane.setTextContent(this.defaultLane);
+		lanes.appendChild(defaultLane);
+		// Lane tags.
+		for (final ConfigLane lane : this.lanes) {
+			lanes.appendChild(lane.toXML(document));
+		}
+		return lanes;
+	}
+
+	/**
+	 * Write this configuration to the given snapshot
+	 * output.
+	 * @param output The <code>DataOutput</code> to
+	 * write to.
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final DataOutput output) throws IOException {
+		USnapshot.instance.writeString(output, this.defaultLane);
+		output.writeInt(this.lanes.size());
+		for (final ConfigLane lane : this.lanes) {
+			lane.write(output);
+		}
+	}
+
+	/**
+	 * Validate the values of this configuration.
+	 * @throws IllegalArgumentException If any value
+	 * is invalid.
+	 */
+	public void validate() {
+		final Set<String> names = new HashSet<String>();
+		for (final ConfigLane lane : this.lanes) {
+			lane.validate();
+			if (!names.add(lane.name)) {
+				throw new IllegalArgumentException("Invalid lanes configuration. Duplicate lane " + lane.name + ".");
+			}
+		}
+		if (!names.contains(this.defaultLane)) {
+			throw new IllegalArgumentException("Invalid lanes configuration. Default lane " + this.defaultLane + " is not declared.");
+		}
+	}
+
+	/**
+	 * Record the differences between this configuration
+	 * and the given one.
+	 * @param current The current <code>ConfigLanes</code>.
+	 * @param path The <code>String</code> path of this
+	 * configuration tag.
+	 * @param diff The <code>ConfigDiff</code> to record
+	 * the changes into.
+	 */
+	void diff(final ConfigLanes current, final String path, final ConfigDiff diff) {
+		// The lane queues are created with the execution
+		// service.
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigLanes.DefaultLane.tag, this.defaultLane, current.defaultLane, EChangeImpact.PoolRebuild);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigLanes.Lane.tag, this.getLaneNames(), current.getLaneNames(), EChangeImpact.PoolRebuild);
+		for (final ConfigLane lane : this.lanes) {
+			final ConfigLane currentLane = current.getLane(lane.name);
+			if (currentLane == null) continue;
+			final String lanePath = path+"/"+KConfigLanes.Lane.tag+"["+lane.name+"]";
+			diff.compare(EConfigSection.Execution, lanePath+"/"+KConfigLanes.Weight.tag, lane.weight, currentLane.weight, EChangeImpact.PoolRebuild);
+			diff.compare(EConfigSection.Execution, lanePath+"/"+KConfigLanes.Strict.tag, lane.strict, currentLane.strict, EChangeImpact.PoolRebuild);
+		}
+	}
+}
@@ -1,6 +1,16 @@
 package hemera.core.environment.config;
 
 import hemera.core.environment.config.key.KConfigListener;
+import hemera.core.environment.enumn.EChangeImpact;
+import hemera.core.environment.enumn.EConfigSection;
+import hemera.core.environment.enumn.EListenerType;
+import hemera.core.environment.util.USnapshot;
+import hemera.core.environment.util.UTime;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -9,9 +19,14 @@ import org.w3c.dom.NodeList;
 /**
  * <code>ConfigListener</code> defines the structure of
  * the execution service listener configuration.
+ * <p>
+ * Configuration files written before the listener
+ * type was introduced use the custom listener if a
+ * class name is given, and the internal logging
+ * listener otherwise.
  *
  * @author Yi Wang (Neakor)
- * @version 1.0.0
+ * @version 1.0.1
  */
 public class ConfigListener {
 	/**
@@ -26,6 +41,22 @@ public class ConfigListener {
 	 * the internal logging listener is used.
 	 */
 	public final String classname;
+	/**
+	 * The <code>EListenerType</code> selecting the
+	 * listener implementation.
+	 */
+	public final EListenerType type;
+	/**
+	 * The <code>int</code> number of significant decimal
+	 * digits the metrics listener histograms maintain.
+	 */
+	public final int significantDigits;
+	/**
+	 * The <code>String</code> highest latency recorded
+	 * by the metrics listener histograms. Higher values
+	 * are recorded as this value.
+	 */
+	public final String highestLatency;
 	
 	/**
 	 * Constructor of <code>ConfigListener</code>.
@@ -33,6 +64,9 @@ public class ConfigListener {
 	public ConfigListener() {
 		this.jarLocation = null;
 		this.classname = null;
+		this.type = EListenerType.Logging;
+		this.significantDigits = 2;
+		this.highestLatency = "1 " + TimeUnit.MINUTES.name();
 	}
 	
 	/**
@@ -44,6 +78,22 @@ public class ConfigListener {
 		final Element listener = this.parseListener(execution);
 		this.jarLocation = this.parseJarFile(listener);
 		this.classname = this.parseClassname(listener);
+		this.type = this.parseType(listener);
+		this.significantDigits = this.parseSignificantDigits(listener);
+		this.highestLatency = this.parseHighestLatency(listener);
+	}
+	
+	/**
+	 * Constructor of <code>ConfigListener</code>.
+	 * @param buffer The <code>ByteBuffer</code> of a
+	 * configuration snapshot to read the values from.
+	 */
+	public ConfigListener(final ByteBuffer buffer) {
+		this.jarLocation = USnapshot.instance.readString(buffer);
+		this.classname = USnapshot.instance.readString(buffer);
+		this.type = EListenerType.parse(USnapshot.instance.readString(buffer));
+		this.significantDigits = buffer.getInt();
+		this.highestLatency = USnapshot.instance.readString(buffer);
 	}
 	
 	/**
@@ -92,6 +142,65 @@ public class ConfigListener {
 		else return text;
 	}
 	
+	/**
+	 * Parse the optional type value, falling back to
+	 * the class name if there is no type tag.
+	 * @param listener The <code>Element</code> of the
+	 * service listener tag to parse from.
+	 * @return The <code>EListenerType</code> value.
+	 */
+	private EListenerType parseType(final Element listener) {
+		final NodeList list = listener.getElementsByTagName(KConfigListener.Type.tag);
+		if (list != null && list.getLength() == 1) {
+			return EListenerType.parse(list.item(0).getTextContent().trim());
+		} else if (list != null && list.getLength() > 1) {
+			throw new IllegalArgumentException("Invalid service listener configuration. Must contain at most one type tag.");
+		}
+		return (this.classname == null) ? EListenerType.Logging : EListenerType.Custom;
+	}
+	
+	/**
+	 * Parse the optional significant digits value.
+	 * @param listener The <code>Element</code> of the
+	 * service listener tag to parse from.
+	 * @return The <code>int</code> value. Or
+	 * <code>2</code> if there is no such tag.
+	 */
+	private int parseSignificantDigits(final Element listener) {
+		final NodeList list = listener.getElementsByTagName(KConfigListener.SignificantDigits.tag);
+		if (list == null || list.getLength() == 0) return 2;
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid service listener configuration. Must contain at most one significant digits tag.");
+		}
+		return Integer.valueOf(list.item(0).getTextContent().trim());
+	}
+	
+	/**
+	 * Parse the optional highest latency value.
+	 * @param listener The <code>Element</code> of the
+	 * service listener tag to parse from.
+	 * @return The <code>String</code> value. Or one
+	 * minute if there is no such tag.
+	 */
+	private String parseHighestLatency(final Element listener) {
+		final NodeList list = listener.getElementsByTagName(KConfigListener.HighestLatency.tag);
+		if (list == null || list.getLength() == 0) return "1 " + TimeUnit.MINUTES.name();
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid service listener configuration. Must contain at most one highest latency tag.");
+		}
+		return list.item(0).getTextContent();
+	}
+	
+	/**
+	 * Retrieve the highest latency.
+	 * @param unit The <code>TimeUnit</code> to retrieve
+	 * the latency in.
+	 * @return The <code>long</code> latency.
+	 */
+	public long getHighestLatency(final TimeUnit unit) {
+		return UTime.instance.parse(this.highestLatency, unit);
+	}
+	
 	/**
 	 * Create the execution service listener tag.
 	 * @param document The <code>Document</code> to
@@ -112,6 +221,66 @@ public class ConfigListener {
 			classname.setTextContent(this.classname);
 		}
 		listener.appendChild(classname);
+		// Type tag.
+		final Element type = document.createElement(KConfigListener.Type.tag);
+		type.setTextContent(this.type.value);
+		listener.appendChild(type);
+		// Significant digits tag.
+		final Element significantDigits = document.createElement(KConfigListener.SignificantDigits.tag);
+		significantDigits.setTextContent(String.valueOf(this.significantDigits));
+		listener.appendChild(significantDigits);
+		// Highest latency tag.
+		final Element highestLatency = document.createElement(KConfigListener.HighestLatency.tag);
+		highestLatency.setTextContent(this.highestLatency);
+		listener.appendChild(highestLatency);
 		return listener;
 	}
+	
+	/**
+	 * Write this configuration to the given snapshot
+	 * output.
+	 * @param output The <code>DataOutput</code> to
+	 * write to.
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final DataOutput output) throws IOException {
+		USnapshot.instance.writeString(output, this.jarLocation);
+		USnapshot.instance.writeString(output, this.classname);
+		USnapshot.instance.writeString(output, this.type.value);
+		output.writeInt(this.significantDigits);
+		USnapshot.instance.writeString(output, this.highestLatency);
+	}
+	
+	/**
+	 * Validate the values of this configuration.
+	 * @throws IllegalArgumentException If any value
+	 * is invalid.
+	 */
+	public void validate() {
+		if (this.type == EListenerType.Custom && this.classname == null) {
+			throw new IllegalArgumentException("Invalid service listener configuration. Custom listener must specify a class name.");
+		} else if (this.significantDigits < 1 || this.significantDigits > 5) {
+			throw new IllegalArgumentException("Invalid service listener configuration. Significant digits must be between 1 and 5.");
+		} else if (this.getHighestLatency(TimeUnit.MICROSECONDS) < 2) {
+			throw new IllegalArgumentException("Invalid service listener configuration. Highest latency must be at least 2 microseconds.");
+		}
+	}
+	
+	/**
+	 * Record the differences between this configuration
+	 * and the given one.
+	 * @param current The current <code>ConfigListener</code>.
+	 * @param path The <code>String</code> path of this
+	 * configuration tag.
+	 * @param diff The <code>ConfigDiff</code> to record
+	 * the changes into.
+	 */
+	void diff(final ConfigListener current, final String path, final ConfigDiff diff) {
+		// The instance is attached to the execution service.
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigListener.JarFile.tag, this.jarLocation, current.jarLocation, EChangeImpact.PoolRebuild);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigListener.Classname.tag, this.classname, current.classname, EChangeImpact.PoolRebuild);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigListener.Type.tag, this.type, current.type, EChangeImpact.PoolRebuild);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigListener.SignificantDigits.tag, this.significantDigits, current.significantDigits, EChangeImpact.PoolRebuild);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigListener.HighestLatency.tag, this.highestLatency, current.highestLatency, EChangeImpact.PoolRebuild);
+	}
 }
@@ -1,7 +1,14 @@
 package hemera.core.environment.config;
 
 import hemera.core.environment.config.key.KConfigLogging;
+import hemera.core.environment.enumn.EChangeImpact;
+import hemera.core.environment.enumn.EConfigSection;
 import hemera.core.environment.util.UEnvironment;
+import hemera.core.environment.util.USnapshot;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -62,6 +69,18 @@ public class ConfigLogging {
 		this.fileCount = this.parseFileCount(logging);
 	}
 	
+	/**
+	 * Constructor of <code>ConfigLogging</code>.
+	 * @param buffer The <code>ByteBuffer</code> of a
+	 * configuration snapshot to read the values from.
+	 */
+	public ConfigLogging(final ByteBuffer buffer) {
+		this.enabled = USnapshot.instance.readBoolean(buffer);
+		this.directory = USnapshot.instance.readString(buffer);
+		this.fileSize = buffer.getInt();
+		this.fileCount = buffer.getInt();
+	}
+	
 	/**
 	 * Parse the logging tag.
 	 * @param runtime The <code>Element</code> of
@@ -159,4 +178,47 @@ public class ConfigLogging {
 		logging.appendChild(fileCount);
 		return logging;
 	}
+	
+	/**
+	 * Write this configuration to the given snapshot
+	 * output.
+	 * @param output The <code>DataOutput</code> to
+	 * write to.
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final DataOutput output) throws IOException {
+		output.writeBoolean(this.enabled);
+		USnapshot.instance.writeString(output, this.directory);
+		output.writeInt(this.fileSize);
+		output.writeInt(this.fileCount);
+	}
+	
+	/**
+	 * Validate the values of this configuration.
+	 * @throws IllegalArgumentException If any value
+	 * is invalid.
+	 */
+	public void validate() {
+		if (this.fileSize <= 0) {
+			throw new IllegalArgumentException("Invalid logging configuration. File size must be positive.");
+		} else if (this.fileCount <= 0) {
+			throw new IllegalArgumentException("Invalid logging configuration. File count must be positive.");
+		}
+	}
+	
+	/**
+	 * Record the differences between this configuration
+	 * and the given one.
+	 * @param current The current <code>ConfigLogging</code>.
+	 * @param path The <code>String</code> path of this
+	 * configuration tag.
+	 * @param diff The <code>ConfigDiff</code> to record
+	 * the changes into.
+	 */
+	void diff(final ConfigLogging current, final String path, final ConfigDiff diff) {
+		diff.compare(EConfigSection.Logging, path+"/"+KConfigLogging.Enabled.tag, this.enabled, current.enabled, EChangeImpact.Live);
+		diff.compare(EConfigSection.Logging, path+"/"+KConfigLogging.Directory.tag, this.directory, current.directory, EChangeImpact.Live);
+		diff.compare(EConfigSection.Logging, path+"/"+KConfigLogging.FileSize.tag, this.fileSize, current.fileSize, EChangeImpact.Live);
+		diff.compare(EConfigSection.Logging, path+"/"+KConfigLogging.FileCount.tag, this.fileCount, current.fileCount, EChangeImpact.Live);
+	}
 }
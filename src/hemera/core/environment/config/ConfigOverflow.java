@@ -0,0 +1,229 @@
+package hemera.core.environment.config;
+
+import hemera.core.environment.config.key.KConfigOverflow;
+import hemera.core.environment.enumn.EChangeImpact;
+import hemera.core.environment.enumn.EConfigSection;
+import hemera.core.environment.enumn.EOverflowPolicy;
+import hemera.core.environment.util.USnapshot;
+import hemera.core.environment.util.UTime;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * <code>ConfigOverflow</code> defines the structure of
+ * the overflow configuration of the assisted execution
+ * service buffers.
+ * <p>
+ * This section is optional. Configuration files that do
+ * not contain it use the default values, which reject
+ * tasks submitted to a full buffer.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class ConfigOverflow {
+	/**
+	 * The <code>EOverflowPolicy</code> applied when a
+	 * buffer is overloaded.
+	 */
+	public final EOverflowPolicy policy;
+	/**
+	 * The <code>String</code> acceptable queue delay of
+	 * the controlled delay policy.
+	 */
+	public final String targetDelay;
+	/**
+	 * The <code>String</code> time the queue delay must
+	 * stay above the target delay before the controlled
+	 * delay policy starts shedding tasks.
+	 */
+	public final String interval;
+
+	/**
+	 * Constructor of <code>ConfigOverflow</code>.
+	 */
+	public ConfigOverflow() {
+		this.policy = EOverflowPolicy.Reject;
+		this.targetDelay = "5 " + TimeUnit.MILLISECONDS.name();
+		this.interval = "100 " + TimeUnit.MILLISECONDS.name();
+	}
+
+	/**
+	 * Constructor of <code>ConfigOverflow</code>.
+	 * @param assisted The <code>Element</code> of the
+	 * assisted service tag to parse from.
+	 */
+	public ConfigOverflow(final Element assisted) {
+		final Element overflow = this.parseOverflow(assisted);
+		if (overflow == null) {
+			this.policy = EOverflowPolicy.Reject;
+			this.targetDelay = "5 " + TimeUnit.MILLISECONDS.name();
+			this.interval = "100 " + TimeUnit.MILLISECONDS.name();
+		} else {
+			this.policy = this.parsePolicy(overflow);
+			this.targetDelay = this.parseTargetDelay(overflow);
+			this.interval = this.parseInterval(overflow);
+		}
+	}
+
+	/**
+	 * Constructor of <code>ConfigOverflow</code>.
+	 * @param buffer The <code>ByteBuffer</code> of a
+	 * configuration snapshot to read the values from.
+	 */
+	public ConfigOverflow(final ByteBuffer buffer) {
+		this.policy = EOverflowPolicy.parse(USnapshot.instance.readString(buffer));
+		this.targetDelay = USnapshot.instance.readString(buffer);
+		this.interval = USnapshot.instance.readString(buffer);
+	}
+
+	/**
+	 * Parse the optional overflow tag.
+	 * @param assisted The <code>Element</code> of the
+	 * assisted service tag to parse from.
+	 * @return The overflow <code>Element</code>. Or
+	 * <code>null</code> if there is no such tag.
+	 */
+	private Element parseOverflow(final Element assisted) {
+		final NodeList list = assisted.getElementsByTagName(KConfigOverflow.Root.tag);
+		if (list == null || list.getLength() == 0) return null;
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid assisted service configuration. Must contain at most one overflow tag.");
+		}
+		return (Element)list.item(0);
+	}
+
+	/**
+	 * Parse the policy value.
+	 * @param overflow The overflow <code>Element</code>
+	 * to parse from.
+	 * @return The <code>EOverflowPolicy</code> value.
+	 */
+	private EOverflowPolicy parsePolicy(final Element overflow) {
+		final NodeList list = overflow.getElementsByTagName(KConfigOverflow.Policy.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid overflow configuration. Must contain one policy tag.");
+		}
+		return EOverflowPolicy.parse(list.item(0).getTextContent());
+	}
+
+	/**
+	 * Parse the target delay value.
+	 * @param overflow The overflow <code>Element</code>
+	 * to parse from.
+	 * @return The <code>String</code> value.
+	 */
+	private String parseTargetDelay(final Element overflow) {
+		final NodeList list = overflow.getElementsByTagName(KConfigOverflow.TargetDelay.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid overflow configuration. Must contain one target delay tag.");
+		}
+		return list.item(0).getTextContent();
+	}
+
+	/**
+	 * Parse the interval value.
+	 * @param overflow The overflow <code>Element</code>
+	 * to parse from.
+	 * @return The <code>String</code> value.
+	 */
+	private String parseInterval(final Element overflow) {
+		final NodeList list = overflow.getElementsByTagName(KConfigOverflow.Interval.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid overflow configuration. Must contain one interval tag.");
+		}
+		return list.item(0).getTextContent();
+	}
+
+	/**
+	 * Retrieve the target delay.
+	 * @param unit The <code>TimeUnit</code> to retrieve
+	 * the delay in.
+	 * @return The <code>long</code> delay.
+	 */
+	public long getTargetDelay(final TimeUnit unit) {
+		return UTime.instance.parse(this.targetDelay, unit);
+	}
+
+	/**
+	 * Retrieve the interval.
+	 * @param unit The <code>TimeUnit</code> to retrieve
+	 * the interval in.
+	 * @return The <code>long</code> interval.
+	 */
+	public long getInterval(final TimeUnit unit) {
+		return UTime.instance.parse(this.interval, unit);
+	}
+
+	/**
+	 * Create the overflow tag.
+	 * @param document The <code>Document</code> to
+	 * create the new tags from.
+	 * @return The <code>Element</code> for overflow.
+	 */
+	public Element toXML(final Document document) {
+		final Element overflow = document.createElement(KConfigOverflow.Root.tag);
+		// Policy tag.
+		final Element policy = document.createElement(KConfigOverflow.Policy.tag);
+		policy.setTextContent(this.policy.value);
+		overflow.appendChild(policy);
+		// Target delay tag.
+		final Element targetDelay = document.createElement(KConfigOverflow.TargetDelay.tag);
+		targetDelay.setTextContent(this.targetDelay);
+		overflow.appendChild(targetDelay);
+		// Interval tag.
+		final Element interval = document.createElement(KConfigOverflow.Interval.tag);
+		interval.setTextContent(this.interval);
+		overflow.appendChild(interval);
+		return overflow;
+	}
+
+	/**
+	 * Write this configuration to the given snapshot
+	 * output.
+	 * @param output The <code>DataOutput</code> to
+	 * write to.
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final DataOutput output) throws IOException {
+		USnapshot.instance.writeString(output, this.policy.value);
+		USnapshot.instance.writeString(output, this.targetDelay);
+		USnapshot.instance.writeString(output, this.interval);
+	}
+
+	/**
+	 * Validate the values of this configuration.
+	 * @throws IllegalArgumentException If any value
+	 * is invalid.
+	 */
+	public void validate() {
+		if (this.getTargetDelay(TimeUnit.NANOSECONDS) <= 0) {
+			throw new IllegalArgumentException("Invalid overflow configuration. Target delay must be positive.");
+		} else if (this.getInterval(TimeUnit.NANOSECONDS) <= 0) {
+			throw new IllegalArgumentException("Invalid overflow configuration. Interval must be positive.");
+		}
+	}
+
+	/**
+	 * Record the differences between this configuration
+	 * and the given one.
+	 * @param current The current <code>ConfigOverflow</code>.
+	 * @param path The <code>String</code> path of this
+	 * configuration tag.
+	 * @param diff The <code>ConfigDiff</code> to record
+	 * the changes into.
+	 */
+	void diff(final ConfigOverflow current, final String path, final ConfigDiff diff) {
+		// The buffers read the values on every overflow.
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigOverflow.Policy.tag, this.policy, current.policy, EChangeImpact.Live);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigOverflow.TargetDelay.tag, this.targetDelay, current.targetDelay, EChangeImpact.Live);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigOverflow.Interval.tag, this.interval, current.interval, EChangeImpact.Live);
+	}
+}
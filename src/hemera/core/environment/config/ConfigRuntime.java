@@ -1,6 +1,18 @@
 package hemera.core.environment.config;
 
+import hemera.core.environment.config.key.KConfigExecutionService;
+import hemera.core.environment.config.key.KConfigLogging;
 import hemera.core.environment.config.key.KConfigRuntime;
+import hemera.core.environment.config.key.KConfigSocket;
+import hemera.core.environment.config.key.KConfigTimer;
+import hemera.core.environment.enumn.EChangeImpact;
+import hemera.core.environment.enumn.EConfigSection;
+import hemera.core.environment.util.USnapshot;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -9,9 +21,13 @@ import org.w3c.dom.NodeList;
 /**
  * <code>ConfigRuntime</code> defines the structure of
  * the runtime configuration.
+ * <p>
+ * Configuration files written before the timer was
+ * introduced do not contain the timer tag, and use the
+ * default timer.
  *
  * @author Yi Wang (Neakor)
- * @version 1.0.0
+ * @version 1.0.3
  */
 public class ConfigRuntime {
 	/**
@@ -32,6 +48,10 @@ public class ConfigRuntime {
 	 * The <code>ConfigLogging</code> instance.
 	 */
 	public final ConfigLogging logging;
+	/**
+	 * The <code>ConfigTimer</code> instance.
+	 */
+	public final ConfigTimer timer;
 	
 	/**
 	 * Constructor of <code>ConfigRuntime</code>.
@@ -43,6 +63,7 @@ public class ConfigRuntime {
 		this.execution = new ConfigExecutionService();
 		this.socket = new ConfigSocket();
 		this.logging = new ConfigLogging(homeDir);
+		this.timer = new ConfigTimer();
 	}
 	
 	/**
@@ -56,6 +77,20 @@ public class ConfigRuntime {
 		this.execution = new ConfigExecutionService(runtime);
 		this.socket = new ConfigSocket(runtime);
 		this.logging = new ConfigLogging(runtime);
+		this.timer = new ConfigTimer(runtime);
+	}
+	
+	/**
+	 * Constructor of <code>ConfigRuntime</code>.
+	 * @param buffer The <code>ByteBuffer</code> of a
+	 * configuration snapshot to read the values from.
+	 */
+	public ConfigRuntime(final ByteBuffer buffer) {
+		this.launcher = USnapshot.instance.readString(buffer);
+		this.execution = new ConfigExecutionService(buffer);
+		this.socket = new ConfigSocket(buffer);
+		this.logging = new ConfigLogging(buffer);
+		this.timer = new ConfigTimer(buffer);
 	}
 	
 	/**
@@ -112,6 +147,64 @@ public class ConfigRuntime {
 		// Logging tag.
 		final Element logging = this.logging.toXML(document);
 		runtime.appendChild(logging);
+		// Timer tag.
+		final Element timer = this.timer.toXML(document);
+		runtime.appendChild(timer);
 		return runtime;
 	}
+	
+	/**
+	 * Write this configuration to the given snapshot
+	 * output.
+	 * @param output The <code>DataOutput</code> to
+	 * write to.
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final DataOutput output) throws IOException {
+		USnapshot.instance.writeString(output, this.launcher);
+		this.execution.write(output);
+		this.socket.write(output);
+		this.logging.write(output);
+		this.timer.write(output);
+	}
+	
+	/**
+	 * Add the JVM arguments of the platform flags the
+	 * sections of this configuration depend on.
+	 * @param arguments The <code>List</code> of
+	 * <code>String</code> arguments to add to.
+	 */
+	void addArguments(final List<String> arguments) {
+		this.execution.addArguments(arguments);
+		this.socket.addArguments(arguments);
+	}
+	
+	/**
+	 * Validate the values of this configuration.
+	 * @throws IllegalArgumentException If any value
+	 * is invalid.
+	 */
+	public void validate() {
+		this.execution.validate();
+		this.socket.validate();
+		this.logging.validate();
+		this.timer.validate();
+	}
+	
+	/**
+	 * Record the differences between this configuration
+	 * and the given one.
+	 * @param current The current <code>ConfigRuntime</code>.
+	 * @param path The <code>String</code> path of this
+	 * configuration tag.
+	 * @param diff The <code>ConfigDiff</code> to record
+	 * the changes into.
+	 */
+	void diff(final ConfigRuntime current, final String path, final ConfigDiff diff) {
+		diff.compare(EConfigSection.Launcher, path+"/"+KConfigRuntime.Launcher.tag, this.launcher, current.launcher, EChangeImpact.Restart);
+		this.execution.diff(current.execution, path+"/"+KConfigExecutionService.Root.tag, diff);
+		this.socket.diff(current.socket, path+"/"+KConfigSocket.Root.tag, diff);
+		this.logging.diff(current.logging, path+"/"+KConfigLogging.Root.tag, diff);
+		this.timer.diff(current.timer, path+"/"+KConfigTimer.Root.tag, diff);
+	}
 }
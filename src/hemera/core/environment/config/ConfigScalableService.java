@@ -1,7 +1,15 @@
 package hemera.core.environment.config;
 
+import hemera.core.environment.config.key.KConfigAdaptiveSizing;
 import hemera.core.environment.config.key.KConfigScalableService;
+import hemera.core.environment.enumn.EChangeImpact;
+import hemera.core.environment.enumn.EConfigSection;
+import hemera.core.environment.util.USizing;
+import hemera.core.environment.util.USnapshot;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.concurrent.TimeUnit;
 
 import org.w3c.dom.Document;
@@ -21,24 +29,41 @@ public class ConfigScalableService {
 	 * minimum executor count.
 	 */
 	public final int minExecutor;
+	/**
+	 * The <code>String</code> sizing expression the
+	 * minimum executor count is resolved from.
+	 */
+	public final String minExecutorExpression;
 	/**
 	 * The <code>int</code> scalable execution service
 	 * maximum executor count.
 	 */
 	public final int maxExecutor;
+	/**
+	 * The <code>String</code> sizing expression the
+	 * maximum executor count is resolved from.
+	 */
+	public final String maxExecutorExpression;
 	/**
 	 * The <code>String</code> scalable execution service
 	 * executor timeout value.
 	 */
 	public final String timeout;
+	/**
+	 * The <code>ConfigAdaptiveSizing</code> instance.
+	 */
+	public final ConfigAdaptiveSizing adaptive;
 	
 	/**
 	 * Constructor of <code>ConfigScalableService</code>.
 	 */
 	public ConfigScalableService() {
 		this.minExecutor = 200;
+		this.minExecutorExpression = String.valueOf(this.minExecutor);
 		this.maxExecutor = 1000;
+		this.maxExecutorExpression = String.valueOf(this.maxExecutor);
 		this.timeout = "10 " + TimeUnit.SECONDS.name();
+		this.adaptive = new ConfigAdaptiveSizing();
 	}
 	
 	/**
@@ -48,9 +73,26 @@ public class ConfigScalableService {
 	 */
 	public ConfigScalableService(final Element execution) {
 		final Element scalable = this.parseScalable(execution);
-		this.minExecutor = this.parseMinExecutor(scalable);
-		this.maxExecutor = this.parseMaxExecutor(scalable);
+		this.minExecutorExpression = this.parseMinExecutor(scalable);
+		this.minExecutor = USizing.instance.resolve(this.minExecutorExpression);
+		this.maxExecutorExpression = this.parseMaxExecutor(scalable);
+		this.maxExecutor = USizing.instance.resolve(this.maxExecutorExpression);
 		this.timeout = this.parseTimeout(scalable);
+		this.adaptive = new ConfigAdaptiveSizing(scalable);
+	}
+	
+	/**
+	 * Constructor of <code>ConfigScalableService</code>.
+	 * @param buffer The <code>ByteBuffer</code> of a
+	 * configuration snapshot to read the values from.
+	 */
+	public ConfigScalableService(final ByteBuffer buffer) {
+		this.minExecutorExpression = USnapshot.instance.readString(buffer);
+		this.minExecutor = USizing.instance.resolve(this.minExecutorExpression);
+		this.maxExecutorExpression = USnapshot.instance.readString(buffer);
+		this.maxExecutor = USizing.instance.resolve(this.maxExecutorExpression);
+		this.timeout = USnapshot.instance.readString(buffer);
+		this.adaptive = new ConfigAdaptiveSizing(buffer);
 	}
 	
 	/**
@@ -71,28 +113,28 @@ public class ConfigScalableService {
 	 * Parse the minimum executor count value.
 	 * @param scalable The <code>Element</code> of the
 	 * scalable service to parse from.
-	 * @return The <code>int</code> value.
+	 * @return The <code>String</code> sizing expression.
 	 */
-	private int parseMinExecutor(final Element scalable) {
+	private String parseMinExecutor(final Element scalable) {
 		final NodeList list = scalable.getElementsByTagName(KConfigScalableService.MinExecutor.tag);
 		if (list == null || list.getLength() != 1) {
 			throw new IllegalArgumentException("Invalid scalable service configuration. Must contain one minimum executor count tag.");
 		}
-		return Integer.valueOf(list.item(0).getTextContent());
+		return list.item(0).getTextContent().trim();
 	}
 	
 	/**
 	 * Parse the maximum executor count value.
 	 * @param scalable The <code>Element</code> of the
 	 * scalable service to parse from.
-	 * @return The <code>int</code> value.
+	 * @return The <code>String</code> sizing expression.
 	 */
-	private int parseMaxExecutor(final Element scalable) {
+	private String parseMaxExecutor(final Element scalable) {
 		final NodeList list = scalable.getElementsByTagName(KConfigScalableService.MaxExecutor.tag);
 		if (list == null || list.getLength() != 1) {
 			throw new IllegalArgumentException("Invalid scalable service configuration. Must contain one maximum executor count tag.");
 		}
-		return Integer.valueOf(list.item(0).getTextContent());
+		return list.item(0).getTextContent().trim();
 	}
 	
 	/**
@@ -120,16 +162,64 @@ public class ConfigScalableService {
 		final Element scalable = document.createElement(KConfigScalableService.Root.tag);
 		// Minimum executor count tag.
 		final Element minimum = document.createElement(KConfigScalableService.MinExecutor.tag);
-		minimum.setTextContent(String.valueOf(this.minExecutor));
+		minimum.setTextContent(this.minExecutorExpression);
 		scalable.appendChild(minimum);
 		// Maximum executor count tag.
 		final Element maximum = document.createElement(KConfigScalableService.MaxExecutor.tag);
-		maximum.setTextContent(String.valueOf(this.maxExecutor));
+		maximum.setTextContent(this.maxExecutorExpression);
 		scalable.appendChild(maximum);
 		// Time out tag.
 		final Element timeout = document.createElement(KConfigScalableService.Timeout.tag);
 		timeout.setTextContent(this.timeout);
 		scalable.appendChild(timeout);
+		// Adaptive sizing tag.
+		final Element adaptive = this.adaptive.toXML(document);
+		scalable.appendChild(adaptive);
 		return scalable;
 	}
+	
+	/**
+	 * Write this configuration to the given snapshot
+	 * output.
+	 * @param output The <code>DataOutput</code> to
+	 * write to.
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final DataOutput output) throws IOException {
+		USnapshot.instance.writeString(output, this.minExecutorExpression);
+		USnapshot.instance.writeString(output, this.maxExecutorExpression);
+		USnapshot.instance.writeString(output, this.timeout);
+		this.adaptive.write(output);
+	}
+	
+	/**
+	 * Validate the values of this configuration.
+	 * @throws IllegalArgumentException If any value
+	 * is invalid.
+	 */
+	public void validate() {
+		if (this.minExecutor < 0) {
+			throw new IllegalArgumentException("Invalid scalable service configuration. Minimum executor count must not be negative.");
+		} else if (this.maxExecutor <= 0 || this.maxExecutor < this.minExecutor) {
+			throw new IllegalArgumentException("Invalid scalable service configuration. Maximum executor count must be positive and not less than minimum.");
+		}
+		this.adaptive.validate();
+	}
+	
+	/**
+	 * Record the differences between this configuration
+	 * and the given one.
+	 * @param current The current <code>ConfigScalableService</code>.
+	 * @param path The <code>String</code> path of this
+	 * configuration tag.
+	 * @param diff The <code>ConfigDiff</code> to record
+	 * the changes into.
+	 */
+	void diff(final ConfigScalableService current, final String path, final ConfigDiff diff) {
+		// Scalable pool bounds can be adjusted while running.
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigScalableService.MinExecutor.tag, this.minExecutor, current.minExecutor, EChangeImpact.Live);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigScalableService.MaxExecutor.tag, this.maxExecutor, current.maxExecutor, EChangeImpact.Live);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigScalableService.Timeout.tag, this.timeout, current.timeout, EChangeImpact.Live);
+		this.adaptive.diff(current.adaptive, path+"/"+KConfigAdaptiveSizing.Root.tag, diff);
+	}
 }
@@ -0,0 +1,247 @@
+package hemera.core.environment.config;
+
+import hemera.core.environment.config.key.KConfigSelector;
+import hemera.core.environment.enumn.EChangeImpact;
+import hemera.core.environment.enumn.EConfigSection;
+import hemera.core.environment.util.USizing;
+import hemera.core.environment.util.USnapshot;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * <code>ConfigSelector</code> defines the structure of
+ * the selector configuration of the non-blocking socket
+ * mode.
+ * <p>
+ * The acceptor threads accept the new connections and
+ * hand each of them to the selector thread serving the
+ * fewest connections of the shard of the acceptor. The
+ * selector threads are divided evenly between the
+ * acceptor threads. When the listening port is reused,
+ * each acceptor thread accepts from its own listening
+ * socket and the kernel spreads the new connections
+ * between them. Each selector thread multiplexes
+ * its connections, up to the maximum number of
+ * connections. A connection accepted while all the
+ * selector threads are full is closed.
+ * <p>
+ * This section is optional. Configuration files that do
+ * not contain it use the default values, which are one
+ * acceptor thread and one unbounded selector thread per
+ * core.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.1
+ */
+public class ConfigSelector {
+	/**
+	 * The <code>int</code> number of acceptor threads.
+	 */
+	public final int acceptorThreads;
+	/**
+	 * The <code>String</code> sizing expression the
+	 * number of acceptor threads is resolved from.
+	 */
+	public final String acceptorThreadsExpression;
+	/**
+	 * The <code>int</code> number of selector threads.
+	 */
+	public final int selectorThreads;
+	/**
+	 * The <code>String</code> sizing expression the
+	 * number of selector threads is resolved from.
+	 */
+	public final String selectorThreadsExpression;
+	/**
+	 * The <code>int</code> maximum number of connections
+	 * of each selector thread. <code>0</code> means the
+	 * number is not limited.
+	 */
+	public final int maxConnections;
+	/**
+	 * The <code>String</code> sizing expression the
+	 * maximum number of connections is resolved from.
+	 */
+	public final String maxConnectionsExpression;
+
+	/**
+	 * Constructor of <code>ConfigSelector</code>.
+	 */
+	public ConfigSelector() {
+		this.acceptorThreadsExpression = "1";
+		this.acceptorThreads = USizing.instance.resolve(this.acceptorThreadsExpression);
+		this.selectorThreadsExpression = "cores";
+		this.selectorThreads = USizing.instance.resolve(this.selectorThreadsExpression);
+		this.maxConnectionsExpression = "0";
+		this.maxConnections = USizing.instance.resolve(this.maxConnectionsExpression);
+	}
+
+	/**
+	 * Constructor of <code>ConfigSelector</code>.
+	 * @param socket The <code>Element</code> of the
+	 * socket tag to parse from.
+	 */
+	public ConfigSelector(final Element socket) {
+		final Element selector = this.parseSelector(socket);
+		if (selector == null) {
+			this.acceptorThreadsExpression = "1";
+			this.selectorThreadsExpression = "cores";
+			this.maxConnectionsExpression = "0";
+		} else {
+			this.acceptorThreadsExpression = this.parseAcceptorThreads(selector);
+			this.selectorThreadsExpression = this.parseSelectorThreads(selector);
+			this.maxConnectionsExpression = this.parseMaxConnections(selector);
+		}
+		this.acceptorThreads = USizing.instance.resolve(this.acceptorThreadsExpression);
+		this.selectorThreads = USizing.instance.resolve(this.selectorThreadsExpression);
+		this.maxConnections = USizing.instance.resolve(this.maxConnectionsExpression);
+	}
+
+	/**
+	 * Constructor of <code>ConfigSelector</code>.
+	 * @param buffer The <code>ByteBuffer</code> of a
+	 * configuration snapshot to read the values from.
+	 */
+	public ConfigSelector(final ByteBuffer buffer) {
+		this.acceptorThreadsExpression = USnapshot.instance.readString(buffer);
+		this.acceptorThreads = USizing.instance.resolve(this.acceptorThreadsExpression);
+		this.selectorThreadsExpression = USnapshot.instance.readString(buffer);
+		this.selectorThreads = USizing.instance.resolve(this.selectorThreadsExpression);
+		this.maxConnectionsExpression = USnapshot.instance.readString(buffer);
+		this.maxConnections = USizing.instance.resolve(this.maxConnectionsExpression);
+	}
+
+	/**
+	 * Parse the optional selector tag.
+	 * @param socket The <code>Element</code> of the
+	 * socket tag to parse from.
+	 * @return The selector <code>Element</code>. Or
+	 * <code>null</code> if there is no such tag.
+	 */
+	private Element parseSelector(final Element socket) {
+		final NodeList list = socket.getElementsByTagName(KConfigSelector.Root.tag);
+		if (list == null || list.getLength() == 0) return null;
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid socket configuration. Must contain at most one selector tag.");
+		}
+		return (Element)list.item(0);
+	}
+
+	/**
+	 * Parse the acceptor threads value.
+	 * @param selector The selector <code>Element</code>
+	 * to parse from.
+	 * @return The <code>String</code> sizing expression.
+	 */
+	private String parseAcceptorThreads(final Element selector) {
+		final NodeList list = selector.getElementsByTagName(KConfigSelector.AcceptorThreads.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid selector configuration. Must contain one acceptor threads tag.");
+		}
+		return list.item(0).getTextContent().trim();
+	}
+
+	/**
+	 * Parse the selector threads value.
+	 * @param selector The selector <code>Element</code>
+	 * to parse from.
+	 * @return The <code>String</code> sizing expression.
+	 */
+	private String parseSelectorThreads(final Element selector) {
+		final NodeList list = selector.getElementsByTagName(KConfigSelector.SelectorThreads.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid selector configuration. Must contain one selector threads tag.");
+		}
+		return list.item(0).getTextContent().trim();
+	}
+
+	/**
+	 * Parse the optional maximum connections value.
+	 * @param selector The selector <code>Element</code>
+	 * to parse from.
+	 * @return The <code>String</code> sizing expression.
+	 * Or <code>0</code> if there is no such tag.
+	 */
+	private String parseMaxConnections(final Element selector) {
+		final NodeList list = selector.getElementsByTagName(KConfigSelector.MaxConnections.tag);
+		if (list == null || list.getLength() == 0) return "0";
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid selector configuration. Must contain at most one maximum connections tag.");
+		}
+		return list.item(0).getTextContent().trim();
+	}
+
+	/**
+	 * Create the selector tag.
+	 * @param document The <code>Document</code> to
+	 * create the new tags from.
+	 * @return The <code>Element</code> for selector.
+	 */
+	public Element toXML(final Document document) {
+		final Element selector = document.createElement(KConfigSelector.Root.tag);
+		// Acceptor threads tag.
+		final Element acceptorThreads = document.createElement(KConfigSelector.AcceptorThreads.tag);
+		acceptorThreads.setTextContent(this.acceptorThreadsExpression);
+		selector.appendChild(acceptorThreads);
+		// Selector threads tag.
+		final Element selectorThreads = document.createElement(KConfigSelector.SelectorThreads.tag);
+		selectorThreads.setTextContent(this.selectorThreadsExpression);
+		selector.appendChild(selectorThreads);
+		// Maximum connections tag.
+		final Element maxConnections = document.createElement(KConfigSelector.MaxConnections.tag);
+		maxConnections.setTextContent(this.maxConnectionsExpression);
+		selector.appendChild(maxConnections);
+		return selector;
+	}
+
+	/**
+	 * Write this configuration to the given snapshot
+	 * output.
+	 * @param output The <code>DataOutput</code> to
+	 * write to.
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final DataOutput output) throws IOException {
+		USnapshot.instance.writeString(output, this.acceptorThreadsExpression);
+		USnapshot.instance.writeString(output, this.selectorThreadsExpression);
+		USnapshot.instance.writeString(output, this.maxConnectionsExpression);
+	}
+
+	/**
+	 * Validate the values of this configuration.
+	 * @throws IllegalArgumentException If any value
+	 * is invalid.
+	 */
+	public void validate() {
+		if (this.acceptorThreads <= 0) {
+			throw new IllegalArgumentException("Invalid selector configuration. Acceptor threads must be positive.");
+		} else if (this.selectorThreads <= 0) {
+			throw new IllegalArgumentException("Invalid selector configuration. Selector threads must be positive.");
+		} else if (this.maxConnections < 0) {
+			throw new IllegalArgumentException("Invalid selector configuration. Maximum connections must not be negative.");
+		}
+	}
+
+	/**
+	 * Record the differences between this configuration
+	 * and the given one.
+	 * @param current The current <code>ConfigSelector</code>.
+	 * @param path The <code>String</code> path of this
+	 * configuration tag.
+	 * @param diff The <code>ConfigDiff</code> to record
+	 * the changes into.
+	 */
+	void diff(final ConfigSelector current, final String path, final ConfigDiff diff) {
+		// The threads are started with the listener, the
+		// limit is read on every accepted connection.
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigSelector.AcceptorThreads.tag, this.acceptorThreads, current.acceptorThreads, EChangeImpact.Restart);
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigSelector.SelectorThreads.tag, this.selectorThreads, current.selectorThreads, EChangeImpact.Restart);
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigSelector.MaxConnections.tag, this.maxConnections, current.maxConnections, EChangeImpact.Live);
+	}
+}
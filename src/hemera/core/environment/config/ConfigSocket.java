@@ -1,6 +1,20 @@
 package hemera.core.environment.config;
 
+import hemera.core.environment.config.key.KConfigBufferPool;
+import hemera.core.environment.config.key.KConfigSelector;
 import hemera.core.environment.config.key.KConfigSocket;
+import hemera.core.environment.config.key.KConfigStaticFiles;
+import hemera.core.environment.config.key.KConfigTLS;
+import hemera.core.environment.enumn.EChangeImpact;
+import hemera.core.environment.enumn.EConfigSection;
+import hemera.core.environment.enumn.ESocketMode;
+import hemera.core.environment.util.USizing;
+import hemera.core.environment.util.USnapshot;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -9,9 +23,31 @@ import org.w3c.dom.NodeList;
 /**
  * <code>ConfigSocket</code> defines the structure of
  * the socket configuration.
+ * <p>
+ * Configuration files written before the socket mode
+ * was introduced do not contain the mode, backlog and
+ * selector tags, and use the blocking mode with the
+ * platform default backlog.
+ * <p>
+ * The buffer size is the largest buffer a connection
+ * borrows from the buffer pool. The receive and send
+ * buffer sizes are the kernel buffers of each socket,
+ * where <code>0</code> keeps the platform default.
+ * <p>
+ * Configuration files written before the socket
+ * options were introduced do not contain the no delay,
+ * reuse port and kernel buffer size tags, and disable
+ * Nagle's algorithm with a single listening socket.
+ * <p>
+ * The certificate and the key password enable TLS,
+ * which the non-blocking mode configures with the TLS
+ * section.
+ * <p>
+ * The static files section configures the serving of
+ * the resources directories of the applications.
  *
  * @author Yi Wang (Neakor)
- * @version 1.0.2
+ * @version 1.0.8
  */
 public class ConfigSocket {
 	/**
@@ -29,6 +65,11 @@ public class ConfigSocket {
 	 * bytes.
 	 */
 	public final int bufferSize;
+	/**
+	 * The <code>String</code> sizing expression the
+	 * buffer size is resolved from.
+	 */
+	public final String bufferSizeExpression;
 	/**
 	 * The <code>String</code> optional path to the
 	 * SSL certificate.
@@ -39,6 +80,68 @@ public class ConfigSocket {
 	 * to protect the certificate public key.
 	 */
 	public final String keyPass;
+	/**
+	 * The <code>ESocketMode</code> of the connection
+	 * handling.
+	 */
+	public final ESocketMode mode;
+	/**
+	 * The <code>int</code> maximum number of pending
+	 * connections that are not accepted yet. <code>0</code>
+	 * means the platform default is used.
+	 */
+	public final int backlog;
+	/**
+	 * The <code>ConfigSelector</code> instance used by
+	 * the non-blocking mode.
+	 */
+	public final ConfigSelector selector;
+	/**
+	 * The <code>boolean</code> flag indicating if Nagle's
+	 * algorithm is disabled on the accepted connections.
+	 */
+	public final boolean tcpNoDelay;
+	/**
+	 * The <code>boolean</code> flag indicating if each
+	 * acceptor thread binds its own listening socket to
+	 * the port where the platform supports it.
+	 */
+	public final boolean reusePort;
+	/**
+	 * The <code>int</code> kernel receive buffer size in
+	 * bytes. <code>0</code> means the platform default is
+	 * used.
+	 */
+	public final int receiveBufferSize;
+	/**
+	 * The <code>String</code> sizing expression the
+	 * receive buffer size is resolved from.
+	 */
+	public final String receiveBufferSizeExpression;
+	/**
+	 * The <code>int</code> kernel send buffer size in
+	 * bytes. <code>0</code> means the platform default is
+	 * used.
+	 */
+	public final int sendBufferSize;
+	/**
+	 * The <code>String</code> sizing expression the send
+	 * buffer size is resolved from.
+	 */
+	public final String sendBufferSizeExpression;
+	/**
+	 * The <code>ConfigTLS</code> instance used by the
+	 * non-blocking mode.
+	 */
+	public final ConfigTLS tls;
+	/**
+	 * The <code>ConfigBufferPool</code> instance.
+	 */
+	public final ConfigBufferPool bufferPool;
+	/**
+	 * The <code>ConfigStaticFiles</code> instance.
+	 */
+	public final ConfigStaticFiles staticFiles;
 
 	/**
 	 * Constructor of <code>ConfigSocket</code>.
@@ -47,8 +150,21 @@ public class ConfigSocket {
 		this.port = 80;
 		this.timeout = 30000;
 		this.bufferSize = 524288;
+		this.bufferSizeExpression = String.valueOf(this.bufferSize);
 		this.certPath = null;
 		this.keyPass = null;
+		this.mode = ESocketMode.Blocking;
+		this.backlog = 0;
+		this.selector = new ConfigSelector();
+		this.tcpNoDelay = true;
+		this.reusePort = false;
+		this.receiveBufferSizeExpression = "0";
+		this.receiveBufferSize = USizing.instance.resolve(this.receiveBufferSizeExpression);
+		this.sendBufferSizeExpression = "0";
+		this.sendBufferSize = USizing.instance.resolve(this.sendBufferSizeExpression);
+		this.tls = new ConfigTLS();
+		this.bufferPool = new ConfigBufferPool();
+		this.staticFiles = new ConfigStaticFiles();
 	}
 
 	/**
@@ -60,9 +176,48 @@ public class ConfigSocket {
 		final Element socket = this.parseSocket(runtime);
 		this.port = this.parsePort(socket);
 		this.timeout = this.parseTimeout(socket);
-		this.bufferSize = this.parseBufferSize(socket);
+		this.bufferSizeExpression = this.parseBufferSize(socket);
+		this.bufferSize = USizing.instance.resolve(this.bufferSizeExpression);
 		this.certPath = this.parseCertPath(socket);
 		this.keyPass = this.parseKeyPassword(socket);
+		this.mode = this.parseMode(socket);
+		this.backlog = this.parseBacklog(socket);
+		this.selector = new ConfigSelector(socket);
+		this.tcpNoDelay = this.parseTcpNoDelay(socket);
+		this.reusePort = this.parseReusePort(socket);
+		this.receiveBufferSizeExpression = this.parseKernelBufferSize(socket, KConfigSocket.ReceiveBufferSize.tag);
+		this.receiveBufferSize = USizing.instance.resolve(this.receiveBufferSizeExpression);
+		this.sendBufferSizeExpression = this.parseKernelBufferSize(socket, KConfigSocket.SendBufferSize.tag);
+		this.sendBufferSize = USizing.instance.resolve(this.sendBufferSizeExpression);
+		this.tls = new ConfigTLS(socket);
+		this.bufferPool = new ConfigBufferPool(socket);
+		this.staticFiles = new ConfigStaticFiles(socket);
+	}
+
+	/**
+	 * Constructor of <code>ConfigSocket</code>.
+	 * @param buffer The <code>ByteBuffer</code> of a
+	 * configuration snapshot to read the values from.
+	 */
+	public ConfigSocket(final ByteBuffer buffer) {
+		this.port = buffer.getInt();
+		this.timeout = buffer.getInt();
+		this.bufferSizeExpression = USnapshot.instance.readString(buffer);
+		this.bufferSize = USizing.instance.resolve(this.bufferSizeExpression);
+		this.certPath = USnapshot.instance.readString(buffer);
+		this.keyPass = USnapshot.instance.readString(buffer);
+		this.mode = ESocketMode.parse(USnapshot.instance.readString(buffer));
+		this.backlog = buffer.getInt();
+		this.selector = new ConfigSelector(buffer);
+		this.tcpNoDelay = USnapshot.instance.readBoolean(buffer);
+		this.reusePort = USnapshot.instance.readBoolean(buffer);
+		this.receiveBufferSizeExpression = USnapshot.instance.readString(buffer);
+		this.receiveBufferSize = USizing.instance.resolve(this.receiveBufferSizeExpression);
+		this.sendBufferSizeExpression = USnapshot.instance.readString(buffer);
+		this.sendBufferSize = USizing.instance.resolve(this.sendBufferSizeExpression);
+		this.tls = new ConfigTLS(buffer);
+		this.bufferPool = new ConfigBufferPool(buffer);
+		this.staticFiles = new ConfigStaticFiles(buffer);
 	}
 
 	/**
@@ -111,14 +266,14 @@ public class ConfigSocket {
 	 * Parse the buffer size value.
 	 * @param socket The <code>Element</code> of the
 	 * socket tag to parse from.
-	 * @return The <code>int</code> value.
+	 * @return The <code>String</code> sizing expression.
 	 */
-	private int parseBufferSize(final Element socket) {
+	private String parseBufferSize(final Element socket) {
 		final NodeList list = socket.getElementsByTagName(KConfigSocket.BufferSize.tag);
 		if (list == null || list.getLength() != 1) {
 			throw new IllegalArgumentException("Invalid socket configuration. Must contain one buffer size tag.");
 		}
-		return Integer.valueOf(list.item(0).getTextContent());
+		return list.item(0).getTextContent().trim();
 	}
 
 	/**
@@ -153,6 +308,89 @@ public class ConfigSocket {
 		else return text;
 	}
 
+	/**
+	 * Parse the optional mode value.
+	 * @param socket The <code>Element</code> of the
+	 * socket tag to parse from.
+	 * @return The <code>ESocketMode</code> value. Or the
+	 * blocking mode if there is no such tag.
+	 */
+	private ESocketMode parseMode(final Element socket) {
+		final NodeList list = socket.getElementsByTagName(KConfigSocket.Mode.tag);
+		if (list == null || list.getLength() == 0) return ESocketMode.Blocking;
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid socket configuration. Must contain at most one mode tag.");
+		}
+		return ESocketMode.parse(list.item(0).getTextContent().trim());
+	}
+
+	/**
+	 * Parse the optional backlog value.
+	 * @param socket The <code>Element</code> of the
+	 * socket tag to parse from.
+	 * @return The <code>int</code> value. Or <code>0</code>
+	 * if there is no such tag.
+	 */
+	private int parseBacklog(final Element socket) {
+		final NodeList list = socket.getElementsByTagName(KConfigSocket.Backlog.tag);
+		if (list == null || list.getLength() == 0) return 0;
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid socket configuration. Must contain at most one backlog tag.");
+		}
+		return Integer.valueOf(list.item(0).getTextContent().trim());
+	}
+
+	/**
+	 * Parse the optional TCP no delay value.
+	 * @param socket The <code>Element</code> of the
+	 * socket tag to parse from.
+	 * @return The <code>boolean</code> value. Or
+	 * <code>true</code> if there is no such tag.
+	 */
+	private boolean parseTcpNoDelay(final Element socket) {
+		final NodeList list = socket.getElementsByTagName(KConfigSocket.TcpNoDelay.tag);
+		if (list == null || list.getLength() == 0) return true;
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid socket configuration. Must contain at most one TCP no delay tag.");
+		}
+		return Boolean.valueOf(list.item(0).getTextContent().trim());
+	}
+
+	/**
+	 * Parse the optional reuse port value.
+	 * @param socket The <code>Element</code> of the
+	 * socket tag to parse from.
+	 * @return The <code>boolean</code> value. Or
+	 * <code>false</code> if there is no such tag.
+	 */
+	private boolean parseReusePort(final Element socket) {
+		final NodeList list = socket.getElementsByTagName(KConfigSocket.ReusePort.tag);
+		if (list == null || list.getLength() == 0) return false;
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid socket configuration. Must contain at most one reuse port tag.");
+		}
+		return Boolean.valueOf(list.item(0).getTextContent().trim());
+	}
+
+	/**
+	 * Parse the optional kernel buffer size value of
+	 * the given tag.
+	 * @param socket The <code>Element</code> of the
+	 * socket tag to parse from.
+	 * @param tag The <code>String</code> tag of the
+	 * kernel buffer size.
+	 * @return The <code>String</code> sizing expression.
+	 * Or <code>0</code> if there is no such tag.
+	 */
+	private String parseKernelBufferSize(final Element socket, final String tag) {
+		final NodeList list = socket.getElementsByTagName(tag);
+		if (list == null || list.getLength() == 0) return "0";
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid socket configuration. Must contain at most one " + tag + " tag.");
+		}
+		return list.item(0).getTextContent().trim();
+	}
+
 	/**
 	 * Create the socket configuration tag.
 	 * @param document The <code>Document</code> to
@@ -172,7 +410,7 @@ public class ConfigSocket {
 		socket.appendChild(timeout);
 		// Buffer size tag.
 		final Element buffersize = document.createElement(KConfigSocket.BufferSize.tag);
-		buffersize.setTextContent(String.valueOf(this.bufferSize));
+		buffersize.setTextContent(this.bufferSizeExpression);
 		socket.appendChild(buffersize);
 		// Certificate tag.
 		final Element certPath = document.createElement(KConfigSocket.Certificate.tag);
@@ -186,6 +424,139 @@ public class ConfigSocket {
 			keyPass.setTextContent(this.keyPass);
 		}
 		socket.appendChild(keyPass);
+		// Mode tag.
+		final Element mode = document.createElement(KConfigSocket.Mode.tag);
+		mode.setTextContent(this.mode.value);
+		socket.appendChild(mode);
+		// Backlog tag.
+		final Element backlog = document.createElement(KConfigSocket.Backlog.tag);
+		backlog.setTextContent(String.valueOf(this.backlog));
+		socket.appendChild(backlog);
+		// Selector tag.
+		final Element selector = this.selector.toXML(document);
+		socket.appendChild(selector);
+		// TCP no delay tag.
+		final Element tcpNoDelay = document.createElement(KConfigSocket.TcpNoDelay.tag);
+		tcpNoDelay.setTextContent(String.valueOf(this.tcpNoDelay));
+		socket.appendChild(tcpNoDelay);
+		// Reuse port tag.
+		final Element reusePort = document.createElement(KConfigSocket.ReusePort.tag);
+		reusePort.setTextContent(String.valueOf(this.reusePort));
+		socket.appendChild(reusePort);
+		// Receive buffer size tag.
+		final Element receiveBufferSize = document.createElement(KConfigSocket.ReceiveBufferSize.tag);
+		receiveBufferSize.setTextContent(this.receiveBufferSizeExpression);
+		socket.appendChild(receiveBufferSize);
+		// Send buffer size tag.
+		final Element sendBufferSize = document.createElement(KConfigSocket.SendBufferSize.tag);
+		sendBufferSize.setTextContent(this.sendBufferSizeExpression);
+		socket.appendChild(sendBufferSize);
+		// TLS tag.
+		final Element tls = this.tls.toXML(document);
+		socket.appendChild(tls);
+		// Buffer pool tag.
+		final Element bufferPool = this.bufferPool.toXML(document);
+		socket.appendChild(bufferPool);
+		// Static files tag.
+		final Element staticFiles = this.staticFiles.toXML(document);
+		socket.appendChild(staticFiles);
 		return socket;
 	}
+
+	/**
+	 * Write this configuration to the given snapshot
+	 * output.
+	 * @param output The <code>DataOutput</code> to
+	 * write to.
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final DataOutput output) throws IOException {
+		output.writeInt(this.port);
+		output.writeInt(this.timeout);
+		USnapshot.instance.writeString(output, this.bufferSizeExpression);
+		USnapshot.instance.writeString(output, this.certPath);
+		USnapshot.instance.writeString(output, this.keyPass);
+		USnapshot.instance.writeString(output, this.mode.value);
+		output.writeInt(this.backlog);
+		this.selector.write(output);
+		output.writeBoolean(this.tcpNoDelay);
+		output.writeBoolean(this.reusePort);
+		USnapshot.instance.writeString(output, this.receiveBufferSizeExpression);
+		USnapshot.instance.writeString(output, this.sendBufferSizeExpression);
+		this.tls.write(output);
+		this.bufferPool.write(output);
+		this.staticFiles.write(output);
+	}
+
+	/**
+	 * Add the JVM arguments of the platform flags this
+	 * configuration depends on.
+	 * @param arguments The <code>List</code> of
+	 * <code>String</code> arguments to add to.
+	 */
+	void addArguments(final List<String> arguments) {
+		this.tls.addArguments(arguments);
+	}
+
+	/**
+	 * Validate the values of this configuration.
+	 * @throws IllegalArgumentException If any value
+	 * is invalid.
+	 */
+	public void validate() {
+		if (this.port < 0 || this.port > 65535) {
+			throw new IllegalArgumentException("Invalid socket configuration. Port must be between 0 and 65535.");
+		} else if (this.timeout < 0) {
+			throw new IllegalArgumentException("Invalid socket configuration. Timeout must not be negative.");
+		} else if (this.bufferSize <= 0) {
+			throw new IllegalArgumentException("Invalid socket configuration. Buffer size must be positive.");
+		} else if (this.backlog < 0) {
+			throw new IllegalArgumentException("Invalid socket configuration. Backlog must not be negative.");
+		} else if (this.receiveBufferSize < 0) {
+			throw new IllegalArgumentException("Invalid socket configuration. Receive buffer size must not be negative.");
+		} else if (this.sendBufferSize < 0) {
+			throw new IllegalArgumentException("Invalid socket configuration. Send buffer size must not be negative.");
+		}
+		this.selector.validate();
+		this.tls.validate();
+		this.bufferPool.validate();
+		this.staticFiles.validate();
+	}
+
+	/**
+	 * Record the differences between this configuration
+	 * and the given one.
+	 * @param current The current <code>ConfigSocket</code>.
+	 * @param path The <code>String</code> path of this
+	 * configuration tag.
+	 * @param diff The <code>ConfigDiff</code> to record
+	 * the changes into.
+	 */
+	void diff(final ConfigSocket current, final String path, final ConfigDiff diff) {
+		// The listening socket is bound and the buffer pool
+		// sizes its largest class by the buffer size when
+		// the runtime starts, timeout applies to every new
+		// connection.
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigSocket.Port.tag, this.port, current.port, EChangeImpact.Restart);
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigSocket.Timeout.tag, this.timeout, current.timeout, EChangeImpact.Live);
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigSocket.BufferSize.tag, this.bufferSize, current.bufferSize, EChangeImpact.Restart);
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigSocket.Certificate.tag, this.certPath, current.certPath, EChangeImpact.Restart);
+		diff.compareSecret(EConfigSection.Socket, path+"/"+KConfigSocket.KeyPassword.tag, this.keyPass, current.keyPass, EChangeImpact.Restart);
+		// The mode and backlog are applied when the listening
+		// socket is bound.
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigSocket.Mode.tag, this.mode, current.mode, EChangeImpact.Restart);
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigSocket.Backlog.tag, this.backlog, current.backlog, EChangeImpact.Restart);
+		this.selector.diff(current.selector, path+"/"+KConfigSelector.Root.tag, diff);
+		// The listening sockets and the receive buffer size
+		// inherited by the accepted connections are set up
+		// when bound, the others apply to every new
+		// connection.
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigSocket.TcpNoDelay.tag, this.tcpNoDelay, current.tcpNoDelay, EChangeImpact.Live);
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigSocket.ReusePort.tag, this.reusePort, current.reusePort, EChangeImpact.Restart);
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigSocket.ReceiveBufferSize.tag, this.receiveBufferSize, current.receiveBufferSize, EChangeImpact.Restart);
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigSocket.SendBufferSize.tag, this.sendBufferSize, current.sendBufferSize, EChangeImpact.Live);
+		this.tls.diff(current.tls, path+"/"+KConfigTLS.Root.tag, diff);
+		this.bufferPool.diff(current.bufferPool, path+"/"+KConfigBufferPool.Root.tag, diff);
+		this.staticFiles.diff(current.staticFiles, path+"/"+KConfigStaticFiles.Root.tag, diff);
+	}
 }
@@ -0,0 +1,230 @@
+package hemera.core.environment.config;
+
+import hemera.core.environment.config.key.KConfigStaticFiles;
+import hemera.core.environment.enumn.EChangeImpact;
+import hemera.core.environment.enumn.EConfigSection;
+import hemera.core.environment.util.USizing;
+import hemera.core.environment.util.USnapshot;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * <code>ConfigStaticFiles</code> defines the structure
+ * of the serving of the static files of the resources
+ * directories of the deployed applications.
+ * <p>
+ * A file requested at least the hot threshold number
+ * of times, whose size does not exceed the mapped file
+ * size, is memory mapped while the mapped memory of all
+ * the files stays within the mapped cache size. The
+ * other files are read from their file channel.
+ * <p>
+ * This section is optional. Configuration files that do
+ * not contain it use the default values.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class ConfigStaticFiles {
+	/**
+	 * The <code>long</code> maximum size in bytes of all
+	 * the mapped files.
+	 */
+	public final long mappedCacheSize;
+	/**
+	 * The <code>String</code> sizing expression the
+	 * mapped cache size is resolved from.
+	 */
+	public final String mappedCacheSizeExpression;
+	/**
+	 * The <code>int</code> size in bytes of the largest
+	 * file that is mapped.
+	 */
+	public final int mappedFileSize;
+	/**
+	 * The <code>String</code> sizing expression the
+	 * mapped file size is resolved from.
+	 */
+	public final String mappedFileSizeExpression;
+	/**
+	 * The <code>int</code> number of requests of a file
+	 * after which it is mapped.
+	 */
+	public final int hotThreshold;
+
+	/**
+	 * Constructor of <code>ConfigStaticFiles</code>.
+	 */
+	public ConfigStaticFiles() {
+		this.mappedCacheSizeExpression = "67108864";
+		this.mappedCacheSize = USizing.instance.resolveLong(this.mappedCacheSizeExpression);
+		this.mappedFileSizeExpression = "65536";
+		this.mappedFileSize = USizing.instance.resolve(this.mappedFileSizeExpression);
+		this.hotThreshold = 2;
+	}
+
+	/**
+	 * Constructor of <code>ConfigStaticFiles</code>.
+	 * @param socket The <code>Element</code> of the
+	 * socket tag to parse from.
+	 */
+	public ConfigStaticFiles(final Element socket) {
+		final Element files = this.parseStaticFiles(socket);
+		if (files == null) {
+			this.mappedCacheSizeExpression = "67108864";
+			this.mappedFileSizeExpression = "65536";
+			this.hotThreshold = 2;
+		} else {
+			this.mappedCacheSizeExpression = this.parseMappedCacheSize(files);
+			this.mappedFileSizeExpression = this.parseMappedFileSize(files);
+			this.hotThreshold = this.parseHotThreshold(files);
+		}
+		this.mappedCacheSize = USizing.instance.resolveLong(this.mappedCacheSizeExpression);
+		this.mappedFileSize = USizing.instance.resolve(this.mappedFileSizeExpression);
+	}
+
+	/**
+	 * Constructor of <code>ConfigStaticFiles</code>.
+	 * @param buffer The <code>ByteBuffer</code> of a
+	 * configuration snapshot to read the values from.
+	 */
+	public ConfigStaticFiles(final ByteBuffer buffer) {
+		this.mappedCacheSizeExpression = USnapshot.instance.readString(buffer);
+		this.mappedCacheSize = USizing.instance.resolveLong(this.mappedCacheSizeExpression);
+		this.mappedFileSizeExpression = USnapshot.instance.readString(buffer);
+		this.mappedFileSize = USizing.instance.resolve(this.mappedFileSizeExpression);
+		this.hotThreshold = buffer.getInt();
+	}
+
+	/**
+	 * Parse the optional static files tag.
+	 * @param socket The <code>Element</code> of the
+	 * socket tag to parse from.
+	 * @return The static files <code>Element</code>. Or
+	 * <code>null</code> if there is no such tag.
+	 */
+	private Element parseStaticFiles(final Element socket) {
+		final NodeList list = socket.getElementsByTagName(KConfigStaticFiles.Root.tag);
+		if (list == null || list.getLength() == 0) return null;
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid socket configuration. Must contain at most one static files tag.");
+		}
+		return (Element)list.item(0);
+	}
+
+	/**
+	 * Parse the mapped cache size value.
+	 * @param files The static files <code>Element</code>
+	 * to parse from.
+	 * @return The <code>String</code> sizing expression.
+	 */
+	private String parseMappedCacheSize(final Element files) {
+		final NodeList list = files.getElementsByTagName(KConfigStaticFiles.MappedCacheSize.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid static files configuration. Must contain one mapped cache size tag.");
+		}
+		return list.item(0).getTextContent().trim();
+	}
+
+	/**
+	 * Parse the mapped file size value.
+	 * @param files The static files <code>Element</code>
+	 * to parse from.
+	 * @return The <code>String</code> sizing expression.
+	 */
+	private String parseMappedFileSize(final Element files) {
+		final NodeList list = files.getElementsByTagName(KConfigStaticFiles.MappedFileSize.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid static files configuration. Must contain one mapped file size tag.");
+		}
+		return list.item(0).getTextContent().trim();
+	}
+
+	/**
+	 * Parse the hot threshold value.
+	 * @param files The static files <code>Element</code>
+	 * to parse from.
+	 * @return The <code>int</code> value.
+	 */
+	private int parseHotThreshold(final Element files) {
+		final NodeList list = files.getElementsByTagName(KConfigStaticFiles.HotThreshold.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid static files configuration. Must contain one hot threshold tag.");
+		}
+		return Integer.valueOf(list.item(0).getTextContent().trim());
+	}
+
+	/**
+	 * Create the static files tag.
+	 * @param document The <code>Document</code> to
+	 * create the new tags from.
+	 * @return The <code>Element</code> for static files.
+	 */
+	public Element toXML(final Document document) {
+		final Element files = document.createElement(KConfigStaticFiles.Root.tag);
+		// Mapped cache size tag.
+		final Element mappedCacheSize = document.createElement(KConfigStaticFiles.MappedCacheSize.tag);
+		mappedCacheSize.setTextContent(this.mappedCacheSizeExpression);
+		files.appendChild(mappedCacheSize);
+		// Mapped file size tag.
+		final Element mappedFileSize = document.createElement(KConfigStaticFiles.MappedFileSize.tag);
+		mappedFileSize.setTextContent(this.mappedFileSizeExpression);
+		files.appendChild(mappedFileSize);
+		// Hot threshold tag.
+		final Element hotThreshold = document.createElement(KConfigStaticFiles.HotThreshold.tag);
+		hotThreshold.setTextContent(String.valueOf(this.hotThreshold));
+		files.appendChild(hotThreshold);
+		return files;
+	}
+
+	/**
+	 * Write this configuration to the given snapshot
+	 * output.
+	 * @param output The <code>DataOutput</code> to
+	 * write to.
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final DataOutput output) throws IOException {
+		USnapshot.instance.writeString(output, this.mappedCacheSizeExpression);
+		USnapshot.instance.writeString(output, this.mappedFileSizeExpression);
+		output.writeInt(this.hotThreshold);
+	}
+
+	/**
+	 * Validate the values of this configuration.
+	 * @throws IllegalArgumentException If any value
+	 * is invalid.
+	 */
+	public void validate() {
+		if (this.mappedCacheSize < 0) {
+			throw new IllegalArgumentException("Invalid static files configuration. Mapped cache size must not be negative.");
+		} else if (this.mappedFileSize < 0) {
+			throw new IllegalArgumentException("Invalid static files configuration. Mapped file size must not be negative.");
+		} else if (this.hotThreshold <= 0) {
+			throw new IllegalArgumentException("Invalid static files configuration. Hot threshold must be positive.");
+		}
+	}
+
+	/**
+	 * Record the differences between this configuration
+	 * and the given one.
+	 * @param current The current <code>ConfigStaticFiles</code>.
+	 * @param path The <code>String</code> path of this
+	 * configuration tag.
+	 * @param diff The <code>ConfigDiff</code> to record
+	 * the changes into.
+	 */
+	void diff(final ConfigStaticFiles current, final String path, final ConfigDiff diff) {
+		// All the values are read whenever a file is
+		// requested.
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigStaticFiles.MappedCacheSize.tag, this.mappedCacheSize, current.mappedCacheSize, EChangeImpact.Live);
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigStaticFiles.MappedFileSize.tag, this.mappedFileSize, current.mappedFileSize, EChangeImpact.Live);
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigStaticFiles.HotThreshold.tag, this.hotThreshold, current.hotThreshold, EChangeImpact.Live);
+	}
+}
@@ -0,0 +1,443 @@
+package hemera.core.environment.config;
+
+import hemera.core.environment.config.key.KConfigTLS;
+import hemera.core.environment.enumn.EChangeImpact;
+import hemera.core.environment.enumn.EConfigSection;
+import hemera.core.environment.util.USizing;
+import hemera.core.environment.util.USnapshot;
+import hemera.core.environment.util.UTime;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * <code>ConfigTLS</code> defines the structure of the
+ * TLS configuration of the non-blocking socket mode,
+ * which applies when the socket certificate is set.
+ * <p>
+ * Established sessions are cached for the session
+ * lifetime, so returning clients resume them with an
+ * abbreviated handshake instead of a full key exchange.
+ * With session tickets, the session state is handed to
+ * the client encrypted instead, which does not use the
+ * cache.
+ * <p>
+ * The protocols and the cipher suites are comma
+ * separated lists in preference order. Without cipher
+ * suites the platform defaults are used. With the
+ * server cipher order, the order of the server is used
+ * instead of the order of the client.
+ * <p>
+ * The handshakes run on a dedicated pool of handshake
+ * threads instead of the selector threads. A handshake
+ * submitted while the handshake queue is full closes
+ * its connection.
+ * <p>
+ * This section is optional. Configuration files that do
+ * not contain it use the default values, which cache up
+ * to 20480 sessions for a day with session tickets,
+ * prefer TLS 1.3 and use one handshake thread per core.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.2
+ */
+public class ConfigTLS {
+	/**
+	 * The <code>String</code> system property enabling
+	 * the stateless TLS session tickets of the platform.
+	 */
+	private static final String SessionTicketsProperty = "jdk.tls.server.enableSessionTicketExtension";
+	/**
+	 * The <code>int</code> maximum number of cached
+	 * sessions. <code>0</code> means the number is not
+	 * limited.
+	 */
+	public final int sessionCacheSize;
+	/**
+	 * The <code>String</code> lifetime of the cached
+	 * sessions.
+	 */
+	public final String sessionLifetime;
+	/**
+	 * The <code>boolean</code> flag indicating if session
+	 * tickets are issued.
+	 * <p>
+	 * The platform reads this flag once per JVM, so it is
+	 * passed to the JVM as a launcher argument, which is
+	 * included in <code>ConfigJVM.getArguments</code>.
+	 */
+	public final boolean sessionTickets;
+	/**
+	 * The <code>String</code> comma separated enabled
+	 * protocols in preference order.
+	 */
+	public final String protocols;
+	/**
+	 * The <code>String</code> optional comma separated
+	 * enabled cipher suites in preference order.
+	 */
+	public final String ciphers;
+	/**
+	 * The <code>boolean</code> flag indicating if the
+	 * cipher suite order of the server is used.
+	 */
+	public final boolean serverCipherOrder;
+	/**
+	 * The <code>int</code> number of handshake threads.
+	 */
+	public final int handshakeThreads;
+	/**
+	 * The <code>String</code> sizing expression the
+	 * number of handshake threads is resolved from.
+	 */
+	public final String handshakeThreadsExpression;
+	/**
+	 * The <code>int</code> maximum number of handshakes
+	 * waiting for a handshake thread.
+	 */
+	public final int handshakeQueueSize;
+
+	/**
+	 * Constructor of <code>ConfigTLS</code>.
+	 */
+	public ConfigTLS() {
+		this.sessionCacheSize = 20480;
+		this.sessionLifetime = "24 " + TimeUnit.HOURS.name();
+		this.sessionTickets = true;
+		this.protocols = "TLSv1.3,TLSv1.2";
+		this.ciphers = null;
+		this.serverCipherOrder = true;
+		this.handshakeThreadsExpression = "cores";
+		this.handshakeThreads = USizing.instance.resolve(this.handshakeThreadsExpression);
+		this.handshakeQueueSize = 1024;
+	}
+
+	/**
+	 * Constructor of <code>ConfigTLS</code>.
+	 * @param socket The <code>Element</code> of the
+	 * socket tag to parse from.
+	 */
+	public ConfigTLS(final Element socket) {
+		final Element tls = this.parseTLS(socket);
+		if (tls == null) {
+			this.sessionCacheSize = 20480;
+			this.sessionLifetime = "24 " + TimeUnit.HOURS.name();
+			this.sessionTickets = true;
+			this.protocols = "TLSv1.3,TLSv1.2";
+			this.ciphers = null;
+			this.serverCipherOrder = true;
+			this.handshakeThreadsExpression = "cores";
+			this.handshakeQueueSize = 1024;
+		} else {
+			this.sessionCacheSize = this.parseSessionCacheSize(tls);
+			this.sessionLifetime = this.parseSessionLifetime(tls);
+			this.sessionTickets = this.parseSessionTickets(tls);
+			this.protocols = this.parseProtocols(tls);
+			this.ciphers = this.parseCiphers(tls);
+			this.serverCipherOrder = this.parseServerCipherOrder(tls);
+			this.handshakeThreadsExpression = this.parseHandshakeThreads(tls);
+			this.handshakeQueueSize = this.parseHandshakeQueueSize(tls);
+		}
+		this.handshakeThreads = USizing.instance.resolve(this.handshakeThreadsExpression);
+	}
+
+	/**
+	 * Constructor of <code>ConfigTLS</code>.
+	 * @param buffer The <code>ByteBuffer</code> of a
+	 * configuration snapshot to read the values from.
+	 */
+	public ConfigTLS(final ByteBuffer buffer) {
+		this.sessionCacheSize = buffer.getInt();
+		this.sessionLifetime = USnapshot.instance.readString(buffer);
+		this.sessionTickets = USnapshot.instance.readBoolean(buffer);
+		this.protocols = USnapshot.instance.readString(buffer);
+		this.ciphers = USnapshot.instance.readString(buffer);
+		this.serverCipherOrder = USnapshot.instance.readBoolean(buffer);
+		this.handshakeThreadsExpression = USnapshot.instance.readString(buffer);
+		this.handshakeThreads = USizing.instance.resolve(this.handshakeThreadsExpression);
+		this.handshakeQueueSize = buffer.getInt();
+	}
+
+	/**
+	 * Parse the optional TLS tag.
+	 * @param socket The <code>Element</code> of the
+	 * socket tag to parse from.
+	 * @return The TLS <code>Element</code>. Or
+	 * <code>null</code> if there is no such tag.
+	 */
+	private Element parseTLS(final Element socket) {
+		final NodeList list = socket.getElementsByTagName(KConfigTLS.Root.tag);
+		if (list == null || list.getLength() == 0) return null;
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid socket configuration. Must contain at most one TLS tag.");
+		}
+		return (Element)list.item(0);
+	}
+
+	/**
+	 * Parse the session cache size value.
+	 * @param tls The TLS <code>Element</code> to parse
+	 * from.
+	 * @return The <code>int</code> value.
+	 */
+	private int parseSessionCacheSize(final Element tls) {
+		final NodeList list = tls.getElementsByTagName(KConfigTLS.SessionCacheSize.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid TLS configuration. Must contain one session cache size tag.");
+		}
+		return Integer.valueOf(list.item(0).getTextContent().trim());
+	}
+
+	/**
+	 * Parse the session lifetime value.
+	 * @param tls The TLS <code>Element</code> to parse
+	 * from.
+	 * @return The <code>String</code> value.
+	 */
+	private String parseSessionLifetime(final Element tls) {
+		final NodeList list = tls.getElementsByTagName(KConfigTLS.SessionLifetime.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid TLS configuration. Must contain one session lifetime tag.");
+		}
+		return list.item(0).getTextContent();
+	}
+
+	/**
+	 * Parse the session tickets value.
+	 * @param tls The TLS <code>Element</code> to parse
+	 * from.
+	 * @return The <code>boolean</code> value.
+	 */
+	private boolean parseSessionTickets(final Element tls) {
+		final NodeList list = tls.getElementsByTagName(KConfigTLS.SessionTickets.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid TLS configuration. Must contain one session tickets tag.");
+		}
+		return Boolean.valueOf(list.item(0).getTextContent().trim());
+	}
+
+	/**
+	 * Parse the protocols value.
+	 * @param tls The TLS <code>Element</code> to parse
+	 * from.
+	 * @return The <code>String</code> value.
+	 */
+	private String parseProtocols(final Element tls) {
+		final NodeList list = tls.getElementsByTagName(KConfigTLS.Protocols.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid TLS configuration. Must contain one protocols tag.");
+		}
+		return list.item(0).getTextContent().trim();
+	}
+
+	/**
+	 * Parse optional cipher suites value.
+	 * @param tls The TLS <code>Element</code> to parse
+	 * from.
+	 * @return The <code>String</code> value.
+	 */
+	private String parseCiphers(final Element tls) {
+		final NodeList list = tls.getElementsByTagName(KConfigTLS.Ciphers.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid TLS configuration. Must contain one ciphers tag.");
+		}
+		final String text = list.item(0).getTextContent();
+		if (text == null || text.trim().isEmpty()) return null;
+		else return text.trim();
+	}
+
+	/**
+	 * Parse the server cipher order value.
+	 * @param tls The TLS <code>Element</code> to parse
+	 * from.
+	 * @return The <code>boolean</code> value.
+	 */
+	private boolean parseServerCipherOrder(final Element tls) {
+		final NodeList list = tls.getElementsByTagName(KConfigTLS.ServerCipherOrder.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid TLS configuration. Must contain one server cipher order tag.");
+		}
+		return Boolean.valueOf(list.item(0).getTextContent().trim());
+	}
+
+	/**
+	 * Parse the handshake threads value.
+	 * @param tls The TLS <code>Element</code> to parse
+	 * from.
+	 * @return The <code>String</code> sizing expression.
+	 */
+	private String parseHandshakeThreads(final Element tls) {
+		final NodeList list = tls.getElementsByTagName(KConfigTLS.HandshakeThreads.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid TLS configuration. Must contain one handshake threads tag.");
+		}
+		return list.item(0).getTextContent().trim();
+	}
+
+	/**
+	 * Parse the handshake queue size value.
+	 * @param tls The TLS <code>Element</code> to parse
+	 * from.
+	 * @return The <code>int</code> value.
+	 */
+	private int parseHandshakeQueueSize(final Element tls) {
+		final NodeList list = tls.getElementsByTagName(KConfigTLS.HandshakeQueueSize.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid TLS configuration. Must contain one handshake queue size tag.");
+		}
+		return Integer.valueOf(list.item(0).getTextContent().trim());
+	}
+
+	/**
+	 * Retrieve the session lifetime.
+	 * @param unit The <code>TimeUnit</code> to retrieve
+	 * the lifetime in.
+	 * @return The <code>long</code> lifetime.
+	 */
+	public long getSessionLifetime(final TimeUnit unit) {
+		return UTime.instance.parse(this.sessionLifetime, unit);
+	}
+
+	/**
+	 * Retrieve the enabled protocols.
+	 * @return The <code>String</code> array of protocols
+	 * in preference order.
+	 */
+	public String[] getProtocols() {
+		return this.protocols.split("\\s*,\\s*");
+	}
+
+	/**
+	 * Retrieve the enabled cipher suites.
+	 * @return The <code>String</code> array of cipher
+	 * suites in preference order. Or <code>null</code>
+	 * if the platform defaults are used.
+	 */
+	public String[] getCiphers() {
+		return (this.ciphers == null) ? null : this.ciphers.split("\\s*,\\s*");
+	}
+
+	/**
+	 * Create the TLS tag.
+	 * @param document The <code>Document</code> to
+	 * create the new tags from.
+	 * @return The <code>Element</code> for TLS.
+	 */
+	public Element toXML(final Document document) {
+		final Element tls = document.createElement(KConfigTLS.Root.tag);
+		// Session cache size tag.
+		final Element sessionCacheSize = document.createElement(KConfigTLS.SessionCacheSize.tag);
+		sessionCacheSize.setTextContent(String.valueOf(this.sessionCacheSize));
+		tls.appendChild(sessionCacheSize);
+		// Session lifetime tag.
+		final Element sessionLifetime = document.createElement(KConfigTLS.SessionLifetime.tag);
+		sessionLifetime.setTextContent(this.sessionLifetime);
+		tls.appendChild(sessionLifetime);
+		// Session tickets tag.
+		final Element sessionTickets = document.createElement(KConfigTLS.SessionTickets.tag);
+		sessionTickets.setTextContent(String.valueOf(this.sessionTickets));
+		tls.appendChild(sessionTickets);
+		// Protocols tag.
+		final Element protocols = document.createElement(KConfigTLS.Protocols.tag);
+		protocols.setTextContent(this.protocols);
+		tls.appendChild(protocols);
+		// Ciphers tag.
+		final Element ciphers = document.createElement(KConfigTLS.Ciphers.tag);
+		if (this.ciphers != null) {
+			ciphers.setTextContent(this.ciphers);
+		}
+		tls.appendChild(ciphers);
+		// Server cipher order tag.
+		final Element serverCipherOrder = document.createElement(KConfigTLS.ServerCipherOrder.tag);
+		serverCipherOrder.setTextContent(String.valueOf(this.serverCipherOrder));
+		tls.appendChild(serverCipherOrder);
+		// Handshake threads tag.
+		final Element handshakeThreads = document.createElement(KConfigTLS.HandshakeThreads.tag);
+		handshakeThreads.setTextContent(this.handshakeThreadsExpression);
+		tls.appendChild(handshakeThreads);
+		// Handshake queue size tag.
+		final Element handshakeQueueSize = document.createElement(KConfigTLS.HandshakeQueueSize.tag);
+		handshakeQueueSize.setTextContent(String.valueOf(this.handshakeQueueSize));
+		tls.appendChild(handshakeQueueSize);
+		return tls;
+	}
+
+	/**
+	 * Write this configuration to the given snapshot
+	 * output.
+	 * @param output The <code>DataOutput</code> to
+	 * write to.
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final DataOutput output) throws IOException {
+		output.writeInt(this.sessionCacheSize);
+		USnapshot.instance.writeString(output, this.sessionLifetime);
+		output.writeBoolean(this.sessionTickets);
+		USnapshot.instance.writeString(output, this.protocols);
+		USnapshot.instance.writeString(output, this.ciphers);
+		output.writeBoolean(this.serverCipherOrder);
+		USnapshot.instance.writeString(output, this.handshakeThreadsExpression);
+		output.writeInt(this.handshakeQueueSize);
+	}
+
+	/**
+	 * Add the JVM arguments of the platform flags this
+	 * configuration depends on.
+	 * @param arguments The <code>List</code> of
+	 * <code>String</code> arguments to add to.
+	 */
+	void addArguments(final List<String> arguments) {
+		arguments.add("-D" + ConfigTLS.SessionTicketsProperty + "=" + this.sessionTickets);
+	}
+
+	/**
+	 * Validate the values of this configuration.
+	 * @throws IllegalArgumentException If any value
+	 * is invalid.
+	 */
+	public void validate() {
+		if (this.sessionCacheSize < 0) {
+			throw new IllegalArgumentException("Invalid TLS configuration. Session cache size must not be negative.");
+		} else if (this.getSessionLifetime(TimeUnit.SECONDS) <= 0 || this.getSessionLifetime(TimeUnit.SECONDS) > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Invalid TLS configuration. Session lifetime must be between one second and " + Integer.MAX_VALUE + " seconds.");
+		} else if (this.protocols.isEmpty()) {
+			throw new IllegalArgumentException("Invalid TLS configuration. Protocols must not be empty.");
+		} else if (this.handshakeThreads <= 0) {
+			throw new IllegalArgumentException("Invalid TLS configuration. Handshake threads must be positive.");
+		} else if (this.handshakeQueueSize <= 0) {
+			throw new IllegalArgumentException("Invalid TLS configuration. Handshake queue size must be positive.");
+		}
+	}
+
+	/**
+	 * Record the differences between this configuration
+	 * and the given one.
+	 * @param current The current <code>ConfigTLS</code>.
+	 * @param path The <code>String</code> path of this
+	 * configuration tag.
+	 * @param diff The <code>ConfigDiff</code> to record
+	 * the changes into.
+	 */
+	void diff(final ConfigTLS current, final String path, final ConfigDiff diff) {
+		// The session cache is resized in place and the
+		// protocols and ciphers apply to every new
+		// connection. The tickets are a JVM argument and
+		// the handshake threads are started with the
+		// listener.
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigTLS.SessionCacheSize.tag, this.sessionCacheSize, current.sessionCacheSize, EChangeImpact.Live);
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigTLS.SessionLifetime.tag, this.sessionLifetime, current.sessionLifetime, EChangeImpact.Live);
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigTLS.SessionTickets.tag, this.sessionTickets, current.sessionTickets, EChangeImpact.Restart);
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigTLS.Protocols.tag, this.protocols, current.protocols, EChangeImpact.Live);
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigTLS.Ciphers.tag, this.ciphers, current.ciphers, EChangeImpact.Live);
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigTLS.ServerCipherOrder.tag, this.serverCipherOrder, current.serverCipherOrder, EChangeImpact.Live);
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigTLS.HandshakeThreads.tag, this.handshakeThreads, current.handshakeThreads, EChangeImpact.Restart);
+		diff.compare(EConfigSection.Socket, path+"/"+KConfigTLS.HandshakeQueueSize.tag, this.handshakeQueueSize, current.handshakeQueueSize, EChangeImpact.Restart);
+	}
+}
@@ -0,0 +1,196 @@
+package hemera.core.environment.config;
+
+import hemera.core.environment.config.key.KConfigTimer;
+import hemera.core.environment.enumn.EChangeImpact;
+import hemera.core.environment.enumn.EConfigSection;
+import hemera.core.environment.util.USnapshot;
+import hemera.core.environment.util.UTime;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * <code>ConfigTimer</code> defines the structure of the
+ * configuration of the timer shared by all the timeout
+ * driven components of the runtime.
+ * <p>
+ * The timer is a wheel of buckets that advances by one
+ * bucket every tick. A timeout expires within one tick
+ * of its deadline, so the tick duration trades the
+ * precision of the timeouts for the work of the timer
+ * thread. Timeouts further away than one revolution of
+ * the wheel wait in their bucket for the remaining
+ * revolutions, so the wheel size should cover the most
+ * common timeouts.
+ * <p>
+ * This section is optional. Configuration files that do
+ * not contain it use the default values, which are a
+ * tick of 100 milliseconds and 512 buckets.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class ConfigTimer {
+	/**
+	 * The <code>String</code> duration of each tick.
+	 */
+	public final String tickDuration;
+	/**
+	 * The <code>int</code> number of buckets of the
+	 * wheel, which is a power of two.
+	 */
+	public final int wheelSize;
+
+	/**
+	 * Constructor of <code>ConfigTimer</code>.
+	 */
+	public ConfigTimer() {
+		this.tickDuration = "100 " + TimeUnit.MILLISECONDS.name();
+		this.wheelSize = 512;
+	}
+
+	/**
+	 * Constructor of <code>ConfigTimer</code>.
+	 * @param runtime The <code>Element</code> of the
+	 * runtime tag to parse from.
+	 */
+	public ConfigTimer(final Element runtime) {
+		final Element timer = this.parseTimer(runtime);
+		if (timer == null) {
+			this.tickDuration = "100 " + TimeUnit.MILLISECONDS.name();
+			this.wheelSize = 512;
+		} else {
+			this.tickDuration = this.parseTickDuration(timer);
+			this.wheelSize = this.parseWheelSize(timer);
+		}
+	}
+
+	/**
+	 * Constructor of <code>ConfigTimer</code>.
+	 * @param buffer The <code>ByteBuffer</code> of a
+	 * configuration snapshot to read the values from.
+	 */
+	public ConfigTimer(final ByteBuffer buffer) {
+		this.tickDuration = USnapshot.instance.readString(buffer);
+		this.wheelSize = buffer.getInt();
+	}
+
+	/**
+	 * Parse the optional timer tag.
+	 * @param runtime The <code>Element</code> of the
+	 * runtime tag to parse from.
+	 * @return The timer <code>Element</code>. Or
+	 * <code>null</code> if there is no such tag.
+	 */
+	private Element parseTimer(final Element runtime) {
+		final NodeList list = runtime.getElementsByTagName(KConfigTimer.Root.tag);
+		if (list == null || list.getLength() == 0) return null;
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid runtime configuration. Must contain at most one timer tag.");
+		}
+		return (Element)list.item(0);
+	}
+
+	/**
+	 * Parse the tick duration value.
+	 * @param timer The timer <code>Element</code> to
+	 * parse from.
+	 * @return The <code>String</code> value.
+	 */
+	private String parseTickDuration(final Element timer) {
+		final NodeList list = timer.getElementsByTagName(KConfigTimer.TickDuration.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid timer configuration. Must contain one tick duration tag.");
+		}
+		return list.item(0).getTextContent();
+	}
+
+	/**
+	 * Parse the wheel size value.
+	 * @param timer The timer <code>Element</code> to
+	 * parse from.
+	 * @return The <code>int</code> value.
+	 */
+	private int parseWheelSize(final Element timer) {
+		final NodeList list = timer.getElementsByTagName(KConfigTimer.WheelSize.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid timer configuration. Must contain one wheel size tag.");
+		}
+		return Integer.valueOf(list.item(0).getTextContent().trim());
+	}
+
+	/**
+	 * Retrieve the tick duration.
+	 * @param unit The <code>TimeUnit</code> to retrieve
+	 * the duration in.
+	 * @return The <code>long</code> duration.
+	 */
+	public long getTickDuration(final TimeUnit unit) {
+		return UTime.instance.parse(this.tickDuration, unit);
+	}
+
+	/**
+	 * Create the timer tag.
+	 * @param document The <code>Document</code> to
+	 * create the new tags from.
+	 * @return The <code>Element</code> for timer.
+	 */
+	public Element toXML(final Document document) {
+		final Element timer = document.createElement(KConfigTimer.Root.tag);
+		// Tick duration tag.
+		final Element tickDuration = document.createElement(KConfigTimer.TickDuration.tag);
+		tickDuration.setTextContent(this.tickDuration);
+		timer.appendChild(tickDuration);
+		// Wheel size tag.
+		final Element wheelSize = document.createElement(KConfigTimer.WheelSize.tag);
+		wheelSize.setTextContent(String.valueOf(this.wheelSize));
+		timer.appendChild(wheelSize);
+		return timer;
+	}
+
+	/**
+	 * Write this configuration to the given snapshot
+	 * output.
+	 * @param output The <code>DataOutput</code> to
+	 * write to.
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final DataOutput output) throws IOException {
+		USnapshot.instance.writeString(output, this.tickDuration);
+		output.writeInt(this.wheelSize);
+	}
+
+	/**
+	 * Validate the values of this configuration.
+	 * @throws IllegalArgumentException If any value
+	 * is invalid.
+	 */
+	public void validate() {
+		if (this.getTickDuration(TimeUnit.MILLISECONDS) <= 0) {
+			throw new IllegalArgumentException("Invalid timer configuration. Tick duration must be at least one millisecond.");
+		} else if (this.wheelSize <= 0 || this.wheelSize > (1 << 30) || Integer.bitCount(this.wheelSize) != 1) {
+			throw new IllegalArgumentException("Invalid timer configuration. Wheel size must be a positive power of two.");
+		}
+	}
+
+	/**
+	 * Record the differences between this configuration
+	 * and the given one.
+	 * @param current The current <code>ConfigTimer</code>.
+	 * @param path The <code>String</code> path of this
+	 * configuration tag.
+	 * @param diff The <code>ConfigDiff</code> to record
+	 * the changes into.
+	 */
+	void diff(final ConfigTimer current, final String path, final ConfigDiff diff) {
+		// The wheel is built when the runtime starts.
+		diff.compare(EConfigSection.Timer, path+"/"+KConfigTimer.TickDuration.tag, this.tickDuration, current.tickDuration, EChangeImpact.Restart);
+		diff.compare(EConfigSection.Timer, path+"/"+KConfigTimer.WheelSize.tag, this.wheelSize, current.wheelSize, EChangeImpact.Restart);
+	}
+}
@@ -0,0 +1,241 @@
+package hemera.core.environment.config;
+
+import hemera.core.environment.config.key.KConfigVirtualService;
+import hemera.core.environment.enumn.EChangeImpact;
+import hemera.core.environment.enumn.EConfigSection;
+import hemera.core.environment.enumn.EPinnedTrace;
+import hemera.core.environment.util.USnapshot;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * <code>ConfigVirtualService</code> defines the structure
+ * of the virtual thread execution service configuration.
+ * <p>
+ * The carrier parallelism and the pinned trace are
+ * platform flags the JVM reads once, so they are passed
+ * to the JVM as launcher arguments, which are included
+ * in <code>ConfigJVM.getArguments</code>.
+ * <p>
+ * This section is optional. Configuration files that do
+ * not contain it use the default values.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.1
+ */
+public class ConfigVirtualService {
+	/**
+	 * The <code>String</code> system property of the
+	 * number of carrier threads of the platform.
+	 */
+	private static final String ParallelismProperty = "jdk.virtualThreadScheduler.parallelism";
+	/**
+	 * The <code>String</code> system property of the
+	 * pinned thread diagnostics of the platform.
+	 */
+	private static final String PinnedTraceProperty = "jdk.tracePinnedThreads";
+	/**
+	 * The <code>int</code> maximum number of tasks that
+	 * can execute concurrently. Tasks submitted beyond
+	 * this bound wait for a running task to complete.
+	 */
+	public final int maxConcurrency;
+	/**
+	 * The <code>int</code> number of carrier threads
+	 * that run the virtual threads. <code>0</code> means
+	 * the number of available processors is used.
+	 */
+	public final int carrierParallelism;
+	/**
+	 * The <code>EPinnedTrace</code> diagnostics printed
+	 * when a virtual thread blocks while pinned to its
+	 * carrier thread.
+	 */
+	public final EPinnedTrace pinnedTrace;
+
+	/**
+	 * Constructor of <code>ConfigVirtualService</code>.
+	 */
+	public ConfigVirtualService() {
+		this.maxConcurrency = 10000;
+		this.carrierParallelism = 0;
+		this.pinnedTrace = EPinnedTrace.None;
+	}
+
+	/**
+	 * Constructor of <code>ConfigVirtualService</code>.
+	 * @param execution The <code>Element</code> of
+	 * execution service tag to parse from.
+	 */
+	public ConfigVirtualService(final Element execution) {
+		final Element virtual = this.parseVirtual(execution);
+		if (virtual == null) {
+			this.maxConcurrency = 10000;
+			this.carrierParallelism = 0;
+			this.pinnedTrace = EPinnedTrace.None;
+		} else {
+			this.maxConcurrency = this.parseMaxConcurrency(virtual);
+			this.carrierParallelism = this.parseCarrierParallelism(virtual);
+			this.pinnedTrace = this.parsePinnedTrace(virtual);
+		}
+	}
+
+	/**
+	 * Constructor of <code>ConfigVirtualService</code>.
+	 * @param buffer The <code>ByteBuffer</code> of a
+	 * configuration snapshot to read the values from.
+	 */
+	public ConfigVirtualService(final ByteBuffer buffer) {
+		this.maxConcurrency = buffer.getInt();
+		this.carrierParallelism = buffer.getInt();
+		this.pinnedTrace = EPinnedTrace.parse(USnapshot.instance.readString(buffer));
+	}
+
+	/**
+	 * Parse the optional virtual service tag.
+	 * @param execution The <code>Element</code> of
+	 * execution service tag to parse from.
+	 * @return The virtual service <code>Element</code>.
+	 * Or <code>null</code> if there is no such tag.
+	 */
+	private Element parseVirtual(final Element execution) {
+		final NodeList list = execution.getElementsByTagName(KConfigVirtualService.Root.tag);
+		if (list == null || list.getLength() == 0) return null;
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid execution service configuration. Must contain at most one virtual service tag.");
+		}
+		return (Element)list.item(0);
+	}
+
+	/**
+	 * Parse the maximum concurrency value.
+	 * @param virtual The virtual <code>Element</code>
+	 * to parse from.
+	 * @return The <code>int</code> value.
+	 */
+	private int parseMaxConcurrency(final Element virtual) {
+		final NodeList list = virtual.getElementsByTagName(KConfigVirtualService.MaxConcurrency.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid virtual service configuration. Must contain one maximum concurrency tag.");
+		}
+		return Integer.valueOf(list.item(0).getTextContent());
+	}
+
+	/**
+	 * Parse the carrier parallelism value.
+	 * @param virtual The virtual <code>Element</code>
+	 * to parse from.
+	 * @return The <code>int</code> value.
+	 */
+	private int parseCarrierParallelism(final Element virtual) {
+		final NodeList list = virtual.getElementsByTagName(KConfigVirtualService.CarrierParallelism.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid virtual service configuration. Must contain one carrier parallelism tag.");
+		}
+		return Integer.valueOf(list.item(0).getTextContent());
+	}
+
+	/**
+	 * Parse the pinned trace value.
+	 * @param virtual The virtual <code>Element</code>
+	 * to parse from.
+	 * @return The <code>EPinnedTrace</code> value.
+	 */
+	private EPinnedTrace parsePinnedTrace(final Element virtual) {
+		final NodeList list = virtual.getElementsByTagName(KConfigVirtualService.PinnedTrace.tag);
+		if (list == null || list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid virtual service configuration. Must contain one pinned trace tag.");
+		}
+		return EPinnedTrace.parse(list.item(0).getTextContent());
+	}
+
+	/**
+	 * Create the virtual execution service tag.
+	 * @param document The <code>Document</code> to
+	 * create the new tags from.
+	 * @return The <code>Element</code> for virtual
+	 * service.
+	 */
+	public Element toXML(final Document document) {
+		final Element virtual = document.createElement(KConfigVirtualService.Root.tag);
+		// Maximum concurrency tag.
+		final Element maxConcurrency = document.createElement(KConfigVirtualService.MaxConcurrency.tag);
+		maxConcurrency.setTextContent(String.valueOf(this.maxConcurrency));
+		virtual.appendChild(maxConcurrency);
+		// Carrier parallelism tag.
+		final Element parallelism = document.createElement(KConfigVirtualService.CarrierParallelism.tag);
+		parallelism.setTextContent(String.valueOf(this.carrierParallelism));
+		virtual.appendChild(parallelism);
+		// Pinned trace tag.
+		final Element pinnedTrace = document.createElement(KConfigVirtualService.PinnedTrace.tag);
+		pinnedTrace.setTextContent(this.pinnedTrace.value);
+		virtual.appendChild(pinnedTrace);
+		return virtual;
+	}
+
+	/**
+	 * Write this configuration to the given snapshot
+	 * output.
+	 * @param output The <code>DataOutput</code> to
+	 * write to.
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final DataOutput output) throws IOException {
+		output.writeInt(this.maxConcurrency);
+		output.writeInt(this.carrierParallelism);
+		USnapshot.instance.writeString(output, this.pinnedTrace.value);
+	}
+
+	/**
+	 * Add the JVM arguments of the platform flags this
+	 * configuration depends on. The platform defaults
+	 * are left in place for the default values.
+	 * @param arguments The <code>List</code> of
+	 * <code>String</code> arguments to add to.
+	 */
+	void addArguments(final List<String> arguments) {
+		if (this.carrierParallelism > 0) {
+			arguments.add("-D" + ConfigVirtualService.ParallelismProperty + "=" + this.carrierParallelism);
+		}
+		if (this.pinnedTrace != EPinnedTrace.None) {
+			arguments.add("-D" + ConfigVirtualService.PinnedTraceProperty + "=" + this.pinnedTrace.value);
+		}
+	}
+
+	/**
+	 * Validate the values of this configuration.
+	 * @throws IllegalArgumentException If any value
+	 * is invalid.
+	 */
+	public void validate() {
+		if (this.maxConcurrency <= 0) {
+			throw new IllegalArgumentException("Invalid virtual service configuration. Maximum concurrency must be positive.");
+		} else if (this.carrierParallelism < 0) {
+			throw new IllegalArgumentException("Invalid virtual service configuration. Carrier parallelism must not be negative.");
+		}
+	}
+
+	/**
+	 * Record the differences between this configuration
+	 * and the given one.
+	 * @param current The current <code>ConfigVirtualService</code>.
+	 * @param path The <code>String</code> path of this
+	 * configuration tag.
+	 * @param diff The <code>ConfigDiff</code> to record
+	 * the changes into.
+	 */
+	void diff(final ConfigVirtualService current, final String path, final ConfigDiff diff) {
+		// Carrier scheduler and pinned tracing are read by
+		// the JVM when the first virtual thread starts.
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigVirtualService.MaxConcurrency.tag, this.maxConcurrency, current.maxConcurrency, EChangeImpact.PoolRebuild);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigVirtualService.CarrierParallelism.tag, this.carrierParallelism, current.carrierParallelism, EChangeImpact.Restart);
+		diff.compare(EConfigSection.Execution, path+"/"+KConfigVirtualService.PinnedTrace.tag, this.pinnedTrace, current.pinnedTrace, EChangeImpact.Restart);
+	}
+}
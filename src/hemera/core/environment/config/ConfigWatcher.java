@@ -0,0 +1,355 @@
+package hemera.core.environment.config;
+
+import hemera.core.environment.enumn.EConfigSection;
+import hemera.core.environment.util.UEnvironment;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.xml.sax.SAXException;
+
+/**
+ * <code>ConfigWatcher</code> defines the unit that
+ * watches the environment configuration file under the
+ * configuration directory, and publishes a new immutable
+ * <code>Configuration</code> whenever the file changes.
+ * <p>
+ * The current configuration is held in an atomic
+ * reference, so reading it never blocks. A changed file
+ * is re-parsed and validated before it is published, and
+ * the subscribers of every changed section are given
+ * the <code>ConfigDiff</code> of the change. If the
+ * new file is invalid, the previous configuration
+ * remains current and the failure is recorded.
+ * <p>
+ * The configuration directory is registered with the
+ * file system watch service, so the file is re-parsed
+ * only when it is created, replaced or modified. As a
+ * single save may raise several events, the events are
+ * coalesced until the directory has been quiet for the
+ * quiet period before the file is reloaded once.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.1
+ */
+public class ConfigWatcher {
+	/**
+	 * The <code>String</code> home directory.
+	 */
+	private final String homeDir;
+	/**
+	 * The configuration <code>File</code>.
+	 */
+	private final File file;
+	/**
+	 * The <code>Path</code> of the configuration file
+	 * name relative to the configuration directory.
+	 */
+	private final Path fileName;
+	/**
+	 * The <code>AtomicReference</code> of the current
+	 * <code>Configuration</code>.
+	 */
+	private final AtomicReference<Configuration> current;
+	/**
+	 * The <code>EnumMap</code> of section to the
+	 * <code>List</code> of its subscribers.
+	 */
+	private final EnumMap<EConfigSection, List<IConfigSubscriber>> subscribers;
+	/**
+	 * The <code>AtomicReference</code> of the last
+	 * reload failure.
+	 */
+	private final AtomicReference<Exception> failure;
+	/**
+	 * The <code>long</code> last seen file modification
+	 * time.
+	 * <p>
+	 * This value is guarded by the reload lock.
+	 */
+	private long lastModified;
+	/**
+	 * The <code>long</code> last seen file length.
+	 * <p>
+	 * This value is guarded by the reload lock.
+	 */
+	private long lastLength;
+	/**
+	 * The <code>WatchService</code> the configuration
+	 * directory is registered with. <code>null</code> if
+	 * not started.
+	 */
+	private WatchService service;
+	/**
+	 * The <code>Thread</code> waiting for the events of
+	 * the watch service. <code>null</code> if not started.
+	 */
+	private Thread thread;
+
+	/**
+	 * Constructor of <code>ConfigWatcher</code>.
+	 * <p>
+	 * This constructor loads the current configuration
+	 * of the given home directory.
+	 * @param homeDir The <code>String</code> home
+	 * directory.
+	 * @throws IOException If reading file failed.
+	 * @throws SAXException If parsing file failed.
+	 * @throws ParserConfigurationException If
+	 * parsing file failed.
+	 */
+	public ConfigWatcher(final String homeDir) throws IOException, SAXException, ParserConfigurationException {
+		this.homeDir = homeDir;
+		this.file = new File(UEnvironment.instance.getConfigurationFile(homeDir));
+		this.fileName = this.file.toPath().getFileName();
+		this.lastModified = this.file.lastModified();
+		this.lastLength = this.file.length();
+		final Configuration config = UEnvironment.instance.getConfiguration(homeDir);
+		config.validate();
+		this.current = new AtomicReference<Configuration>(config);
+		this.subscribers = new EnumMap<EConfigSection, List<IConfigSubscriber>>(EConfigSection.class);
+		for (final EConfigSection section : EConfigSection.values()) {
+			this.subscribers.put(section, new CopyOnWriteArrayList<IConfigSubscriber>());
+		}
+		this.failure = new AtomicReference<Exception>();
+	}
+
+	/**
+	 * Start watching the configuration directory on a
+	 * daemon thread.
+	 * @param quiet The <code>long</code> period without
+	 * any further change of the file after which a change
+	 * is reloaded.
+	 * @param unit The <code>TimeUnit</code> of the
+	 * quiet period.
+	 * @throws IOException If registering the directory
+	 * with the watch service failed.
+	 */
+	public synchronized void start(final long quiet, final TimeUnit unit) throws IOException {
+		if (this.service != null) return;
+		final WatchService service = FileSystems.getDefault().newWatchService();
+		try {
+			final Path dir = new File(UEnvironment.instance.getConfigDir(this.homeDir)).toPath();
+			dir.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+		} catch (final IOException e) {
+			service.close();
+			throw e;
+		}
+		final long quietNanos = unit.toNanos(quiet);
+		this.service = service;
+		this.thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				watch(service, quietNanos);
+			}
+		}, "hemera-config-watcher");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * Stop watching the configuration directory.
+	 */
+	public synchronized void stop() {
+		if (this.service == null) return;
+		try {
+			this.service.close();
+		} catch (final IOException e) {
+			// The watching thread exits either way.
+		}
+		this.thread.interrupt();
+		this.service = null;
+		this.thread = null;
+	}
+
+	/**
+	 * Wait for the changes of the configuration file and
+	 * reload each change once the directory is quiet,
+	 * until the given watch service is closed.
+	 * @param service The <code>WatchService</code>.
+	 * @param quiet The <code>long</code> quiet period in
+	 * nanoseconds.
+	 */
+	private void watch(final WatchService service, final long quiet) {
+		try {
+			while (true) {
+				WatchKey key = service.take();
+				boolean changed = this.poll(key);
+				// Coalesce the events of the same save.
+				while ((key = service.poll(quiet, TimeUnit.NANOSECONDS)) != null) {
+					changed |= this.poll(key);
+				}
+				if (!changed) continue;
+				try {
+					this.reload(true);
+				} catch (final Exception e) {
+					// Failure is recorded by reload.
+				}
+			}
+		} catch (final ClosedWatchServiceException e) {
+			// Stopped.
+		} catch (final InterruptedException e) {
+			// Stopped.
+		}
+	}
+
+	/**
+	 * Drain the events of the given key.
+	 * @param key The signalled <code>WatchKey</code>.
+	 * @return <code>true</code> if any event may be a
+	 * change of the configuration file.
+	 */
+	private boolean poll(final WatchKey key) {
+		boolean changed = false;
+		for (final WatchEvent<?> event : key.pollEvents()) {
+			// Events may have been lost on overflow.
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) changed = true;
+			else if (this.fileName.equals(event.context())) changed = true;
+		}
+		if (!key.reset()) {
+			this.failure.set(new IOException("Configuration directory is no longer accessible: " + this.file.getParent()));
+		}
+		return changed;
+	}
+
+	/**
+	 * Check the configuration file and publish a new
+	 * configuration if the file has been modified since
+	 * the last check.
+	 * @return <code>true</code> if a new configuration
+	 * is published. <code>false</code> if the file has
+	 * not been modified.
+	 * @throws IOException If reading file failed.
+	 * @throws SAXException If parsing file failed.
+	 * @throws ParserConfigurationException If
+	 * parsing file failed.
+	 * @throws IllegalArgumentException If the new
+	 * configuration is invalid.
+	 */
+	public boolean reload() throws IOException, SAXException, ParserConfigurationException {
+		return this.reload(false);
+	}
+
+	/**
+	 * Check the configuration file and publish a new
+	 * configuration if the file has been modified or the
+	 * reload is forced.
+	 * @param force <code>true</code> to parse the file
+	 * even if its stamp is unchanged, as a change within
+	 * the time stamp resolution may keep both the time
+	 * and the length.
+	 * @return <code>true</code> if a new configuration
+	 * is published.
+	 * @throws IOException If reading file failed.
+	 * @throws SAXException If parsing file failed.
+	 * @throws ParserConfigurationException If
+	 * parsing file failed.
+	 * @throws IllegalArgumentException If the new
+	 * configuration is invalid.
+	 */
+	private boolean reload(final boolean force) throws IOException, SAXException, ParserConfigurationException {
+		final Configuration previous;
+		final Configuration config;
+		synchronized (this.file) {
+			final long modified = this.file.lastModified();
+			final long length = this.file.length();
+			if (!force && modified == this.lastModified && length == this.lastLength) return false;
+			// Record the stamp before parsing, so an invalid
+			// file is only retried once it changes again.
+			this.lastModified = modified;
+			this.lastLength = length;
+			try {
+				config = UEnvironment.instance.getConfiguration(this.homeDir);
+				config.validate();
+			} catch (final IOException e) {
+				this.failure.set(e);
+				throw e;
+			} catch (final SAXException e) {
+				this.failure.set(e);
+				throw e;
+			} catch (final ParserConfigurationException e) {
+				this.failure.set(e);
+				throw e;
+			} catch (final RuntimeException e) {
+				this.failure.set(e);
+				throw e;
+			}
+			previous = this.current.getAndSet(config);
+			this.failure.set(null);
+			this.notifySubscribers(previous, config);
+		}
+		return true;
+	}
+
+	/**
+	 * Notify the subscribers of all the sections that
+	 * are different between the given configurations.
+	 * @param previous The previous <code>Configuration</code>.
+	 * @param config The current <code>Configuration</code>.
+	 */
+	private void notifySubscribers(final Configuration previous, final Configuration config) {
+		final ConfigDiff diff = new ConfigDiff(previous, config);
+		if (diff.isEmpty()) return;
+		for (final EConfigSection section : EConfigSection.values()) {
+			if (!diff.hasChanges(section)) continue;
+			for (final IConfigSubscriber subscriber : this.subscribers.get(section)) {
+				try {
+					subscriber.onChange(section, diff);
+				} catch (final RuntimeException e) {
+					this.failure.set(e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Subscribe to the changes of the given section.
+	 * @param section The <code>EConfigSection</code>.
+	 * @param subscriber The <code>IConfigSubscriber</code>.
+	 */
+	public void subscribe(final EConfigSection section, final IConfigSubscriber subscriber) {
+		this.subscribers.get(section).add(subscriber);
+	}
+
+	/**
+	 * Remove the subscriber from the changes of the
+	 * given section.
+	 * @param section The <code>EConfigSection</code>.
+	 * @param subscriber The <code>IConfigSubscriber</code>.
+	 */
+	public void unsubscribe(final EConfigSection section, final IConfigSubscriber subscriber) {
+		this.subscribers.get(section).remove(subscriber);
+	}
+
+	/**
+	 * Retrieve the current configuration.
+	 * @return The current <code>Configuration</code>.
+	 */
+	public Configuration getConfiguration() {
+		return this.current.get();
+	}
+
+	/**
+	 * Retrieve the failure of the last reload.
+	 * @return The <code>Exception</code> of the last
+	 * reload or subscriber failure. <code>null</code>
+	 * if the last reload succeeded.
+	 */
+	public Exception getLastFailure() {
+		return this.failure.get();
+	}
+}
@@ -1,7 +1,14 @@
 package hemera.core.environment.config;
 
+import hemera.core.environment.config.key.KConfigJVM;
+import hemera.core.environment.config.key.KConfigRuntime;
 import hemera.core.environment.config.key.KConfiguration;
 import hemera.core.environment.enumn.EEnvironment;
+import hemera.core.environment.util.USnapshot;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -58,6 +65,17 @@ public class Configuration {
 		this.runtime = new ConfigRuntime(environment);
 	}
 
+	/**
+	 * Constructor of <code>Configuration</code>.
+	 * @param buffer The <code>ByteBuffer</code> of a
+	 * configuration snapshot to read the values from.
+	 */
+	public Configuration(final ByteBuffer buffer) {
+		this.version = USnapshot.instance.readString(buffer);
+		this.jvm = new ConfigJVM(buffer);
+		this.runtime = new ConfigRuntime(buffer);
+	}
+
 	/**
 	 * Parse the root environment tag.
 	 * @param document The XML <code>Document</code>
@@ -113,4 +131,41 @@ public class Configuration {
 		root.appendChild(runtime);
 		return document;
 	}
+
+	/**
+	 * Write this environment configuration to the given
+	 * snapshot output.
+	 * @param output The <code>DataOutput</code> to
+	 * write to.
+	 * @throws IOException If writing failed.
+	 */
+	public void write(final DataOutput output) throws IOException {
+		USnapshot.instance.writeString(output, this.version);
+		this.jvm.write(output);
+		this.runtime.write(output);
+	}
+
+	/**
+	 * Validate the values of this configuration.
+	 * @throws IllegalArgumentException If any value
+	 * is invalid.
+	 */
+	public void validate() {
+		if (this.version == null || this.version.isEmpty()) {
+			throw new IllegalArgumentException("Invalid environment configuration. Version must not be empty.");
+		}
+		this.runtime.validate();
+	}
+
+	/**
+	 * Record the differences between this configuration
+	 * and the given one.
+	 * @param current The current <code>Configuration</code>.
+	 * @param diff The <code>ConfigDiff</code> to record
+	 * the changes into.
+	 */
+	void diff(final Configuration current, final ConfigDiff diff) {
+		this.jvm.diff(current.jvm, KConfigJVM.Root.tag, diff);
+		this.runtime.diff(current.runtime, KConfigRuntime.Root.tag, diff);
+	}
 }
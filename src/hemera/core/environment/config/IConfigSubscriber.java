@@ -0,0 +1,26 @@
+package hemera.core.environment.config;
+
+import hemera.core.environment.enumn.EConfigSection;
+
+/**
+ * <code>IConfigSubscriber</code> defines the interface
+ * of a unit that is notified when a section of the
+ * environment configuration is changed by a reload.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public interface IConfigSubscriber {
+
+	/**
+	 * Invoked after a new configuration containing a
+	 * change of the subscribed section is published.
+	 * <p>
+	 * This method is invoked on the reloading thread
+	 * and should return quickly.
+	 * @param section The changed <code>EConfigSection</code>.
+	 * @param diff The <code>ConfigDiff</code> between the
+	 * previous and the newly published configuration.
+	 */
+	public void onChange(final EConfigSection section, final ConfigDiff diff);
+}
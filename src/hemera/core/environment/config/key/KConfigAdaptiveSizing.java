@@ -0,0 +1,59 @@
+package hemera.core.environment.config.key;
+
+/**
+ * <code>KConfigAdaptiveSizing</code> defines the
+ * enumerations of all the XML tags used in the adaptive
+ * sizing section of the scalable execution service
+ * configuration.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum KConfigAdaptiveSizing {
+	/**
+	 * The adaptive sizing tag.
+	 */
+	Root("adaptive-sizing"),
+	/**
+	 * The adaptive sizing enabled tag.
+	 */
+	Enabled("enabled"),
+	/**
+	 * The adaptive sizing algorithm tag.
+	 */
+	Algorithm("algorithm"),
+	/**
+	 * The adaptive sizing sample interval tag.
+	 */
+	SampleInterval("sample-interval"),
+	/**
+	 * The adaptive sizing target queue wait tag.
+	 */
+	TargetWait("target-wait"),
+	/**
+	 * The adaptive sizing dampening tag.
+	 */
+	Dampening("dampening"),
+	/**
+	 * The adaptive sizing maximum step tag.
+	 */
+	MaxStep("max-step"),
+	/**
+	 * The adaptive sizing processor utilization ceiling
+	 * tag.
+	 */
+	CpuCeiling("cpu-ceiling");
+
+	/**
+	 * The <code>String</code> tag.
+	 */
+	public final String tag;
+
+	/**
+	 * Constructor of <code>KConfigAdaptiveSizing</code>.
+	 * @param tag The <code>String</code> tag.
+	 */
+	private KConfigAdaptiveSizing(final String tag) {
+		this.tag = tag;
+	}
+}
@@ -0,0 +1,41 @@
+package hemera.core.environment.config.key;
+
+/**
+ * <code>KConfigBatching</code> defines the enumerations
+ * of all the XML tags used in the batching section of
+ * the assisted execution service configuration.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum KConfigBatching {
+	/**
+	 * The batching tag.
+	 */
+	Root("batching"),
+	/**
+	 * The batching enabled flag tag.
+	 */
+	Enabled("enabled"),
+	/**
+	 * The maximum number of tasks per batch tag.
+	 */
+	MaxBatchSize("max-batch-size"),
+	/**
+	 * The maximum time to wait for a batch to fill tag.
+	 */
+	MaxLinger("max-linger");
+
+	/**
+	 * The <code>String</code> tag.
+	 */
+	public final String tag;
+
+	/**
+	 * Constructor of <code>KConfigBatching</code>.
+	 * @param tag The <code>String</code> tag.
+	 */
+	private KConfigBatching(final String tag) {
+		this.tag = tag;
+	}
+}
@@ -0,0 +1,46 @@
+package hemera.core.environment.config.key;
+
+/**
+ * <code>KConfigBufferPool</code> defines the enumerations
+ * of all the XML tags used in the buffer pool section of
+ * the socket configuration.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum KConfigBufferPool {
+	/**
+	 * The buffer pool tag.
+	 */
+	Root("buffer-pool"),
+	/**
+	 * The smallest size class tag.
+	 */
+	MinClassSize("min-class-size"),
+	/**
+	 * The slab size tag.
+	 */
+	SlabSize("slab-size"),
+	/**
+	 * The number of cached buffers per size class per
+	 * thread tag.
+	 */
+	ThreadCacheSize("thread-cache-size"),
+	/**
+	 * The maximum pooled memory tag.
+	 */
+	MaxMemory("max-memory");
+
+	/**
+	 * The <code>String</code> tag.
+	 */
+	public final String tag;
+
+	/**
+	 * Constructor of <code>KConfigBufferPool</code>.
+	 * @param tag The <code>String</code> tag.
+	 */
+	private KConfigBufferPool(final String tag) {
+		this.tag = tag;
+	}
+}
@@ -13,8 +13,13 @@ public enum KConfigExecutionService {
 	 * The execution service tag.
 	 */
 	Root("execution-service"),
+	/**
+	 * The execution service mode tag.
+	 */
+	Mode("mode"),
 	/**
 	 * The execution service use scalable service flag
+	 * tag. This tag is only used when there is no mode
 	 * tag.
 	 */
 	UseScalableService("use-scalable-service");
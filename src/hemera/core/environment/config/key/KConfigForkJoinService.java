@@ -0,0 +1,47 @@
+package hemera.core.environment.config.key;
+
+/**
+ * <code>KConfigForkJoinService</code> defines the
+ * enumerations of all the XML tags used in the fork-join
+ * execution service section of the configuration file.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum KConfigForkJoinService {
+	/**
+	 * The fork-join service tag.
+	 */
+	Root("fork-join-service"),
+	/**
+	 * The fork-join service parallelism tag.
+	 */
+	Parallelism("parallelism"),
+	/**
+	 * The fork-join service asynchronous first-in-first-out
+	 * mode tag.
+	 */
+	AsyncMode("async-mode"),
+	/**
+	 * The fork-join service maximum number of spare
+	 * compensating threads tag.
+	 */
+	SpareThreads("spare-threads"),
+	/**
+	 * The fork-join service saturation policy tag.
+	 */
+	Saturation("saturation");
+	
+	/**
+	 * The <code>String</code> tag.
+	 */
+	public final String tag;
+	
+	/**
+	 * Constructor of <code>KConfigForkJoinService</code>.
+	 * @param tag The <code>String</code> tag.
+	 */
+	private KConfigForkJoinService(final String tag) {
+		this.tag = tag;
+	}
+}
@@ -21,7 +21,27 @@ public enum KConfigHandler {
 	 * The exception handler fully qualified class name
 	 * tag.
 	 */
-	Classname("classname");
+	Classname("classname"),
+	/**
+	 * The optional exception handler type tag.
+	 */
+	Type("type"),
+	/**
+	 * The optional number of top stack frames that
+	 * identify an exception of the sampled handler tag.
+	 */
+	FrameDepth("frame-depth"),
+	/**
+	 * The optional number of exceptions logged with
+	 * full stack traces per fingerprint and window of
+	 * the sampled handler tag.
+	 */
+	SampleLimit("sample-limit"),
+	/**
+	 * The optional sampling window of the sampled
+	 * handler tag.
+	 */
+	Window("window");
 	
 	/**
 	 * The <code>String</code> tag.
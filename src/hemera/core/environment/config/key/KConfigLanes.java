@@ -0,0 +1,50 @@
+package hemera.core.environment.config.key;
+
+/**
+ * <code>KConfigLanes</code> defines the enumerations
+ * of all the XML tags used in the priority lanes
+ * section of the execution service configuration.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum KConfigLanes {
+	/**
+	 * The lanes tag.
+	 */
+	Root("lanes"),
+	/**
+	 * The name of the lane used by the resources that
+	 * are not mapped to a lane tag.
+	 */
+	DefaultLane("default-lane"),
+	/**
+	 * The single lane tag.
+	 */
+	Lane("lane"),
+	/**
+	 * The lane name tag.
+	 */
+	Name("name"),
+	/**
+	 * The lane weighted round-robin weight tag.
+	 */
+	Weight("weight"),
+	/**
+	 * The lane strict priority flag tag.
+	 */
+	Strict("strict");
+
+	/**
+	 * The <code>String</code> tag.
+	 */
+	public final String tag;
+
+	/**
+	 * Constructor of <code>KConfigLanes</code>.
+	 * @param tag The <code>String</code> tag.
+	 */
+	private KConfigLanes(final String tag) {
+		this.tag = tag;
+	}
+}
@@ -21,7 +21,21 @@ public enum KConfigListener {
 	 * The execution service listener fully qualified
 	 * class name tag.
 	 */
-	Classname("classname");
+	Classname("classname"),
+	/**
+	 * The optional execution service listener type tag.
+	 */
+	Type("type"),
+	/**
+	 * The optional number of significant decimal digits
+	 * of the metrics listener histograms tag.
+	 */
+	SignificantDigits("significant-digits"),
+	/**
+	 * The optional highest latency recorded by the
+	 * metrics listener histograms tag.
+	 */
+	HighestLatency("highest-latency");
 	
 	/**
 	 * The <code>String</code> tag.
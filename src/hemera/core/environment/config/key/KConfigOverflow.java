@@ -0,0 +1,41 @@
+package hemera.core.environment.config.key;
+
+/**
+ * <code>KConfigOverflow</code> defines the enumerations
+ * of all the XML tags used in the overflow section of
+ * the assisted execution service configuration.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum KConfigOverflow {
+	/**
+	 * The overflow tag.
+	 */
+	Root("overflow"),
+	/**
+	 * The overflow policy tag.
+	 */
+	Policy("policy"),
+	/**
+	 * The controlled delay target delay tag.
+	 */
+	TargetDelay("target-delay"),
+	/**
+	 * The controlled delay interval tag.
+	 */
+	Interval("interval");
+
+	/**
+	 * The <code>String</code> tag.
+	 */
+	public final String tag;
+
+	/**
+	 * Constructor of <code>KConfigOverflow</code>.
+	 * @param tag The <code>String</code> tag.
+	 */
+	private KConfigOverflow(final String tag) {
+		this.tag = tag;
+	}
+}
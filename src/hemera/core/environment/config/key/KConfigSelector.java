@@ -0,0 +1,42 @@
+package hemera.core.environment.config.key;
+
+/**
+ * <code>KConfigSelector</code> defines the enumerations
+ * of all the XML tags used in the selector section of
+ * the socket configuration.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum KConfigSelector {
+	/**
+	 * The selector tag.
+	 */
+	Root("selector"),
+	/**
+	 * The number of acceptor threads tag.
+	 */
+	AcceptorThreads("acceptor-threads"),
+	/**
+	 * The number of selector threads tag.
+	 */
+	SelectorThreads("selector-threads"),
+	/**
+	 * The maximum number of connections per selector
+	 * thread tag.
+	 */
+	MaxConnections("max-connections");
+
+	/**
+	 * The <code>String</code> tag.
+	 */
+	public final String tag;
+
+	/**
+	 * Constructor of <code>KConfigSelector</code>.
+	 * @param tag The <code>String</code> tag.
+	 */
+	private KConfigSelector(final String tag) {
+		this.tag = tag;
+	}
+}
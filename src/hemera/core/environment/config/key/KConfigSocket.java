@@ -33,7 +33,32 @@ public enum KConfigSocket {
 	/**
 	 * The optional certificate public key password.
 	 */
-	KeyPassword("key-password");
+	KeyPassword("key-password"),
+	/**
+	 * The optional socket mode tag.
+	 */
+	Mode("mode"),
+	/**
+	 * The optional accept backlog tag.
+	 */
+	Backlog("backlog"),
+	/**
+	 * The optional disable Nagle's algorithm flag tag.
+	 */
+	TcpNoDelay("tcp-no-delay"),
+	/**
+	 * The optional listening socket per acceptor flag
+	 * tag.
+	 */
+	ReusePort("reuse-port"),
+	/**
+	 * The optional kernel receive buffer size tag.
+	 */
+	ReceiveBufferSize("receive-buffer-size"),
+	/**
+	 * The optional kernel send buffer size tag.
+	 */
+	SendBufferSize("send-buffer-size");
 	
 	/**
 	 * The <code>String</code> tag.
@@ -0,0 +1,41 @@
+package hemera.core.environment.config.key;
+
+/**
+ * <code>KConfigStaticFiles</code> defines the enumerations
+ * of all the XML tags used in the static files section
+ * of the socket configuration.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum KConfigStaticFiles {
+	/**
+	 * The static files tag.
+	 */
+	Root("static-files"),
+	/**
+	 * The maximum mapped memory tag.
+	 */
+	MappedCacheSize("mapped-cache-size"),
+	/**
+	 * The largest mapped file size tag.
+	 */
+	MappedFileSize("mapped-file-size"),
+	/**
+	 * The number of requests that make a file hot tag.
+	 */
+	HotThreshold("hot-threshold");
+
+	/**
+	 * The <code>String</code> tag.
+	 */
+	public final String tag;
+
+	/**
+	 * Constructor of <code>KConfigStaticFiles</code>.
+	 * @param tag The <code>String</code> tag.
+	 */
+	private KConfigStaticFiles(final String tag) {
+		this.tag = tag;
+	}
+}
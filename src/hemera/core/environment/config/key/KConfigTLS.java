@@ -0,0 +1,61 @@
+package hemera.core.environment.config.key;
+
+/**
+ * <code>KConfigTLS</code> defines the enumerations of
+ * all the XML tags used in the TLS section of the
+ * socket configuration.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum KConfigTLS {
+	/**
+	 * The TLS tag.
+	 */
+	Root("tls"),
+	/**
+	 * The maximum number of cached sessions tag.
+	 */
+	SessionCacheSize("session-cache-size"),
+	/**
+	 * The lifetime of the cached sessions tag.
+	 */
+	SessionLifetime("session-lifetime"),
+	/**
+	 * The session tickets flag tag.
+	 */
+	SessionTickets("session-tickets"),
+	/**
+	 * The enabled protocols in preference order tag.
+	 */
+	Protocols("protocols"),
+	/**
+	 * The enabled cipher suites in preference order tag.
+	 */
+	Ciphers("ciphers"),
+	/**
+	 * The server cipher suite order flag tag.
+	 */
+	ServerCipherOrder("server-cipher-order"),
+	/**
+	 * The number of handshake threads tag.
+	 */
+	HandshakeThreads("handshake-threads"),
+	/**
+	 * The maximum number of queued handshakes tag.
+	 */
+	HandshakeQueueSize("handshake-queue-size");
+
+	/**
+	 * The <code>String</code> tag.
+	 */
+	public final String tag;
+
+	/**
+	 * Constructor of <code>KConfigTLS</code>.
+	 * @param tag The <code>String</code> tag.
+	 */
+	private KConfigTLS(final String tag) {
+		this.tag = tag;
+	}
+}
@@ -0,0 +1,37 @@
+package hemera.core.environment.config.key;
+
+/**
+ * <code>KConfigTimer</code> defines the enumerations
+ * of all the XML tags used in the timer section of the
+ * runtime configuration.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum KConfigTimer {
+	/**
+	 * The timer tag.
+	 */
+	Root("timer"),
+	/**
+	 * The duration of each tick tag.
+	 */
+	TickDuration("tick-duration"),
+	/**
+	 * The number of buckets of the wheel tag.
+	 */
+	WheelSize("wheel-size");
+
+	/**
+	 * The <code>String</code> tag.
+	 */
+	public final String tag;
+
+	/**
+	 * Constructor of <code>KConfigTimer</code>.
+	 * @param tag The <code>String</code> tag.
+	 */
+	private KConfigTimer(final String tag) {
+		this.tag = tag;
+	}
+}
@@ -0,0 +1,43 @@
+package hemera.core.environment.config.key;
+
+/**
+ * <code>KConfigVirtualService</code> defines the
+ * enumerations of all the XML tags used in the virtual
+ * thread service section of the configuration file.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum KConfigVirtualService {
+	/**
+	 * The virtual service tag.
+	 */
+	Root("virtual-service"),
+	/**
+	 * The virtual service maximum number of concurrently
+	 * executing tasks tag.
+	 */
+	MaxConcurrency("max-concurrency"),
+	/**
+	 * The virtual service carrier thread parallelism
+	 * tag.
+	 */
+	CarrierParallelism("carrier-parallelism"),
+	/**
+	 * The virtual service pinned thread trace tag.
+	 */
+	PinnedTrace("pinned-trace");
+	
+	/**
+	 * The <code>String</code> tag.
+	 */
+	public final String tag;
+	
+	/**
+	 * Constructor of <code>KConfigVirtualService</code>.
+	 * @param tag The <code>String</code> tag.
+	 */
+	private KConfigVirtualService(final String tag) {
+		this.tag = tag;
+	}
+}
@@ -0,0 +1,57 @@
+package hemera.core.environment.enumn;
+
+/**
+ * <code>EArrivalProcess</code> defines the enumerations
+ * of the processes the load simulator submits tasks
+ * with.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum EArrivalProcess {
+	/**
+	 * Tasks arrive independently at the configured
+	 * average rate, with exponentially distributed
+	 * inter-arrival times.
+	 */
+	Poisson("poisson"),
+	/**
+	 * Tasks arrive in periodic bursts at a multiple of
+	 * the configured rate, and not at all in between,
+	 * so the average rate is the configured rate.
+	 */
+	Bursty("bursty"),
+	/**
+	 * A fixed number of clients each submit a task,
+	 * wait for it to complete and think before the
+	 * next one, so the arrival rate adapts to the
+	 * response time.
+	 */
+	ClosedLoop("closed-loop");
+
+	/**
+	 * The <code>String</code> arrival process value.
+	 */
+	public final String value;
+
+	/**
+	 * Constructor of <code>EArrivalProcess</code>.
+	 * @param value The <code>String</code> arrival
+	 * process value.
+	 */
+	private EArrivalProcess(final String value) {
+		this.value = value;
+	}
+
+	/**
+	 * Parse the given value into enumeration.
+	 * @param value The <code>String</code> value.
+	 * @return The <code>EArrivalProcess</code> value.
+	 */
+	public static EArrivalProcess parse(final String value) {
+		for (final EArrivalProcess process : EArrivalProcess.values()) {
+			if (process.value.equals(value)) return process;
+		}
+		throw new IllegalArgumentException("Unsupported arrival process: " + value);
+	}
+}
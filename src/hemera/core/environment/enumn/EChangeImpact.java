@@ -0,0 +1,28 @@
+package hemera.core.environment.enumn;
+
+/**
+ * <code>EChangeImpact</code> defines the enumerations
+ * of the cost of applying a configuration change to a
+ * running environment. The values are ordered from the
+ * cheapest to the most expensive.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum EChangeImpact {
+	/**
+	 * The change can be applied to the running services
+	 * directly.
+	 */
+	Live,
+	/**
+	 * The change requires the execution service pool
+	 * to be rebuilt.
+	 */
+	PoolRebuild,
+	/**
+	 * The change requires the runtime process to be
+	 * restarted.
+	 */
+	Restart;
+}
@@ -0,0 +1,36 @@
+package hemera.core.environment.enumn;
+
+/**
+ * <code>EConfigSection</code> defines the enumerations
+ * of the sections of the environment configuration that
+ * can be observed for changes.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum EConfigSection {
+	/**
+	 * The JVM section.
+	 */
+	JVM,
+	/**
+	 * The runtime launcher value.
+	 */
+	Launcher,
+	/**
+	 * The execution service section.
+	 */
+	Execution,
+	/**
+	 * The socket section.
+	 */
+	Socket,
+	/**
+	 * The logging section.
+	 */
+	Logging,
+	/**
+	 * The timer section.
+	 */
+	Timer;
+}
@@ -0,0 +1,55 @@
+package hemera.core.environment.enumn;
+
+/**
+ * <code>EContentEncoding</code> defines the enumerations
+ * of the HTTP content encodings the static files are
+ * precompressed with.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum EContentEncoding {
+	/**
+	 * The gzip format, accepted by all the clients.
+	 */
+	Gzip("gzip", ".gz"),
+	/**
+	 * The zlib format compressed at the maximum level,
+	 * which is the <code>deflate</code> encoding of HTTP.
+	 */
+	Deflate("deflate", ".deflate");
+
+	/**
+	 * The <code>String</code> encoding value.
+	 */
+	public final String value;
+	/**
+	 * The <code>String</code> file name suffix of the
+	 * precompressed variant of a file.
+	 */
+	public final String suffix;
+
+	/**
+	 * Constructor of <code>EContentEncoding</code>.
+	 * @param value The <code>String</code> encoding
+	 * value.
+	 * @param suffix The <code>String</code> file name
+	 * suffix.
+	 */
+	private EContentEncoding(final String value, final String suffix) {
+		this.value = value;
+		this.suffix = suffix;
+	}
+
+	/**
+	 * Parse the given value into enumeration.
+	 * @param value The <code>String</code> value.
+	 * @return The <code>EContentEncoding</code> value.
+	 */
+	public static EContentEncoding parse(final String value) {
+		for (final EContentEncoding encoding : EContentEncoding.values()) {
+			if (encoding.value.equals(value)) return encoding;
+		}
+		throw new IllegalArgumentException("Unsupported content encoding: " + value);
+	}
+}
@@ -17,6 +17,12 @@ public enum EEnvironment {
 	 * directory.
 	 */
 	ConfigurationFile("hemera.conf"),
+	/**
+	 * The binary snapshot file of the parsed
+	 * configuration, written next to the configuration
+	 * file.
+	 */
+	ConfigurationSnapshotFile("hemera.conf.snapshot"),
 	/**
 	 * The JSVC PID file.
 	 */
@@ -0,0 +1,57 @@
+package hemera.core.environment.enumn;
+
+/**
+ * <code>EExecutionMode</code> defines the enumerations
+ * of all the execution service modes.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum EExecutionMode {
+	/**
+	 * The assisted execution service with a fixed
+	 * number of executors.
+	 */
+	Assisted("assisted"),
+	/**
+	 * The scalable execution service with a bounded
+	 * dynamic number of executors.
+	 */
+	Scalable("scalable"),
+	/**
+	 * The virtual thread execution service that runs
+	 * each task on its own virtual thread.
+	 */
+	Virtual("virtual"),
+	/**
+	 * The work-stealing fork-join execution service
+	 * sized to the processors, for recursive processor
+	 * bound tasks.
+	 */
+	ForkJoin("fork-join");
+
+	/**
+	 * The <code>String</code> mode value.
+	 */
+	public final String value;
+
+	/**
+	 * Constructor of <code>EExecutionMode</code>.
+	 * @param value The <code>String</code> mode value.
+	 */
+	private EExecutionMode(final String value) {
+		this.value = value;
+	}
+
+	/**
+	 * Parse the given value into enumeration.
+	 * @param value The <code>String</code> value.
+	 * @return The <code>EExecutionMode</code> value.
+	 */
+	public static EExecutionMode parse(final String value) {
+		for (final EExecutionMode mode : EExecutionMode.values()) {
+			if (mode.value.equals(value)) return mode;
+		}
+		throw new IllegalArgumentException("Unsupported execution mode: " + value);
+	}
+}
@@ -0,0 +1,55 @@
+package hemera.core.environment.enumn;
+
+/**
+ * <code>EHandlerType</code> defines the enumerations
+ * of the execution service exception handler
+ * implementations.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum EHandlerType {
+	/**
+	 * The internal handler that logs every exception
+	 * with its full stack trace.
+	 */
+	Logging("logging"),
+	/**
+	 * The built-in handler that groups exceptions by
+	 * fingerprint, logs the full stack traces of the
+	 * first exceptions of each group per window and
+	 * only counts the rest.
+	 */
+	Sampled("sampled"),
+	/**
+	 * The handler loaded from the configured Jar file
+	 * and class name.
+	 */
+	Custom("custom");
+
+	/**
+	 * The <code>String</code> handler type value.
+	 */
+	public final String value;
+
+	/**
+	 * Constructor of <code>EHandlerType</code>.
+	 * @param value The <code>String</code> handler
+	 * type value.
+	 */
+	private EHandlerType(final String value) {
+		this.value = value;
+	}
+
+	/**
+	 * Parse the given value into enumeration.
+	 * @param value The <code>String</code> value.
+	 * @return The <code>EHandlerType</code> value.
+	 */
+	public static EHandlerType parse(final String value) {
+		for (final EHandlerType type : EHandlerType.values()) {
+			if (type.value.equals(value)) return type;
+		}
+		throw new IllegalArgumentException("Unsupported exception handler type: " + value);
+	}
+}
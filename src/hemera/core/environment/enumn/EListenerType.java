@@ -0,0 +1,53 @@
+package hemera.core.environment.enumn;
+
+/**
+ * <code>EListenerType</code> defines the enumerations
+ * of the execution service listener implementations.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum EListenerType {
+	/**
+	 * The internal listener that logs the execution
+	 * service events.
+	 */
+	Logging("logging"),
+	/**
+	 * The built-in listener that records the queue wait
+	 * and execution time of the tasks in latency
+	 * histograms, and counts the rejected tasks.
+	 */
+	Metrics("metrics"),
+	/**
+	 * The listener loaded from the configured Jar file
+	 * and class name.
+	 */
+	Custom("custom");
+
+	/**
+	 * The <code>String</code> listener type value.
+	 */
+	public final String value;
+
+	/**
+	 * Constructor of <code>EListenerType</code>.
+	 * @param value The <code>String</code> listener
+	 * type value.
+	 */
+	private EListenerType(final String value) {
+		this.value = value;
+	}
+
+	/**
+	 * Parse the given value into enumeration.
+	 * @param value The <code>String</code> value.
+	 * @return The <code>EListenerType</code> value.
+	 */
+	public static EListenerType parse(final String value) {
+		for (final EListenerType type : EListenerType.values()) {
+			if (type.value.equals(value)) return type;
+		}
+		throw new IllegalArgumentException("Unsupported listener type: " + value);
+	}
+}
@@ -0,0 +1,59 @@
+package hemera.core.environment.enumn;
+
+/**
+ * <code>EOverflowPolicy</code> defines the enumerations
+ * of the behaviors of a bounded task buffer of the
+ * assisted execution service when it is overloaded.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum EOverflowPolicy {
+	/**
+	 * A task submitted to a full buffer is rejected.
+	 */
+	Reject("reject"),
+	/**
+	 * A task submitted to a full buffer is executed by
+	 * the submitting thread, which slows down the
+	 * producer.
+	 */
+	CallerRuns("caller-runs"),
+	/**
+	 * The oldest buffered task is discarded to make room
+	 * for a task submitted to a full buffer.
+	 */
+	DropOldest("drop-oldest"),
+	/**
+	 * Tasks whose queue delay stays above the target
+	 * delay for an entire interval are shed when they
+	 * are dequeued, with the controlled delay algorithm.
+	 * A task submitted to a full buffer is rejected.
+	 */
+	CoDel("codel");
+
+	/**
+	 * The <code>String</code> policy value.
+	 */
+	public final String value;
+
+	/**
+	 * Constructor of <code>EOverflowPolicy</code>.
+	 * @param value The <code>String</code> policy value.
+	 */
+	private EOverflowPolicy(final String value) {
+		this.value = value;
+	}
+
+	/**
+	 * Parse the given value into enumeration.
+	 * @param value The <code>String</code> value.
+	 * @return The <code>EOverflowPolicy</code> value.
+	 */
+	public static EOverflowPolicy parse(final String value) {
+		for (final EOverflowPolicy policy : EOverflowPolicy.values()) {
+			if (policy.value.equals(value)) return policy;
+		}
+		throw new IllegalArgumentException("Unsupported overflow policy: " + value);
+	}
+}
@@ -0,0 +1,50 @@
+package hemera.core.environment.enumn;
+
+/**
+ * <code>EPinnedTrace</code> defines the enumerations
+ * of the diagnostics printed when a virtual thread is
+ * pinned to its carrier thread while blocking.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum EPinnedTrace {
+	/**
+	 * No diagnostics are printed.
+	 */
+	None("none"),
+	/**
+	 * Only the frames that cause the pinning are
+	 * printed.
+	 */
+	Short("short"),
+	/**
+	 * The full stack trace is printed.
+	 */
+	Full("full");
+
+	/**
+	 * The <code>String</code> trace value.
+	 */
+	public final String value;
+
+	/**
+	 * Constructor of <code>EPinnedTrace</code>.
+	 * @param value The <code>String</code> trace value.
+	 */
+	private EPinnedTrace(final String value) {
+		this.value = value;
+	}
+
+	/**
+	 * Parse the given value into enumeration.
+	 * @param value The <code>String</code> value.
+	 * @return The <code>EPinnedTrace</code> value.
+	 */
+	public static EPinnedTrace parse(final String value) {
+		for (final EPinnedTrace trace : EPinnedTrace.values()) {
+			if (trace.value.equals(value)) return trace;
+		}
+		throw new IllegalArgumentException("Unsupported pinned trace: " + value);
+	}
+}
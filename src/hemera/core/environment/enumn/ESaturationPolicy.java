@@ -0,0 +1,47 @@
+package hemera.core.environment.enumn;
+
+/**
+ * <code>ESaturationPolicy</code> defines the enumerations
+ * of the behaviors of a fork-join execution service when
+ * a blocked task requires a compensating thread but the
+ * maximum number of spare threads is reached.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum ESaturationPolicy {
+	/**
+	 * The blocking task is rejected.
+	 */
+	Reject("reject"),
+	/**
+	 * The blocking task continues without compensation,
+	 * temporarily reducing the parallelism.
+	 */
+	Continue("continue");
+
+	/**
+	 * The <code>String</code> policy value.
+	 */
+	public final String value;
+
+	/**
+	 * Constructor of <code>ESaturationPolicy</code>.
+	 * @param value The <code>String</code> policy value.
+	 */
+	private ESaturationPolicy(final String value) {
+		this.value = value;
+	}
+
+	/**
+	 * Parse the given value into enumeration.
+	 * @param value The <code>String</code> value.
+	 * @return The <code>ESaturationPolicy</code> value.
+	 */
+	public static ESaturationPolicy parse(final String value) {
+		for (final ESaturationPolicy policy : ESaturationPolicy.values()) {
+			if (policy.value.equals(value)) return policy;
+		}
+		throw new IllegalArgumentException("Unsupported saturation policy: " + value);
+	}
+}
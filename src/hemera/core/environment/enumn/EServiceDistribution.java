@@ -0,0 +1,74 @@
+package hemera.core.environment.enumn;
+
+import java.util.Random;
+
+/**
+ * <code>EServiceDistribution</code> defines the
+ * enumerations of the distributions of the service
+ * times of the tasks submitted by the load simulator.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum EServiceDistribution {
+	/**
+	 * Every task takes the mean time.
+	 */
+	Constant("constant"),
+	/**
+	 * The service times are exponentially distributed
+	 * around the mean.
+	 */
+	Exponential("exponential"),
+	/**
+	 * The service times are log-normally distributed
+	 * with the mean and the configured shape, which
+	 * produces the long tail of typical request
+	 * handling.
+	 */
+	LogNormal("lognormal");
+
+	/**
+	 * The <code>String</code> distribution value.
+	 */
+	public final String value;
+
+	/**
+	 * Constructor of <code>EServiceDistribution</code>.
+	 * @param value The <code>String</code> distribution
+	 * value.
+	 */
+	private EServiceDistribution(final String value) {
+		this.value = value;
+	}
+
+	/**
+	 * Sample a service time from this distribution.
+	 * @param random The <code>Random</code> to sample
+	 * with.
+	 * @param mean The <code>long</code> mean time.
+	 * @param sigma The <code>double</code> shape of the
+	 * log-normal distribution.
+	 * @return The <code>long</code> time.
+	 */
+	public long sample(final Random random, final long mean, final double sigma) {
+		switch (this) {
+		case Exponential: return (long)(-Math.log(1 - random.nextDouble()) * mean);
+		// Scale the median so the mean is preserved.
+		case LogNormal: return (long)(mean * Math.exp(sigma * random.nextGaussian() - sigma * sigma / 2));
+		default: return mean;
+		}
+	}
+
+	/**
+	 * Parse the given value into enumeration.
+	 * @param value The <code>String</code> value.
+	 * @return The <code>EServiceDistribution</code> value.
+	 */
+	public static EServiceDistribution parse(final String value) {
+		for (final EServiceDistribution distribution : EServiceDistribution.values()) {
+			if (distribution.value.equals(value)) return distribution;
+		}
+		throw new IllegalArgumentException("Unsupported service distribution: " + value);
+	}
+}
@@ -0,0 +1,57 @@
+package hemera.core.environment.enumn;
+
+/**
+ * <code>ESizingAlgorithm</code> defines the enumerations
+ * of the algorithms an adaptive pool controller uses to
+ * compute the target size of a scalable execution
+ * service from the measured load.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum ESizingAlgorithm {
+	/**
+	 * The target size is the number of tasks in service
+	 * given by Little's law, which is the throughput
+	 * multiplied by the service time plus the queue wait
+	 * time above the target.
+	 */
+	LittlesLaw("littles-law"),
+	/**
+	 * The size is scaled by the ratio between the
+	 * measured latency and the target latency.
+	 */
+	Gradient("gradient"),
+	/**
+	 * The size is increased additively while the queue
+	 * wait time is above the target, and decreased
+	 * multiplicatively when the processors saturate.
+	 */
+	AIMD("aimd");
+
+	/**
+	 * The <code>String</code> algorithm value.
+	 */
+	public final String value;
+
+	/**
+	 * Constructor of <code>ESizingAlgorithm</code>.
+	 * @param value The <code>String</code> algorithm
+	 * value.
+	 */
+	private ESizingAlgorithm(final String value) {
+		this.value = value;
+	}
+
+	/**
+	 * Parse the given value into enumeration.
+	 * @param value The <code>String</code> value.
+	 * @return The <code>ESizingAlgorithm</code> value.
+	 */
+	public static ESizingAlgorithm parse(final String value) {
+		for (final ESizingAlgorithm algorithm : ESizingAlgorithm.values()) {
+			if (algorithm.value.equals(value)) return algorithm;
+		}
+		throw new IllegalArgumentException("Unsupported sizing algorithm: " + value);
+	}
+}
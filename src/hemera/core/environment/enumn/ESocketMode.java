@@ -0,0 +1,48 @@
+package hemera.core.environment.enumn;
+
+/**
+ * <code>ESocketMode</code> defines the enumerations
+ * of the connection handling models of the socket
+ * listener.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum ESocketMode {
+	/**
+	 * Every connection is served by its own thread,
+	 * which blocks while the connection is idle.
+	 */
+	Blocking("blocking"),
+	/**
+	 * Connections are non-blocking and are multiplexed
+	 * over a fixed number of selector threads, so idle
+	 * connections do not occupy any thread.
+	 */
+	NIO("nio");
+
+	/**
+	 * The <code>String</code> mode value.
+	 */
+	public final String value;
+
+	/**
+	 * Constructor of <code>ESocketMode</code>.
+	 * @param value The <code>String</code> mode value.
+	 */
+	private ESocketMode(final String value) {
+		this.value = value;
+	}
+
+	/**
+	 * Parse the given value into enumeration.
+	 * @param value The <code>String</code> value.
+	 * @return The <code>ESocketMode</code> value.
+	 */
+	public static ESocketMode parse(final String value) {
+		for (final ESocketMode mode : ESocketMode.values()) {
+			if (mode.value.equals(value)) return mode;
+		}
+		throw new IllegalArgumentException("Unsupported socket mode: " + value);
+	}
+}
@@ -0,0 +1,353 @@
+package hemera.core.environment.execution;
+
+import hemera.core.environment.config.ConfigAdaptiveSizing;
+import hemera.core.environment.config.ConfigScalableService;
+import hemera.core.environment.util.USizing;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <code>AdaptivePoolController</code> defines the unit
+ * that periodically samples the load of a scalable
+ * execution service and moves its size between the
+ * configured minimum and maximum executor counts.
+ * <p>
+ * Each sample measures the throughput, the average
+ * queue wait time and the average service time of the
+ * tasks completed since the previous sample, and the
+ * processor utilization. The measurements are smoothed
+ * with the configured dampening before the configured
+ * <code>ESizingAlgorithm</code> computes a target size.
+ * The size is then moved towards the target by at most
+ * the maximum step, and never grown while the processor
+ * utilization is above the configured ceiling.
+ * <p>
+ * Every decision is published to the registered
+ * <code>IPoolSizeListener</code> and retained as the
+ * last decision, so the behavior of the controller
+ * can be observed.
+ * <p>
+ * The configuration can be replaced while running, and
+ * is read on every sample.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.1
+ */
+public class AdaptivePoolController {
+	/**
+	 * The <code>IAdaptivePool</code> to control.
+	 */
+	private final IAdaptivePool pool;
+	/**
+	 * The <code>OperatingSystemMXBean</code> used to
+	 * measure the processor utilization.
+	 */
+	private final OperatingSystemMXBean os;
+	/**
+	 * The <code>List</code> of decision listeners.
+	 */
+	private final List<IPoolSizeListener> listeners;
+	/**
+	 * The <code>AtomicReference</code> of the last
+	 * <code>PoolSizeDecision</code>.
+	 */
+	private final AtomicReference<PoolSizeDecision> decision;
+	/**
+	 * The current <code>ConfigScalableService</code>.
+	 */
+	private volatile ConfigScalableService config;
+	/**
+	 * The <code>boolean</code> flag indicating if the
+	 * previous sample values are recorded.
+	 * <p>
+	 * This value and all the sample values below are
+	 * guarded by this controller.
+	 */
+	private boolean primed;
+	/**
+	 * The <code>boolean</code> flag indicating if the
+	 * smoothed values contain a measurement.
+	 */
+	private boolean measured;
+	/**
+	 * The <code>long</code> previous sample time in
+	 * nanoseconds.
+	 */
+	private long lastTime;
+	/**
+	 * The <code>long</code> previous completed count.
+	 */
+	private long lastCompleted;
+	/**
+	 * The <code>long</code> previous total wait time.
+	 */
+	private long lastWait;
+	/**
+	 * The <code>long</code> previous total service time.
+	 */
+	private long lastService;
+	/**
+	 * The <code>double</code> smoothed throughput in
+	 * tasks per second.
+	 */
+	private double throughput;
+	/**
+	 * The <code>double</code> smoothed queue wait time
+	 * in nanoseconds.
+	 */
+	private double wait;
+	/**
+	 * The <code>double</code> smoothed service time in
+	 * nanoseconds.
+	 */
+	private double service;
+	/**
+	 * The <code>ScheduledExecutorService</code> running
+	 * the samples. <code>null</code> if not started.
+	 */
+	private ScheduledExecutorService executor;
+
+	/**
+	 * Constructor of <code>AdaptivePoolController</code>.
+	 * @param pool The <code>IAdaptivePool</code> to
+	 * control.
+	 * @param config The <code>ConfigScalableService</code>
+	 * providing the size bounds and the adaptive sizing
+	 * configuration.
+	 */
+	public AdaptivePoolController(final IAdaptivePool pool, final ConfigScalableService config) {
+		this.pool = pool;
+		this.os = ManagementFactory.getOperatingSystemMXBean();
+		this.listeners = new CopyOnWriteArrayList<IPoolSizeListener>();
+		this.decision = new AtomicReference<PoolSizeDecision>();
+		this.config = config;
+	}
+
+	/**
+	 * Start sampling on a daemon thread with the
+	 * configured sample interval.
+	 */
+	public synchronized void start() {
+		if (this.executor != null) return;
+		this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread thread = new Thread(r, "hemera-pool-controller");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		this.schedule(this.executor);
+	}
+
+	/**
+	 * Schedule the next sample on the given executor.
+	 * The interval is read every time, so a changed
+	 * interval applies from the next sample.
+	 * @param executor The <code>ScheduledExecutorService</code>.
+	 */
+	private void schedule(final ScheduledExecutorService executor) {
+		final long interval = this.config.adaptive.getSampleInterval(TimeUnit.MILLISECONDS);
+		executor.schedule(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					sample();
+				} finally {
+					if (!executor.isShutdown()) schedule(executor);
+				}
+			}
+		}, interval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stop sampling.
+	 */
+	public synchronized void stop() {
+		if (this.executor == null) return;
+		this.executor.shutdownNow();
+		this.executor = null;
+	}
+
+	/**
+	 * Sample the pool and resize it towards the target
+	 * size of the configured algorithm.
+	 * @return The <code>PoolSizeDecision</code>. Or
+	 * <code>null</code> if adaptive sizing is disabled
+	 * or this is the first sample, which only records
+	 * the baseline.
+	 */
+	public synchronized PoolSizeDecision sample() {
+		final ConfigScalableService config = this.config;
+		final ConfigAdaptiveSizing adaptive = config.adaptive;
+		if (!adaptive.enabled) {
+			this.primed = false;
+			return null;
+		}
+		final long now = System.nanoTime();
+		final long completed = this.pool.getCompletedCount();
+		final long totalWait = this.pool.getTotalWaitTime();
+		final long totalService = this.pool.getTotalServiceTime();
+		final int size = this.pool.getPoolSize();
+		if (!this.primed) {
+			this.record(now, completed, totalWait, totalService);
+			this.primed = true;
+			this.measured = false;
+			return null;
+		}
+		// Measure the interval.
+		final long elapsed = Math.max(1, now - this.lastTime);
+		final long count = completed - this.lastCompleted;
+		final double sampleThroughput = count * (double)TimeUnit.SECONDS.toNanos(1) / elapsed;
+		final double sampleWait;
+		final double sampleService;
+		final boolean stalled = (count == 0 && this.pool.getQueueSize() > 0);
+		if (count > 0) {
+			sampleWait = (totalWait - this.lastWait) / (double)count;
+			sampleService = (totalService - this.lastService) / (double)count;
+		} else {
+			// Nothing completed. Queued tasks waited for
+			// at least the entire interval.
+			sampleWait = stalled ? elapsed : 0;
+			sampleService = this.service;
+		}
+		this.record(now, completed, totalWait, totalService);
+		// Smooth the measurements. The first measurement
+		// is taken as is.
+		final double dampening = this.measured ? adaptive.dampening : 0;
+		this.measured = true;
+		this.throughput = dampening * this.throughput + (1 - dampening) * sampleThroughput;
+		this.wait = dampening * this.wait + (1 - dampening) * sampleWait;
+		this.service = dampening * this.service + (1 - dampening) * sampleService;
+		// Compute and apply the target.
+		final double cpu = this.getCpuUtilization();
+		final boolean saturated = (cpu >= adaptive.cpuCeiling);
+		final int target = this.computeTarget(adaptive, size, saturated, stalled);
+		int step = target - size;
+		if (step > 0 && saturated) step = 0;
+		step = Math.max(-adaptive.maxStep, Math.min(adaptive.maxStep, step));
+		final int newSize = Math.max(config.minExecutor, Math.min(config.maxExecutor, size + step));
+		if (newSize != size) this.pool.setPoolSize(newSize);
+		final PoolSizeDecision decision = new PoolSizeDecision(adaptive.algorithm, size, target, newSize, this.throughput, (long)this.wait, (long)this.service, cpu);
+		this.decision.set(decision);
+		for (final IPoolSizeListener listener : this.listeners) {
+			try {
+				listener.onDecision(decision);
+			} catch (final RuntimeException e) {
+				// Listener failure does not affect sizing.
+			}
+		}
+		return decision;
+	}
+
+	/**
+	 * Record the given values as the previous sample.
+	 * @param time The <code>long</code> sample time.
+	 * @param completed The <code>long</code> completed
+	 * count.
+	 * @param totalWait The <code>long</code> total wait
+	 * time.
+	 * @param totalService The <code>long</code> total
+	 * service time.
+	 */
+	private void record(final long time, final long completed, final long totalWait, final long totalService) {
+		this.lastTime = time;
+		this.lastCompleted = completed;
+		this.lastWait = totalWait;
+		this.lastService = totalService;
+	}
+
+	/**
+	 * Compute the target size from the smoothed
+	 * measurements using the configured algorithm.
+	 * @param adaptive The <code>ConfigAdaptiveSizing</code>.
+	 * @param size The <code>int</code> current size.
+	 * @param saturated <code>true</code> if the processor
+	 * utilization is above the ceiling.
+	 * @param stalled <code>true</code> if no task
+	 * completed in the interval while tasks are queued.
+	 * @return The <code>int</code> target size.
+	 */
+	private int computeTarget(final ConfigAdaptiveSizing adaptive, final int size, final boolean saturated, final boolean stalled) {
+		final double targetWait = adaptive.getTargetWait(TimeUnit.NANOSECONDS);
+		switch (adaptive.algorithm) {
+		case LittlesLaw:
+			// Executors needed to serve the arrivals, plus
+			// the ones needed to drain the excess wait.
+			final double excess = Math.max(0, this.wait - targetWait);
+			final int needed = (int)Math.ceil(this.throughput * (this.service + excess) / TimeUnit.SECONDS.toNanos(1));
+			// A stall means every executor is busy on tasks
+			// longer than the interval, not that the pool is
+			// idle, so it is never shrunk.
+			if (!stalled) return needed;
+			else if (this.wait > targetWait) return Math.max(needed, size + adaptive.maxStep);
+			return Math.max(needed, size);
+		case Gradient:
+			final double latency = this.service + this.wait;
+			final double targetLatency = this.service + targetWait;
+			final double gradient = (targetLatency <= 0) ? 1 : latency / targetLatency;
+			return (int)Math.ceil(size * Math.max(0.5, Math.min(2, gradient)));
+		case AIMD:
+			if (saturated) return (int)(size * 0.75);
+			else if (this.wait > targetWait) return size + adaptive.maxStep;
+			else if (this.wait < targetWait / 2) return size - 1;
+			return size;
+		default:
+			return size;
+		}
+	}
+
+	/**
+	 * Retrieve the processor utilization.
+	 * @return The <code>double</code> system load
+	 * average over the usable processors. Or a negative
+	 * value if it is not available on this platform.
+	 */
+	private double getCpuUtilization() {
+		final double load = this.os.getSystemLoadAverage();
+		if (load < 0) return load;
+		return Math.min(1, load / USizing.instance.getCores());
+	}
+
+	/**
+	 * Replace the configuration used by the following
+	 * samples.
+	 * @param config The new <code>ConfigScalableService</code>.
+	 */
+	public void setConfiguration(final ConfigScalableService config) {
+		this.config = config;
+	}
+
+	/**
+	 * Add the given decision listener.
+	 * @param listener The <code>IPoolSizeListener</code>.
+	 */
+	public void addListener(final IPoolSizeListener listener) {
+		this.listeners.add(listener);
+	}
+
+	/**
+	 * Remove the given decision listener.
+	 * @param listener The <code>IPoolSizeListener</code>.
+	 */
+	public void removeListener(final IPoolSizeListener listener) {
+		this.listeners.remove(listener);
+	}
+
+	/**
+	 * Retrieve the last decision.
+	 * @return The last <code>PoolSizeDecision</code>. Or
+	 * <code>null</code> if no decision has been made.
+	 */
+	public PoolSizeDecision getLastDecision() {
+		return this.decision.get();
+	}
+}
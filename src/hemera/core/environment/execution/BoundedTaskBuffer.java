@@ -0,0 +1,452 @@
+package hemera.core.environment.execution;
+
+import hemera.core.environment.config.ConfigOverflow;
+import hemera.core.environment.enumn.EOverflowPolicy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <code>BoundedTaskBuffer</code> defines the bounded
+ * first-in-first-out buffer of an assisted executor,
+ * which applies the configured <code>EOverflowPolicy</code>
+ * when it is overloaded.
+ * <p>
+ * With the controlled delay policy, the time each task
+ * waits in the buffer is measured when it is dequeued.
+ * Once the wait time has stayed above the target delay
+ * for an entire interval, tasks are shed at a rate that
+ * increases with the square root of the number of shed
+ * tasks, until the wait time falls below the target.
+ * This keeps the queueing delay bounded during traffic
+ * spikes while absorbing short bursts.
+ * <p>
+ * A discarded or shed task that is a <code>Future</code>
+ * is cancelled, so its submitter is not left waiting.
+ * Each outcome is counted separately, so the effect of
+ * the policy can be monitored.
+ * <p>
+ * The configuration can be replaced while running, and
+ * is read on every overflow and dequeue.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.1
+ */
+public class BoundedTaskBuffer {
+	/**
+	 * The <code>Runnable</code> array of buffered tasks
+	 * used as a circular buffer.
+	 * <p>
+	 * This value and all the buffer values below are
+	 * guarded by the lock.
+	 */
+	private final Runnable[] tasks;
+	/**
+	 * The <code>long</code> array of the times in
+	 * nanoseconds the buffered tasks were enqueued at.
+	 */
+	private final long[] times;
+	/**
+	 * The <code>ReentrantLock</code> guarding the buffer.
+	 */
+	private final ReentrantLock lock;
+	/**
+	 * The <code>Condition</code> signaled when a task
+	 * is buffered.
+	 */
+	private final Condition notEmpty;
+	/**
+	 * The <code>AtomicLong</code> number of buffered
+	 * tasks.
+	 */
+	private final AtomicLong accepted;
+	/**
+	 * The <code>AtomicLong</code> number of rejected
+	 * tasks.
+	 */
+	private final AtomicLong rejected;
+	/**
+	 * The <code>AtomicLong</code> number of tasks
+	 * executed by the submitting thread.
+	 */
+	private final AtomicLong callerRuns;
+	/**
+	 * The <code>AtomicLong</code> number of oldest tasks
+	 * discarded for newer ones.
+	 */
+	private final AtomicLong dropped;
+	/**
+	 * The <code>AtomicLong</code> number of tasks shed
+	 * by the controlled delay policy.
+	 */
+	private final AtomicLong shed;
+	/**
+	 * The current <code>ConfigOverflow</code>.
+	 */
+	private volatile ConfigOverflow config;
+	/**
+	 * The <code>int</code> index of the oldest task.
+	 */
+	private int head;
+	/**
+	 * The <code>int</code> number of buffered tasks.
+	 */
+	private int count;
+	/**
+	 * The <code>long</code> time the wait time is
+	 * allowed to stay above the target until. Or
+	 * <code>0</code> if it is below the target.
+	 */
+	private long firstAbove;
+	/**
+	 * The <code>boolean</code> flag indicating if tasks
+	 * are being shed.
+	 */
+	private boolean shedding;
+	/**
+	 * The <code>long</code> time the next task is shed
+	 * at while shedding.
+	 */
+	private long nextShed;
+	/**
+	 * The <code>int</code> number of tasks shed in the
+	 * current shedding period.
+	 */
+	private int shedCount;
+
+	/**
+	 * Constructor of <code>BoundedTaskBuffer</code>.
+	 * @param capacity The <code>int</code> maximum
+	 * number of buffered tasks.
+	 * @param config The <code>ConfigOverflow</code>.
+	 */
+	public BoundedTaskBuffer(final int capacity, final ConfigOverflow config) {
+		if (capacity <= 0) throw new IllegalArgumentException("Buffer capacity must be positive.");
+		this.tasks = new Runnable[capacity];
+		this.times = new long[capacity];
+		this.lock = new ReentrantLock();
+		this.notEmpty = this.lock.newCondition();
+		this.accepted = new AtomicLong();
+		this.rejected = new AtomicLong();
+		this.callerRuns = new AtomicLong();
+		this.dropped = new AtomicLong();
+		this.shed = new AtomicLong();
+		this.config = config;
+	}
+
+	/**
+	 * Submit the given task to the buffer. If the buffer
+	 * is full, the configured overflow policy is applied.
+	 * @param task The <code>Runnable</code> task.
+	 * @throws RejectedExecutionException If the buffer
+	 * is full and the policy rejects the task.
+	 */
+	public void offer(final Runnable task) {
+		if (task == null) throw new NullPointerException("Task must not be null.");
+		final EOverflowPolicy policy = this.config.policy;
+		Runnable discarded = null;
+		this.lock.lock();
+		try {
+			if (this.count < this.tasks.length) {
+				this.enqueue(task);
+				return;
+			}
+			switch (policy) {
+			case DropOldest:
+				discarded = this.dequeue();
+				this.dropped.incrementAndGet();
+				this.enqueue(task);
+				break;
+			case CallerRuns:
+				break;
+			default:
+				this.rejected.incrementAndGet();
+				throw new RejectedExecutionException("Task buffer is full.");
+			}
+		} finally {
+			this.lock.unlock();
+		}
+		if (discarded != null) {
+			this.cancel(discarded);
+		} else {
+			this.callerRuns.incrementAndGet();
+			task.run();
+		}
+	}
+
+	/**
+	 * Retrieve and remove the oldest task, waiting up to
+	 * the given time for a task to become available.
+	 * <p>
+	 * With the controlled delay policy, the tasks that
+	 * are shed are skipped.
+	 * @param timeout The <code>long</code> time to wait.
+	 * @param unit The <code>TimeUnit</code> of the time.
+	 * @return The <code>Runnable</code> task. Or
+	 * <code>null</code> if the time elapsed before a
+	 * task became available.
+	 * @throws InterruptedException If interrupted while
+	 * waiting.
+	 */
+	public Runnable poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+		final ConfigOverflow config = this.config;
+		final boolean codel = (config.policy == EOverflowPolicy.CoDel);
+		final long target = codel ? config.getTargetDelay(TimeUnit.NANOSECONDS) : 0;
+		final long interval = codel ? config.getInterval(TimeUnit.NANOSECONDS) : 0;
+		long nanos = unit.toNanos(timeout);
+		List<Runnable> discarded = null;
+		this.lock.lockInterruptibly();
+		try {
+			while (true) {
+				while (this.count == 0) {
+					if (nanos <= 0) return null;
+					nanos = this.notEmpty.awaitNanos(nanos);
+				}
+				final long now = System.nanoTime();
+				final long sojourn = now - this.times[this.head];
+				final Runnable task = this.dequeue();
+				if (!codel || !this.shouldShed(sojourn, now, target, interval)) return task;
+				this.shed.incrementAndGet();
+				if (discarded == null) discarded = new ArrayList<Runnable>();
+				discarded.add(task);
+			}
+		} finally {
+			this.lock.unlock();
+			if (discarded != null) {
+				for (final Runnable task : discarded) this.cancel(task);
+			}
+		}
+	}
+
+	/**
+	 * Retrieve and remove up to the given number of
+	 * oldest tasks into the given batch. After waiting
+	 * up to the given timeout for the first task, this
+	 * waits up to the given linger time for the batch
+	 * to fill, and takes all the available tasks under
+	 * a single lock acquisition.
+	 * <p>
+	 * With the controlled delay policy, the tasks that
+	 * are shed are skipped.
+	 * <p>
+	 * Once the first task is taken, an interrupt only
+	 * ends the linger. The tasks already taken are still
+	 * added to the batch and the interrupt status of the
+	 * thread is set again, so no task is lost.
+	 * @param batch The <code>List</code> to add the
+	 * tasks to.
+	 * @param max The <code>int</code> maximum number of
+	 * tasks to add.
+	 * @param timeout The <code>long</code> time to wait
+	 * for the first task.
+	 * @param linger The <code>long</code> time to wait
+	 * for the batch to fill after the first task.
+	 * @param unit The <code>TimeUnit</code> of the times.
+	 * @return The <code>int</code> number of tasks added.
+	 * @throws InterruptedException If interrupted while
+	 * waiting for the first task.
+	 */
+	public int drain(final List<Runnable> batch, final int max, final long timeout, final long linger, final TimeUnit unit) throws InterruptedException {
+		final Runnable first = this.poll(timeout, unit);
+		if (first == null) return 0;
+		batch.add(first);
+		final ConfigOverflow config = this.config;
+		final boolean codel = (config.policy == EOverflowPolicy.CoDel);
+		final long target = codel ? config.getTargetDelay(TimeUnit.NANOSECONDS) : 0;
+		final long interval = codel ? config.getInterval(TimeUnit.NANOSECONDS) : 0;
+		final long deadline = System.nanoTime() + unit.toNanos(linger);
+		int added = 1;
+		List<Runnable> discarded = null;
+		this.lock.lock();
+		try {
+			while (added < max) {
+				if (this.count == 0) {
+					final long nanos = deadline - System.nanoTime();
+					if (nanos <= 0) break;
+					try {
+						this.notEmpty.awaitNanos(nanos);
+					} catch (final InterruptedException e) {
+						Thread.currentThread().interrupt();
+						break;
+					}
+					continue;
+				}
+				final long now = System.nanoTime();
+				final long sojourn = now - this.times[this.head];
+				final Runnable task = this.dequeue();
+				if (codel && this.shouldShed(sojourn, now, target, interval)) {
+					this.shed.incrementAndGet();
+					if (discarded == null) discarded = new ArrayList<Runnable>();
+					discarded.add(task);
+				} else {
+					batch.add(task);
+					added++;
+				}
+			}
+		} finally {
+			this.lock.unlock();
+			if (discarded != null) {
+				for (final Runnable task : discarded) this.cancel(task);
+			}
+		}
+		return added;
+	}
+
+	/**
+	 * Check if the task just dequeued after the given
+	 * wait time should be shed, and update the
+	 * controlled delay state.
+	 * @param sojourn The <code>long</code> time the task
+	 * waited in nanoseconds.
+	 * @param now The <code>long</code> current time in
+	 * nanoseconds.
+	 * @param target The <code>long</code> target delay
+	 * in nanoseconds.
+	 * @param interval The <code>long</code> interval in
+	 * nanoseconds.
+	 * @return <code>true</code> if the task should be
+	 * shed. <code>false</code> otherwise.
+	 */
+	private boolean shouldShed(final long sojourn, final long now, final long target, final long interval) {
+		// The last buffered task is never shed, so an
+		// idle executor always makes progress.
+		if (sojourn < target || this.count == 0) {
+			this.firstAbove = 0;
+			this.shedding = false;
+			return false;
+		} else if (this.firstAbove == 0) {
+			this.firstAbove = now + interval;
+			return false;
+		} else if (now < this.firstAbove) {
+			return false;
+		} else if (!this.shedding) {
+			// Resume close to the previous rate if the last
+			// shedding period ended recently.
+			this.shedding = true;
+			this.shedCount = (this.shedCount > 2 && now - this.nextShed < 8 * interval) ? this.shedCount - 2 : 1;
+			this.nextShed = now + (long)(interval / Math.sqrt(this.shedCount));
+			return true;
+		} else if (now >= this.nextShed) {
+			this.shedCount++;
+			this.nextShed += (long)(interval / Math.sqrt(this.shedCount));
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Append the given task. The lock must be held.
+	 * @param task The <code>Runnable</code> task.
+	 */
+	private void enqueue(final Runnable task) {
+		final int index = (this.head + this.count) % this.tasks.length;
+		this.tasks[index] = task;
+		this.times[index] = System.nanoTime();
+		this.count++;
+		this.accepted.incrementAndGet();
+		this.notEmpty.signal();
+	}
+
+	/**
+	 * Remove the oldest task. The lock must be held and
+	 * the buffer must not be empty.
+	 * @return The <code>Runnable</code> task.
+	 */
+	private Runnable dequeue() {
+		final Runnable task = this.tasks[this.head];
+		this.tasks[this.head] = null;
+		this.head = (this.head + 1) % this.tasks.length;
+		this.count--;
+		return task;
+	}
+
+	/**
+	 * Cancel the given discarded task if it is a
+	 * <code>Future</code>.
+	 * @param task The <code>Runnable</code> task.
+	 */
+	private void cancel(final Runnable task) {
+		if (task instanceof Future) {
+			((Future<?>)task).cancel(false);
+		}
+	}
+
+	/**
+	 * Replace the overflow configuration.
+	 * @param config The new <code>ConfigOverflow</code>.
+	 */
+	public void setConfiguration(final ConfigOverflow config) {
+		this.config = config;
+	}
+
+	/**
+	 * Retrieve the number of buffered tasks.
+	 * @return The <code>int</code> size.
+	 */
+	public int size() {
+		this.lock.lock();
+		try {
+			return this.count;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Retrieve the maximum number of buffered tasks.
+	 * @return The <code>int</code> capacity.
+	 */
+	public int getCapacity() {
+		return this.tasks.length;
+	}
+
+	/**
+	 * Retrieve the total number of buffered tasks.
+	 * @return The <code>long</code> count.
+	 */
+	public long getAcceptedCount() {
+		return this.accepted.get();
+	}
+
+	/**
+	 * Retrieve the number of tasks rejected because the
+	 * buffer was full.
+	 * @return The <code>long</code> count.
+	 */
+	public long getRejectedCount() {
+		return this.rejected.get();
+	}
+
+	/**
+	 * Retrieve the number of tasks executed by the
+	 * submitting thread because the buffer was full.
+	 * @return The <code>long</code> count.
+	 */
+	public long getCallerRunsCount() {
+		return this.callerRuns.get();
+	}
+
+	/**
+	 * Retrieve the number of oldest tasks discarded
+	 * because the buffer was full.
+	 * @return The <code>long</code> count.
+	 */
+	public long getDroppedCount() {
+		return this.dropped.get();
+	}
+
+	/**
+	 * Retrieve the number of tasks shed by the
+	 * controlled delay policy.
+	 * @return The <code>long</code> count.
+	 */
+	public long getShedCount() {
+		return this.shed.get();
+	}
+}
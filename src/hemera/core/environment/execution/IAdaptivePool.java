@@ -0,0 +1,59 @@
+package hemera.core.environment.execution;
+
+/**
+ * <code>IAdaptivePool</code> defines the interface of a
+ * scalable execution service whose size is controlled
+ * by an <code>AdaptivePoolController</code>.
+ * <p>
+ * The time and count values are cumulative since the
+ * pool was created, so the controller can compute the
+ * averages of each sample interval without the pool
+ * keeping any per-interval state. Implementations are
+ * expected to maintain them with atomic additions when
+ * a task is dequeued and when it completes.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public interface IAdaptivePool {
+
+	/**
+	 * Retrieve the current number of executors.
+	 * @return The <code>int</code> pool size.
+	 */
+	public int getPoolSize();
+
+	/**
+	 * Set the number of executors. Excess executors
+	 * are expected to terminate once they become idle.
+	 * @param size The <code>int</code> new pool size.
+	 */
+	public void setPoolSize(final int size);
+
+	/**
+	 * Retrieve the number of tasks currently waiting
+	 * in the queue.
+	 * @return The <code>int</code> queue size.
+	 */
+	public int getQueueSize();
+
+	/**
+	 * Retrieve the total number of completed tasks.
+	 * @return The <code>long</code> completed count.
+	 */
+	public long getCompletedCount();
+
+	/**
+	 * Retrieve the total time the completed tasks have
+	 * waited in the queue.
+	 * @return The <code>long</code> time in nanoseconds.
+	 */
+	public long getTotalWaitTime();
+
+	/**
+	 * Retrieve the total time the completed tasks have
+	 * spent executing.
+	 * @return The <code>long</code> time in nanoseconds.
+	 */
+	public long getTotalServiceTime();
+}
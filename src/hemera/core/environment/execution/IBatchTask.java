@@ -0,0 +1,28 @@
+package hemera.core.environment.execution;
+
+import java.util.List;
+
+/**
+ * <code>IBatchTask</code> defines the interface of a
+ * task that can execute a batch of tasks of its own
+ * class at once, to amortize the per task overhead of
+ * tiny tasks.
+ * <p>
+ * A batch task is still a <code>Runnable</code>, and
+ * is executed individually when batching is disabled.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public interface IBatchTask extends Runnable {
+
+	/**
+	 * Execute the given batch of tasks. The batch
+	 * contains this task followed by the other tasks
+	 * of the same class in the drained batch, in their
+	 * submission order.
+	 * @param batch The <code>List</code> of
+	 * <code>IBatchTask</code> to execute.
+	 */
+	public void runBatch(final List<IBatchTask> batch);
+}
@@ -0,0 +1,22 @@
+package hemera.core.environment.execution;
+
+/**
+ * <code>IPoolSizeListener</code> defines the interface
+ * of a unit that observes the decisions made by an
+ * <code>AdaptivePoolController</code>.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public interface IPoolSizeListener {
+
+	/**
+	 * Invoked after the controller made a decision,
+	 * whether or not the pool size is changed.
+	 * <p>
+	 * This method is invoked on the controller thread
+	 * and should return quickly.
+	 * @param decision The <code>PoolSizeDecision</code>.
+	 */
+	public void onDecision(final PoolSizeDecision decision);
+}
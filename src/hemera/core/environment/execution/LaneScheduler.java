@@ -0,0 +1,290 @@
+package hemera.core.environment.execution;
+
+import hemera.core.environment.config.ConfigLane;
+import hemera.core.environment.config.ConfigLanes;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <code>LaneScheduler</code> defines the task queue of
+ * an execution service that is divided into the
+ * configured priority lanes.
+ * <p>
+ * Each lane has its own bounded first-in-first-out
+ * queue. When a task is retrieved, the strict lanes
+ * are checked first in their declaration order. If
+ * all of them are empty, a task is taken from one of
+ * the weighted lanes using smooth weighted round-robin,
+ * so over any period each non-empty weighted lane is
+ * served in proportion to its weight, and the turns of
+ * the lanes are interleaved instead of served in runs.
+ * <p>
+ * Tasks submitted without a lane, or with an unknown
+ * lane, are queued in the default lane.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class LaneScheduler {
+	/**
+	 * The <code>Map</code> of lane name to lane index.
+	 */
+	private final Map<String, Integer> indices;
+	/**
+	 * The <code>List</code> of lane queues in the lane
+	 * declaration order.
+	 * <p>
+	 * This value and all the scheduling values below
+	 * are guarded by the lock.
+	 */
+	private final List<ArrayDeque<Runnable>> queues;
+	/**
+	 * The <code>int</code> array of lane weights.
+	 */
+	private final int[] weights;
+	/**
+	 * The <code>int</code> array of the current smooth
+	 * weighted round-robin credits of the lanes.
+	 */
+	private final int[] credits;
+	/**
+	 * The <code>int</code> array of the indices of the
+	 * strict lanes in priority order.
+	 */
+	private final int[] strict;
+	/**
+	 * The <code>int</code> array of the indices of the
+	 * weighted lanes.
+	 */
+	private final int[] weighted;
+	/**
+	 * The <code>long</code> array of the numbers of
+	 * tasks retrieved from the lanes.
+	 */
+	private final long[] dispatched;
+	/**
+	 * The <code>int</code> index of the default lane.
+	 */
+	private final int defaultIndex;
+	/**
+	 * The <code>int</code> maximum number of queued
+	 * tasks of each lane.
+	 */
+	private final int capacity;
+	/**
+	 * The <code>ReentrantLock</code> guarding the queues.
+	 */
+	private final ReentrantLock lock;
+	/**
+	 * The <code>Condition</code> signaled when a task
+	 * is queued.
+	 */
+	private final Condition notEmpty;
+	/**
+	 * The <code>AtomicLong</code> number of rejected
+	 * tasks.
+	 */
+	private final AtomicLong rejected;
+	/**
+	 * The <code>int</code> total number of queued tasks.
+	 */
+	private int count;
+
+	/**
+	 * Constructor of <code>LaneScheduler</code>.
+	 * @param config The validated <code>ConfigLanes</code>.
+	 * @param capacity The <code>int</code> maximum
+	 * number of queued tasks of each lane.
+	 */
+	public LaneScheduler(final ConfigLanes config, final int capacity) {
+		if (capacity <= 0) throw new IllegalArgumentException("Lane capacity must be positive.");
+		final int size = config.lanes.size();
+		this.indices = new HashMap<String, Integer>(size * 2);
+		this.queues = new ArrayList<ArrayDeque<Runnable>>(size);
+		this.weights = new int[size];
+		this.credits = new int[size];
+		this.dispatched = new long[size];
+		int strictCount = 0;
+		for (int i = 0; i < size; i++) {
+			final ConfigLane lane = config.lanes.get(i);
+			this.indices.put(lane.name, i);
+			this.queues.add(new ArrayDeque<Runnable>());
+			this.weights[i] = lane.weight;
+			if (lane.strict) strictCount++;
+		}
+		this.strict = new int[strictCount];
+		this.weighted = new int[size - strictCount];
+		int s = 0;
+		int w = 0;
+		for (int i = 0; i < size; i++) {
+			if (config.lanes.get(i).strict) this.strict[s++] = i;
+			else this.weighted[w++] = i;
+		}
+		final Integer defaultIndex = this.indices.get(config.defaultLane);
+		if (defaultIndex == null) throw new IllegalArgumentException("Default lane " + config.defaultLane + " is not declared.");
+		this.defaultIndex = defaultIndex;
+		this.capacity = capacity;
+		this.lock = new ReentrantLock();
+		this.notEmpty = this.lock.newCondition();
+		this.rejected = new AtomicLong();
+	}
+
+	/**
+	 * Queue the given task in the given lane.
+	 * @param lane The <code>String</code> lane name.
+	 * <code>null</code> or an unknown name selects the
+	 * default lane.
+	 * @param task The <code>Runnable</code> task.
+	 * @throws RejectedExecutionException If the queue
+	 * of the lane is full.
+	 */
+	public void offer(final String lane, final Runnable task) {
+		if (task == null) throw new NullPointerException("Task must not be null.");
+		final int index = this.getIndex(lane);
+		this.lock.lock();
+		try {
+			final ArrayDeque<Runnable> queue = this.queues.get(index);
+			if (queue.size() >= this.capacity) {
+				this.rejected.incrementAndGet();
+				throw new RejectedExecutionException("Lane queue is full.");
+			}
+			queue.addLast(task);
+			this.count++;
+			this.notEmpty.signal();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Retrieve and remove the next task to execute,
+	 * waiting up to the given time for a task to become
+	 * available.
+	 * @param timeout The <code>long</code> time to wait.
+	 * @param unit The <code>TimeUnit</code> of the time.
+	 * @return The <code>Runnable</code> task. Or
+	 * <code>null</code> if the time elapsed before a
+	 * task became available.
+	 * @throws InterruptedException If interrupted while
+	 * waiting.
+	 */
+	public Runnable poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+		long nanos = unit.toNanos(timeout);
+		this.lock.lockInterruptibly();
+		try {
+			while (this.count == 0) {
+				if (nanos <= 0) return null;
+				nanos = this.notEmpty.awaitNanos(nanos);
+			}
+			final int index = this.select();
+			final ArrayDeque<Runnable> queue = this.queues.get(index);
+			final Runnable task = queue.pollFirst();
+			this.count--;
+			this.dispatched[index]++;
+			// An emptied lane does not keep its credit, so
+			// it cannot burst when it becomes busy again.
+			if (queue.isEmpty()) this.credits[index] = 0;
+			return task;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Select the lane to take the next task from. The
+	 * lock must be held and there must be a queued task.
+	 * @return The <code>int</code> lane index.
+	 */
+	private int select() {
+		for (int i = 0; i < this.strict.length; i++) {
+			if (!this.queues.get(this.strict[i]).isEmpty()) return this.strict[i];
+		}
+		// Every non-empty lane earns its weight, and the
+		// lane with the most credit pays the total.
+		int total = 0;
+		int selected = -1;
+		for (int i = 0; i < this.weighted.length; i++) {
+			final int index = this.weighted[i];
+			if (this.queues.get(index).isEmpty()) continue;
+			this.credits[index] += this.weights[index];
+			total += this.weights[index];
+			if (selected < 0 || this.credits[index] > this.credits[selected]) selected = index;
+		}
+		this.credits[selected] -= total;
+		return selected;
+	}
+
+	/**
+	 * Retrieve the index of the given lane.
+	 * @param lane The <code>String</code> lane name.
+	 * @return The <code>int</code> lane index.
+	 */
+	private int getIndex(final String lane) {
+		if (lane == null) return this.defaultIndex;
+		final Integer index = this.indices.get(lane);
+		return (index == null) ? this.defaultIndex : index;
+	}
+
+	/**
+	 * Retrieve the total number of queued tasks.
+	 * @return The <code>int</code> size.
+	 */
+	public int size() {
+		this.lock.lock();
+		try {
+			return this.count;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Retrieve the number of tasks queued in the given
+	 * lane.
+	 * @param lane The <code>String</code> lane name.
+	 * @return The <code>int</code> size.
+	 */
+	public int size(final String lane) {
+		final int index = this.getIndex(lane);
+		this.lock.lock();
+		try {
+			return this.queues.get(index).size();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Retrieve the number of tasks retrieved from the
+	 * given lane.
+	 * @param lane The <code>String</code> lane name.
+	 * @return The <code>long</code> count.
+	 */
+	public long getDispatchedCount(final String lane) {
+		final int index = this.getIndex(lane);
+		this.lock.lock();
+		try {
+			return this.dispatched[index];
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Retrieve the number of tasks rejected because the
+	 * queue of their lane was full.
+	 * @return The <code>long</code> count.
+	 */
+	public long getRejectedCount() {
+		return this.rejected.get();
+	}
+}
@@ -0,0 +1,267 @@
+package hemera.core.environment.execution;
+
+import hemera.core.environment.util.USizing;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <code>LatencyHistogram</code> defines the unit that
+ * records latencies into logarithmic buckets with
+ * linear sub-buckets, which keeps the configured
+ * number of significant decimal digits over the
+ * entire range with a fixed amount of memory.
+ * <p>
+ * The counts are striped over a fixed number of count
+ * arrays, twice the number of processors rounded up to
+ * a power of two, and each recording thread records
+ * into the stripe selected by the hash of the thread.
+ * Recording is lock-free, rarely contends with other
+ * threads and only allocates when a stripe is first
+ * used. As the stripes do not belong to any thread, the
+ * memory stays bounded however many threads record over
+ * time. A snapshot sums the counts of all the stripes,
+ * and may be taken at any time while recording
+ * continues.
+ * <p>
+ * Latencies are recorded with a resolution of one
+ * microsecond. Latencies above the highest trackable
+ * latency are recorded as the highest latency.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.1
+ */
+public class LatencyHistogram {
+	/**
+	 * The <code>int</code> power of two of the smallest
+	 * distinguishable latency in nanoseconds.
+	 */
+	private static final int UnitMagnitude = 9;
+	/**
+	 * The <code>long</code> highest trackable latency in
+	 * nanoseconds.
+	 */
+	private final long highest;
+	/**
+	 * The <code>int</code> power of two of half the
+	 * number of sub-buckets of each bucket.
+	 */
+	private final int subBucketHalfCountMagnitude;
+	/**
+	 * The <code>int</code> half the number of sub-buckets
+	 * of each bucket.
+	 */
+	private final int subBucketHalfCount;
+	/**
+	 * The <code>long</code> mask of the latency bits
+	 * that fall into the first bucket.
+	 */
+	private final long subBucketMask;
+	/**
+	 * The <code>int</code> base of the number of leading
+	 * zeros used to compute the bucket of a latency.
+	 */
+	private final int leadingZeroCountBase;
+	/**
+	 * The <code>int</code> length of the count arrays.
+	 */
+	private final int length;
+	/**
+	 * The <code>AtomicReferenceArray</code> of the count
+	 * array stripes, each created on its first recording.
+	 */
+	private final AtomicReferenceArray<AtomicLongArray> stripes;
+	/**
+	 * The <code>int</code> mask of the stripe index.
+	 */
+	private final int stripeMask;
+	/**
+	 * The <code>long</code> array of the summed counts
+	 * at the last reset, which are excluded from the
+	 * snapshots.
+	 * <p>
+	 * This value is guarded by this histogram.
+	 */
+	private long[] baseline;
+
+	/**
+	 * Constructor of <code>LatencyHistogram</code>.
+	 * @param significantDigits The <code>int</code>
+	 * number of significant decimal digits between
+	 * <code>1</code> and <code>5</code>.
+	 * @param highest The <code>long</code> highest
+	 * trackable latency.
+	 * @param unit The <code>TimeUnit</code> of the
+	 * latency.
+	 */
+	public LatencyHistogram(final int significantDigits, final long highest, final TimeUnit unit) {
+		if (significantDigits < 1 || significantDigits > 5) throw new IllegalArgumentException("Significant digits must be between 1 and 5.");
+		this.highest = unit.toNanos(highest);
+		if (this.highest < (2L << LatencyHistogram.UnitMagnitude)) throw new IllegalArgumentException("Highest latency is below the histogram resolution.");
+		// Enough sub-buckets to distinguish the latencies
+		// of one bucket with the given precision.
+		final long largestSingleUnit = 2 * (long)Math.pow(10, significantDigits);
+		final int subBucketCountMagnitude = (int)Math.ceil(Math.log(largestSingleUnit) / Math.log(2));
+		this.subBucketHalfCountMagnitude = subBucketCountMagnitude - 1;
+		final int subBucketCount = 1 << subBucketCountMagnitude;
+		this.subBucketHalfCount = subBucketCount / 2;
+		this.subBucketMask = ((long)subBucketCount - 1) << LatencyHistogram.UnitMagnitude;
+		this.leadingZeroCountBase = 64 - LatencyHistogram.UnitMagnitude - this.subBucketHalfCountMagnitude - 1;
+		// Each bucket doubles the covered range.
+		long smallestUntrackable = (long)subBucketCount << LatencyHistogram.UnitMagnitude;
+		int bucketCount = 1;
+		while (smallestUntrackable <= this.highest) {
+			if (smallestUntrackable > Long.MAX_VALUE / 2) {
+				bucketCount++;
+				break;
+			}
+			smallestUntrackable <<= 1;
+			bucketCount++;
+		}
+		this.length = (bucketCount + 1) * this.subBucketHalfCount;
+		final int stripeCount = Integer.highestOneBit(Math.max(1, 2 * USizing.instance.getCores() - 1)) << 1;
+		this.stripes = new AtomicReferenceArray<AtomicLongArray>(stripeCount);
+		this.stripeMask = stripeCount - 1;
+		this.baseline = new long[this.length];
+	}
+
+	/**
+	 * Record the given latency.
+	 * @param latency The <code>long</code> latency in
+	 * nanoseconds.
+	 */
+	public void record(final long latency) {
+		final int index = this.getIndex(Math.max(0, Math.min(latency, this.highest)));
+		this.getStripe().getAndIncrement(index);
+	}
+
+	/**
+	 * Retrieve the count array stripe of the current
+	 * thread, creating it on its first use.
+	 * @return The <code>AtomicLongArray</code>.
+	 */
+	private AtomicLongArray getStripe() {
+		// Spread the sequential thread identifiers.
+		final long id = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+		final int index = (int)(id >>> 32) & this.stripeMask;
+		final AtomicLongArray counts = this.stripes.get(index);
+		if (counts != null) return counts;
+		this.stripes.compareAndSet(index, null, new AtomicLongArray(this.length));
+		return this.stripes.get(index);
+	}
+
+	/**
+	 * Retrieve the count index of the given latency.
+	 * @param latency The <code>long</code> latency in
+	 * nanoseconds.
+	 * @return The <code>int</code> index.
+	 */
+	private int getIndex(final long latency) {
+		final int bucketIndex = this.leadingZeroCountBase - Long.numberOfLeadingZeros(latency | this.subBucketMask);
+		final int subBucketIndex = (int)(latency >>> (bucketIndex + LatencyHistogram.UnitMagnitude));
+		return ((bucketIndex + 1) << this.subBucketHalfCountMagnitude) + (subBucketIndex - this.subBucketHalfCount);
+	}
+
+	/**
+	 * Retrieve the power of two of the range of the
+	 * latencies recorded into the given count index.
+	 * @param index The <code>int</code> index.
+	 * @return The <code>int</code> shift.
+	 */
+	private int getShift(final int index) {
+		return Math.max(0, (index >> this.subBucketHalfCountMagnitude) - 1) + LatencyHistogram.UnitMagnitude;
+	}
+
+	/**
+	 * Retrieve the highest latency recorded into the
+	 * given count index.
+	 * @param index The <code>int</code> index.
+	 * @return The <code>long</code> latency in
+	 * nanoseconds.
+	 */
+	private long getHighestValue(final int index) {
+		final int bucketIndex = (index >> this.subBucketHalfCountMagnitude) - 1;
+		int subBucketIndex = (index & (this.subBucketHalfCount - 1)) + this.subBucketHalfCount;
+		if (bucketIndex < 0) subBucketIndex -= this.subBucketHalfCount;
+		final int shift = this.getShift(index);
+		return ((long)subBucketIndex << shift) + (1L << shift) - 1;
+	}
+
+	/**
+	 * Create a snapshot of all the latencies recorded
+	 * so far.
+	 * @return The <code>LatencySnapshot</code>.
+	 */
+	public synchronized LatencySnapshot getSnapshot() {
+		final long[] totals = this.sum();
+		long count = 0;
+		for (int i = 0; i < this.length; i++) {
+			totals[i] = Math.max(0, totals[i] - this.baseline[i]);
+			count += totals[i];
+		}
+		if (count == 0) return new LatencySnapshot(0, 0, 0, 0, 0, 0);
+		double sum = 0;
+		int max = 0;
+		for (int i = 0; i < this.length; i++) {
+			if (totals[i] == 0) continue;
+			// Use the middle of the equivalent range.
+			sum += totals[i] * (this.getHighestValue(i) - ((1L << this.getShift(i)) - 1) / 2.0);
+			max = i;
+		}
+		final long mean = (long)(sum / count);
+		final long p50 = this.getPercentile(totals, count, 50);
+		final long p99 = this.getPercentile(totals, count, 99);
+		final long p999 = this.getPercentile(totals, count, 99.9);
+		return new LatencySnapshot(count, mean, p50, p99, p999, Math.min(this.highest, this.getHighestValue(max)));
+	}
+
+	/**
+	 * Retrieve the latency at the given percentile.
+	 * @param totals The <code>long</code> array of the
+	 * summed counts.
+	 * @param count The <code>long</code> total count.
+	 * @param percentile The <code>double</code>
+	 * percentile.
+	 * @return The <code>long</code> latency in
+	 * nanoseconds.
+	 */
+	private long getPercentile(final long[] totals, final long count, final double percentile) {
+		final long target = Math.max(1, (long)Math.ceil(percentile / 100 * count));
+		long seen = 0;
+		for (int i = 0; i < totals.length; i++) {
+			seen += totals[i];
+			if (seen >= target) return Math.min(this.highest, this.getHighestValue(i));
+		}
+		return this.highest;
+	}
+
+	/**
+	 * Sum the counts of all the stripes.
+	 * @return The <code>long</code> array of the summed
+	 * counts.
+	 */
+	private long[] sum() {
+		final long[] totals = new long[this.length];
+		for (int i = 0; i < this.stripes.length(); i++) {
+			final AtomicLongArray counts = this.stripes.get(i);
+			if (counts == null) continue;
+			for (int j = 0; j < this.length; j++) {
+				totals[j] += counts.get(j);
+			}
+		}
+		return totals;
+	}
+
+	/**
+	 * Clear all the recorded latencies.
+	 * <p>
+	 * The counts cannot be cleared without losing or
+	 * restoring the concurrently recorded latencies. The
+	 * current counts are instead excluded from the
+	 * following snapshots.
+	 */
+	public synchronized void reset() {
+		this.baseline = this.sum();
+	}
+}
@@ -0,0 +1,69 @@
+package hemera.core.environment.execution;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <code>LatencySnapshot</code> defines the immutable
+ * percentiles of the latencies recorded by a
+ * <code>LatencyHistogram</code> at a point in time.
+ * <p>
+ * All latencies are in nanoseconds, and are the
+ * highest latencies that are equivalent to the
+ * recorded ones within the histogram precision.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class LatencySnapshot {
+	/**
+	 * The <code>long</code> number of recorded latencies.
+	 */
+	public final long count;
+	/**
+	 * The <code>long</code> mean latency.
+	 */
+	public final long mean;
+	/**
+	 * The <code>long</code> median latency.
+	 */
+	public final long p50;
+	/**
+	 * The <code>long</code> 99th percentile latency.
+	 */
+	public final long p99;
+	/**
+	 * The <code>long</code> 99.9th percentile latency.
+	 */
+	public final long p999;
+	/**
+	 * The <code>long</code> maximum latency.
+	 */
+	public final long max;
+
+	/**
+	 * Constructor of <code>LatencySnapshot</code>.
+	 * @param count The <code>long</code> number of
+	 * recorded latencies.
+	 * @param mean The <code>long</code> mean latency.
+	 * @param p50 The <code>long</code> median latency.
+	 * @param p99 The <code>long</code> 99th percentile
+	 * latency.
+	 * @param p999 The <code>long</code> 99.9th percentile
+	 * latency.
+	 * @param max The <code>long</code> maximum latency.
+	 */
+	LatencySnapshot(final long count, final long mean, final long p50, final long p99, final long p999, final long max) {
+		this.count = count;
+		this.mean = mean;
+		this.p50 = p50;
+		this.p99 = p99;
+		this.p999 = p999;
+		this.max = max;
+	}
+
+	@Override
+	public String toString() {
+		final long unit = TimeUnit.MICROSECONDS.toNanos(1);
+		return "count=" + this.count + " mean=" + (this.mean/unit) + "us p50=" + (this.p50/unit) + "us p99=" + (this.p99/unit) + "us p999=" + (this.p999/unit) + "us max=" + (this.max/unit) + "us";
+	}
+}
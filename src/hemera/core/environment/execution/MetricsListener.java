@@ -0,0 +1,116 @@
+package hemera.core.environment.execution;
+
+import hemera.core.environment.config.ConfigListener;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <code>MetricsListener</code> defines the built-in
+ * execution service listener selected by the metrics
+ * listener type, which replaces the log lines of the
+ * internal logging listener with latency percentiles.
+ * <p>
+ * The time each task waits in the queue and the time
+ * it takes to execute are recorded in separate
+ * <code>LatencyHistogram</code>, and rejected tasks
+ * are counted. Recording does not lock, log or
+ * allocate on the execution path. The percentiles are
+ * only computed when a snapshot is requested.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class MetricsListener {
+	/**
+	 * The <code>LatencyHistogram</code> of the queue
+	 * wait times.
+	 */
+	private final LatencyHistogram wait;
+	/**
+	 * The <code>LatencyHistogram</code> of the execution
+	 * times.
+	 */
+	private final LatencyHistogram execution;
+	/**
+	 * The <code>AtomicLong</code> number of rejected
+	 * tasks.
+	 */
+	private final AtomicLong rejected;
+
+	/**
+	 * Constructor of <code>MetricsListener</code>.
+	 * @param config The <code>ConfigListener</code>
+	 * providing the histogram precision and range.
+	 */
+	public MetricsListener(final ConfigListener config) {
+		final long highest = config.getHighestLatency(TimeUnit.NANOSECONDS);
+		this.wait = new LatencyHistogram(config.significantDigits, highest, TimeUnit.NANOSECONDS);
+		this.execution = new LatencyHistogram(config.significantDigits, highest, TimeUnit.NANOSECONDS);
+		this.rejected = new AtomicLong();
+	}
+
+	/**
+	 * Record the time a task waited in the queue before
+	 * its execution started.
+	 * @param nanos The <code>long</code> wait time in
+	 * nanoseconds.
+	 */
+	public void recordWait(final long nanos) {
+		this.wait.record(nanos);
+	}
+
+	/**
+	 * Record the time a task took to execute.
+	 * @param nanos The <code>long</code> execution time
+	 * in nanoseconds.
+	 */
+	public void recordExecution(final long nanos) {
+		this.execution.record(nanos);
+	}
+
+	/**
+	 * Record a rejected task.
+	 */
+	public void recordRejection() {
+		this.rejected.incrementAndGet();
+	}
+
+	/**
+	 * Create a snapshot of the queue wait times.
+	 * @return The <code>LatencySnapshot</code>.
+	 */
+	public LatencySnapshot getWaitSnapshot() {
+		return this.wait.getSnapshot();
+	}
+
+	/**
+	 * Create a snapshot of the execution times.
+	 * @return The <code>LatencySnapshot</code>.
+	 */
+	public LatencySnapshot getExecutionSnapshot() {
+		return this.execution.getSnapshot();
+	}
+
+	/**
+	 * Retrieve the number of rejected tasks.
+	 * @return The <code>long</code> count.
+	 */
+	public long getRejectedCount() {
+		return this.rejected.get();
+	}
+
+	/**
+	 * Clear all the recorded values.
+	 */
+	public void reset() {
+		this.wait.reset();
+		this.execution.reset();
+		this.rejected.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return "wait[" + this.wait.getSnapshot() + "] execution[" + this.execution.getSnapshot() + "] rejected=" + this.rejected.get();
+	}
+}
@@ -0,0 +1,101 @@
+package hemera.core.environment.execution;
+
+import hemera.core.environment.enumn.ESizingAlgorithm;
+
+/**
+ * <code>PoolSizeDecision</code> defines the immutable
+ * unit representing a single sizing decision of an
+ * <code>AdaptivePoolController</code>, along with the
+ * smoothed measurements it is based on.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class PoolSizeDecision {
+	/**
+	 * The <code>long</code> time the decision is made
+	 * at in milliseconds.
+	 */
+	public final long time;
+	/**
+	 * The <code>ESizingAlgorithm</code> that computed
+	 * the target.
+	 */
+	public final ESizingAlgorithm algorithm;
+	/**
+	 * The <code>int</code> pool size before the
+	 * decision.
+	 */
+	public final int previousSize;
+	/**
+	 * The <code>int</code> target size computed by the
+	 * algorithm before dampening and bounding.
+	 */
+	public final int targetSize;
+	/**
+	 * The <code>int</code> pool size after the
+	 * decision.
+	 */
+	public final int size;
+	/**
+	 * The <code>double</code> smoothed throughput in
+	 * tasks per second.
+	 */
+	public final double throughput;
+	/**
+	 * The <code>long</code> smoothed average queue wait
+	 * time in nanoseconds.
+	 */
+	public final long queueWait;
+	/**
+	 * The <code>long</code> smoothed average service
+	 * time in nanoseconds.
+	 */
+	public final long serviceTime;
+	/**
+	 * The <code>double</code> processor utilization
+	 * between <code>0</code> and <code>1</code>. Or a
+	 * negative value if it is not available.
+	 */
+	public final double cpuUtilization;
+
+	/**
+	 * Constructor of <code>PoolSizeDecision</code>.
+	 * @param algorithm The <code>ESizingAlgorithm</code>.
+	 * @param previousSize The <code>int</code> previous
+	 * pool size.
+	 * @param targetSize The <code>int</code> target size.
+	 * @param size The <code>int</code> new pool size.
+	 * @param throughput The <code>double</code> throughput.
+	 * @param queueWait The <code>long</code> queue wait.
+	 * @param serviceTime The <code>long</code> service
+	 * time.
+	 * @param cpuUtilization The <code>double</code>
+	 * processor utilization.
+	 */
+	PoolSizeDecision(final ESizingAlgorithm algorithm, final int previousSize, final int targetSize, final int size, final double throughput, final long queueWait, final long serviceTime, final double cpuUtilization) {
+		this.time = System.currentTimeMillis();
+		this.algorithm = algorithm;
+		this.previousSize = previousSize;
+		this.targetSize = targetSize;
+		this.size = size;
+		this.throughput = throughput;
+		this.queueWait = queueWait;
+		this.serviceTime = serviceTime;
+		this.cpuUtilization = cpuUtilization;
+	}
+
+	/**
+	 * Check if the decision changed the pool size.
+	 * @return <code>true</code> if the pool is resized.
+	 * <code>false</code> otherwise.
+	 */
+	public boolean isResized() {
+		return this.size != this.previousSize;
+	}
+
+	@Override
+	public String toString() {
+		return this.algorithm.value + ": " + this.previousSize + " -> " + this.size + " (target " + this.targetSize + ", throughput " + Math.round(this.throughput) + "/s, wait " + this.queueWait / 1000 + "us, service " + this.serviceTime / 1000 + "us, cpu " + Math.round(this.cpuUtilization * 100) + "%)";
+	}
+}
@@ -0,0 +1,223 @@
+package hemera.core.environment.execution;
+
+import hemera.core.environment.config.ConfigHandler;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <code>SampledExceptionHandler</code> defines the
+ * built-in execution service exception handler
+ * selected by the sampled handler type, which keeps
+ * a storm of identical failures from flooding the
+ * log.
+ * <p>
+ * Exceptions are grouped by a fingerprint made of
+ * the exception type and the configured number of
+ * top stack frames. In each window, the first
+ * exceptions of a fingerprint up to the sample limit
+ * are logged with their full stack traces. The rest
+ * are only counted, and the count is logged once when
+ * the next exception of the fingerprint starts a new
+ * window, or when the handler is flushed.
+ * <p>
+ * The number of tracked fingerprints is bounded.
+ * Once the bound is reached, exceptions with new
+ * fingerprints share a single overflow group.
+ * <p>
+ * The configuration can be replaced while running, and
+ * is read on every exception.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class SampledExceptionHandler {
+	/**
+	 * The <code>int</code> maximum number of tracked
+	 * fingerprints.
+	 */
+	private static final int MaxFingerprints = 4096;
+	/**
+	 * The <code>String</code> fingerprint of the
+	 * overflow group.
+	 */
+	private static final String Overflow = "<other>";
+	/**
+	 * The <code>Logger</code> to log to.
+	 */
+	private final Logger logger;
+	/**
+	 * The <code>ConcurrentMap</code> of fingerprint to
+	 * its <code>Group</code>.
+	 */
+	private final ConcurrentMap<String, Group> groups;
+	/**
+	 * The current <code>ConfigHandler</code>.
+	 */
+	private volatile ConfigHandler config;
+
+	/**
+	 * Constructor of <code>SampledExceptionHandler</code>.
+	 * @param logger The <code>Logger</code> to log to.
+	 * @param config The <code>ConfigHandler</code>.
+	 */
+	public SampledExceptionHandler(final Logger logger, final ConfigHandler config) {
+		this.logger = logger;
+		this.groups = new ConcurrentHashMap<String, Group>();
+		this.config = config;
+	}
+
+	/**
+	 * Handle the given exception.
+	 * @param e The <code>Throwable</code> to handle.
+	 */
+	public void handle(final Throwable e) {
+		final ConfigHandler config = this.config;
+		final long window = config.getWindow(TimeUnit.NANOSECONDS);
+		final String fingerprint = this.getFingerprint(e, config.frameDepth);
+		final Group group = this.getGroup(fingerprint);
+		final long now = System.nanoTime();
+		group.total.incrementAndGet();
+		// Only the thread that moves the window start
+		// reports the previous window.
+		final long start = group.start.get();
+		if (now - start >= window && group.start.compareAndSet(start, now)) {
+			final long suppressed = group.suppressed.getAndSet(0);
+			group.logged.set(0);
+			this.logSuppressed(fingerprint, suppressed);
+		}
+		if (group.logged.incrementAndGet() <= config.sampleLimit) {
+			this.logger.log(Level.SEVERE, "Execution failed [" + fingerprint + "]", e);
+		} else {
+			group.suppressed.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Create the fingerprint of the given exception.
+	 * @param e The <code>Throwable</code>.
+	 * @param depth The <code>int</code> number of top
+	 * stack frames to include.
+	 * @return The <code>String</code> fingerprint.
+	 */
+	private String getFingerprint(final Throwable e, final int depth) {
+		final StringBuilder builder = new StringBuilder(e.getClass().getName());
+		final StackTraceElement[] trace = e.getStackTrace();
+		final int size = Math.min(depth, trace.length);
+		for (int i = 0; i < size; i++) {
+			builder.append(i == 0 ? " at " : " < ");
+			builder.append(trace[i].getClassName()).append('.').append(trace[i].getMethodName());
+			builder.append(':').append(trace[i].getLineNumber());
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Retrieve the group of the given fingerprint,
+	 * creating it if needed.
+	 * @param fingerprint The <code>String</code>
+	 * fingerprint.
+	 * @return The <code>Group</code>.
+	 */
+	private Group getGroup(final String fingerprint) {
+		final Group existing = this.groups.get(fingerprint);
+		if (existing != null) return existing;
+		final String key = (this.groups.size() < SampledExceptionHandler.MaxFingerprints) ? fingerprint : SampledExceptionHandler.Overflow;
+		final Group group = new Group(System.nanoTime());
+		final Group previous = this.groups.putIfAbsent(key, group);
+		return (previous == null) ? group : previous;
+	}
+
+	/**
+	 * Log the number of suppressed exceptions of the
+	 * given fingerprint.
+	 * @param fingerprint The <code>String</code>
+	 * fingerprint.
+	 * @param suppressed The <code>long</code> number of
+	 * suppressed exceptions.
+	 */
+	private void logSuppressed(final String fingerprint, final long suppressed) {
+		if (suppressed <= 0) return;
+		this.logger.log(Level.WARNING, "Suppressed " + suppressed + " more execution failures [" + fingerprint + "]");
+	}
+
+	/**
+	 * Log the suppressed counts of all the fingerprints
+	 * in their current windows.
+	 */
+	public void flush() {
+		for (final Map.Entry<String, Group> entry : this.groups.entrySet()) {
+			this.logSuppressed(entry.getKey(), entry.getValue().suppressed.getAndSet(0));
+		}
+	}
+
+	/**
+	 * Replace the handler configuration.
+	 * @param config The new <code>ConfigHandler</code>.
+	 */
+	public void setConfiguration(final ConfigHandler config) {
+		this.config = config;
+	}
+
+	/**
+	 * Retrieve the total number of exceptions handled
+	 * per fingerprint.
+	 * @return The <code>Map</code> of fingerprint to
+	 * the <code>Long</code> count.
+	 */
+	public Map<String, Long> getCounts() {
+		final Map<String, Long> counts = new HashMap<String, Long>();
+		for (final Map.Entry<String, Group> entry : this.groups.entrySet()) {
+			counts.put(entry.getKey(), entry.getValue().total.get());
+		}
+		return counts;
+	}
+
+	/**
+	 * <code>Group</code> defines the counters of a
+	 * single exception fingerprint.
+	 *
+	 * @author Yi Wang (Neakor)
+	 * @version 1.0.0
+	 */
+	private static class Group {
+		/**
+		 * The <code>AtomicLong</code> time the current
+		 * window started at in nanoseconds.
+		 */
+		private final AtomicLong start;
+		/**
+		 * The <code>AtomicLong</code> number of exceptions
+		 * logged in the current window.
+		 */
+		private final AtomicLong logged;
+		/**
+		 * The <code>AtomicLong</code> number of exceptions
+		 * suppressed in the current window.
+		 */
+		private final AtomicLong suppressed;
+		/**
+		 * The <code>AtomicLong</code> total number of
+		 * exceptions.
+		 */
+		private final AtomicLong total;
+
+		/**
+		 * Constructor of <code>Group</code>.
+		 * @param start The <code>long</code> time the
+		 * first window starts at in nanoseconds.
+		 */
+		private Group(final long start) {
+			this.start = new AtomicLong(start);
+			this.logged = new AtomicLong();
+			this.suppressed = new AtomicLong();
+			this.total = new AtomicLong();
+		}
+	}
+}
@@ -0,0 +1,176 @@
+package hemera.core.environment.execution;
+
+import hemera.core.environment.config.ConfigBatching;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <code>TaskBatcher</code> defines the unit used by
+ * a single assisted executor to retrieve and execute
+ * the tasks of its <code>BoundedTaskBuffer</code>.
+ * <p>
+ * When batching is enabled, each call drains up to the
+ * maximum batch size of tasks with a single buffer
+ * lock acquisition and wakeup. The <code>IBatchTask</code>
+ * of the batch are grouped by class, and each group is
+ * executed by its first task, at the position of that
+ * task in the batch. The other tasks are executed
+ * individually in between, so the batch runs in its
+ * submission order except that the later tasks of a
+ * group run together with its first task.
+ * When batching is disabled, each call executes a
+ * single task.
+ * <p>
+ * A failing task does not prevent the rest of the
+ * batch from executing. The failure is reported to the
+ * given exception handler.
+ * <p>
+ * Instances are not thread safe, and the drained batch
+ * list is reused between calls. An interrupt while the
+ * batch lingers does not lose the drained tasks, which
+ * are executed before the interrupt is reported to the
+ * caller by its interrupt status. The configuration can
+ * be replaced while running, and is read on every call.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.2
+ */
+public class TaskBatcher {
+	/**
+	 * The <code>BoundedTaskBuffer</code> to drain.
+	 */
+	private final BoundedTaskBuffer buffer;
+	/**
+	 * The <code>UncaughtExceptionHandler</code> to
+	 * report task failures to.
+	 */
+	private final Thread.UncaughtExceptionHandler handler;
+	/**
+	 * The reused <code>List</code> of drained tasks.
+	 */
+	private final List<Runnable> batch;
+	/**
+	 * The reused <code>Map</code> of task class to the
+	 * batch tasks of the class, in the order of the
+	 * first task of each class.
+	 */
+	private final Map<Class<?>, List<IBatchTask>> groups;
+	/**
+	 * The current <code>ConfigBatching</code>.
+	 */
+	private volatile ConfigBatching config;
+
+	/**
+	 * Constructor of <code>TaskBatcher</code>.
+	 * @param buffer The <code>BoundedTaskBuffer</code>
+	 * to drain.
+	 * @param config The <code>ConfigBatching</code>.
+	 * @param handler The <code>UncaughtExceptionHandler</code>
+	 * to report task failures to.
+	 */
+	public TaskBatcher(final BoundedTaskBuffer buffer, final ConfigBatching config, final Thread.UncaughtExceptionHandler handler) {
+		this.buffer = buffer;
+		this.handler = handler;
+		this.batch = new ArrayList<Runnable>();
+		this.groups = new LinkedHashMap<Class<?>, List<IBatchTask>>();
+		this.config = config;
+	}
+
+	/**
+	 * Retrieve and execute the next task or batch of
+	 * tasks, waiting up to the given time for a task
+	 * to become available.
+	 * @param timeout The <code>long</code> time to wait.
+	 * @param unit The <code>TimeUnit</code> of the time.
+	 * @return The <code>int</code> number of tasks
+	 * executed. <code>0</code> if the time elapsed
+	 * before a task became available.
+	 * @throws InterruptedException If interrupted while
+	 * waiting.
+	 */
+	public int runNext(final long timeout, final TimeUnit unit) throws InterruptedException {
+		final ConfigBatching config = this.config;
+		if (!config.enabled) {
+			final Runnable task = this.buffer.poll(timeout, unit);
+			if (task == null) return 0;
+			this.run(task);
+			return 1;
+		}
+		final long linger = config.getMaxLinger(TimeUnit.NANOSECONDS);
+		try {
+			final int count = this.buffer.drain(this.batch, config.maxBatchSize, unit.toNanos(timeout), linger, TimeUnit.NANOSECONDS);
+			// An interrupt during the linger is kept for the
+			// caller, after the drained tasks are executed.
+			final boolean interrupted = Thread.interrupted();
+			try {
+				this.execute(this.batch);
+			} finally {
+				if (interrupted) Thread.currentThread().interrupt();
+			}
+			return count;
+		} finally {
+			this.batch.clear();
+			this.groups.clear();
+		}
+	}
+
+	/**
+	 * Execute the given drained batch.
+	 * @param batch The <code>List</code> of tasks.
+	 */
+	private void execute(final List<Runnable> batch) {
+		final int size = batch.size();
+		for (int i = 0; i < size; i++) {
+			final Runnable task = batch.get(i);
+			if (!(task instanceof IBatchTask)) continue;
+			List<IBatchTask> group = this.groups.get(task.getClass());
+			if (group == null) {
+				group = new ArrayList<IBatchTask>();
+				this.groups.put(task.getClass(), group);
+			}
+			group.add((IBatchTask)task);
+		}
+		for (int i = 0; i < size; i++) {
+			final Runnable task = batch.get(i);
+			if (!(task instanceof IBatchTask)) {
+				this.run(task);
+				continue;
+			}
+			// Only the first task of a group executes it.
+			final List<IBatchTask> group = this.groups.remove(task.getClass());
+			if (group == null) continue;
+			else if (group.size() == 1) this.run(group.get(0));
+			else {
+				try {
+					group.get(0).runBatch(group);
+				} catch (final Throwable e) {
+					this.handler.uncaughtException(Thread.currentThread(), e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Execute the given single task.
+	 * @param task The <code>Runnable</code> task.
+	 */
+	private void run(final Runnable task) {
+		try {
+			task.run();
+		} catch (final Throwable e) {
+			this.handler.uncaughtException(Thread.currentThread(), e);
+		}
+	}
+
+	/**
+	 * Replace the batching configuration.
+	 * @param config The new <code>ConfigBatching</code>.
+	 */
+	public void setConfiguration(final ConfigBatching config) {
+		this.config = config;
+	}
+}
@@ -1,17 +1,22 @@
 package hemera.core.environment.ham;
 
 import hemera.core.environment.AbstractTag;
+import hemera.core.environment.config.ConfigExecutionService;
 import hemera.core.environment.ham.key.KHAM;
 import hemera.core.environment.ham.key.KHAMResource;
 import hemera.core.environment.hbm.HBM;
 import hemera.core.environment.hbm.HBMResource;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -20,9 +25,16 @@ import org.w3c.dom.NodeList;
 /**
  * <code>HAM</code> defines the structure of the Hemera
  * Application Model.
+ * <p>
+ * The static files of the resources directories can
+ * be precompressed by the bundling step with
+ * <code>UPrecompressor</code>, whose manifests are
+ * given to the model when it is created from the
+ * bundle model, so the runtime serves the precompressed
+ * variants recorded in the manifests of the model.
  *
  * @author Yi Wang (Neakor)
- * @version 1.0.4
+ * @version 1.0.8
  */
 public class HAM extends AbstractTag {
 	/**
@@ -51,14 +63,33 @@ public class HAM extends AbstractTag {
 	 * @param hbm The <code>HBM</code> bundle.
 	 */
 	public HAM(final HBM hbm) {
+		this(hbm, Collections.<String, HAMPrecompressed>emptyMap());
+	}
+
+	/**
+	 * Constructor of <code>HAM</code>.
+	 * <p>
+	 * This constructor creates a HAM configuration
+	 * based on the given bundle, with the manifests of
+	 * the resources directories whose staged copies were
+	 * precompressed by the bundling step.
+	 * @param hbm The <code>HBM</code> bundle.
+	 * @param precompressed The <code>Map</code> of the
+	 * resources directory of the bundle to the
+	 * <code>HAMPrecompressed</code> manifest of its
+	 * staged copy. Directories without a manifest are
+	 * served without variants.
+	 */
+	public HAM(final HBM hbm, final Map<String, HAMPrecompressed> precompressed) {
 		this.applicationName = hbm.applicationName;
 		this.applicationPath = hbm.applicationPath;
-		this.shared = (hbm.shared==null) ? null : new HAMShared(hbm.shared);
+		if (hbm.shared == null) this.shared = null;
+		else this.shared = new HAMShared(hbm.shared, this.getPrecompressed(precompressed, hbm.shared.resourcesDir));
 		final int size = hbm.resources.size();
 		this.resources = new ArrayList<HAMResource>(size);
 		for (int i = 0; i < size; i++) {
 			final HBMResource hbmResource = hbm.resources.get(i);
-			this.resources.add(new HAMResource(hbmResource));
+			this.resources.add(new HAMResource(hbmResource, this.getPrecompressed(precompressed, hbmResource.resourcesDir)));
 		}
 	}
 
@@ -73,11 +104,57 @@ public class HAM extends AbstractTag {
 		this.applicationName = this.parseTagValue(docElement, KHAM.ApplicationName.tag, false);
 		this.applicationPath = this.parseTagValue(docElement, KHAM.ApplicationPath.tag, true);
 		final NodeList list = docElement.getElementsByTagName(KHAM.Shared.tag);
-		if (list == null || list.getLength() != 1) this.shared = null;
-		else this.shared = new HAMShared((Element)list.item(0));
+		if (list == null || list.getLength() == 0) this.shared = null;
+		else if (list.getLength() == 1) this.shared = new HAMShared((Element)list.item(0));
+		else throw new IllegalArgumentException("Invalid HAM file. Must contain at most one shared tag.");
 		this.resources = this.parseResources(document);
 	}
 
+	/**
+	 * Constructor of <code>HAM</code>.
+	 * <p>
+	 * This constructor parses the model in a single
+	 * forward pass without building a document tree.
+	 * @param reader The <code>XMLStreamReader</code>
+	 * positioned at the start of the root tag. The
+	 * reader is left at the end of the root tag.
+	 * @throws XMLStreamException If reading failed.
+	 */
+	public HAM(final XMLStreamReader reader) throws XMLStreamException {
+		super(reader, KHAM.Root.tag);
+		String applicationName = null;
+		String applicationPath = null;
+		HAMShared shared = null;
+		List<HAMResource> resources = null;
+		String tag = null;
+		while ((tag = this.nextChildTag(reader)) != null) {
+			if (tag.equals(KHAM.ApplicationName.tag)) {
+				applicationName = this.readTagValue(reader, applicationName);
+			} else if (tag.equals(KHAM.ApplicationPath.tag)) {
+				applicationPath = this.readTagValue(reader, applicationPath);
+			} else if (tag.equals(KHAM.Shared.tag)) {
+				if (shared != null) {
+					throw new IllegalArgumentException("Invalid HAM file. Must contain at most one shared tag.");
+				}
+				shared = new HAMShared(reader);
+			} else if (tag.equals(KHAM.Resources.tag)) {
+				if (resources != null) {
+					throw new IllegalArgumentException("Invalid HAM file. Must contain one resources tag.");
+				}
+				resources = this.parseResources(reader);
+			} else {
+				this.skipTag(reader);
+			}
+		}
+		if (resources == null) {
+			throw new IllegalArgumentException("Invalid HAM file. Must contain one resources tag.");
+		}
+		this.applicationName = this.verifyTagValue(applicationName, KHAM.ApplicationName.tag);
+		this.applicationPath = applicationPath;
+		this.shared = shared;
+		this.resources = resources;
+	}
+
 	/**
 	 * Parse the given XML document and retrieve the
 	 * resources list.
@@ -113,6 +190,89 @@ public class HAM extends AbstractTag {
 		return store;
 	}
 
+	/**
+	 * Parse the resources tag the given reader is at
+	 * the start of and retrieve the resources list.
+	 * @param reader The <code>XMLStreamReader</code>
+	 * at the start of the resources tag.
+	 * @return The <code>List</code> of all the parsed
+	 * <code>HAMResource</code>.
+	 * @throws XMLStreamException If reading failed.
+	 */
+	private List<HAMResource> parseResources(final XMLStreamReader reader) throws XMLStreamException {
+		final ArrayList<HAMResource> store = new ArrayList<HAMResource>();
+		String tag = null;
+		while ((tag = this.nextChildTag(reader)) != null) {
+			if (tag.equals(KHAMResource.Root.tag)) store.add(new HAMResource(reader));
+			else this.skipTag(reader);
+		}
+		if (store.isEmpty()) {
+			throw new IllegalArgumentException("Invalid HAM file. Must contain at least one resource tags.");
+		}
+		store.trimToSize();
+		return store;
+	}
+
+	/**
+	 * Retrieve the manifest of the given resources
+	 * directory.
+	 * @param precompressed The <code>Map</code> of the
+	 * resources directory to its manifest.
+	 * @param dir The <code>String</code> resources
+	 * directory.
+	 * @return The <code>HAMPrecompressed</code> manifest.
+	 * Or <code>null</code> if there is no directory or
+	 * it was not precompressed.
+	 */
+	private HAMPrecompressed getPrecompressed(final Map<String, HAMPrecompressed> precompressed, final String dir) {
+		if (dir == null || dir.length() <= 0) return null;
+		return precompressed.get(dir);
+	}
+
+	/**
+	 * Retrieve the total number of executors of all the
+	 * dedicated execution pools of the application.
+	 * @return The <code>int</code> number of executors.
+	 */
+	public int getExecutionPoolSize() {
+		int total = (this.shared==null || this.shared.execution==null) ? 0 : this.shared.execution.poolSize;
+		final int size = this.resources.size();
+		for (int i = 0; i < size; i++) {
+			final HAMExecution execution = this.resources.get(i).execution;
+			if (execution != null) total += execution.poolSize;
+		}
+		return total;
+	}
+
+	/**
+	 * Validate the dedicated execution pools and the
+	 * priority lanes of the application against the
+	 * environment execution service configuration.
+	 * @param execution The <code>ConfigExecutionService</code>
+	 * of the environment.
+	 * @param reserved The <code>int</code> number of
+	 * executors already dedicated to the pools of the
+	 * other deployed applications.
+	 * @throws IllegalArgumentException If the dedicated
+	 * pools exceed the maximum number of executors of
+	 * the environment execution service, or a resource
+	 * is mapped to an undeclared lane.
+	 */
+	public void validate(final ConfigExecutionService execution, final int reserved) {
+		final int total = reserved + this.getExecutionPoolSize();
+		final int max = execution.getMaxExecutors();
+		if (total > max) {
+			throw new IllegalArgumentException("Invalid HAM file. Dedicated execution pools require " + total + " executors, exceeding the environment maximum of " + max + ".");
+		}
+		final int size = this.resources.size();
+		for (int i = 0; i < size; i++) {
+			final HAMResource resource = this.resources.get(i);
+			if (resource.lane != null && execution.lanes.getLane(resource.lane) == null) {
+				throw new IllegalArgumentException("Invalid HAM file. Resource " + resource.classname + " is mapped to undeclared lane " + resource.lane + ".");
+			}
+		}
+	}
+
 	/**
 	 * Convert the HAM configuration into a XML document.
 	 * @return The XML <code>Document</code>.
@@ -0,0 +1,150 @@
+package hemera.core.environment.ham;
+
+import hemera.core.environment.AbstractTag;
+import hemera.core.environment.enumn.EExecutionMode;
+import hemera.core.environment.ham.key.KHAMExecution;
+import hemera.core.environment.hbm.HBMExecution;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * <code>HAMExecution</code> defines the immutable unit
+ * representing a dedicated execution pool declared by
+ * a resource or the shared section of a HAM file. The
+ * runtime executes the tasks of a resource with a
+ * dedicated pool in isolation from all other resources,
+ * so a slow resource cannot starve the others.
+ * <p>
+ * A resource without a pool uses the pool of the shared
+ * section if there is one, otherwise the environment
+ * execution service.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class HAMExecution extends AbstractTag {
+	/**
+	 * The <code>int</code> number of executors of the
+	 * pool.
+	 */
+	public final int poolSize;
+	/**
+	 * The <code>int</code> maximum number of queued
+	 * tasks. <code>0</code> if the queue is unbounded.
+	 */
+	public final int queueBound;
+	/**
+	 * The optional <code>EExecutionMode</code> of the
+	 * pool. <code>null</code> if the pool uses the mode
+	 * of the environment execution service.
+	 */
+	public final EExecutionMode mode;
+
+	/**
+	 * Constructor of <code>HAMExecution</code>.
+	 * @param node The execution <code>Element</code>.
+	 */
+	HAMExecution(final Element node) {
+		super(node, KHAMExecution.Root.tag);
+		final String poolSize = this.parseTagValue(node, KHAMExecution.PoolSize.tag, false);
+		final String queueBound = this.parseTagValue(node, KHAMExecution.QueueBound.tag, true);
+		final String mode = this.parseTagValue(node, KHAMExecution.Mode.tag, true);
+		this.poolSize = Integer.valueOf(poolSize.trim());
+		this.queueBound = (queueBound==null) ? 0 : Integer.valueOf(queueBound.trim());
+		this.mode = (mode==null) ? null : EExecutionMode.parse(mode.trim());
+		this.verify();
+	}
+
+	/**
+	 * Constructor of <code>HAMExecution</code>.
+	 * @param reader The <code>XMLStreamReader</code>
+	 * positioned at the start of the execution tag.
+	 * @throws XMLStreamException If reading failed.
+	 */
+	HAMExecution(final XMLStreamReader reader) throws XMLStreamException {
+		super(reader, KHAMExecution.Root.tag);
+		String poolSize = null;
+		String queueBound = null;
+		String mode = null;
+		String tag = null;
+		while ((tag = this.nextChildTag(reader)) != null) {
+			if (tag.equals(KHAMExecution.PoolSize.tag)) poolSize = this.readTagValue(reader, poolSize);
+			else if (tag.equals(KHAMExecution.QueueBound.tag)) queueBound = this.readTagValue(reader, queueBound);
+			else if (tag.equals(KHAMExecution.Mode.tag)) mode = this.readTagValue(reader, mode);
+			else this.skipTag(reader);
+		}
+		this.poolSize = Integer.valueOf(this.verifyTagValue(poolSize, KHAMExecution.PoolSize.tag).trim());
+		this.queueBound = (queueBound==null) ? 0 : Integer.valueOf(queueBound.trim());
+		this.mode = (mode==null) ? null : EExecutionMode.parse(mode.trim());
+		this.verify();
+	}
+
+	/**
+	 * Constructor of <code>HAMExecution</code>.
+	 * @param hbmExecution The <code>HBMExecution</code>.
+	 */
+	HAMExecution(final HBMExecution hbmExecution) {
+		this.poolSize = hbmExecution.poolSize;
+		this.queueBound = hbmExecution.queueBound;
+		this.mode = hbmExecution.mode;
+	}
+
+	/**
+	 * Parse the execution tag the given reader is at
+	 * the start of.
+	 * @param reader The <code>XMLStreamReader</code>
+	 * at the start of an execution tag.
+	 * @param current The <code>HAMExecution</code>
+	 * already read for the same parent tag.
+	 * <code>null</code> if the tag has not been seen
+	 * yet.
+	 * @return The parsed <code>HAMExecution</code>.
+	 * @throws XMLStreamException If reading failed.
+	 */
+	static HAMExecution parse(final XMLStreamReader reader, final HAMExecution current) throws XMLStreamException {
+		if (current != null) {
+			throw new IllegalArgumentException("Invalid tag. Must contain one " + KHAMExecution.Root.tag + ".");
+		}
+		return new HAMExecution(reader);
+	}
+
+	/**
+	 * Verify the parsed values.
+	 */
+	private void verify() {
+		if (this.poolSize <= 0) {
+			throw new IllegalArgumentException("Invalid execution tag. Pool size must be positive.");
+		} else if (this.queueBound < 0) {
+			throw new IllegalArgumentException("Invalid execution tag. Queue bound must not be negative.");
+		}
+	}
+
+	/**
+	 * Convert this execution pool to a XML element.
+	 * @param document The <code>Document</code> to
+	 * create the new tags from.
+	 * @return The execution <code>Element</code>.
+	 */
+	public Element toXML(final Document document) {
+		final Element execution = document.createElement(KHAMExecution.Root.tag);
+		// Pool size tag.
+		final Element poolSize = document.createElement(KHAMExecution.PoolSize.tag);
+		poolSize.setTextContent(String.valueOf(this.poolSize));
+		execution.appendChild(poolSize);
+		// Queue bound tag.
+		final Element queueBound = document.createElement(KHAMExecution.QueueBound.tag);
+		queueBound.setTextContent(String.valueOf(this.queueBound));
+		execution.appendChild(queueBound);
+		// Optional mode tag.
+		if (this.mode != null) {
+			final Element mode = document.createElement(KHAMExecution.Mode.tag);
+			mode.setTextContent(this.mode.value);
+			execution.appendChild(mode);
+		}
+		return execution;
+	}
+}
@@ -0,0 +1,205 @@
+package hemera.core.environment.ham;
+
+import hemera.core.environment.AbstractTag;
+import hemera.core.environment.enumn.EContentEncoding;
+import hemera.core.environment.ham.key.KHAMPrecompressed;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * <code>HAMPrecompressed</code> defines the immutable
+ * manifest of the static files of a resources directory
+ * that were precompressed when the application was
+ * bundled.
+ * <p>
+ * Each precompressed file is recorded with its path
+ * relative to the resources directory, separated by
+ * <code>/</code>, and the content encodings of its
+ * variants, which are stored next to the file with the
+ * file name suffix of the encoding. The runtime selects
+ * a variant accepted by the client without compressing
+ * anything while serving.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.1
+ */
+public class HAMPrecompressed extends AbstractTag {
+	/**
+	 * The <code>Map</code> of <code>String</code> path
+	 * to the <code>List</code> of the content encodings
+	 * of the variants of the file.
+	 */
+	public final Map<String, List<EContentEncoding>> assets;
+
+	/**
+	 * Constructor of <code>HAMPrecompressed</code>.
+	 * @param node The precompressed <code>Element</code>.
+	 */
+	HAMPrecompressed(final Element node) {
+		super(node, KHAMPrecompressed.Root.tag);
+		final LinkedHashMap<String, List<EContentEncoding>> assets = new LinkedHashMap<String, List<EContentEncoding>>();
+		final NodeList list = node.getElementsByTagName(KHAMPrecompressed.Asset.tag);
+		final int size = list.getLength();
+		for (int i = 0; i < size; i++) {
+			final Element asset = (Element)list.item(i);
+			final String path = this.parseTagValue(asset, KHAMPrecompressed.Path.tag, false);
+			final NodeList encodingList = asset.getElementsByTagName(KHAMPrecompressed.Encoding.tag);
+			final int count = encodingList.getLength();
+			final ArrayList<EContentEncoding> encodings = new ArrayList<EContentEncoding>(count);
+			for (int j = 0; j < count; j++) {
+				encodings.add(EContentEncoding.parse(encodingList.item(j).getTextContent().trim()));
+			}
+			this.put(assets, path.trim(), encodings);
+		}
+		this.assets = Collections.unmodifiableMap(assets);
+	}
+
+	/**
+	 * Constructor of <code>HAMPrecompressed</code>.
+	 * @param reader The <code>XMLStreamReader</code>
+	 * positioned at the start of the precompressed tag.
+	 * @throws XMLStreamException If reading failed.
+	 */
+	HAMPrecompressed(final XMLStreamReader reader) throws XMLStreamException {
+		super(reader, KHAMPrecompressed.Root.tag);
+		final LinkedHashMap<String, List<EContentEncoding>> assets = new LinkedHashMap<String, List<EContentEncoding>>();
+		String tag = null;
+		while ((tag = this.nextChildTag(reader)) != null) {
+			if (tag.equals(KHAMPrecompressed.Asset.tag)) this.parseAsset(reader, assets);
+			else this.skipTag(reader);
+		}
+		this.assets = Collections.unmodifiableMap(assets);
+	}
+
+	/**
+	 * Constructor of <code>HAMPrecompressed</code>.
+	 * @param assets The <code>Map</code> of path to the
+	 * content encodings of the variants of the file.
+	 */
+	public HAMPrecompressed(final Map<String, List<EContentEncoding>> assets) {
+		final LinkedHashMap<String, List<EContentEncoding>> copy = new LinkedHashMap<String, List<EContentEncoding>>();
+		for (final Map.Entry<String, List<EContentEncoding>> entry : assets.entrySet()) {
+			this.put(copy, entry.getKey(), new ArrayList<EContentEncoding>(entry.getValue()));
+		}
+		this.assets = Collections.unmodifiableMap(copy);
+	}
+
+	/**
+	 * Parse the precompressed tag the given reader is at
+	 * the start of.
+	 * @param reader The <code>XMLStreamReader</code>
+	 * at the start of a precompressed tag.
+	 * @param current The <code>HAMPrecompressed</code>
+	 * already read for the same parent tag.
+	 * <code>null</code> if the tag has not been seen
+	 * yet.
+	 * @return The parsed <code>HAMPrecompressed</code>.
+	 * @throws XMLStreamException If reading failed.
+	 */
+	static HAMPrecompressed parse(final XMLStreamReader reader, final HAMPrecompressed current) throws XMLStreamException {
+		if (current != null) {
+			throw new IllegalArgumentException("Invalid tag. Must contain one " + KHAMPrecompressed.Root.tag + ".");
+		}
+		return new HAMPrecompressed(reader);
+	}
+
+	/**
+	 * Parse the optional precompressed tag of the given
+	 * node.
+	 * @param node The <code>Element</code> of the tag
+	 * containing the resources directory.
+	 * @return The <code>HAMPrecompressed</code>. Or
+	 * <code>null</code> if there is no such tag.
+	 */
+	static HAMPrecompressed parse(final Element node) {
+		final NodeList list = node.getElementsByTagName(KHAMPrecompressed.Root.tag);
+		if (list == null || list.getLength() == 0) return null;
+		else if (list.getLength() == 1) return new HAMPrecompressed((Element)list.item(0));
+		else throw new IllegalArgumentException("Invalid tag. Must contain one " + KHAMPrecompressed.Root.tag + ".");
+	}
+
+	/**
+	 * Parse the asset tag the given reader is at the
+	 * start of into the given assets.
+	 * @param reader The <code>XMLStreamReader</code>
+	 * at the start of an asset tag.
+	 * @param assets The <code>Map</code> to add the
+	 * asset to.
+	 * @throws XMLStreamException If reading failed.
+	 */
+	private void parseAsset(final XMLStreamReader reader, final Map<String, List<EContentEncoding>> assets) throws XMLStreamException {
+		String path = null;
+		final ArrayList<EContentEncoding> encodings = new ArrayList<EContentEncoding>(EContentEncoding.values().length);
+		String tag = null;
+		while ((tag = this.nextChildTag(reader)) != null) {
+			if (tag.equals(KHAMPrecompressed.Path.tag)) path = this.readTagValue(reader, path);
+			else if (tag.equals(KHAMPrecompressed.Encoding.tag)) encodings.add(EContentEncoding.parse(reader.getElementText().trim()));
+			else this.skipTag(reader);
+		}
+		this.put(assets, this.verifyTagValue(path, KHAMPrecompressed.Path.tag).trim(), encodings);
+	}
+
+	/**
+	 * Add the given asset to the given assets.
+	 * @param assets The <code>Map</code> to add to.
+	 * @param path The <code>String</code> path.
+	 * @param encodings The <code>List</code> of the
+	 * content encodings.
+	 */
+	private void put(final Map<String, List<EContentEncoding>> assets, final String path, final List<EContentEncoding> encodings) {
+		if (encodings.isEmpty()) {
+			throw new IllegalArgumentException("Invalid precompressed tag. Asset " + path + " must contain at least one encoding.");
+		} else if (assets.put(path, Collections.unmodifiableList(encodings)) != null) {
+			throw new IllegalArgumentException("Invalid precompressed tag. Duplicate asset " + path + ".");
+		}
+	}
+
+	/**
+	 * Retrieve the content encodings of the variants of
+	 * the given file.
+	 * @param path The <code>String</code> path of the
+	 * file relative to the resources directory.
+	 * @return The <code>List</code> of
+	 * <code>EContentEncoding</code>. Or <code>null</code>
+	 * if the file is not precompressed.
+	 */
+	public List<EContentEncoding> getEncodings(final String path) {
+		return this.assets.get(path);
+	}
+
+	/**
+	 * Convert this manifest to a XML element.
+	 * @param document The <code>Document</code> to
+	 * create the new tags from.
+	 * @return The precompressed <code>Element</code>.
+	 */
+	public Element toXML(final Document document) {
+		final Element precompressed = document.createElement(KHAMPrecompressed.Root.tag);
+		for (final Map.Entry<String, List<EContentEncoding>> entry : this.assets.entrySet()) {
+			// Asset tag.
+			final Element asset = document.createElement(KHAMPrecompressed.Asset.tag);
+			final Element path = document.createElement(KHAMPrecompressed.Path.tag);
+			path.setTextContent(entry.getKey());
+			asset.appendChild(path);
+			// Encoding tags.
+			for (final EContentEncoding value : entry.getValue()) {
+				final Element encoding = document.createElement(KHAMPrecompressed.Encoding.tag);
+				encoding.setTextContent(value.value);
+				asset.appendChild(encoding);
+			}
+			precompressed.appendChild(asset);
+		}
+		return precompressed;
+	}
+}
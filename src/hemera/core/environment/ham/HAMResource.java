@@ -2,21 +2,27 @@ package hemera.core.environment.ham;
 
 import hemera.core.environment.AbstractTag;
 import hemera.core.environment.ham.key.KHAM;
+import hemera.core.environment.ham.key.KHAMExecution;
+import hemera.core.environment.ham.key.KHAMPrecompressed;
 import hemera.core.environment.ham.key.KHAMResource;
 import hemera.core.environment.hbm.HBMResource;
 import hemera.core.utility.FileUtils;
 
 import java.io.File;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
 
 /**
  * <code>HAMResource</code> defines the immutable unit
  * representing a single resource node in a HAM file.
  *
  * @author Yi Wang (Neakor)
- * @version 1.0.0
+ * @version 1.0.2
  */
 public class HAMResource extends AbstractTag {
 	/**
@@ -34,6 +40,25 @@ public class HAMResource extends AbstractTag {
 	 * directory.
 	 */
 	public final String resourcesDir;
+	/**
+	 * The optional <code>HAMPrecompressed</code> manifest
+	 * of the resources directory. <code>null</code> if
+	 * no file of the directory is precompressed.
+	 */
+	public final HAMPrecompressed precompressed;
+	/**
+	 * The optional <code>HAMExecution</code> dedicated pool of
+	 * the resource. <code>null</code> if the resource
+	 * uses the shared pool.
+	 */
+	public final HAMExecution execution;
+	/**
+	 * The <code>String</code> optional name of the
+	 * execution priority lane of the resource.
+	 * <code>null</code> if the resource uses the
+	 * default lane.
+	 */
+	public final String lane;
 
 	/**
 	 * Constructor of <code>HAMResource</code>.
@@ -44,6 +69,45 @@ public class HAMResource extends AbstractTag {
 		this.classname = this.parseTagValue(node, KHAMResource.Classname.tag, false);
 		this.configFile = this.parseTagValue(node, KHAMResource.ConfigFile.tag, true);
 		this.resourcesDir = this.parseTagValue(node, KHAMResource.ResourcesDir.tag, true);
+		this.precompressed = HAMPrecompressed.parse(node);
+		// Parse optional execution pool.
+		final NodeList executionList = node.getElementsByTagName(KHAMExecution.Root.tag);
+		if (executionList == null || executionList.getLength() == 0) this.execution = null;
+		else if (executionList.getLength() == 1) this.execution = new HAMExecution((Element)executionList.item(0));
+		else throw new IllegalArgumentException("Invalid tag. Must contain one " + KHAMExecution.Root.tag + ".");
+		this.lane = this.parseTagValue(node, KHAMResource.Lane.tag, true);
+	}
+
+	/**
+	 * Constructor of <code>HAMResource</code>.
+	 * @param reader The <code>XMLStreamReader</code>
+	 * positioned at the start of the resource tag.
+	 * @throws XMLStreamException If reading failed.
+	 */
+	HAMResource(final XMLStreamReader reader) throws XMLStreamException {
+		super(reader, KHAMResource.Root.tag);
+		String classname = null;
+		String configFile = null;
+		String resourcesDir = null;
+		HAMPrecompressed precompressed = null;
+		HAMExecution execution = null;
+		String lane = null;
+		String tag = null;
+		while ((tag = this.nextChildTag(reader)) != null) {
+			if (tag.equals(KHAMResource.Classname.tag)) classname = this.readTagValue(reader, classname);
+			else if (tag.equals(KHAMResource.ConfigFile.tag)) configFile = this.readTagValue(reader, configFile);
+			else if (tag.equals(KHAMResource.ResourcesDir.tag)) resourcesDir = this.readTagValue(reader, resourcesDir);
+			else if (tag.equals(KHAMPrecompressed.Root.tag)) precompressed = HAMPrecompressed.parse(reader, precompressed);
+			else if (tag.equals(KHAMExecution.Root.tag)) execution = HAMExecution.parse(reader, execution);
+			else if (tag.equals(KHAMResource.Lane.tag)) lane = this.readTagValue(reader, lane);
+			else this.skipTag(reader);
+		}
+		this.classname = this.verifyTagValue(classname, KHAMResource.Classname.tag);
+		this.configFile = configFile;
+		this.resourcesDir = resourcesDir;
+		this.precompressed = precompressed;
+		this.execution = execution;
+		this.lane = lane;
 	}
 
 	/**
@@ -52,11 +116,17 @@ public class HAMResource extends AbstractTag {
 	 * This constructor creates a HAM resource node
 	 * based on the given HBM resource.
 	 * @param hbmResource The <code>HBMResource</code>.
+	 * @param precompressed The <code>HAMPrecompressed</code>
+	 * manifest of the resources directory. Or
+	 * <code>null</code> if there is none.
 	 */
-	HAMResource(final HBMResource hbmResource) {
+	HAMResource(final HBMResource hbmResource, final HAMPrecompressed precompressed) {
 		this.classname = hbmResource.classname;
 		this.configFile = hbmResource.configFile;
 		this.resourcesDir = hbmResource.resourcesDir;
+		this.precompressed = precompressed;
+		this.execution = (hbmResource.execution==null) ? null : new HAMExecution(hbmResource.execution);
+		this.lane = hbmResource.lane;
 	}
 
 	@Override
@@ -114,6 +184,22 @@ public class HAMResource extends AbstractTag {
 			builder.append("resources");
 			resources.setTextContent(FileUtils.instance.getValidDir(builder.toString()));
 			resource.appendChild(resources);
+			// Optional precompressed files manifest.
+			if (this.precompressed != null) {
+				final Element precompressed = this.precompressed.toXML(document);
+				resource.appendChild(precompressed);
+			}
+		}
+		// Optional execution pool.
+		if (this.execution != null) {
+			final Element execution = this.execution.toXML(document);
+			resource.appendChild(execution);
+		}
+		// Optional execution priority lane.
+		if (this.lane != null) {
+			final Element lane = document.createElement(KHAMResource.Lane.tag);
+			lane.setTextContent(this.lane);
+			resource.appendChild(lane);
 		}
 		return resource;
 	}
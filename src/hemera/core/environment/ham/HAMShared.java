@@ -2,12 +2,18 @@ package hemera.core.environment.ham;
 
 import java.io.File;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
 
 import hemera.core.environment.AbstractTag;
 import hemera.core.environment.enumn.EEnvironment;
 import hemera.core.environment.ham.key.KHAM;
+import hemera.core.environment.ham.key.KHAMExecution;
+import hemera.core.environment.ham.key.KHAMPrecompressed;
 import hemera.core.environment.ham.key.KHAMShared;
 import hemera.core.environment.hbm.HBMShared;
 import hemera.core.utility.FileUtils;
@@ -17,7 +23,7 @@ import hemera.core.utility.FileUtils;
  * of the shared section of a Hemera Application Model.
  *
  * @author Yi Wang (Neakor)
- * @version 1.0.0
+ * @version 1.0.2
  */
 public class HAMShared extends AbstractTag {
 	/**
@@ -30,6 +36,19 @@ public class HAMShared extends AbstractTag {
 	 * directory.
 	 */
 	public final String resourcesDir;
+	/**
+	 * The optional <code>HAMPrecompressed</code> manifest
+	 * of the shared resources directory. <code>null</code>
+	 * if no file of the directory is precompressed.
+	 */
+	public final HAMPrecompressed precompressed;
+	/**
+	 * The optional <code>HAMExecution</code> pool shared by
+	 * all resources without a dedicated pool.
+	 * <code>null</code> if those resources use the
+	 * environment execution service.
+	 */
+	public final HAMExecution execution;
 
 	/**
 	 * Constructor of <code>HBMShared</code>.
@@ -39,15 +58,52 @@ public class HAMShared extends AbstractTag {
 		super(node, KHAM.Shared.tag);
 		this.configFile = this.parseTagValue(node, KHAMShared.ConfigFile.tag, true);
 		this.resourcesDir = this.parseTagValue(node, KHAMShared.ResourcesDir.tag, true);
+		this.precompressed = HAMPrecompressed.parse(node);
+		// Parse optional execution pool.
+		final NodeList executionList = node.getElementsByTagName(KHAMExecution.Root.tag);
+		if (executionList == null || executionList.getLength() == 0) this.execution = null;
+		else if (executionList.getLength() == 1) this.execution = new HAMExecution((Element)executionList.item(0));
+		else throw new IllegalArgumentException("Invalid tag. Must contain one " + KHAMExecution.Root.tag + ".");
+	}
+	
+	/**
+	 * Constructor of <code>HAMShared</code>.
+	 * @param reader The <code>XMLStreamReader</code>
+	 * positioned at the start of the shared tag.
+	 * @throws XMLStreamException If reading failed.
+	 */
+	HAMShared(final XMLStreamReader reader) throws XMLStreamException {
+		super(reader, KHAM.Shared.tag);
+		String configFile = null;
+		String resourcesDir = null;
+		HAMPrecompressed precompressed = null;
+		HAMExecution execution = null;
+		String tag = null;
+		while ((tag = this.nextChildTag(reader)) != null) {
+			if (tag.equals(KHAMShared.ConfigFile.tag)) configFile = this.readTagValue(reader, configFile);
+			else if (tag.equals(KHAMShared.ResourcesDir.tag)) resourcesDir = this.readTagValue(reader, resourcesDir);
+			else if (tag.equals(KHAMPrecompressed.Root.tag)) precompressed = HAMPrecompressed.parse(reader, precompressed);
+			else if (tag.equals(KHAMExecution.Root.tag)) execution = HAMExecution.parse(reader, execution);
+			else this.skipTag(reader);
+		}
+		this.configFile = configFile;
+		this.resourcesDir = resourcesDir;
+		this.precompressed = precompressed;
+		this.execution = execution;
 	}
 	
 	/**
 	 * Constructor of <code>HAMShared</code>.
 	 * @param hbmShared The <code>HBMShared</code> data.
+	 * @param precompressed The <code>HAMPrecompressed</code>
+	 * manifest of the shared resources directory. Or
+	 * <code>null</code> if there is none.
 	 */
-	HAMShared(final HBMShared hbmShared) {
+	HAMShared(final HBMShared hbmShared, final HAMPrecompressed precompressed) {
 		this.configFile = hbmShared.configFile;
 		this.resourcesDir = hbmShared.resourcesDir;
+		this.precompressed = precompressed;
+		this.execution = (hbmShared.execution==null) ? null : new HAMExecution(hbmShared.execution);
 	}
 	
 	/**
@@ -77,6 +133,16 @@ public class HAMShared extends AbstractTag {
 			builder.append(EEnvironment.AppSharedResourcesDir.value).append(File.separator);
 			resources.setTextContent(FileUtils.instance.getValidDir(builder.toString()));
 			shared.appendChild(resources);
+			// Optional precompressed files manifest.
+			if (this.precompressed != null) {
+				final Element precompressed = this.precompressed.toXML(document);
+				shared.appendChild(precompressed);
+			}
+		}
+		// Optional execution pool.
+		if (this.execution != null) {
+			final Element execution = this.execution.toXML(document);
+			shared.appendChild(execution);
 		}
 		return shared;
 	}
@@ -0,0 +1,42 @@
+package hemera.core.environment.ham.key;
+
+/**
+ * <code>KHAMPrecompressed</code> defines the enumerations
+ * of all the XML tags used in the precompressed files
+ * manifest of a <code>ham</code>, Hemera Application
+ * Model file.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum KHAMPrecompressed {
+	/**
+	 * The root tag.
+	 */
+	Root("precompressed"),
+	/**
+	 * The precompressed file tag.
+	 */
+	Asset("asset"),
+	/**
+	 * The relative path of the file tag.
+	 */
+	Path("asset-path"),
+	/**
+	 * The content encoding of a variant tag.
+	 */
+	Encoding("encoding");
+	
+	/**
+	 * The <code>String</code> tag.
+	 */
+	public final String tag;
+	
+	/**
+	 * Constructor of <code>KHAMPrecompressed</code>.
+	 * @param key The <code>String</code> tag.
+	 */
+	private KHAMPrecompressed(final String key) {
+		this.tag = key;
+	}
+}
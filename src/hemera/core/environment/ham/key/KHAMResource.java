@@ -24,7 +24,11 @@ public enum KHAMResource {
 	/**
 	 * The optional resource directory tag.
 	 */
-	ResourcesDir("resources-dir");
+	ResourcesDir("resources-dir"),
+	/**
+	 * The optional execution priority lane tag.
+	 */
+	Lane("lane");
 	
 	/**
 	 * The <code>String</code> tag.
@@ -7,6 +7,9 @@ import hemera.core.environment.hbm.key.KHBMResource;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
@@ -16,7 +19,7 @@ import org.w3c.dom.NodeList;
  * Hemera Bundle Model of an application.
  *
  * @author Yi Wang (Neakor)
- * @version 1.0.4
+ * @version 1.0.6
  */
 public class HBM extends AbstractTag {
 	/**
@@ -51,6 +54,51 @@ public class HBM extends AbstractTag {
 		this.resources = this.parseResources(docElement);
 	}
 
+	/**
+	 * Constructor of <code>HBM</code>.
+	 * <p>
+	 * This constructor parses the model in a single
+	 * forward pass without building a document tree.
+	 * @param reader The <code>XMLStreamReader</code>
+	 * positioned at the start of the root tag. The
+	 * reader is left at the end of the root tag.
+	 * @throws XMLStreamException If reading failed.
+	 */
+	public HBM(final XMLStreamReader reader) throws XMLStreamException {
+		super(reader, KHBM.Root.tag);
+		String applicationName = null;
+		String applicationPath = null;
+		HBMShared shared = null;
+		List<HBMResource> resources = null;
+		String tag = null;
+		while ((tag = this.nextChildTag(reader)) != null) {
+			if (tag.equals(KHBM.ApplicationName.tag)) {
+				applicationName = this.readTagValue(reader, applicationName);
+			} else if (tag.equals(KHBM.ApplicationPath.tag)) {
+				applicationPath = this.readTagValue(reader, applicationPath);
+			} else if (tag.equals(KHBM.Shared.tag)) {
+				if (shared != null) {
+					throw new IllegalArgumentException("Invalid HBM file. Must contain at most one shared tag.");
+				}
+				shared = new HBMShared(reader);
+			} else if (tag.equals(KHBM.Resources.tag)) {
+				if (resources != null) {
+					throw new IllegalArgumentException("Invalid HBM file. Must contain one resources tag.");
+				}
+				resources = this.parseResources(reader);
+			} else {
+				this.skipTag(reader);
+			}
+		}
+		if (resources == null) {
+			throw new IllegalArgumentException("Invalid HBM file. Must contain one resources tag.");
+		}
+		this.applicationName = this.verifyTagValue(applicationName, KHBM.ApplicationName.tag);
+		this.applicationPath = applicationPath;
+		this.shared = shared;
+		this.resources = resources;
+	}
+
 	/**
 	 * Parse the given XML document and retrieve the
 	 * shared section.
@@ -62,7 +110,10 @@ public class HBM extends AbstractTag {
 	private HBMShared parseShared(final Element document) {
 		// Retrieve shared tag.
 		final NodeList sharedtag = document.getElementsByTagName(KHBM.Shared.tag);
-		if (sharedtag == null || sharedtag.getLength() != 1) return null;
+		if (sharedtag == null || sharedtag.getLength() == 0) return null;
+		else if (sharedtag.getLength() > 1) {
+			throw new IllegalArgumentException("Invalid HBM file. Must contain at most one shared tag.");
+		}
 		// Parse shared.
 		final Element shared = (Element)sharedtag.item(0);
 		return new HBMShared(shared);
@@ -97,4 +148,27 @@ public class HBM extends AbstractTag {
 		}
 		return store;
 	}
+
+	/**
+	 * Parse the resources tag the given reader is at
+	 * the start of and retrieve the resources list.
+	 * @param reader The <code>XMLStreamReader</code>
+	 * at the start of the resources tag.
+	 * @return The <code>List</code> of all the parsed
+	 * <code>HBMResource</code>.
+	 * @throws XMLStreamException If reading failed.
+	 */
+	private List<HBMResource> parseResources(final XMLStreamReader reader) throws XMLStreamException {
+		final ArrayList<HBMResource> store = new ArrayList<HBMResource>();
+		String tag = null;
+		while ((tag = this.nextChildTag(reader)) != null) {
+			if (tag.equals(KHBMResource.Root.tag)) store.add(new HBMResource(reader));
+			else this.skipTag(reader);
+		}
+		if (store.isEmpty()) {
+			throw new IllegalArgumentException("Invalid HBM file. Must contain at least one resource tags.");
+		}
+		store.trimToSize();
+		return store;
+	}
 }
@@ -4,6 +4,9 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.w3c.dom.Element;
 
 import hemera.core.environment.AbstractTag;
@@ -17,7 +20,7 @@ import hemera.core.utility.FileUtils;
  * of an application or resource dependency.
  *
  * @author Yi Wang (Neakor)
- * @version 1.0.0
+ * @version 1.0.1
  */
 public class HBMDependency extends AbstractTag {
 	/**
@@ -50,6 +53,29 @@ public class HBMDependency extends AbstractTag {
 		}
 	}
 	
+	/**
+	 * Constructor of <code>HBMDependency</code>.
+	 * @param reader The <code>XMLStreamReader</code>
+	 * positioned at the start of the dependency tag.
+	 * @throws XMLStreamException If reading failed.
+	 */
+	HBMDependency(final XMLStreamReader reader) throws XMLStreamException {
+		super(reader, KHBMDependency.Root.tag);
+		String typeStr = null;
+		String value = null;
+		String libDir = null;
+		String tag = null;
+		while ((tag = this.nextChildTag(reader)) != null) {
+			if (tag.equals(KHBMDependency.Type.tag)) typeStr = this.readTagValue(reader, typeStr);
+			else if (tag.equals(KHBMDependency.Value.tag)) value = this.readTagValue(reader, value);
+			else if (tag.equals(KHBMDependency.LibraryDirectory.tag)) libDir = this.readTagValue(reader, libDir);
+			else this.skipTag(reader);
+		}
+		this.type = EDependencyType.parse(this.verifyTagValue(typeStr, KHBMDependency.Type.tag));
+		this.value = this.verifyTagValue(value, KHBMDependency.Value.tag);
+		this.libDir = (this.type == EDependencyType.SourceDirectory) ? libDir : null;
+	}
+
 	/**
 	 * Process this dependency and compile the source
 	 * files and retrieve Jar files to form a list of
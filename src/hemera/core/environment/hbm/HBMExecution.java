@@ -0,0 +1,108 @@
+package hemera.core.environment.hbm;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.w3c.dom.Element;
+
+import hemera.core.environment.AbstractTag;
+import hemera.core.environment.enumn.EExecutionMode;
+import hemera.core.environment.hbm.key.KHBMExecution;
+
+/**
+ * <code>HBMExecution</code> defines the data structure
+ * of a dedicated execution pool declared by a resource
+ * or the shared section of a Hemera Bundle Model. The
+ * tasks of a resource with a dedicated pool are isolated
+ * from the tasks of all other resources.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class HBMExecution extends AbstractTag {
+	/**
+	 * The <code>int</code> number of executors of the
+	 * pool.
+	 */
+	public final int poolSize;
+	/**
+	 * The <code>int</code> maximum number of queued
+	 * tasks. <code>0</code> if the queue is unbounded.
+	 */
+	public final int queueBound;
+	/**
+	 * The optional <code>EExecutionMode</code> of the
+	 * pool. <code>null</code> if the pool uses the mode
+	 * of the environment execution service.
+	 */
+	public final EExecutionMode mode;
+
+	/**
+	 * Constructor of <code>HBMExecution</code>.
+	 * @param node The execution <code>Element</code>.
+	 */
+	HBMExecution(final Element node) {
+		super(node, KHBMExecution.Root.tag);
+		final String poolSize = this.parseTagValue(node, KHBMExecution.PoolSize.tag, false);
+		final String queueBound = this.parseTagValue(node, KHBMExecution.QueueBound.tag, true);
+		final String mode = this.parseTagValue(node, KHBMExecution.Mode.tag, true);
+		this.poolSize = Integer.valueOf(poolSize.trim());
+		this.queueBound = (queueBound==null) ? 0 : Integer.valueOf(queueBound.trim());
+		this.mode = (mode==null) ? null : EExecutionMode.parse(mode.trim());
+		this.verify();
+	}
+
+	/**
+	 * Constructor of <code>HBMExecution</code>.
+	 * @param reader The <code>XMLStreamReader</code>
+	 * positioned at the start of the execution tag.
+	 * @throws XMLStreamException If reading failed.
+	 */
+	HBMExecution(final XMLStreamReader reader) throws XMLStreamException {
+		super(reader, KHBMExecution.Root.tag);
+		String poolSize = null;
+		String queueBound = null;
+		String mode = null;
+		String tag = null;
+		while ((tag = this.nextChildTag(reader)) != null) {
+			if (tag.equals(KHBMExecution.PoolSize.tag)) poolSize = this.readTagValue(reader, poolSize);
+			else if (tag.equals(KHBMExecution.QueueBound.tag)) queueBound = this.readTagValue(reader, queueBound);
+			else if (tag.equals(KHBMExecution.Mode.tag)) mode = this.readTagValue(reader, mode);
+			else this.skipTag(reader);
+		}
+		this.poolSize = Integer.valueOf(this.verifyTagValue(poolSize, KHBMExecution.PoolSize.tag).trim());
+		this.queueBound = (queueBound==null) ? 0 : Integer.valueOf(queueBound.trim());
+		this.mode = (mode==null) ? null : EExecutionMode.parse(mode.trim());
+		this.verify();
+	}
+
+	/**
+	 * Parse the execution tag the given reader is at
+	 * the start of.
+	 * @param reader The <code>XMLStreamReader</code>
+	 * at the start of an execution tag.
+	 * @param current The <code>HBMExecution</code>
+	 * already read for the same parent tag.
+	 * <code>null</code> if the tag has not been seen
+	 * yet.
+	 * @return The parsed <code>HBMExecution</code>.
+	 * @throws XMLStreamException If reading failed.
+	 */
+	static HBMExecution parse(final XMLStreamReader reader, final HBMExecution current) throws XMLStreamException {
+		if (current != null) {
+			throw new IllegalArgumentException("Invalid tag. Must contain one " + KHBMExecution.Root.tag + ".");
+		}
+		return new HBMExecution(reader);
+	}
+
+	/**
+	 * Verify the parsed values.
+	 */
+	private void verify() {
+		if (this.poolSize <= 0) {
+			throw new IllegalArgumentException("Invalid execution tag. Pool size must be positive.");
+		} else if (this.queueBound < 0) {
+			throw new IllegalArgumentException("Invalid execution tag. Queue bound must not be negative.");
+		}
+	}
+}
@@ -8,10 +8,13 @@ import java.util.List;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.TransformerException;
 
 import hemera.core.environment.AbstractTag;
 import hemera.core.environment.hbm.key.KHBMDependency;
+import hemera.core.environment.hbm.key.KHBMExecution;
 import hemera.core.environment.hbm.key.KHBMResource;
 import hemera.core.utility.FileUtils;
 
@@ -26,7 +29,7 @@ import org.xml.sax.SAXException;
  * representing a single resource node in a HBM file.
  *
  * @author Yi Wang (Neakor)
- * @version 1.0.0
+ * @version 1.0.2
  */
 public class HBMResource extends AbstractTag {
 	/**
@@ -54,6 +57,19 @@ public class HBMResource extends AbstractTag {
 	 * the resource does not have specific dependencies.
 	 */
 	public final List<HBMDependency> dependencies;
+	/**
+	 * The optional <code>HBMExecution</code> dedicated pool of
+	 * the resource. <code>null</code> if the resource
+	 * uses the shared pool.
+	 */
+	public final HBMExecution execution;
+	/**
+	 * The <code>String</code> optional name of the
+	 * execution priority lane of the resource.
+	 * <code>null</code> if the resource uses the
+	 * default lane.
+	 */
+	public final String lane;
 
 	/**
 	 * Constructor of <code>HBMResource</code>.
@@ -77,6 +93,76 @@ public class HBMResource extends AbstractTag {
 				this.dependencies.add(dependency);
 			}
 		}
+		// Parse optional execution pool.
+		final NodeList executionList = node.getElementsByTagName(KHBMExecution.Root.tag);
+		if (executionList == null || executionList.getLength() == 0) this.execution = null;
+		else if (executionList.getLength() == 1) this.execution = new HBMExecution((Element)executionList.item(0));
+		else throw new IllegalArgumentException("Invalid tag. Must contain one " + KHBMExecution.Root.tag + ".");
+		this.lane = this.parseTagValue(node, KHBMResource.Lane.tag, true);
+	}
+
+	/**
+	 * Constructor of <code>HBMResource</code>.
+	 * @param reader The <code>XMLStreamReader</code>
+	 * positioned at the start of the resource tag.
+	 * @throws XMLStreamException If reading failed.
+	 */
+	HBMResource(final XMLStreamReader reader) throws XMLStreamException {
+		super(reader, KHBMResource.Root.tag);
+		String srcDir = null;
+		String classname = null;
+		String configFile = null;
+		String resourcesDir = null;
+		List<HBMDependency> dependencies = null;
+		HBMExecution execution = null;
+		String lane = null;
+		String tag = null;
+		while ((tag = this.nextChildTag(reader)) != null) {
+			if (tag.equals(KHBMResource.SourceDir.tag)) {
+				srcDir = this.readTagValue(reader, srcDir);
+			} else if (tag.equals(KHBMResource.Classname.tag)) {
+				classname = this.readTagValue(reader, classname);
+			} else if (tag.equals(KHBMResource.ConfigFile.tag)) {
+				configFile = this.readTagValue(reader, configFile);
+			} else if (tag.equals(KHBMResource.ResourcesDir.tag)) {
+				resourcesDir = this.readTagValue(reader, resourcesDir);
+			} else if (tag.equals(KHBMResource.Dependencies.tag) && dependencies == null) {
+				dependencies = this.parseDependencies(reader);
+			} else if (tag.equals(KHBMExecution.Root.tag)) {
+				execution = HBMExecution.parse(reader, execution);
+			} else if (tag.equals(KHBMResource.Lane.tag)) {
+				lane = this.readTagValue(reader, lane);
+			} else {
+				this.skipTag(reader);
+			}
+		}
+		this.srcDir = this.verifyTagValue(srcDir, KHBMResource.SourceDir.tag);
+		this.classname = this.verifyTagValue(classname, KHBMResource.Classname.tag);
+		this.configFile = configFile;
+		this.resourcesDir = resourcesDir;
+		this.dependencies = (dependencies==null) ? new ArrayList<HBMDependency>() : dependencies;
+		this.execution = execution;
+		this.lane = lane;
+	}
+
+	/**
+	 * Parse the dependencies tag the given reader is
+	 * at the start of. Child tags other than the
+	 * dependency tags are skipped.
+	 * @param reader The <code>XMLStreamReader</code>
+	 * at the start of a dependencies tag.
+	 * @return The <code>List</code> of all the parsed
+	 * <code>HBMDependency</code>.
+	 * @throws XMLStreamException If reading failed.
+	 */
+	private List<HBMDependency> parseDependencies(final XMLStreamReader reader) throws XMLStreamException {
+		final ArrayList<HBMDependency> store = new ArrayList<HBMDependency>();
+		String tag = null;
+		while ((tag = this.nextChildTag(reader)) != null) {
+			if (tag.equals(KHBMDependency.Root.tag)) store.add(new HBMDependency(reader));
+			else this.skipTag(reader);
+		}
+		return store;
 	}
 	
 	/**
@@ -3,12 +3,16 @@ package hemera.core.environment.hbm;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
 import hemera.core.environment.AbstractTag;
 import hemera.core.environment.hbm.key.KHBM;
 import hemera.core.environment.hbm.key.KHBMDependency;
+import hemera.core.environment.hbm.key.KHBMExecution;
 import hemera.core.environment.hbm.key.KHBMShared;
 
 /**
@@ -16,7 +20,7 @@ import hemera.core.environment.hbm.key.KHBMShared;
  * of the shared section of a Hemera Bundle Model.
  *
  * @author Yi Wang (Neakor)
- * @version 1.0.0
+ * @version 1.0.2
  */
 public class HBMShared extends AbstractTag {
 	/**
@@ -35,6 +39,13 @@ public class HBMShared extends AbstractTag {
 	 * are no shared dependencies.
 	 */
 	public final List<HBMDependency> dependencies;
+	/**
+	 * The optional <code>HBMExecution</code> pool shared by
+	 * all resources without a dedicated pool.
+	 * <code>null</code> if those resources use the
+	 * environment execution service.
+	 */
+	public final HBMExecution execution;
 
 	/**
 	 * Constructor of <code>HBMShared</code>.
@@ -45,6 +56,43 @@ public class HBMShared extends AbstractTag {
 		this.configFile = this.parseTagValue(node, KHBMShared.ConfigFile.tag, true);
 		this.resourcesDir = this.parseTagValue(node, KHBMShared.ResourcesDir.tag, true);
 		this.dependencies = this.parseDependencies(node);
+		// Parse optional execution pool.
+		final NodeList executionList = node.getElementsByTagName(KHBMExecution.Root.tag);
+		if (executionList == null || executionList.getLength() == 0) this.execution = null;
+		else if (executionList.getLength() == 1) this.execution = new HBMExecution((Element)executionList.item(0));
+		else throw new IllegalArgumentException("Invalid tag. Must contain one " + KHBMExecution.Root.tag + ".");
+	}
+
+	/**
+	 * Constructor of <code>HBMShared</code>.
+	 * @param reader The <code>XMLStreamReader</code>
+	 * positioned at the start of the shared tag.
+	 * @throws XMLStreamException If reading failed.
+	 */
+	HBMShared(final XMLStreamReader reader) throws XMLStreamException {
+		super(reader, KHBM.Shared.tag);
+		String configFile = null;
+		String resourcesDir = null;
+		List<HBMDependency> dependencies = null;
+		HBMExecution execution = null;
+		String tag = null;
+		while ((tag = this.nextChildTag(reader)) != null) {
+			if (tag.equals(KHBMShared.ConfigFile.tag)) {
+				configFile = this.readTagValue(reader, configFile);
+			} else if (tag.equals(KHBMShared.ResourcesDir.tag)) {
+				resourcesDir = this.readTagValue(reader, resourcesDir);
+			} else if (tag.equals(KHBMShared.Dependencies.tag)) {
+				dependencies = this.parseDependencies(reader, dependencies);
+			} else if (tag.equals(KHBMExecution.Root.tag)) {
+				execution = HBMExecution.parse(reader, execution);
+			} else {
+				this.skipTag(reader);
+			}
+		}
+		this.configFile = configFile;
+		this.resourcesDir = resourcesDir;
+		this.dependencies = dependencies;
+		this.execution = execution;
 	}
 
 	/**
@@ -57,7 +105,10 @@ public class HBMShared extends AbstractTag {
 	 */
 	private List<HBMDependency> parseDependencies(final Element document) {
 		final NodeList list = document.getElementsByTagName(KHBMShared.Dependencies.tag);
-		if (list == null || list.getLength() != 1) return null;
+		if (list == null || list.getLength() == 0) return null;
+		else if (list.getLength() != 1) {
+			throw new IllegalArgumentException("Invalid tag. Must contain one " + KHBMShared.Dependencies.tag + ".");
+		}
 		final Element dependenciesRoot = (Element)list.item(0);
 		final NodeList dependenciesList = dependenciesRoot.getElementsByTagName(KHBMDependency.Root.tag);
 		final int size = dependenciesList.getLength();
@@ -68,4 +119,30 @@ public class HBMShared extends AbstractTag {
 		}
 		return store;
 	}
+
+	/**
+	 * Parse the dependencies tag the given reader is
+	 * at the start of. Child tags other than the
+	 * dependency tags are skipped.
+	 * @param reader The <code>XMLStreamReader</code>
+	 * at the start of a dependencies tag.
+	 * @param current The <code>List</code> of the
+	 * dependencies already read. <code>null</code> if
+	 * the tag has not been seen yet.
+	 * @return The <code>List</code> of all the parsed
+	 * <code>HBMDependency</code>.
+	 * @throws XMLStreamException If reading failed.
+	 */
+	private List<HBMDependency> parseDependencies(final XMLStreamReader reader, final List<HBMDependency> current) throws XMLStreamException {
+		if (current != null) {
+			throw new IllegalArgumentException("Invalid tag. Must contain one " + KHBMShared.Dependencies.tag + ".");
+		}
+		final ArrayList<HBMDependency> store = new ArrayList<HBMDependency>();
+		String tag = null;
+		while ((tag = this.nextChildTag(reader)) != null) {
+			if (tag.equals(KHBMDependency.Root.tag)) store.add(new HBMDependency(reader));
+			else this.skipTag(reader);
+		}
+		return store;
+	}
 }
@@ -0,0 +1,41 @@
+package hemera.core.environment.hbm.key;
+
+/**
+ * <code>KHBMExecution</code> defines the enumerations
+ * of all the XML tags used in the execution section of
+ * a <code>hbm</code>, Hemera Bundle Model file.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum KHBMExecution {
+	/**
+	 * The root tag.
+	 */
+	Root("execution"),
+	/**
+	 * The pool size tag.
+	 */
+	PoolSize("pool-size"),
+	/**
+	 * The optional queue bound tag.
+	 */
+	QueueBound("queue-bound"),
+	/**
+	 * The optional execution mode tag.
+	 */
+	Mode("mode");
+	
+	/**
+	 * The <code>String</code> tag.
+	 */
+	public final String tag;
+	
+	/**
+	 * Constructor of <code>KHBMExecution</code>.
+	 * @param key The <code>String</code> tag.
+	 */
+	private KHBMExecution(final String key) {
+		this.tag = key;
+	}
+}
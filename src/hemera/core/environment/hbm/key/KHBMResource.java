@@ -32,7 +32,11 @@ public enum KHBMResource {
 	/**
 	 * The optional dependencies tag.
 	 */
-	Dependencies("dependencies");
+	Dependencies("dependencies"),
+	/**
+	 * The optional execution priority lane tag.
+	 */
+	Lane("lane");
 	
 	/**
 	 * The <code>String</code> tag.
@@ -0,0 +1,121 @@
+package hemera.core.environment.simulation;
+
+import hemera.core.environment.config.ConfigAssistedService;
+import hemera.core.environment.execution.BoundedTaskBuffer;
+import hemera.core.environment.execution.TaskBatcher;
+import hemera.core.environment.util.UTime;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <code>AssistedSimulatedPool</code> defines the pool
+ * that simulates the assisted execution service.
+ * <p>
+ * Each of the configured number of executors drains
+ * its own <code>BoundedTaskBuffer</code> with a
+ * <code>TaskBatcher</code>, so the overflow policy and
+ * the batching behave as configured. Tasks are
+ * distributed to the executors in turn.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class AssistedSimulatedPool implements ISimulatedPool {
+	/**
+	 * The <code>BoundedTaskBuffer</code> array of the
+	 * executor buffers.
+	 */
+	private final BoundedTaskBuffer[] buffers;
+	/**
+	 * The <code>Thread</code> array of executors.
+	 */
+	private final Thread[] executors;
+	/**
+	 * The <code>AtomicInteger</code> index of the next
+	 * executor to submit to.
+	 */
+	private final AtomicInteger next;
+	/**
+	 * The <code>boolean</code> flag indicating if the
+	 * pool is shut down.
+	 */
+	private volatile boolean shutdown;
+
+	/**
+	 * Constructor of <code>AssistedSimulatedPool</code>.
+	 * @param config The <code>ConfigAssistedService</code>.
+	 * @param handler The <code>UncaughtExceptionHandler</code>
+	 * to report task failures to.
+	 */
+	public AssistedSimulatedPool(final ConfigAssistedService config, final Thread.UncaughtExceptionHandler handler) {
+		final long idleTime = UTime.instance.parse(config.idleTime, TimeUnit.NANOSECONDS);
+		this.buffers = new BoundedTaskBuffer[config.executorCount];
+		this.executors = new Thread[config.executorCount];
+		this.next = new AtomicInteger();
+		for (int i = 0; i < this.executors.length; i++) {
+			this.buffers[i] = new BoundedTaskBuffer(config.maxBufferSize, config.overflow);
+			final BoundedTaskBuffer buffer = this.buffers[i];
+			final TaskBatcher batcher = new TaskBatcher(buffer, config.batching, handler);
+			this.executors[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						while (!shutdown || buffer.size() > 0) {
+							batcher.runNext(idleTime, TimeUnit.NANOSECONDS);
+						}
+					} catch (final InterruptedException e) {
+						// Shut down.
+					}
+				}
+			}, "hemera-simulated-executor-" + i);
+			this.executors[i].setDaemon(true);
+			this.executors[i].start();
+		}
+	}
+
+	@Override
+	public void execute(final Runnable task) {
+		final int index = (this.next.getAndIncrement() & Integer.MAX_VALUE) % this.buffers.length;
+		this.buffers[index].offer(task);
+	}
+
+	@Override
+	public void block(final long nanos) {
+		final long deadline = System.nanoTime() + nanos;
+		for (long remaining = nanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+			LockSupport.parkNanos(remaining);
+		}
+	}
+
+	@Override
+	public int getThreadCount() {
+		return this.executors.length;
+	}
+
+	@Override
+	public long getDroppedCount() {
+		long count = 0;
+		for (final BoundedTaskBuffer buffer : this.buffers) {
+			count += buffer.getDroppedCount() + buffer.getShedCount();
+		}
+		return count;
+	}
+
+	@Override
+	public boolean shutdown(final long timeout, final TimeUnit unit) throws InterruptedException {
+		this.shutdown = true;
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		boolean terminated = true;
+		for (final Thread executor : this.executors) {
+			final long remaining = deadline - System.nanoTime();
+			if (remaining > 0) TimeUnit.NANOSECONDS.timedJoin(executor, remaining);
+			if (executor.isAlive()) {
+				executor.interrupt();
+				terminated = false;
+			}
+		}
+		return terminated;
+	}
+}
@@ -0,0 +1,161 @@
+package hemera.core.environment.simulation;
+
+import hemera.core.environment.config.ConfigScalableService;
+import hemera.core.environment.config.ConfigVirtualService;
+import hemera.core.environment.execution.IAdaptivePool;
+import hemera.core.environment.util.UTime;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <code>ExecutorSimulatedPool</code> defines the pool
+ * that simulates the scalable and the virtual execution
+ * services with a <code>ThreadPoolExecutor</code>.
+ * <p>
+ * The scalable service grows up to its maximum number
+ * of executors, and idle executors are retired after
+ * the configured timeout. With adaptive sizing enabled,
+ * the pool starts at the minimum number of executors
+ * and is resized by an <code>AdaptivePoolController</code>.
+ * <p>
+ * The virtual service is simulated with one platform
+ * thread per concurrently executing task, up to the
+ * maximum concurrency, and the tasks beyond it wait.
+ * This matches the concurrency and queueing of the
+ * virtual service, but not its thread cost.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class ExecutorSimulatedPool implements ISimulatedPool, IAdaptivePool {
+	/**
+	 * The <code>ThreadPoolExecutor</code> executing the
+	 * tasks.
+	 */
+	private final ThreadPoolExecutor executor;
+	/**
+	 * The <code>SimulationRecorder</code> providing the
+	 * measured totals.
+	 */
+	private final SimulationRecorder recorder;
+
+	/**
+	 * Constructor of <code>ExecutorSimulatedPool</code>.
+	 * @param config The <code>ConfigScalableService</code>.
+	 * @param recorder The <code>SimulationRecorder</code>.
+	 */
+	public ExecutorSimulatedPool(final ConfigScalableService config, final SimulationRecorder recorder) {
+		final int size = config.adaptive.enabled ? config.minExecutor : config.maxExecutor;
+		this.executor = this.createExecutor(size, UTime.instance.parse(config.timeout, TimeUnit.NANOSECONDS), "hemera-simulated-scalable-");
+		this.recorder = recorder;
+	}
+
+	/**
+	 * Constructor of <code>ExecutorSimulatedPool</code>.
+	 * @param config The <code>ConfigVirtualService</code>.
+	 * @param recorder The <code>SimulationRecorder</code>.
+	 */
+	public ExecutorSimulatedPool(final ConfigVirtualService config, final SimulationRecorder recorder) {
+		// Virtual threads are not pooled.
+		this.executor = this.createExecutor(config.maxConcurrency, TimeUnit.MILLISECONDS.toNanos(1), "hemera-simulated-virtual-");
+		this.recorder = recorder;
+	}
+
+	/**
+	 * Create the executor. The threads are created as
+	 * tasks arrive up to the given size, and retired
+	 * when idle.
+	 * @param size The <code>int</code> maximum number of
+	 * threads.
+	 * @param keepAlive The <code>long</code> time in
+	 * nanoseconds an idle thread is retired after.
+	 * @param prefix The <code>String</code> thread name
+	 * prefix.
+	 * @return The <code>ThreadPoolExecutor</code>.
+	 */
+	private ThreadPoolExecutor createExecutor(final int size, final long keepAlive, final String prefix) {
+		final AtomicInteger index = new AtomicInteger();
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, Math.max(1, keepAlive), TimeUnit.NANOSECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread thread = new Thread(r, prefix + index.getAndIncrement());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	@Override
+	public void execute(final Runnable task) {
+		this.executor.execute(task);
+	}
+
+	@Override
+	public void block(final long nanos) {
+		final long deadline = System.nanoTime() + nanos;
+		for (long remaining = nanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+			LockSupport.parkNanos(remaining);
+		}
+	}
+
+	@Override
+	public int getThreadCount() {
+		return this.executor.getPoolSize();
+	}
+
+	@Override
+	public long getDroppedCount() {
+		return 0;
+	}
+
+	@Override
+	public boolean shutdown(final long timeout, final TimeUnit unit) throws InterruptedException {
+		this.executor.shutdown();
+		if (this.executor.awaitTermination(timeout, unit)) return true;
+		this.executor.shutdownNow();
+		return false;
+	}
+
+	@Override
+	public int getPoolSize() {
+		return this.executor.getMaximumPoolSize();
+	}
+
+	@Override
+	public void setPoolSize(final int size) {
+		if (size > this.executor.getMaximumPoolSize()) {
+			this.executor.setMaximumPoolSize(size);
+			this.executor.setCorePoolSize(size);
+		} else {
+			this.executor.setCorePoolSize(size);
+			this.executor.setMaximumPoolSize(size);
+		}
+	}
+
+	@Override
+	public int getQueueSize() {
+		return this.executor.getQueue().size();
+	}
+
+	@Override
+	public long getCompletedCount() {
+		return this.recorder.getCompletedCount();
+	}
+
+	@Override
+	public long getTotalWaitTime() {
+		return this.recorder.getTotalWaitTime();
+	}
+
+	@Override
+	public long getTotalServiceTime() {
+		return this.recorder.getTotalServiceTime();
+	}
+}
@@ -0,0 +1,122 @@
+package hemera.core.environment.simulation;
+
+import hemera.core.environment.config.ConfigForkJoinService;
+import hemera.core.environment.enumn.ESaturationPolicy;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <code>ForkJoinSimulatedPool</code> defines the pool
+ * that simulates the fork-join execution service.
+ * <p>
+ * A blocking task blocks through the managed blocker
+ * mechanism, so the pool compensates with a spare
+ * thread. Once the configured number of spare threads
+ * are in use, the saturation policy either rejects the
+ * blocking task or lets it block without compensation.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class ForkJoinSimulatedPool implements ISimulatedPool {
+	/**
+	 * The <code>ForkJoinPool</code> executing the tasks.
+	 */
+	private final ForkJoinPool pool;
+	/**
+	 * The <code>Semaphore</code> of available spare
+	 * threads.
+	 */
+	private final Semaphore spares;
+	/**
+	 * The <code>ESaturationPolicy</code> applied when
+	 * all the spare threads are in use.
+	 */
+	private final ESaturationPolicy saturation;
+
+	/**
+	 * Constructor of <code>ForkJoinSimulatedPool</code>.
+	 * @param config The <code>ConfigForkJoinService</code>.
+	 */
+	public ForkJoinSimulatedPool(final ConfigForkJoinService config) {
+		this.pool = new ForkJoinPool(config.getParallelism(), ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, config.asyncMode);
+		this.spares = new Semaphore(config.spareThreads);
+		this.saturation = config.saturation;
+	}
+
+	@Override
+	public void execute(final Runnable task) {
+		this.pool.execute(task);
+	}
+
+	@Override
+	public void block(final long nanos) {
+		final Blocker blocker = new Blocker(nanos);
+		if (this.spares.tryAcquire()) {
+			try {
+				ForkJoinPool.managedBlock(blocker);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				this.spares.release();
+			}
+		} else if (this.saturation == ESaturationPolicy.Reject) {
+			throw new RejectedExecutionException("All spare threads are in use.");
+		} else {
+			while (!blocker.block());
+		}
+	}
+
+	@Override
+	public int getThreadCount() {
+		return this.pool.getPoolSize();
+	}
+
+	@Override
+	public long getDroppedCount() {
+		return 0;
+	}
+
+	@Override
+	public boolean shutdown(final long timeout, final TimeUnit unit) throws InterruptedException {
+		this.pool.shutdown();
+		if (this.pool.awaitTermination(timeout, unit)) return true;
+		this.pool.shutdownNow();
+		return false;
+	}
+
+	/**
+	 * <code>Blocker</code> defines the managed blocker
+	 * that parks until its deadline.
+	 */
+	private static class Blocker implements ForkJoinPool.ManagedBlocker {
+		/**
+		 * The <code>long</code> deadline in nanoseconds.
+		 */
+		private final long deadline;
+
+		/**
+		 * Constructor of <code>Blocker</code>.
+		 * @param nanos The <code>long</code> time to block.
+		 */
+		private Blocker(final long nanos) {
+			this.deadline = System.nanoTime() + nanos;
+		}
+
+		@Override
+		public boolean block() {
+			final long remaining = this.deadline - System.nanoTime();
+			if (remaining > 0) LockSupport.parkNanos(remaining);
+			return this.isReleasable();
+		}
+
+		@Override
+		public boolean isReleasable() {
+			return (System.nanoTime() >= this.deadline);
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package hemera.core.environment.simulation;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <code>ISimulatedPool</code> defines the interface of
+ * an execution pool the <code>LoadSimulator</code>
+ * drives, which behaves like the execution service of
+ * a configured execution mode.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public interface ISimulatedPool {
+
+	/**
+	 * Submit the given task for execution.
+	 * @param task The <code>Runnable</code> task.
+	 * @throws RejectedExecutionException If the pool
+	 * rejects the task.
+	 */
+	public void execute(final Runnable task);
+
+	/**
+	 * Block the calling executor thread for the given
+	 * time, the way a task of this pool blocks on I/O.
+	 * @param nanos The <code>long</code> time in
+	 * nanoseconds.
+	 * @throws RejectedExecutionException If the pool
+	 * rejects the blocking task.
+	 */
+	public void block(final long nanos);
+
+	/**
+	 * Retrieve the current number of executor threads.
+	 * @return The <code>int</code> number of threads.
+	 */
+	public int getThreadCount();
+
+	/**
+	 * Retrieve the number of accepted tasks that were
+	 * discarded before they were executed.
+	 * @return The <code>long</code> number of tasks.
+	 */
+	public long getDroppedCount();
+
+	/**
+	 * Stop accepting tasks and wait up to the given
+	 * time for the accepted tasks to complete. The
+	 * executor threads still running afterwards are
+	 * interrupted.
+	 * @param timeout The <code>long</code> time to wait.
+	 * @param unit The <code>TimeUnit</code> of the time.
+	 * @return <code>true</code> if all the accepted
+	 * tasks completed.
+	 * @throws InterruptedException If interrupted while
+	 * waiting.
+	 */
+	public boolean shutdown(final long timeout, final TimeUnit unit) throws InterruptedException;
+}
@@ -0,0 +1,404 @@
+package hemera.core.environment.simulation;
+
+import hemera.core.environment.config.ConfigExecutionService;
+import hemera.core.environment.config.Configuration;
+import hemera.core.environment.enumn.EArrivalProcess;
+import hemera.core.environment.enumn.EExecutionMode;
+import hemera.core.environment.execution.AdaptivePoolController;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.w3c.dom.Document;
+
+/**
+ * <code>LoadSimulator</code> defines the unit that
+ * drives a pool equivalent to the configured execution
+ * service with a <code>SimulationProfile</code>, so the
+ * execution service configuration can be tuned offline.
+ * <p>
+ * The open arrival processes submit tasks at their
+ * intended arrival times, and the response times are
+ * measured from those times. A pool that cannot keep
+ * up therefore shows its queueing delay, even when it
+ * holds up the generator. The closed loop process runs
+ * one thread per client.
+ * <p>
+ * The load is first applied for the warmup time, then
+ * measured for the duration. The number of executor
+ * threads is sampled during the measured duration.
+ * <p>
+ * The simulator can be run from the command line with
+ * the path to a configuration file, followed by the
+ * <code>key=value</code> pairs of the profile.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class LoadSimulator {
+	/**
+	 * The <code>long</code> interval in milliseconds
+	 * the number of threads is sampled at.
+	 */
+	private static final long SampleInterval = 100;
+	/**
+	 * The <code>long</code> time in seconds the pool
+	 * is given to complete the accepted tasks.
+	 */
+	private static final long DrainTimeout = 10;
+	/**
+	 * The <code>ConfigExecutionService</code> to
+	 * simulate.
+	 */
+	private final ConfigExecutionService config;
+	/**
+	 * The <code>Logger</code> task failures are logged
+	 * to.
+	 */
+	private final Logger logger;
+
+	/**
+	 * Constructor of <code>LoadSimulator</code>.
+	 * @param config The <code>ConfigExecutionService</code>
+	 * to simulate.
+	 */
+	public LoadSimulator(final ConfigExecutionService config) {
+		this.config = config;
+		this.logger = Logger.getLogger(LoadSimulator.class.getName());
+	}
+
+	/**
+	 * Apply the given load to a new pool and measure
+	 * its behavior. This method blocks for the warmup
+	 * and the measured duration.
+	 * @param profile The <code>SimulationProfile</code>.
+	 * @return The <code>SimulationReport</code>.
+	 * @throws InterruptedException If interrupted while
+	 * simulating.
+	 */
+	public SimulationReport run(final SimulationProfile profile) throws InterruptedException {
+		profile.validate();
+		final SimulationRecorder recorder = new SimulationRecorder(this.config.listener);
+		final ISimulatedPool pool = this.createPool(recorder);
+		AdaptivePoolController controller = null;
+		if (this.config.mode == EExecutionMode.Scalable && this.config.scalable.adaptive.enabled) {
+			controller = new AdaptivePoolController((ExecutorSimulatedPool)pool, this.config.scalable);
+			controller.start();
+		}
+		final Measurement measurement = new Measurement(pool, recorder);
+		final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread thread = new Thread(r, "hemera-simulation-sampler");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		final long start = System.nanoTime();
+		final long warmup = profile.getWarmup(TimeUnit.NANOSECONDS);
+		final long end = start + warmup + profile.getDuration(TimeUnit.NANOSECONDS);
+		try {
+			sampler.schedule(new Runnable() {
+				@Override
+				public void run() {
+					measurement.start();
+				}
+			}, warmup, TimeUnit.NANOSECONDS);
+			sampler.scheduleAtFixedRate(measurement, warmup, TimeUnit.MILLISECONDS.toNanos(LoadSimulator.SampleInterval), TimeUnit.NANOSECONDS);
+			if (profile.arrival == EArrivalProcess.ClosedLoop) {
+				this.runClients(profile, pool, recorder, end);
+			} else {
+				this.generate(profile, pool, recorder, start, end);
+			}
+			measurement.stop();
+		} finally {
+			sampler.shutdownNow();
+			if (controller != null) controller.stop();
+			pool.shutdown(LoadSimulator.DrainTimeout, TimeUnit.SECONDS);
+		}
+		sampler.awaitTermination(LoadSimulator.DrainTimeout, TimeUnit.SECONDS);
+		return measurement.createReport(profile);
+	}
+
+	/**
+	 * Create the pool of the configured execution mode.
+	 * @param recorder The <code>SimulationRecorder</code>.
+	 * @return The <code>ISimulatedPool</code>.
+	 */
+	private ISimulatedPool createPool(final SimulationRecorder recorder) {
+		switch (this.config.mode) {
+		case Scalable: return new ExecutorSimulatedPool(this.config.scalable, recorder);
+		case Virtual: return new ExecutorSimulatedPool(this.config.virtual, recorder);
+		case ForkJoin: return new ForkJoinSimulatedPool(this.config.forkJoin);
+		default:
+			return new AssistedSimulatedPool(this.config.assisted, new Thread.UncaughtExceptionHandler() {
+				@Override
+				public void uncaughtException(final Thread t, final Throwable e) {
+					logger.log(Level.WARNING, "Simulated task failed.", e);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Submit tasks with the open arrival process of the
+	 * given profile until the given end time.
+	 * <p>
+	 * The inter-arrival times are sampled in the time
+	 * the process is active, which is then mapped onto
+	 * the bursts. A Poisson process is always active.
+	 * @param profile The <code>SimulationProfile</code>.
+	 * @param pool The <code>ISimulatedPool</code>.
+	 * @param recorder The <code>SimulationRecorder</code>.
+	 * @param start The <code>long</code> start time in
+	 * nanoseconds.
+	 * @param end The <code>long</code> end time in
+	 * nanoseconds.
+	 */
+	private void generate(final SimulationProfile profile, final ISimulatedPool pool, final SimulationRecorder recorder, final long start, final long end) {
+		final Random random = new Random();
+		final long serviceMean = profile.getServiceMean(TimeUnit.NANOSECONDS);
+		final double factor = (profile.arrival == EArrivalProcess.Bursty) ? profile.burstFactor : 1;
+		final double interval = TimeUnit.SECONDS.toNanos(1) / (profile.rate * factor);
+		final long period = (profile.arrival == EArrivalProcess.Bursty) ? profile.getBurstPeriod(TimeUnit.NANOSECONDS) : Long.MAX_VALUE;
+		final long active = Math.max(1, (long)(period / factor));
+		double elapsed = 0;
+		while (true) {
+			elapsed += -Math.log(1 - random.nextDouble()) * interval;
+			final long activeTime = (long)elapsed;
+			final long arrival = start + (activeTime / active) * period + (activeTime % active);
+			if (arrival >= end || arrival < start) return;
+			final long delay = arrival - System.nanoTime();
+			if (delay > 0) LockSupport.parkNanos(delay);
+			final long service = profile.service.sample(random, serviceMean, profile.serviceSigma);
+			this.submit(new SimulatedTask(arrival, service, profile.cpuBound, pool, recorder), pool, recorder);
+		}
+	}
+
+	/**
+	 * Run the closed loop clients of the given profile
+	 * until the given end time.
+	 * @param profile The <code>SimulationProfile</code>.
+	 * @param pool The <code>ISimulatedPool</code>.
+	 * @param recorder The <code>SimulationRecorder</code>.
+	 * @param end The <code>long</code> end time in
+	 * nanoseconds.
+	 * @throws InterruptedException If interrupted while
+	 * waiting for the clients.
+	 */
+	private void runClients(final SimulationProfile profile, final ISimulatedPool pool, final SimulationRecorder recorder, final long end) throws InterruptedException {
+		final long serviceMean = profile.getServiceMean(TimeUnit.NANOSECONDS);
+		final long thinkTime = profile.getThinkTime(TimeUnit.NANOSECONDS);
+		final Thread[] clients = new Thread[profile.clients];
+		for (int i = 0; i < clients.length; i++) {
+			clients[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					final Random random = new Random();
+					while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+						final long service = profile.service.sample(random, serviceMean, profile.serviceSigma);
+						final SimulatedTask task = new SimulatedTask(System.nanoTime(), service, profile.cpuBound, pool, recorder);
+						long think = (long)(-Math.log(1 - random.nextDouble()) * thinkTime);
+						if (submit(task, pool, recorder)) {
+							try {
+								task.get();
+							} catch (final CancellationException e) {
+								// Discarded by the pool.
+							} catch (final ExecutionException e) {
+								// Recorded by the task.
+							} catch (final InterruptedException e) {
+								return;
+							}
+						} else {
+							// Back off instead of retrying immediately.
+							think = Math.max(think, serviceMean);
+						}
+						if (think > 0) LockSupport.parkNanos(think);
+					}
+				}
+			}, "hemera-simulation-client-" + i);
+			clients[i].setDaemon(true);
+			clients[i].start();
+		}
+		try {
+			for (final Thread client : clients) {
+				client.join();
+			}
+		} finally {
+			for (final Thread client : clients) {
+				client.interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Submit the given task to the given pool.
+	 * @param task The <code>SimulatedTask</code>.
+	 * @param pool The <code>ISimulatedPool</code>.
+	 * @param recorder The <code>SimulationRecorder</code>.
+	 * @return <code>true</code> if the task is accepted.
+	 * <code>false</code> if it is rejected.
+	 */
+	private boolean submit(final SimulatedTask task, final ISimulatedPool pool, final SimulationRecorder recorder) {
+		recorder.recordSubmission(task.getArrival());
+		try {
+			pool.execute(task);
+			return true;
+		} catch (final RejectedExecutionException e) {
+			recorder.recordRejection(task.getArrival());
+			return false;
+		}
+	}
+
+	/**
+	 * Run the load simulator against the execution
+	 * service of the given configuration file.
+	 * @param args The <code>String</code> array of the
+	 * configuration file path, followed by the profile
+	 * <code>key=value</code> pairs.
+	 * @throws Exception If any processing failed.
+	 */
+	public static void main(final String[] args) throws Exception {
+		if (args.length < 1) {
+			System.out.println("Usage: LoadSimulator <configuration-file> [key=value]...");
+			System.out.println("Keys: arrival (poisson|bursty|closed-loop), rate, burst-factor, burst-period, clients, think-time,");
+			System.out.println("      service (constant|exponential|lognormal), service-mean, service-sigma, cpu-bound, warmup, duration");
+			return;
+		}
+		final Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new File(args[0]));
+		final Configuration config = new Configuration(document);
+		config.validate();
+		final SimulationProfile profile = new SimulationProfile(Arrays.copyOfRange(args, 1, args.length));
+		final SimulationReport report = new LoadSimulator(config.runtime.execution).run(profile);
+		System.out.println(report);
+	}
+
+	/**
+	 * <code>Measurement</code> defines the unit that
+	 * marks the measured duration and samples the
+	 * number of executor threads during it.
+	 * <p>
+	 * All the values are written by the sampler thread
+	 * and read after it terminates.
+	 */
+	private class Measurement implements Runnable {
+		/**
+		 * The <code>ISimulatedPool</code> to sample.
+		 */
+		private final ISimulatedPool pool;
+		/**
+		 * The <code>SimulationRecorder</code>.
+		 */
+		private final SimulationRecorder recorder;
+		/**
+		 * The <code>ThreadMXBean</code> providing the peak
+		 * number of live threads.
+		 */
+		private final ThreadMXBean threads;
+		/**
+		 * The <code>long</code> start time in nanoseconds.
+		 * Or <code>0</code> if not started.
+		 */
+		private volatile long startTime;
+		/**
+		 * The <code>long</code> stop time in nanoseconds.
+		 */
+		private volatile long stopTime;
+		/**
+		 * The <code>long</code> completed count at start.
+		 */
+		private long startCompleted;
+		/**
+		 * The <code>long</code> dropped count at start.
+		 */
+		private long startDropped;
+		/**
+		 * The <code>long</code> completed count at stop.
+		 */
+		private volatile long stopCompleted;
+		/**
+		 * The <code>int</code> number of samples.
+		 */
+		private int samples;
+		/**
+		 * The <code>long</code> sum of the sampled number
+		 * of threads.
+		 */
+		private long total;
+		/**
+		 * The <code>int</code> peak number of threads.
+		 */
+		private int peak;
+
+		/**
+		 * Constructor of <code>Measurement</code>.
+		 * @param pool The <code>ISimulatedPool</code>.
+		 * @param recorder The <code>SimulationRecorder</code>.
+		 */
+		private Measurement(final ISimulatedPool pool, final SimulationRecorder recorder) {
+			this.pool = pool;
+			this.recorder = recorder;
+			this.threads = ManagementFactory.getThreadMXBean();
+		}
+
+		/**
+		 * Start the measured duration.
+		 */
+		private void start() {
+			this.startCompleted = this.recorder.getCompletedCount();
+			this.startDropped = this.pool.getDroppedCount();
+			this.threads.resetPeakThreadCount();
+			final long now = System.nanoTime();
+			this.recorder.start(now);
+			this.startTime = now;
+		}
+
+		@Override
+		public void run() {
+			if (this.startTime == 0 || this.stopTime != 0) return;
+			final int count = this.pool.getThreadCount();
+			this.samples++;
+			this.total += count;
+			this.peak = Math.max(this.peak, count);
+		}
+
+		/**
+		 * Stop the measured duration.
+		 */
+		private void stop() {
+			this.stopCompleted = this.recorder.getCompletedCount();
+			this.stopTime = System.nanoTime();
+		}
+
+		/**
+		 * Create the report of the measured duration. The
+		 * latencies include the measured tasks completed
+		 * while the pool was drained.
+		 * @param profile The <code>SimulationProfile</code>.
+		 * @return The <code>SimulationReport</code>.
+		 */
+		private SimulationReport createReport(final SimulationProfile profile) {
+			if (this.startTime == 0) throw new IllegalStateException("Simulation ended before the warmup completed.");
+			final double seconds = (this.stopTime - this.startTime) / (double)TimeUnit.SECONDS.toNanos(1);
+			final long completed = this.stopCompleted - this.startCompleted;
+			final long dropped = this.pool.getDroppedCount() - this.startDropped;
+			final double mean = (this.samples == 0) ? 0 : this.total / (double)this.samples;
+			return new SimulationReport(config.mode, profile, seconds, this.recorder.getSubmittedCount(), completed, this.recorder.getRejectedCount(), dropped, this.recorder.getWaitSnapshot(), this.recorder.getExecutionSnapshot(), this.recorder.getResponseSnapshot(), this.peak, mean, this.threads.getPeakThreadCount());
+		}
+	}
+}
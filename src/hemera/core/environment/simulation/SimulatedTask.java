@@ -0,0 +1,88 @@
+package hemera.core.environment.simulation;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * <code>SimulatedTask</code> defines the task submitted
+ * by the <code>LoadSimulator</code>, which occupies its
+ * executor for a sampled service time.
+ * <p>
+ * The task is a <code>Future</code>, so a task that is
+ * discarded by the overflow policy is cancelled and a
+ * client waiting for it is released.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+class SimulatedTask extends FutureTask<Void> {
+	/**
+	 * The <code>long</code> intended arrival time in
+	 * nanoseconds.
+	 */
+	private final long arrival;
+	/**
+	 * The <code>SimulationRecorder</code> to record the
+	 * outcome with.
+	 */
+	private final SimulationRecorder recorder;
+
+	/**
+	 * Constructor of <code>SimulatedTask</code>.
+	 * @param arrival The <code>long</code> intended
+	 * arrival time in nanoseconds.
+	 * @param service The <code>long</code> service time
+	 * in nanoseconds.
+	 * @param cpuBound <code>true</code> if the task keeps
+	 * the processor busy. <code>false</code> if it blocks.
+	 * @param pool The <code>ISimulatedPool</code> that
+	 * executes the task.
+	 * @param recorder The <code>SimulationRecorder</code>.
+	 */
+	SimulatedTask(final long arrival, final long service, final boolean cpuBound, final ISimulatedPool pool, final SimulationRecorder recorder) {
+		super(new Callable<Void>() {
+			@Override
+			public Void call() {
+				if (cpuBound) {
+					final long deadline = System.nanoTime() + service;
+					while (System.nanoTime() < deadline) {
+						// Busy.
+					}
+				} else {
+					pool.block(service);
+				}
+				return null;
+			}
+		});
+		this.arrival = arrival;
+		this.recorder = recorder;
+	}
+
+	/**
+	 * Retrieve the intended arrival time.
+	 * @return The <code>long</code> time in nanoseconds.
+	 */
+	long getArrival() {
+		return this.arrival;
+	}
+
+	@Override
+	public void run() {
+		if (this.isDone()) return;
+		final long start = System.nanoTime();
+		super.run();
+		final long end = System.nanoTime();
+		try {
+			this.get();
+			this.recorder.recordCompletion(this.arrival, Math.max(0, start - this.arrival), end - start);
+		} catch (final CancellationException e) {
+			// Discarded while executing.
+		} catch (final ExecutionException e) {
+			this.recorder.recordRejection(this.arrival);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
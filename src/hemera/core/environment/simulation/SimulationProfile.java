@@ -0,0 +1,222 @@
+package hemera.core.environment.simulation;
+
+import hemera.core.environment.enumn.EArrivalProcess;
+import hemera.core.environment.enumn.EServiceDistribution;
+import hemera.core.environment.util.UTime;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <code>SimulationProfile</code> defines the structure
+ * of the load a <code>LoadSimulator</code> applies to
+ * the execution service.
+ * <p>
+ * The profile is created from <code>key=value</code>
+ * pairs. Time values use the same format as the
+ * environment configuration, for example
+ * <code>duration=30 SECONDS</code>. All the values
+ * are optional.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class SimulationProfile {
+	/**
+	 * The <code>EArrivalProcess</code> of the tasks.
+	 */
+	public final EArrivalProcess arrival;
+	/**
+	 * The <code>double</code> average number of tasks
+	 * submitted per second by the open arrival
+	 * processes.
+	 */
+	public final double rate;
+	/**
+	 * The <code>double</code> factor the rate is
+	 * multiplied by during a burst. A burst lasts the
+	 * inverse of this factor of each burst period.
+	 */
+	public final double burstFactor;
+	/**
+	 * The <code>String</code> period bursts repeat at.
+	 */
+	public final String burstPeriod;
+	/**
+	 * The <code>int</code> number of clients of the
+	 * closed loop arrival process.
+	 */
+	public final int clients;
+	/**
+	 * The <code>String</code> mean time a client of
+	 * the closed loop arrival process waits between
+	 * a completed task and the next one.
+	 */
+	public final String thinkTime;
+	/**
+	 * The <code>EServiceDistribution</code> of the task
+	 * service times.
+	 */
+	public final EServiceDistribution service;
+	/**
+	 * The <code>String</code> mean service time.
+	 */
+	public final String serviceMean;
+	/**
+	 * The <code>double</code> shape of the log-normal
+	 * service time distribution.
+	 */
+	public final double serviceSigma;
+	/**
+	 * The <code>boolean</code> flag indicating if the
+	 * tasks keep the processor busy for their service
+	 * time. Otherwise they block, like tasks waiting on
+	 * I/O.
+	 */
+	public final boolean cpuBound;
+	/**
+	 * The <code>String</code> time the load is applied
+	 * before measuring.
+	 */
+	public final String warmup;
+	/**
+	 * The <code>String</code> time the load is measured.
+	 */
+	public final String duration;
+
+	/**
+	 * Constructor of <code>SimulationProfile</code>.
+	 * @param args The <code>String</code> array of
+	 * <code>key=value</code> pairs.
+	 */
+	public SimulationProfile(final String... args) {
+		final Map<String, String> values = new HashMap<String, String>();
+		for (final String arg : args) {
+			final int index = arg.indexOf('=');
+			if (index <= 0) throw new IllegalArgumentException("Invalid simulation argument: " + arg);
+			values.put(arg.substring(0, index).trim(), arg.substring(index + 1).trim());
+		}
+		this.arrival = EArrivalProcess.parse(this.remove(values, "arrival", EArrivalProcess.Poisson.value));
+		this.rate = Double.valueOf(this.remove(values, "rate", "1000"));
+		this.burstFactor = Double.valueOf(this.remove(values, "burst-factor", "10"));
+		this.burstPeriod = this.remove(values, "burst-period", "1 " + TimeUnit.SECONDS.name());
+		this.clients = Integer.valueOf(this.remove(values, "clients", "100"));
+		this.thinkTime = this.remove(values, "think-time", "0 " + TimeUnit.MILLISECONDS.name());
+		this.service = EServiceDistribution.parse(this.remove(values, "service", EServiceDistribution.Exponential.value));
+		this.serviceMean = this.remove(values, "service-mean", "1 " + TimeUnit.MILLISECONDS.name());
+		this.serviceSigma = Double.valueOf(this.remove(values, "service-sigma", "1"));
+		this.cpuBound = Boolean.valueOf(this.remove(values, "cpu-bound", "false"));
+		this.warmup = this.remove(values, "warmup", "5 " + TimeUnit.SECONDS.name());
+		this.duration = this.remove(values, "duration", "30 " + TimeUnit.SECONDS.name());
+		if (!values.isEmpty()) {
+			throw new IllegalArgumentException("Unsupported simulation arguments: " + values.keySet());
+		}
+	}
+
+	/**
+	 * Remove the value of the given key.
+	 * @param values The <code>Map</code> of values.
+	 * @param key The <code>String</code> key.
+	 * @param defaultValue The <code>String</code> value
+	 * to use if the key is not given.
+	 * @return The <code>String</code> value.
+	 */
+	private String remove(final Map<String, String> values, final String key, final String defaultValue) {
+		final String value = values.remove(key);
+		return (value == null) ? defaultValue : value;
+	}
+
+	/**
+	 * Validate the values of this profile.
+	 * @throws IllegalArgumentException If any value
+	 * is invalid.
+	 */
+	public void validate() {
+		if (this.rate <= 0) {
+			throw new IllegalArgumentException("Invalid simulation profile. Rate must be positive.");
+		} else if (this.burstFactor < 1) {
+			throw new IllegalArgumentException("Invalid simulation profile. Burst factor must be at least 1.");
+		} else if (this.getBurstPeriod(TimeUnit.NANOSECONDS) <= 0) {
+			throw new IllegalArgumentException("Invalid simulation profile. Burst period must be positive.");
+		} else if (this.clients <= 0) {
+			throw new IllegalArgumentException("Invalid simulation profile. Clients must be positive.");
+		} else if (this.getThinkTime(TimeUnit.NANOSECONDS) < 0) {
+			throw new IllegalArgumentException("Invalid simulation profile. Think time must not be negative.");
+		} else if (this.getServiceMean(TimeUnit.NANOSECONDS) < 0) {
+			throw new IllegalArgumentException("Invalid simulation profile. Service mean must not be negative.");
+		} else if (this.serviceSigma <= 0) {
+			throw new IllegalArgumentException("Invalid simulation profile. Service sigma must be positive.");
+		} else if (this.getWarmup(TimeUnit.NANOSECONDS) < 0) {
+			throw new IllegalArgumentException("Invalid simulation profile. Warmup must not be negative.");
+		} else if (this.getDuration(TimeUnit.NANOSECONDS) <= 0) {
+			throw new IllegalArgumentException("Invalid simulation profile. Duration must be positive.");
+		}
+	}
+
+	/**
+	 * Retrieve the burst period.
+	 * @param unit The <code>TimeUnit</code> to retrieve
+	 * the time in.
+	 * @return The <code>long</code> time.
+	 */
+	public long getBurstPeriod(final TimeUnit unit) {
+		return UTime.instance.parse(this.burstPeriod, unit);
+	}
+
+	/**
+	 * Retrieve the mean think time.
+	 * @param unit The <code>TimeUnit</code> to retrieve
+	 * the time in.
+	 * @return The <code>long</code> time.
+	 */
+	public long getThinkTime(final TimeUnit unit) {
+		return UTime.instance.parse(this.thinkTime, unit);
+	}
+
+	/**
+	 * Retrieve the mean service time.
+	 * @param unit The <code>TimeUnit</code> to retrieve
+	 * the time in.
+	 * @return The <code>long</code> time.
+	 */
+	public long getServiceMean(final TimeUnit unit) {
+		return UTime.instance.parse(this.serviceMean, unit);
+	}
+
+	/**
+	 * Retrieve the warmup time.
+	 * @param unit The <code>TimeUnit</code> to retrieve
+	 * the time in.
+	 * @return The <code>long</code> time.
+	 */
+	public long getWarmup(final TimeUnit unit) {
+		return UTime.instance.parse(this.warmup, unit);
+	}
+
+	/**
+	 * Retrieve the measured duration.
+	 * @param unit The <code>TimeUnit</code> to retrieve
+	 * the time in.
+	 * @return The <code>long</code> time.
+	 */
+	public long getDuration(final TimeUnit unit) {
+		return UTime.instance.parse(this.duration, unit);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("arrival=").append(this.arrival.value);
+		if (this.arrival == EArrivalProcess.ClosedLoop) {
+			builder.append(" clients=").append(this.clients).append(" think-time=").append(this.thinkTime);
+		} else {
+			builder.append(" rate=").append(this.rate);
+			if (this.arrival == EArrivalProcess.Bursty) builder.append(" burst-factor=").append(this.burstFactor).append(" burst-period=").append(this.burstPeriod);
+		}
+		builder.append(" service=").append(this.service.value).append(" service-mean=").append(this.serviceMean);
+		if (this.service == EServiceDistribution.LogNormal) builder.append(" service-sigma=").append(this.serviceSigma);
+		builder.append(" cpu-bound=").append(this.cpuBound);
+		return builder.toString();
+	}
+}
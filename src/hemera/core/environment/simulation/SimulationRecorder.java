@@ -0,0 +1,196 @@
+package hemera.core.environment.simulation;
+
+import hemera.core.environment.config.ConfigListener;
+import hemera.core.environment.execution.LatencyHistogram;
+import hemera.core.environment.execution.LatencySnapshot;
+import hemera.core.environment.execution.MetricsListener;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <code>SimulationRecorder</code> defines the unit that
+ * records the outcome of every simulated task.
+ * <p>
+ * The queue wait and execution times are recorded by a
+ * <code>MetricsListener</code> created from the listener
+ * configuration, exactly as the execution service would.
+ * The response time is measured from the intended
+ * arrival time of the task, so a generator that falls
+ * behind does not hide the queueing delay.
+ * <p>
+ * Only the tasks that arrive after the measurement is
+ * started are measured, so all the measurements cover
+ * the same tasks. The completed count and the totals
+ * include all the tasks, so they can be sampled by an
+ * <code>AdaptivePoolController</code>.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class SimulationRecorder {
+	/**
+	 * The <code>MetricsListener</code> recording the
+	 * wait and execution times and the rejections.
+	 */
+	private final MetricsListener metrics;
+	/**
+	 * The <code>LatencyHistogram</code> of the response
+	 * times.
+	 */
+	private final LatencyHistogram response;
+	/**
+	 * The <code>AtomicLong</code> number of measured
+	 * submitted tasks.
+	 */
+	private final AtomicLong submitted;
+	/**
+	 * The <code>AtomicLong</code> number of completed
+	 * tasks.
+	 */
+	private final AtomicLong completed;
+	/**
+	 * The <code>AtomicLong</code> total wait time in
+	 * nanoseconds.
+	 */
+	private final AtomicLong totalWait;
+	/**
+	 * The <code>AtomicLong</code> total service time in
+	 * nanoseconds.
+	 */
+	private final AtomicLong totalService;
+	/**
+	 * The <code>long</code> time in nanoseconds the
+	 * measured tasks arrive from.
+	 */
+	private volatile long start;
+
+	/**
+	 * Constructor of <code>SimulationRecorder</code>.
+	 * @param config The <code>ConfigListener</code>.
+	 */
+	public SimulationRecorder(final ConfigListener config) {
+		this.metrics = new MetricsListener(config);
+		this.response = new LatencyHistogram(config.significantDigits, config.getHighestLatency(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+		this.submitted = new AtomicLong();
+		this.completed = new AtomicLong();
+		this.totalWait = new AtomicLong();
+		this.totalService = new AtomicLong();
+		this.start = Long.MAX_VALUE;
+	}
+
+	/**
+	 * Start measuring the tasks that arrive from the
+	 * given time.
+	 * @param time The <code>long</code> time in
+	 * nanoseconds.
+	 */
+	void start(final long time) {
+		this.start = time;
+	}
+
+	/**
+	 * Record the submission of a task.
+	 * @param arrival The <code>long</code> intended
+	 * arrival time of the task in nanoseconds.
+	 */
+	void recordSubmission(final long arrival) {
+		if (arrival >= this.start) this.submitted.incrementAndGet();
+	}
+
+	/**
+	 * Record the completion of a task.
+	 * @param arrival The <code>long</code> intended
+	 * arrival time of the task in nanoseconds.
+	 * @param wait The <code>long</code> time in
+	 * nanoseconds the task waited to start.
+	 * @param service The <code>long</code> time in
+	 * nanoseconds the task executed.
+	 */
+	void recordCompletion(final long arrival, final long wait, final long service) {
+		if (arrival >= this.start) {
+			this.metrics.recordWait(wait);
+			this.metrics.recordExecution(service);
+			this.response.record(wait + service);
+		}
+		this.totalWait.addAndGet(wait);
+		this.totalService.addAndGet(service);
+		this.completed.incrementAndGet();
+	}
+
+	/**
+	 * Record the rejection of a task.
+	 * @param arrival The <code>long</code> intended
+	 * arrival time of the task in nanoseconds.
+	 */
+	void recordRejection(final long arrival) {
+		if (arrival >= this.start) this.metrics.recordRejection();
+	}
+
+	/**
+	 * Retrieve the number of measured submitted tasks.
+	 * @return The <code>long</code> number of tasks.
+	 */
+	public long getSubmittedCount() {
+		return this.submitted.get();
+	}
+
+	/**
+	 * Retrieve the number of all the completed tasks.
+	 * @return The <code>long</code> number of tasks.
+	 */
+	public long getCompletedCount() {
+		return this.completed.get();
+	}
+
+	/**
+	 * Retrieve the number of measured rejected tasks.
+	 * @return The <code>long</code> number of tasks.
+	 */
+	public long getRejectedCount() {
+		return this.metrics.getRejectedCount();
+	}
+
+	/**
+	 * Retrieve the total wait time of all the tasks.
+	 * @return The <code>long</code> time in nanoseconds.
+	 */
+	public long getTotalWaitTime() {
+		return this.totalWait.get();
+	}
+
+	/**
+	 * Retrieve the total service time of all the tasks.
+	 * @return The <code>long</code> time in nanoseconds.
+	 */
+	public long getTotalServiceTime() {
+		return this.totalService.get();
+	}
+
+	/**
+	 * Retrieve the wait time distribution of the
+	 * measured tasks.
+	 * @return The <code>LatencySnapshot</code>.
+	 */
+	public LatencySnapshot getWaitSnapshot() {
+		return this.metrics.getWaitSnapshot();
+	}
+
+	/**
+	 * Retrieve the execution time distribution of
+	 * the measured tasks.
+	 * @return The <code>LatencySnapshot</code>.
+	 */
+	public LatencySnapshot getExecutionSnapshot() {
+		return this.metrics.getExecutionSnapshot();
+	}
+
+	/**
+	 * Retrieve the response time distribution of
+	 * the measured tasks.
+	 * @return The <code>LatencySnapshot</code>.
+	 */
+	public LatencySnapshot getResponseSnapshot() {
+		return this.response.getSnapshot();
+	}
+}
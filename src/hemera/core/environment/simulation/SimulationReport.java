@@ -0,0 +1,140 @@
+package hemera.core.environment.simulation;
+
+import hemera.core.environment.enumn.EExecutionMode;
+import hemera.core.environment.execution.LatencySnapshot;
+
+/**
+ * <code>SimulationReport</code> defines the immutable
+ * result of a load simulation over its measured
+ * duration.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class SimulationReport {
+	/**
+	 * The simulated <code>EExecutionMode</code>.
+	 */
+	public final EExecutionMode mode;
+	/**
+	 * The applied <code>SimulationProfile</code>.
+	 */
+	public final SimulationProfile profile;
+	/**
+	 * The <code>double</code> measured duration in
+	 * seconds.
+	 */
+	public final double seconds;
+	/**
+	 * The <code>long</code> number of tasks submitted
+	 * during the measured duration.
+	 */
+	public final long submitted;
+	/**
+	 * The <code>long</code> number of tasks completed
+	 * during the measured duration.
+	 */
+	public final long completed;
+	/**
+	 * The <code>long</code> number of rejected tasks.
+	 */
+	public final long rejected;
+	/**
+	 * The <code>long</code> number of accepted tasks
+	 * discarded by the overflow policy.
+	 */
+	public final long dropped;
+	/**
+	 * The <code>LatencySnapshot</code> of the times the
+	 * tasks waited to start.
+	 */
+	public final LatencySnapshot wait;
+	/**
+	 * The <code>LatencySnapshot</code> of the times the
+	 * tasks executed.
+	 */
+	public final LatencySnapshot execution;
+	/**
+	 * The <code>LatencySnapshot</code> of the times from
+	 * the intended arrival to the completion of the
+	 * tasks.
+	 */
+	public final LatencySnapshot response;
+	/**
+	 * The <code>int</code> peak number of executor
+	 * threads.
+	 */
+	public final int peakThreads;
+	/**
+	 * The <code>double</code> mean number of executor
+	 * threads.
+	 */
+	public final double meanThreads;
+	/**
+	 * The <code>int</code> peak number of live threads
+	 * of the virtual machine.
+	 */
+	public final int peakLiveThreads;
+
+	/**
+	 * Constructor of <code>SimulationReport</code>.
+	 * @param mode The simulated <code>EExecutionMode</code>.
+	 * @param profile The <code>SimulationProfile</code>.
+	 * @param seconds The <code>double</code> measured
+	 * duration in seconds.
+	 * @param submitted The <code>long</code> number of
+	 * submitted tasks.
+	 * @param completed The <code>long</code> number of
+	 * completed tasks.
+	 * @param rejected The <code>long</code> number of
+	 * rejected tasks.
+	 * @param dropped The <code>long</code> number of
+	 * discarded tasks.
+	 * @param wait The wait <code>LatencySnapshot</code>.
+	 * @param execution The execution <code>LatencySnapshot</code>.
+	 * @param response The response <code>LatencySnapshot</code>.
+	 * @param peakThreads The <code>int</code> peak number
+	 * of executor threads.
+	 * @param meanThreads The <code>double</code> mean
+	 * number of executor threads.
+	 * @param peakLiveThreads The <code>int</code> peak
+	 * number of live threads.
+	 */
+	SimulationReport(final EExecutionMode mode, final SimulationProfile profile, final double seconds, final long submitted, final long completed, final long rejected, final long dropped, final LatencySnapshot wait, final LatencySnapshot execution, final LatencySnapshot response, final int peakThreads, final double meanThreads, final int peakLiveThreads) {
+		this.mode = mode;
+		this.profile = profile;
+		this.seconds = seconds;
+		this.submitted = submitted;
+		this.completed = completed;
+		this.rejected = rejected;
+		this.dropped = dropped;
+		this.wait = wait;
+		this.execution = execution;
+		this.response = response;
+		this.peakThreads = peakThreads;
+		this.meanThreads = meanThreads;
+		this.peakLiveThreads = peakLiveThreads;
+	}
+
+	/**
+	 * Retrieve the throughput.
+	 * @return The <code>double</code> number of tasks
+	 * completed per second.
+	 */
+	public double getThroughput() {
+		return this.completed / this.seconds;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("mode=").append(this.mode.value).append(" ").append(this.profile).append("\n");
+		builder.append("throughput=").append(String.format("%.1f", this.getThroughput())).append("/s submitted=").append(this.submitted).append(" completed=").append(this.completed);
+		builder.append(" rejected=").append(this.rejected).append(" dropped=").append(this.dropped).append("\n");
+		builder.append("wait[").append(this.wait).append("]\n");
+		builder.append("execution[").append(this.execution).append("]\n");
+		builder.append("response[").append(this.response).append("]\n");
+		builder.append("threads peak=").append(this.peakThreads).append(" mean=").append(String.format("%.1f", this.meanThreads)).append(" live-peak=").append(this.peakLiveThreads);
+		return builder.toString();
+	}
+}
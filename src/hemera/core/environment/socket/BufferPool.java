@@ -0,0 +1,316 @@
+package hemera.core.environment.socket;
+
+import hemera.core.environment.config.ConfigBufferPool;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <code>BufferPool</code> defines the pool of direct
+ * buffers the connections borrow while reading and
+ * writing, so the buffer memory is proportional to the
+ * number of active connections instead of the number of
+ * open connections.
+ * <p>
+ * Buffers are grouped into size classes of powers of
+ * two from the smallest size class up to the maximum
+ * buffer size. A released buffer is cached by the
+ * releasing thread up to the thread cache size, and is
+ * otherwise returned to the shared free list of its
+ * size class. When both are empty, a slab of direct
+ * memory is allocated and carved into buffers of the
+ * size class, as long as the memory of all the slabs
+ * stays within the maximum memory. Beyond it, and for
+ * sizes above the maximum buffer size, an unpooled heap
+ * buffer is returned and counted as an overflow.
+ * <p>
+ * The slab memory is retained for the lifetime of the
+ * pool. Only buffers acquired from a pool may be
+ * released to it.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.1
+ */
+public class BufferPool {
+	/**
+	 * The <code>int</code> power of two of the smallest
+	 * size class.
+	 */
+	private final int minShift;
+	/**
+	 * The <code>int</code> slab size in bytes.
+	 */
+	private final int slabSize;
+	/**
+	 * The <code>int</code> maximum number of buffers of
+	 * each size class cached by each thread.
+	 */
+	private final int threadCacheSize;
+	/**
+	 * The <code>SizeClass</code> array in ascending
+	 * size order.
+	 */
+	private final SizeClass[] classes;
+	/**
+	 * The <code>ThreadLocal</code> array of buffers
+	 * cached by the current thread, per size class.
+	 */
+	private final ThreadLocal<ArrayDeque<ByteBuffer>[]> caches;
+	/**
+	 * The <code>AtomicLong</code> size in bytes of all
+	 * the allocated slabs.
+	 */
+	private final AtomicLong footprint;
+	/**
+	 * The <code>AtomicLong</code> number of acquisitions
+	 * served by a pooled buffer.
+	 */
+	private final AtomicLong hits;
+	/**
+	 * The <code>AtomicLong</code> number of acquisitions
+	 * that required a slab allocation.
+	 */
+	private final AtomicLong misses;
+	/**
+	 * The <code>AtomicLong</code> number of acquisitions
+	 * served by an unpooled buffer.
+	 */
+	private final AtomicLong overflows;
+	/**
+	 * The <code>AtomicLong</code> number of borrowed
+	 * pooled buffers.
+	 */
+	private final AtomicLong borrowed;
+	/**
+	 * The <code>long</code> maximum size in bytes of all
+	 * the slabs.
+	 */
+	private volatile long maxMemory;
+
+	/**
+	 * Constructor of <code>BufferPool</code>.
+	 * @param config The <code>ConfigBufferPool</code>.
+	 * @param maxBufferSize The <code>int</code> size in
+	 * bytes of the largest pooled buffer, which is
+	 * rounded up to a power of two.
+	 */
+	public BufferPool(final ConfigBufferPool config, final int maxBufferSize) {
+		this.minShift = Integer.numberOfTrailingZeros(config.minClassSize);
+		this.slabSize = config.slabSize;
+		this.threadCacheSize = config.threadCacheSize;
+		final int count = Math.max(0, this.getClassIndex(maxBufferSize)) + 1;
+		this.classes = new SizeClass[count];
+		for (int i = 0; i < count; i++) {
+			this.classes[i] = new SizeClass(config.minClassSize << i);
+		}
+		this.caches = new ThreadLocal<ArrayDeque<ByteBuffer>[]>() {
+			@Override
+			protected ArrayDeque<ByteBuffer>[] initialValue() {
+				@SuppressWarnings({"unchecked", "rawtypes"})
+				final ArrayDeque<ByteBuffer>[] caches = new ArrayDeque[count];
+				for (int i = 0; i < count; i++) {
+					caches[i] = new ArrayDeque<ByteBuffer>();
+				}
+				return caches;
+			}
+		};
+		this.footprint = new AtomicLong();
+		this.hits = new AtomicLong();
+		this.misses = new AtomicLong();
+		this.overflows = new AtomicLong();
+		this.borrowed = new AtomicLong();
+		this.maxMemory = config.maxMemory;
+	}
+
+	/**
+	 * Retrieve the size class index of the given size.
+	 * @param size The <code>int</code> size in bytes.
+	 * @return The <code>int</code> index of the smallest
+	 * size class that fits the size.
+	 */
+	private int getClassIndex(final int size) {
+		if (size <= (1 << this.minShift)) return 0;
+		return 32 - Integer.numberOfLeadingZeros(size - 1) - this.minShift;
+	}
+
+	/**
+	 * Borrow a cleared buffer of at least the given size.
+	 * The buffer should be released as soon as the read
+	 * or write it is used for completes.
+	 * @param size The <code>int</code> size in bytes.
+	 * @return The <code>ByteBuffer</code>.
+	 */
+	public ByteBuffer acquire(final int size) {
+		if (size < 0) throw new IllegalArgumentException("Buffer size must not be negative.");
+		final int index = this.getClassIndex(size);
+		if (index >= this.classes.length) {
+			this.overflows.incrementAndGet();
+			return ByteBuffer.allocate(size);
+		}
+		final SizeClass sizeClass = this.classes[index];
+		ByteBuffer buffer = this.caches.get()[index].pollLast();
+		if (buffer == null) buffer = sizeClass.free.poll();
+		if (buffer != null) {
+			this.hits.incrementAndGet();
+		} else {
+			buffer = this.allocate(sizeClass);
+			if (buffer == null) {
+				this.overflows.incrementAndGet();
+				return ByteBuffer.allocate(sizeClass.size);
+			}
+		}
+		this.borrowed.incrementAndGet();
+		buffer.clear();
+		return buffer;
+	}
+
+	/**
+	 * Allocate a slab of the given size class within the
+	 * maximum memory, and carve it into buffers.
+	 * @param sizeClass The <code>SizeClass</code>.
+	 * @return The first carved <code>ByteBuffer</code>,
+	 * the others are added to the free list. Or
+	 * <code>null</code> if the maximum memory is reached.
+	 */
+	private ByteBuffer allocate(final SizeClass sizeClass) {
+		synchronized (sizeClass) {
+			// Another thread may have carved a slab.
+			final ByteBuffer free = sizeClass.free.poll();
+			if (free != null) {
+				this.hits.incrementAndGet();
+				return free;
+			}
+			final int size = sizeClass.size;
+			long bytes;
+			while (true) {
+				final long current = this.footprint.get();
+				final long available = this.maxMemory - current;
+				final int count = (int)Math.min(Math.max(1, this.slabSize / size), available / size);
+				if (count <= 0) return null;
+				bytes = (long)count * size;
+				if (this.footprint.compareAndSet(current, current + bytes)) break;
+			}
+			this.misses.incrementAndGet();
+			final ByteBuffer slab = ByteBuffer.allocateDirect((int)bytes);
+			ByteBuffer first = null;
+			for (int offset = 0; offset < bytes; offset += size) {
+				slab.limit(offset + size).position(offset);
+				final ByteBuffer buffer = slab.slice();
+				if (first == null) first = buffer;
+				else sizeClass.free.offer(buffer);
+			}
+			return first;
+		}
+	}
+
+	/**
+	 * Return the given borrowed buffer to the pool.
+	 * Unpooled buffers are left to be collected.
+	 * @param buffer The <code>ByteBuffer</code> acquired
+	 * from this pool.
+	 */
+	public void release(final ByteBuffer buffer) {
+		if (buffer == null || !buffer.isDirect()) return;
+		final int index = this.getClassIndex(buffer.capacity());
+		if (index >= this.classes.length || this.classes[index].size != buffer.capacity()) return;
+		this.borrowed.decrementAndGet();
+		final ArrayDeque<ByteBuffer> cache = this.caches.get()[index];
+		if (cache.size() < this.threadCacheSize) cache.addLast(buffer);
+		else this.classes[index].free.offer(buffer);
+	}
+
+	/**
+	 * Replace the configuration. Only the maximum memory
+	 * is applied, to the following slab allocations.
+	 * @param config The new <code>ConfigBufferPool</code>.
+	 */
+	public void setConfiguration(final ConfigBufferPool config) {
+		this.maxMemory = config.maxMemory;
+	}
+
+	/**
+	 * Retrieve the size of the largest pooled buffer.
+	 * @return The <code>int</code> size in bytes.
+	 */
+	public int getMaxBufferSize() {
+		return this.classes[this.classes.length - 1].size;
+	}
+
+	/**
+	 * Retrieve the number of acquisitions served by a
+	 * pooled buffer.
+	 * @return The <code>long</code> number of hits.
+	 */
+	public long getHitCount() {
+		return this.hits.get();
+	}
+
+	/**
+	 * Retrieve the number of acquisitions that required
+	 * a slab allocation.
+	 * @return The <code>long</code> number of misses.
+	 */
+	public long getMissCount() {
+		return this.misses.get();
+	}
+
+	/**
+	 * Retrieve the number of acquisitions served by an
+	 * unpooled buffer, because the size exceeded the
+	 * largest size class or the maximum memory was
+	 * reached.
+	 * @return The <code>long</code> number of overflows.
+	 */
+	public long getOverflowCount() {
+		return this.overflows.get();
+	}
+
+	/**
+	 * Retrieve the number of pooled buffers currently
+	 * borrowed.
+	 * @return The <code>long</code> number of buffers.
+	 */
+	public long getBorrowedCount() {
+		return this.borrowed.get();
+	}
+
+	/**
+	 * Retrieve the size of all the allocated slabs.
+	 * @return The <code>long</code> size in bytes.
+	 */
+	public long getFootprint() {
+		return this.footprint.get();
+	}
+
+	@Override
+	public String toString() {
+		return "hits=" + this.hits.get() + " misses=" + this.misses.get() + " overflows=" + this.overflows.get() + " borrowed=" + this.borrowed.get() + " footprint=" + this.footprint.get() + "/" + this.maxMemory;
+	}
+
+	/**
+	 * <code>SizeClass</code> defines the shared free list
+	 * of the buffers of one size.
+	 */
+	private static class SizeClass {
+		/**
+		 * The <code>int</code> buffer size in bytes.
+		 */
+		private final int size;
+		/**
+		 * The <code>ConcurrentLinkedQueue</code> of free
+		 * buffers.
+		 */
+		private final ConcurrentLinkedQueue<ByteBuffer> free;
+
+		/**
+		 * Constructor of <code>SizeClass</code>.
+		 * @param size The <code>int</code> buffer size.
+		 */
+		private SizeClass(final int size) {
+			this.size = size;
+			this.free = new ConcurrentLinkedQueue<ByteBuffer>();
+		}
+	}
+}
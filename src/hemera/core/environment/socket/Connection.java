@@ -0,0 +1,305 @@
+package hemera.core.environment.socket;
+
+import hemera.core.environment.timer.ITimeout;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * <code>Connection</code> defines a non-blocking client
+ * connection served by a <code>SelectorLoop</code>.
+ * <p>
+ * The interest and the closing of a connection can be
+ * changed from any thread. Changes made from another
+ * thread are applied by the selector thread of the
+ * connection.
+ * <p>
+ * A connection does not own any buffer. Buffers are
+ * borrowed from the buffer pool only while reading or
+ * writing, and released once the data is consumed or
+ * written, so idle connections hold no buffer memory.
+ * <p>
+ * The handler reads and writes through the connection,
+ * which encrypts and decrypts the bytes of a secured
+ * connection. A secured connection is opened once its
+ * handshake completes.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.3
+ */
+public class Connection {
+	/**
+	 * The <code>SocketChannel</code> of the connection.
+	 */
+	private final SocketChannel channel;
+	/**
+	 * The <code>SelectorLoop</code> serving the
+	 * connection.
+	 */
+	private final SelectorLoop loop;
+	/**
+	 * The <code>SelectionKey</code> of the connection.
+	 * Or <code>null</code> if not registered yet.
+	 * <p>
+	 * This value, the last active time and the idle
+	 * check are only accessed by the selector thread.
+	 */
+	SelectionKey key;
+	/**
+	 * The <code>long</code> time in nanoseconds the
+	 * connection was last ready.
+	 */
+	long lastActive;
+	/**
+	 * The <code>ITimeout</code> of the next idle check.
+	 * Or <code>null</code> if connections never time out.
+	 */
+	ITimeout idleCheck;
+	/**
+	 * The <code>TLSSession</code> securing the connection.
+	 * Or <code>null</code> if the connection is not
+	 * secured.
+	 */
+	TLSSession tls;
+	/**
+	 * The <code>boolean</code> flag indicating if the
+	 * connection is closed.
+	 */
+	private volatile boolean closed;
+	/**
+	 * The <code>boolean</code> flag indicating if the
+	 * handler is interested in writing.
+	 */
+	private volatile boolean writeInterest;
+	/**
+	 * The <code>Object</code> attached by the handler.
+	 */
+	private volatile Object attachment;
+
+	/**
+	 * Constructor of <code>Connection</code>.
+	 * @param channel The non-blocking <code>SocketChannel</code>.
+	 * @param loop The <code>SelectorLoop</code>.
+	 */
+	Connection(final SocketChannel channel, final SelectorLoop loop) {
+		this.channel = channel;
+		this.loop = loop;
+	}
+
+	/**
+	 * Set whether the connection is interested in
+	 * writing. Reading is always of interest.
+	 * @param write <code>true</code> to be notified when
+	 * the connection can be written to.
+	 */
+	public void setWriteInterest(final boolean write) {
+		this.writeInterest = write;
+		this.updateInterest();
+	}
+
+	/**
+	 * Update the interest of the connection from the
+	 * interest of the handler and the encrypted bytes
+	 * not sent yet, which are sent once the connection
+	 * becomes writable.
+	 */
+	void updateInterest() {
+		if (this.loop.inLoop()) {
+			this.loop.setInterest(this, this.getInterest());
+		} else {
+			this.loop.execute(new Runnable() {
+				@Override
+				public void run() {
+					loop.setInterest(Connection.this, getInterest());
+				}
+			});
+		}
+	}
+
+	/**
+	 * Retrieve the interest of the connection once the
+	 * handshake completed.
+	 * @return The <code>int</code> interest set.
+	 */
+	private int getInterest() {
+		final boolean write = this.writeInterest || this.hasPendingWrite();
+		return write ? (SelectionKey.OP_READ | SelectionKey.OP_WRITE) : SelectionKey.OP_READ;
+	}
+
+	/**
+	 * Set the interest of the connection.
+	 * @param ops The <code>int</code> interest set.
+	 */
+	void setInterest(final int ops) {
+		if (this.loop.inLoop()) {
+			this.loop.setInterest(this, ops);
+		} else {
+			this.loop.execute(new Runnable() {
+				@Override
+				public void run() {
+					loop.setInterest(Connection.this, ops);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Hand the connection whose handshake completed to
+	 * the handler.
+	 */
+	void opened() {
+		this.loop.execute(new Runnable() {
+			@Override
+			public void run() {
+				loop.opened(Connection.this);
+			}
+		});
+	}
+
+	/**
+	 * Read the available bytes into the given buffer.
+	 * The handler should read until no bytes are read,
+	 * as the bytes already received by a secured
+	 * connection are not reported as readable again.
+	 * This method must be invoked on the selector
+	 * thread.
+	 * @param dst The <code>ByteBuffer</code> to read
+	 * into.
+	 * @return The <code>int</code> number of bytes read.
+	 * Or <code>-1</code> if the stream ended.
+	 * @throws IOException If reading failed.
+	 */
+	public int read(final ByteBuffer dst) throws IOException {
+		if (this.tls == null) return this.channel.read(dst);
+		else return this.tls.read(dst);
+	}
+
+	/**
+	 * Write the bytes of the given buffer, as many as
+	 * the connection can take. The handler should wait
+	 * for the connection to become writable before
+	 * writing the remaining bytes. A secured connection
+	 * may consume bytes it could only partly send, in
+	 * which case it sends the rest of the encrypted
+	 * bytes itself once the connection becomes writable,
+	 * before the handler is notified. This method must
+	 * be invoked on the selector thread.
+	 * @param src The <code>ByteBuffer</code> to write.
+	 * @return The <code>int</code> number of bytes
+	 * written.
+	 * @throws IOException If writing failed.
+	 */
+	public int write(final ByteBuffer src) throws IOException {
+		if (this.tls == null) return this.channel.write(src);
+		else return this.tls.write(src);
+	}
+
+	/**
+	 * Send the encrypted bytes not sent yet, if any.
+	 * This method must be invoked on the selector
+	 * thread once the connection becomes writable.
+	 * @return <code>true</code> if the handler should
+	 * be notified that the connection is writable.
+	 * <code>false</code> if bytes are still pending or
+	 * the handler is not interested in writing.
+	 * @throws IOException If writing failed.
+	 */
+	boolean flushPendingWrite() throws IOException {
+		if (this.tls == null) return true;
+		else if (!this.tls.hasPendingWrite()) return this.writeInterest;
+		else if (!this.tls.flushPending()) return false;
+		this.updateInterest();
+		return this.writeInterest;
+	}
+
+	/**
+	 * Check if any bytes consumed by a secured connection
+	 * are not sent yet.
+	 * @return <code>true</code> if there are.
+	 */
+	public boolean hasPendingWrite() {
+		return (this.tls != null && this.tls.hasPendingWrite());
+	}
+
+	/**
+	 * Check if the connection is secured with TLS.
+	 * @return <code>true</code> if it is.
+	 */
+	public boolean isSecure() {
+		return (this.tls != null);
+	}
+
+	/**
+	 * Close the connection. Closing a closed connection
+	 * has no effect.
+	 */
+	public void close() {
+		if (this.loop.inLoop()) {
+			this.loop.close(this);
+		} else {
+			this.loop.execute(new Runnable() {
+				@Override
+				public void run() {
+					loop.close(Connection.this);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Mark the connection closed.
+	 * @return <code>true</code> if the connection was
+	 * open.
+	 */
+	boolean markClosed() {
+		if (this.closed) return false;
+		this.closed = true;
+		return true;
+	}
+
+	/**
+	 * Attach the given object to the connection.
+	 * @param attachment The <code>Object</code> to
+	 * attach.
+	 */
+	public void attach(final Object attachment) {
+		this.attachment = attachment;
+	}
+
+	/**
+	 * Retrieve the attached object.
+	 * @return The attached <code>Object</code>. Or
+	 * <code>null</code> if there is none.
+	 */
+	public Object attachment() {
+		return this.attachment;
+	}
+
+	/**
+	 * Retrieve the pool to borrow buffers from.
+	 * @return The <code>BufferPool</code>.
+	 */
+	public BufferPool getBufferPool() {
+		return this.loop.getBufferPool();
+	}
+
+	/**
+	 * Retrieve the channel of the connection. The bytes
+	 * of a secured connection must be read and written
+	 * through the connection instead.
+	 * @return The non-blocking <code>SocketChannel</code>.
+	 */
+	public SocketChannel getChannel() {
+		return this.channel;
+	}
+
+	/**
+	 * Check if the connection is closed.
+	 * @return <code>true</code> if it is closed.
+	 */
+	public boolean isClosed() {
+		return this.closed;
+	}
+}
@@ -0,0 +1,53 @@
+package hemera.core.environment.socket;
+
+import java.io.IOException;
+
+/**
+ * <code>IConnectionHandler</code> defines the interface
+ * of the unit that serves the connections multiplexed
+ * by a <code>SelectorServer</code>.
+ * <p>
+ * All the methods are invoked on the selector thread
+ * of the connection, and must not block. Work that may
+ * block is submitted to the execution service instead.
+ * Buffers are borrowed from the buffer pool of the
+ * connection only for as long as they are in use.
+ * A method that throws closes the connection.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public interface IConnectionHandler {
+
+	/**
+	 * Invoked when the given connection is registered
+	 * with its selector thread. The connection is
+	 * interested in reading by default.
+	 * @param connection The new <code>Connection</code>.
+	 * @throws IOException If any I/O failed.
+	 */
+	public void onOpen(final Connection connection) throws IOException;
+
+	/**
+	 * Invoked when the given connection has data to
+	 * read, or the peer closed it.
+	 * @param connection The <code>Connection</code>.
+	 * @throws IOException If any I/O failed.
+	 */
+	public void onReadable(final Connection connection) throws IOException;
+
+	/**
+	 * Invoked when the given connection can be written
+	 * to, if it is interested in writing.
+	 * @param connection The <code>Connection</code>.
+	 * @throws IOException If any I/O failed.
+	 */
+	public void onWritable(final Connection connection) throws IOException;
+
+	/**
+	 * Invoked once when the given connection is closed,
+	 * for any reason.
+	 * @param connection The closed <code>Connection</code>.
+	 */
+	public void onClose(final Connection connection);
+}
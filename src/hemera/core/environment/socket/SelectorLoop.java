@@ -0,0 +1,421 @@
+package hemera.core.environment.socket;
+
+import hemera.core.environment.timer.HashedWheelTimer;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <code>SelectorLoop</code> defines the unit that runs
+ * on a selector thread and multiplexes the readiness
+ * events of its connections to the connection handler.
+ * <p>
+ * Connections are registered from the acceptor threads
+ * through the task queue of the loop, which is run by
+ * the selector thread between selections. The number of
+ * connections is counted when a connection is handed to
+ * the loop, so the connection limit is never exceeded.
+ * <p>
+ * With an idle timeout, the connections that have not
+ * been ready for longer than the timeout are closed.
+ * Each connection holds one idle check on the shared
+ * <code>HashedWheelTimer</code>, which is scheduled
+ * for the time the connection would become idle. An
+ * expired check reschedules itself for the remaining
+ * time if the connection has been ready since, so
+ * activity never touches the timer and the selector
+ * thread never scans all its connections.
+ * <p>
+ * With a <code>TLSService</code>, each connection is
+ * registered without interest until its handshake,
+ * which runs on the handshake threads, completes. The
+ * readiness of a connection during its handshake is
+ * handed to the next handshake step instead of the
+ * handler.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.3
+ */
+public class SelectorLoop implements Runnable {
+	/**
+	 * The <code>Selector</code> of the connections.
+	 */
+	private final Selector selector;
+	/**
+	 * The <code>IConnectionHandler</code> to notify.
+	 */
+	private final IConnectionHandler handler;
+	/**
+	 * The <code>BufferPool</code> the connections borrow
+	 * buffers from.
+	 */
+	private final BufferPool pool;
+	/**
+	 * The <code>HashedWheelTimer</code> of the idle
+	 * checks.
+	 */
+	private final HashedWheelTimer timer;
+	/**
+	 * The <code>TLSService</code> securing the
+	 * connections. Or <code>null</code> if the
+	 * connections are not secured.
+	 */
+	private final TLSService tls;
+	/**
+	 * The <code>Queue</code> of tasks to run on the
+	 * selector thread.
+	 */
+	private final Queue<Runnable> tasks;
+	/**
+	 * The <code>AtomicBoolean</code> flag indicating if
+	 * the selector is woken up.
+	 */
+	private final AtomicBoolean awake;
+	/**
+	 * The <code>AtomicInteger</code> number of
+	 * connections.
+	 */
+	private final AtomicInteger connections;
+	/**
+	 * The <code>long</code> idle timeout in nanoseconds.
+	 * <code>0</code> if connections never time out.
+	 */
+	private volatile long idleTimeout;
+	/**
+	 * The <code>boolean</code> flag indicating if the
+	 * loop is running.
+	 */
+	private volatile boolean running;
+	/**
+	 * The selector <code>Thread</code>. Or
+	 * <code>null</code> if not started.
+	 */
+	private volatile Thread thread;
+
+	/**
+	 * Constructor of <code>SelectorLoop</code>.
+	 * @param handler The <code>IConnectionHandler</code>.
+	 * @param pool The <code>BufferPool</code> the
+	 * connections borrow buffers from.
+	 * @param timer The <code>HashedWheelTimer</code> of
+	 * the idle checks.
+	 * @param tls The <code>TLSService</code> securing
+	 * the connections. Or <code>null</code> if the
+	 * connections are not secured.
+	 * @param idleTimeout The <code>long</code> idle
+	 * timeout in milliseconds. <code>0</code> if
+	 * connections never time out.
+	 * @throws IOException If opening the selector failed.
+	 */
+	public SelectorLoop(final IConnectionHandler handler, final BufferPool pool, final HashedWheelTimer timer, final TLSService tls, final long idleTimeout) throws IOException {
+		this.selector = Selector.open();
+		this.handler = handler;
+		this.pool = pool;
+		this.timer = timer;
+		this.tls = tls;
+		this.tasks = new ConcurrentLinkedQueue<Runnable>();
+		this.awake = new AtomicBoolean();
+		this.connections = new AtomicInteger();
+		this.idleTimeout = TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+		this.running = true;
+	}
+
+	/**
+	 * Register the given accepted channel, unless the
+	 * loop already serves the given maximum number of
+	 * connections.
+	 * @param channel The non-blocking <code>SocketChannel</code>.
+	 * @param limit The <code>int</code> maximum number of
+	 * connections. <code>0</code> if not limited.
+	 * @return <code>true</code> if the channel is
+	 * registered. <code>false</code> if the loop is full
+	 * or stopped, in which case the channel is left open.
+	 */
+	public boolean register(final SocketChannel channel, final int limit) {
+		if (!this.running) return false;
+		final int count = this.connections.incrementAndGet();
+		if (limit > 0 && count > limit) {
+			this.connections.decrementAndGet();
+			return false;
+		}
+		final Connection connection = new Connection(channel, this);
+		this.execute(new Runnable() {
+			@Override
+			public void run() {
+				open(connection);
+			}
+		});
+		return true;
+	}
+
+	/**
+	 * Register the given connection with the selector.
+	 * @param connection The new <code>Connection</code>.
+	 */
+	private void open(final Connection connection) {
+		if (!this.running) {
+			this.close(connection);
+			return;
+		}
+		try {
+			final int ops = (this.tls == null) ? SelectionKey.OP_READ : 0;
+			connection.key = connection.getChannel().register(this.selector, ops, connection);
+			connection.lastActive = System.nanoTime();
+			this.scheduleIdleCheck(connection, this.idleTimeout);
+			if (this.tls == null) {
+				this.handler.onOpen(connection);
+			} else {
+				connection.tls = new TLSSession(this.tls, connection);
+				if (!connection.tls.beginHandshake()) this.close(connection);
+			}
+		} catch (final ClosedChannelException e) {
+			this.close(connection);
+		} catch (final IOException e) {
+			this.close(connection);
+		} catch (final RuntimeException e) {
+			this.close(connection);
+		}
+	}
+
+	/**
+	 * Hand the given connection whose handshake completed
+	 * to the handler. This method must be invoked on the
+	 * selector thread.
+	 * @param connection The secured <code>Connection</code>.
+	 */
+	void opened(final Connection connection) {
+		if (connection.isClosed()) return;
+		try {
+			this.setInterest(connection, SelectionKey.OP_READ);
+			this.handler.onOpen(connection);
+			// Bytes received with the end of the handshake
+			// are not reported by the selector.
+			if (!connection.isClosed() && connection.tls.hasBufferedData()) this.handler.onReadable(connection);
+		} catch (final IOException e) {
+			this.close(connection);
+		} catch (final RuntimeException e) {
+			this.close(connection);
+		}
+	}
+
+	/**
+	 * Run the given task on the selector thread.
+	 * @param task The <code>Runnable</code> task.
+	 */
+	public void execute(final Runnable task) {
+		this.tasks.add(task);
+		if (this.awake.compareAndSet(false, true)) this.selector.wakeup();
+	}
+
+	/**
+	 * Check if the current thread is the selector thread.
+	 * @return <code>true</code> if it is.
+	 */
+	public boolean inLoop() {
+		return (Thread.currentThread() == this.thread);
+	}
+
+	/**
+	 * Set the interest of the given connection. This
+	 * method must be invoked on the selector thread.
+	 * @param connection The <code>Connection</code>.
+	 * @param ops The <code>int</code> interest set.
+	 */
+	void setInterest(final Connection connection, final int ops) {
+		final SelectionKey key = connection.key;
+		if (key != null && key.isValid()) key.interestOps(ops);
+	}
+
+	/**
+	 * Close the given connection. This method must be
+	 * invoked on the selector thread.
+	 * @param connection The <code>Connection</code>.
+	 */
+	void close(final Connection connection) {
+		if (!connection.markClosed()) return;
+		if (connection.tls != null) connection.tls.close();
+		if (connection.key != null) connection.key.cancel();
+		if (connection.idleCheck != null) connection.idleCheck.cancel();
+		try {
+			connection.getChannel().close();
+		} catch (final IOException e) {
+			// Closed regardless.
+		}
+		this.connections.decrementAndGet();
+		try {
+			this.handler.onClose(connection);
+		} catch (final RuntimeException e) {
+			// The connection is closed regardless.
+		}
+	}
+
+	@Override
+	public void run() {
+		this.thread = Thread.currentThread();
+		try {
+			while (this.running) {
+				this.selector.select();
+				this.awake.set(false);
+				this.runTasks();
+				final long now = System.nanoTime();
+				final Iterator<SelectionKey> iterator = this.selector.selectedKeys().iterator();
+				while (iterator.hasNext()) {
+					final SelectionKey key = iterator.next();
+					iterator.remove();
+					this.dispatch((Connection)key.attachment(), key, now);
+				}
+			}
+		} catch (final IOException e) {
+			// The selector failed, close all connections.
+		} finally {
+			this.running = false;
+			this.runTasks();
+			for (final SelectionKey key : this.selector.keys()) {
+				this.close((Connection)key.attachment());
+			}
+			try {
+				this.selector.close();
+			} catch (final IOException e) {
+				// Closed regardless.
+			}
+		}
+	}
+
+	/**
+	 * Run all the queued tasks.
+	 */
+	private void runTasks() {
+		for (Runnable task = this.tasks.poll(); task != null; task = this.tasks.poll()) {
+			try {
+				task.run();
+			} catch (final RuntimeException e) {
+				// Tasks handle their own failures.
+			}
+		}
+	}
+
+	/**
+	 * Dispatch the readiness of the given connection to
+	 * the handler.
+	 * @param connection The ready <code>Connection</code>.
+	 * @param key The <code>SelectionKey</code>.
+	 * @param now The <code>long</code> current time in
+	 * nanoseconds.
+	 */
+	private void dispatch(final Connection connection, final SelectionKey key, final long now) {
+		connection.lastActive = now;
+		if (connection.tls != null && connection.tls.isHandshaking()) {
+			this.setInterest(connection, 0);
+			if (!connection.tls.resumeHandshake()) this.close(connection);
+			return;
+		}
+		try {
+			if (key.isValid() && key.isReadable()) this.handler.onReadable(connection);
+			// The encrypted bytes already consumed are sent
+			// before the handler writes more.
+			if (!connection.isClosed() && key.isValid() && key.isWritable() && connection.flushPendingWrite()) this.handler.onWritable(connection);
+		} catch (final IOException e) {
+			this.close(connection);
+		} catch (final RuntimeException e) {
+			this.close(connection);
+		}
+	}
+
+	/**
+	 * Schedule the idle check of the given connection
+	 * after the given delay. This method must be invoked
+	 * on the selector thread.
+	 * @param connection The <code>Connection</code>.
+	 * @param delay The <code>long</code> delay in
+	 * nanoseconds. <code>0</code> if the connection never
+	 * times out.
+	 */
+	private void scheduleIdleCheck(final Connection connection, final long delay) {
+		if (delay <= 0) {
+			connection.idleCheck = null;
+			return;
+		}
+		connection.idleCheck = this.timer.schedule(new Runnable() {
+			@Override
+			public void run() {
+				// Hand the check to the selector thread, which
+				// owns the last active time.
+				execute(new Runnable() {
+					@Override
+					public void run() {
+						checkIdle(connection);
+					}
+				});
+			}
+		}, delay, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Close the given connection if it has been idle for
+	 * longer than the idle timeout, or schedule its next
+	 * idle check otherwise. This method must be invoked
+	 * on the selector thread.
+	 * @param connection The <code>Connection</code>.
+	 */
+	private void checkIdle(final Connection connection) {
+		if (connection.isClosed()) return;
+		final long idleTimeout = this.idleTimeout;
+		final long idle = System.nanoTime() - connection.lastActive;
+		if (idleTimeout > 0 && idle >= idleTimeout) this.close(connection);
+		else this.scheduleIdleCheck(connection, idleTimeout - idle);
+	}
+
+	/**
+	 * Set the idle timeout. The idle checks of the
+	 * existing connections are rescheduled.
+	 * @param idleTimeout The <code>long</code> timeout in
+	 * milliseconds. <code>0</code> if connections never
+	 * time out.
+	 */
+	public void setIdleTimeout(final long idleTimeout) {
+		this.idleTimeout = TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+		this.execute(new Runnable() {
+			@Override
+			public void run() {
+				for (final SelectionKey key : selector.keys()) {
+					final Connection connection = (Connection)key.attachment();
+					if (connection.idleCheck != null) connection.idleCheck.cancel();
+					checkIdle(connection);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Stop the loop and close all its connections.
+	 */
+	public void shutdown() {
+		this.running = false;
+		this.selector.wakeup();
+	}
+
+	/**
+	 * Retrieve the buffer pool of the connections.
+	 * @return The <code>BufferPool</code>.
+	 */
+	public BufferPool getBufferPool() {
+		return this.pool;
+	}
+
+	/**
+	 * Retrieve the number of connections.
+	 * @return The <code>int</code> number of connections.
+	 */
+	public int getConnectionCount() {
+		return this.connections.get();
+	}
+}
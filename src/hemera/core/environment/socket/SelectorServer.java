@@ -0,0 +1,461 @@
+package hemera.core.environment.socket;
+
+import hemera.core.environment.config.ConfigSocket;
+import hemera.core.environment.timer.HashedWheelTimer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketOption;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <code>SelectorServer</code> defines the socket
+ * listener of the non-blocking socket mode.
+ * <p>
+ * The configured number of acceptor threads accept the
+ * connections of the listening socket, and hand each of
+ * them to the <code>SelectorLoop</code> serving the
+ * fewest connections of the shard of the acceptor. The
+ * loops are divided evenly between the acceptors, so
+ * the acceptors do not contend for the same loops.
+ * <p>
+ * When the port is reused and the platform supports
+ * <code>SO_REUSEPORT</code>, each acceptor binds its
+ * own listening socket to the port and the kernel
+ * spreads the new connections between them, so the
+ * accept throughput scales with the acceptors instead
+ * of serializing on a single accept queue. Otherwise
+ * the acceptors share a single listening socket.
+ * <p>
+ * The accepted connections are configured with the
+ * TCP no delay flag and the kernel send buffer size.
+ * The kernel receive buffer size is set on the
+ * listening sockets before binding, so the accepted
+ * connections inherit it and advertise the window
+ * during the handshake.
+ * <p>
+ * A connection accepted while every loop of the shard
+ * serves the maximum number of connections is closed
+ * and counted as rejected. No thread is held by an idle
+ * connection, and the socket timeout closes the
+ * connections that stay idle for longer, using the
+ * shared <code>HashedWheelTimer</code> of the runtime.
+ * <p>
+ * All the connections borrow their buffers from one
+ * <code>BufferPool</code>, whose largest buffer is the
+ * socket buffer size.
+ * <p>
+ * With the socket certificate set, the connections are
+ * secured by a <code>TLSService</code>, whose handshake
+ * threads run the handshakes.
+ * <p>
+ * The static files of the deployed applications are
+ * served by the <code>StaticFileService</code> of the
+ * server, which is available before the server starts
+ * and outlives its restarts.
+ * <p>
+ * The connection limit, the socket timeout, the TCP
+ * no delay flag, the kernel send buffer size, the
+ * buffer pool memory limit, the TLS session cache,
+ * protocols and cipher suites and the static files
+ * mapping limits can be changed while running.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.4
+ */
+public class SelectorServer {
+	/**
+	 * The <code>SocketOption</code> of the reuse port
+	 * flag. Or <code>null</code> if the platform does not
+	 * provide it.
+	 */
+	private static final SocketOption<Boolean> ReusePort = SelectorServer.findReusePort();
+	/**
+	 * The <code>long</code> time in nanoseconds an
+	 * acceptor backs off after an accept failure, such
+	 * as running out of file descriptors.
+	 */
+	private static final long AcceptBackoff = TimeUnit.MILLISECONDS.toNanos(10);
+	/**
+	 * The <code>IConnectionHandler</code> serving the
+	 * connections.
+	 */
+	private final IConnectionHandler handler;
+	/**
+	 * The shared <code>HashedWheelTimer</code> of the
+	 * idle timeouts.
+	 */
+	private final HashedWheelTimer timer;
+	/**
+	 * The <code>AtomicLong</code> number of rejected
+	 * connections.
+	 */
+	private final AtomicLong rejected;
+	/**
+	 * The <code>StaticFileService</code>.
+	 */
+	private final StaticFileService files;
+	/**
+	 * The current <code>ConfigSocket</code>.
+	 */
+	private volatile ConfigSocket config;
+	/**
+	 * The listening <code>ServerSocketChannel</code>
+	 * array, with either one socket shared by all the
+	 * acceptors or one socket per acceptor. Or
+	 * <code>null</code> if not started.
+	 * <p>
+	 * This value and the threads below are guarded by
+	 * this server.
+	 */
+	private ServerSocketChannel[] servers;
+	/**
+	 * The <code>SelectorLoop</code> array.
+	 */
+	private volatile SelectorLoop[] loops;
+	/**
+	 * The <code>BufferPool</code>. Or <code>null</code>
+	 * if not started.
+	 */
+	private volatile BufferPool pool;
+	/**
+	 * The <code>TLSService</code>. Or <code>null</code>
+	 * if not started or the connections are not secured.
+	 */
+	private volatile TLSService tls;
+	/**
+	 * The <code>Thread</code> array of acceptors.
+	 */
+	private Thread[] acceptors;
+	/**
+	 * The <code>Thread</code> array of selectors.
+	 */
+	private Thread[] selectors;
+
+	/**
+	 * Constructor of <code>SelectorServer</code>.
+	 * @param config The <code>ConfigSocket</code>.
+	 * @param handler The <code>IConnectionHandler</code>.
+	 * @param timer The shared <code>HashedWheelTimer</code>
+	 * of the idle timeouts, which is started and stopped
+	 * by its owner.
+	 */
+	public SelectorServer(final ConfigSocket config, final IConnectionHandler handler, final HashedWheelTimer timer) {
+		this.handler = handler;
+		this.timer = timer;
+		this.rejected = new AtomicLong();
+		this.files = new StaticFileService(config.staticFiles);
+		this.config = config;
+	}
+
+	/**
+	 * Retrieve the reuse port socket option, which is
+	 * only provided by newer platforms.
+	 * @return The <code>SocketOption</code>. Or
+	 * <code>null</code> if not provided.
+	 */
+	@SuppressWarnings("unchecked")
+	private static SocketOption<Boolean> findReusePort() {
+		try {
+			return (SocketOption<Boolean>)StandardSocketOptions.class.getField("SO_REUSEPORT").get(null);
+		} catch (final NoSuchFieldException e) {
+			return null;
+		} catch (final IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Bind the listening sockets and start the selector
+	 * and acceptor threads.
+	 * @throws IOException If binding the sockets failed.
+	 */
+	public synchronized void start() throws IOException {
+		if (this.servers != null) return;
+		final ConfigSocket config = this.config;
+		final int acceptorCount = config.selector.acceptorThreads;
+		final BufferPool pool = new BufferPool(config.bufferPool, config.bufferSize);
+		final SelectorLoop[] loops = new SelectorLoop[config.selector.selectorThreads];
+		final TLSService tls = (config.certPath == null) ? null : new TLSService(config);
+		final ServerSocketChannel first = ServerSocketChannel.open();
+		final boolean reusePort = config.reusePort && acceptorCount > 1 && SelectorServer.ReusePort != null && first.supportedOptions().contains(SelectorServer.ReusePort);
+		final ServerSocketChannel[] servers = new ServerSocketChannel[reusePort ? acceptorCount : 1];
+		servers[0] = first;
+		try {
+			this.bind(first, config, config.port, reusePort);
+			// Bind the other sockets to the port actually
+			// bound, which may have been chosen by the
+			// platform.
+			for (int i = 1; i < servers.length; i++) {
+				servers[i] = ServerSocketChannel.open();
+				this.bind(servers[i], config, first.socket().getLocalPort(), true);
+			}
+			for (int i = 0; i < loops.length; i++) {
+				loops[i] = new SelectorLoop(this.handler, pool, this.timer, tls, config.timeout);
+			}
+		} catch (final IOException e) {
+			for (final ServerSocketChannel server : servers) {
+				if (server != null) server.close();
+			}
+			for (final SelectorLoop loop : loops) {
+				if (loop != null) loop.shutdown();
+			}
+			if (tls != null) {
+				try {
+					tls.shutdown();
+				} catch (final InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			throw e;
+		}
+		this.servers = servers;
+		this.pool = pool;
+		this.tls = tls;
+		this.loops = loops;
+		this.selectors = new Thread[loops.length];
+		for (int i = 0; i < loops.length; i++) {
+			this.selectors[i] = new Thread(loops[i], "hemera-selector-" + i);
+			this.selectors[i].start();
+		}
+		this.acceptors = new Thread[acceptorCount];
+		for (int i = 0; i < this.acceptors.length; i++) {
+			final ServerSocketChannel server = servers[i % servers.length];
+			final SelectorLoop[] shard = this.getShard(loops, i, acceptorCount);
+			this.acceptors[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					accept(server, shard);
+				}
+			}, "hemera-acceptor-" + i);
+			this.acceptors[i].start();
+		}
+	}
+
+	/**
+	 * Configure and bind the given listening socket.
+	 * @param server The <code>ServerSocketChannel</code>
+	 * to bind.
+	 * @param config The <code>ConfigSocket</code>.
+	 * @param port The <code>int</code> port to bind to.
+	 * @param reusePort The <code>boolean</code> flag
+	 * indicating if the port is shared with the other
+	 * listening sockets.
+	 * @throws IOException If binding the socket failed.
+	 */
+	private void bind(final ServerSocketChannel server, final ConfigSocket config, final int port, final boolean reusePort) throws IOException {
+		server.setOption(StandardSocketOptions.SO_REUSEADDR, Boolean.TRUE);
+		if (reusePort) server.setOption(SelectorServer.ReusePort, Boolean.TRUE);
+		if (config.receiveBufferSize > 0) server.setOption(StandardSocketOptions.SO_RCVBUF, config.receiveBufferSize);
+		server.bind(new InetSocketAddress(port), config.backlog);
+	}
+
+	/**
+	 * Retrieve the loops the given acceptor hands its
+	 * connections to. With fewer acceptors than loops,
+	 * every acceptor is given every n-th loop. Otherwise
+	 * the acceptors share the loops in turns.
+	 * @param loops The <code>SelectorLoop</code> array
+	 * of all the loops.
+	 * @param acceptor The <code>int</code> index of the
+	 * acceptor.
+	 * @param acceptorCount The <code>int</code> number
+	 * of acceptors.
+	 * @return The <code>SelectorLoop</code> array shard.
+	 */
+	private SelectorLoop[] getShard(final SelectorLoop[] loops, final int acceptor, final int acceptorCount) {
+		if (acceptorCount >= loops.length) return new SelectorLoop[] {loops[acceptor % loops.length]};
+		final SelectorLoop[] shard = new SelectorLoop[(loops.length - acceptor + acceptorCount - 1) / acceptorCount];
+		for (int i = 0; i < shard.length; i++) {
+			shard[i] = loops[acceptor + i * acceptorCount];
+		}
+		return shard;
+	}
+
+	/**
+	 * Accept connections until the given listening
+	 * socket is closed.
+	 * @param server The <code>ServerSocketChannel</code>.
+	 * @param shard The <code>SelectorLoop</code> array
+	 * to hand the connections to.
+	 */
+	private void accept(final ServerSocketChannel server, final SelectorLoop[] shard) {
+		while (true) {
+			final SocketChannel channel;
+			try {
+				channel = server.accept();
+			} catch (final ClosedChannelException e) {
+				return;
+			} catch (final IOException e) {
+				if (!server.isOpen()) return;
+				LockSupport.parkNanos(SelectorServer.AcceptBackoff);
+				continue;
+			}
+			try {
+				final ConfigSocket config = this.config;
+				channel.configureBlocking(false);
+				channel.setOption(StandardSocketOptions.TCP_NODELAY, config.tcpNoDelay);
+				if (config.sendBufferSize > 0) channel.setOption(StandardSocketOptions.SO_SNDBUF, config.sendBufferSize);
+				if (!this.selectLoop(shard).register(channel, config.selector.maxConnections)) {
+					this.rejected.incrementAndGet();
+					channel.close();
+				}
+			} catch (final IOException e) {
+				try {
+					channel.close();
+				} catch (final IOException ex) {
+					// Closed regardless.
+				}
+			}
+		}
+	}
+
+	/**
+	 * Select the loop serving the fewest connections of
+	 * the given shard.
+	 * @param loops The <code>SelectorLoop</code> array
+	 * shard to select from.
+	 * @return The <code>SelectorLoop</code>.
+	 */
+	private SelectorLoop selectLoop(final SelectorLoop[] loops) {
+		SelectorLoop selected = loops[0];
+		int fewest = selected.getConnectionCount();
+		for (int i = 1; i < loops.length && fewest > 0; i++) {
+			final int count = loops[i].getConnectionCount();
+			if (count < fewest) {
+				selected = loops[i];
+				fewest = count;
+			}
+		}
+		return selected;
+	}
+
+	/**
+	 * Close the listening sockets and all the connections,
+	 * and wait for the threads to terminate.
+	 * @throws InterruptedException If interrupted while
+	 * waiting.
+	 */
+	public synchronized void stop() throws InterruptedException {
+		if (this.servers == null) return;
+		for (final ServerSocketChannel server : this.servers) {
+			try {
+				server.close();
+			} catch (final IOException e) {
+				// Closed regardless.
+			}
+		}
+		for (final Thread acceptor : this.acceptors) {
+			acceptor.join();
+		}
+		for (final SelectorLoop loop : this.loops) {
+			loop.shutdown();
+		}
+		for (final Thread selector : this.selectors) {
+			selector.join();
+		}
+		if (this.tls != null) this.tls.shutdown();
+		this.servers = null;
+	}
+
+	/**
+	 * Replace the socket configuration. The connection
+	 * limit, the socket timeout, the TCP no delay flag,
+	 * the kernel send buffer size, the buffer pool
+	 * memory limit, the TLS session cache, protocols and
+	 * cipher suites and the static files mapping limits
+	 * are applied while running, other changes require a
+	 * restart.
+	 * @param config The new <code>ConfigSocket</code>.
+	 */
+	public void setConfiguration(final ConfigSocket config) {
+		this.config = config;
+		final BufferPool pool = this.pool;
+		if (pool != null) pool.setConfiguration(config.bufferPool);
+		final TLSService tls = this.tls;
+		if (tls != null) tls.setConfiguration(config.tls);
+		this.files.setConfiguration(config.staticFiles);
+		final SelectorLoop[] loops = this.loops;
+		if (loops == null) return;
+		for (final SelectorLoop loop : loops) {
+			loop.setIdleTimeout(config.timeout);
+		}
+	}
+
+	/**
+	 * Retrieve the local port of the listening sockets.
+	 * @return The <code>int</code> port. Or <code>-1</code>
+	 * if not started.
+	 */
+	public synchronized int getLocalPort() {
+		return (this.servers == null) ? -1 : this.servers[0].socket().getLocalPort();
+	}
+
+	/**
+	 * Retrieve the number of listening sockets bound to
+	 * the port, which is the number of acceptors when
+	 * the port is reused.
+	 * @return The <code>int</code> number of sockets. Or
+	 * <code>0</code> if not started.
+	 */
+	public synchronized int getListeningSocketCount() {
+		return (this.servers == null) ? 0 : this.servers.length;
+	}
+
+	/**
+	 * Retrieve the buffer pool of the connections.
+	 * @return The <code>BufferPool</code>. Or
+	 * <code>null</code> if not started.
+	 */
+	public BufferPool getBufferPool() {
+		return this.pool;
+	}
+
+	/**
+	 * Retrieve the TLS service of the connections.
+	 * @return The <code>TLSService</code>. Or
+	 * <code>null</code> if not started or the connections
+	 * are not secured.
+	 */
+	public TLSService getTLSService() {
+		return this.tls;
+	}
+
+	/**
+	 * Retrieve the static file service of the deployed
+	 * applications.
+	 * @return The <code>StaticFileService</code>.
+	 */
+	public StaticFileService getStaticFileService() {
+		return this.files;
+	}
+
+	/**
+	 * Retrieve the number of open connections.
+	 * @return The <code>int</code> number of connections.
+	 */
+	public int getConnectionCount() {
+		final SelectorLoop[] loops = this.loops;
+		if (loops == null) return 0;
+		int count = 0;
+		for (final SelectorLoop loop : loops) {
+			count += loop.getConnectionCount();
+		}
+		return count;
+	}
+
+	/**
+	 * Retrieve the number of connections closed because
+	 * every selector thread was full.
+	 * @return The <code>long</code> number of connections.
+	 */
+	public long getRejectedCount() {
+		return this.rejected.get();
+	}
+}
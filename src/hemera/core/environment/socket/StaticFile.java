@@ -0,0 +1,234 @@
+package hemera.core.environment.socket;
+
+import hemera.core.environment.enumn.EContentEncoding;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <code>StaticFile</code> defines a static file of a
+ * resources directory served by a
+ * <code>StaticFileService</code>.
+ * <p>
+ * The entity tag and the last modified date of the
+ * file are computed once when its directory is
+ * deployed, so serving a file never formats a date or
+ * touches the file system metadata. The file is served
+ * from its memory mapped region once the file is hot,
+ * or from its file channel, which is opened on the
+ * first request and kept open until the directory is
+ * undeployed.
+ * <p>
+ * A file precompressed when its application was bundled
+ * refers to its variants, which are static files of
+ * their own with a content encoding. As the variant
+ * served depends on the accepted encodings, responses
+ * of such a file should vary by the
+ * <code>Accept-Encoding</code> header.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.1
+ */
+public class StaticFile {
+	/**
+	 * The <code>String</code> path of the file relative
+	 * to its directory, separated by <code>/</code>.
+	 */
+	public final String path;
+	/**
+	 * The <code>long</code> length of the file in bytes.
+	 */
+	public final long length;
+	/**
+	 * The <code>long</code> last modified time of the
+	 * file in milliseconds.
+	 */
+	public final long lastModified;
+	/**
+	 * The <code>String</code> quoted entity tag of the
+	 * file, built from its length and last modified
+	 * time.
+	 */
+	public final String etag;
+	/**
+	 * The <code>String</code> HTTP date of the last
+	 * modified time of the file.
+	 */
+	public final String lastModifiedDate;
+	/**
+	 * The <code>EContentEncoding</code> of the file if
+	 * it is a precompressed variant. Or <code>null</code>
+	 * if the file is not encoded.
+	 */
+	public final EContentEncoding encoding;
+	/**
+	 * The <code>StaticFile</code> array of the
+	 * precompressed variants of the file, smallest
+	 * first.
+	 */
+	final StaticFile[] variants;
+	/**
+	 * The <code>File</code>.
+	 */
+	private final File file;
+	/**
+	 * The <code>AtomicInteger</code> number of requests
+	 * of the file.
+	 */
+	private final AtomicInteger requests;
+	/**
+	 * The <code>MappedByteBuffer</code> of the file. Or
+	 * <code>null</code> if the file is not mapped.
+	 */
+	private volatile MappedByteBuffer region;
+	/**
+	 * The <code>FileChannel</code> of the file. Or
+	 * <code>null</code> if not opened yet.
+	 * <p>
+	 * This value is guarded by this file.
+	 */
+	private FileChannel channel;
+	/**
+	 * The <code>boolean</code> flag indicating if the
+	 * file is closed.
+	 * <p>
+	 * This value is guarded by this file.
+	 */
+	private boolean closed;
+
+	/**
+	 * Constructor of <code>StaticFile</code>.
+	 * @param file The <code>File</code>.
+	 * @param path The <code>String</code> relative path.
+	 * @param lastModifiedDate The <code>String</code>
+	 * HTTP date of the last modified time.
+	 * @param encoding The <code>EContentEncoding</code>
+	 * of a variant. Or <code>null</code> if the file is
+	 * not encoded.
+	 * @param variants The <code>StaticFile</code> array
+	 * of the variants, smallest first.
+	 */
+	StaticFile(final File file, final String path, final String lastModifiedDate, final EContentEncoding encoding, final StaticFile[] variants) {
+		this.file = file;
+		this.path = path;
+		this.length = file.length();
+		this.lastModified = file.lastModified();
+		this.etag = "\"" + Long.toHexString(this.length) + "-" + Long.toHexString(this.lastModified) + "\"";
+		this.lastModifiedDate = lastModifiedDate;
+		this.encoding = encoding;
+		this.variants = variants;
+		this.requests = new AtomicInteger();
+	}
+
+	/**
+	 * Check if the client copy of the file identified by
+	 * the given conditional request headers is current.
+	 * The entity tags take precedence over the date,
+	 * which is compared exactly, as the clients send back
+	 * the date they received.
+	 * @param ifNoneMatch The <code>String</code> value
+	 * of the <code>If-None-Match</code> header. Or
+	 * <code>null</code> if there is none.
+	 * @param ifModifiedSince The <code>String</code>
+	 * value of the <code>If-Modified-Since</code>
+	 * header. Or <code>null</code> if there is none.
+	 * @return <code>true</code> if the file was not
+	 * modified.
+	 */
+	public boolean isNotModified(final String ifNoneMatch, final String ifModifiedSince) {
+		if (ifNoneMatch != null) {
+			final String[] tags = ifNoneMatch.split(",");
+			for (int i = 0; i < tags.length; i++) {
+				String tag = tags[i].trim();
+				if (tag.equals("*")) return true;
+				else if (tag.startsWith("W/")) tag = tag.substring(2);
+				if (tag.equals(this.etag)) return true;
+			}
+			return false;
+		}
+		return (ifModifiedSince != null && ifModifiedSince.trim().equals(this.lastModifiedDate));
+	}
+
+	/**
+	 * Record a request of the file.
+	 * @return The <code>int</code> number of requests
+	 * including this one.
+	 */
+	int request() {
+		return this.requests.incrementAndGet();
+	}
+
+	/**
+	 * Map the entire file, unless it is already mapped
+	 * or closed.
+	 * @return <code>true</code> if the file was mapped
+	 * by this invocation.
+	 * @throws IOException If mapping failed.
+	 */
+	synchronized boolean map() throws IOException {
+		if (this.closed || this.region != null) return false;
+		final RandomAccessFile raf = new RandomAccessFile(this.file, "r");
+		try {
+			this.region = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, this.length);
+			return true;
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Retrieve the mapped region of the file.
+	 * @return The <code>MappedByteBuffer</code>. Or
+	 * <code>null</code> if the file is not mapped.
+	 */
+	MappedByteBuffer getRegion() {
+		return this.region;
+	}
+
+	/**
+	 * Retrieve the file channel, opening it on the
+	 * first invocation.
+	 * @return The <code>FileChannel</code>.
+	 * @throws IOException If the file is closed or
+	 * opening it failed.
+	 */
+	synchronized FileChannel getChannel() throws IOException {
+		if (this.closed) throw new IOException("Static file is undeployed: " + this.path);
+		if (this.channel == null) {
+			this.channel = new RandomAccessFile(this.file, "r").getChannel();
+		}
+		return this.channel;
+	}
+
+	/**
+	 * Close the file channel and drop the mapped region.
+	 * @return The <code>long</code> number of mapped
+	 * bytes dropped.
+	 */
+	synchronized long close() {
+		this.closed = true;
+		if (this.channel != null) {
+			try {
+				this.channel.close();
+			} catch (final IOException e) {
+				// Nothing is left to clean up.
+			}
+			this.channel = null;
+		}
+		if (this.region == null) return 0;
+		this.region = null;
+		return this.length;
+	}
+
+	/**
+	 * Check if the file is mapped.
+	 * @return <code>true</code> if it is.
+	 */
+	public boolean isMapped() {
+		return (this.region != null);
+	}
+}
@@ -0,0 +1,443 @@
+package hemera.core.environment.socket;
+
+import hemera.core.environment.config.ConfigStaticFiles;
+import hemera.core.environment.enumn.EContentEncoding;
+import hemera.core.environment.ham.HAM;
+import hemera.core.environment.ham.HAMPrecompressed;
+import hemera.core.environment.ham.HAMResource;
+import hemera.core.environment.util.ApplicationLayout;
+import hemera.core.utility.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <code>StaticFileService</code> defines the unit that
+ * serves the static files of the resources directories
+ * of the deployed applications to the connections of a
+ * <code>SelectorServer</code>.
+ * <p>
+ * Deploying an application walks its shared resources
+ * directory and the resources directories of its
+ * resources once, and computes the entity tag and the
+ * last modified date of every file. The shared
+ * directory is mounted at the application name, and
+ * the directory of a resource at the application name
+ * followed by <code>/</code> and the resource class
+ * name. Files added to a directory afterwards are not
+ * served until the application is deployed again.
+ * <p>
+ * The variants of the files precompressed when the
+ * application was bundled are linked to their files by
+ * the manifests of the application model. A request
+ * is served the smallest variant whose content encoding
+ * the client accepts, so no response is compressed
+ * while serving.
+ * <p>
+ * The files of plaintext connections are transferred
+ * from the file channel straight to the socket, which
+ * the platform performs with <code>sendfile</code>
+ * without copying the bytes through the heap. A file
+ * requested at least the hot threshold number of times
+ * that is small enough is memory mapped, within the
+ * mapped cache size, and is then written from its
+ * mapped region without opening or reading the file.
+ * The files of secured connections that are not mapped
+ * are read into a buffer borrowed from the buffer pool
+ * of the connection to be encrypted.
+ * <p>
+ * The mapped cache size, the mapped file size and the
+ * hot threshold can be changed while running. Lowering
+ * the mapped cache size does not unmap the files that
+ * are already mapped.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.1
+ */
+public class StaticFileService {
+	/**
+	 * The <code>String</code> HTTP date pattern.
+	 */
+	private static final String DatePattern = "EEE, dd MMM yyyy HH:mm:ss 'GMT'";
+	/**
+	 * The <code>StaticFile</code> array of no variants.
+	 */
+	private static final StaticFile[] NoVariants = new StaticFile[0];
+	/**
+	 * The <code>Comparator</code> ordering the variants
+	 * smallest first.
+	 */
+	private static final Comparator<StaticFile> VariantOrder = new Comparator<StaticFile>() {
+		@Override
+		public int compare(final StaticFile a, final StaticFile b) {
+			return (a.length < b.length) ? -1 : ((a.length == b.length) ? 0 : 1);
+		}
+	};
+	/**
+	 * The <code>Map</code> of mount <code>String</code>
+	 * to its <code>Map</code> of relative path to
+	 * <code>StaticFile</code>.
+	 */
+	private final ConcurrentHashMap<String, Map<String, StaticFile>> mounts;
+	/**
+	 * The <code>AtomicLong</code> number of mapped bytes.
+	 */
+	private final AtomicLong mapped;
+	/**
+	 * The current <code>ConfigStaticFiles</code>.
+	 */
+	private volatile ConfigStaticFiles config;
+
+	/**
+	 * Constructor of <code>StaticFileService</code>.
+	 * @param config The <code>ConfigStaticFiles</code>.
+	 */
+	public StaticFileService(final ConfigStaticFiles config) {
+		this.mounts = new ConcurrentHashMap<String, Map<String, StaticFile>>();
+		this.mapped = new AtomicLong();
+		this.config = config;
+	}
+
+	/**
+	 * Deploy the resources directories of the given
+	 * application, replacing the files of any previous
+	 * deployment of the application.
+	 * @param ham The <code>HAM</code> of the application.
+	 * @param layout The <code>ApplicationLayout</code>
+	 * the application is deployed to.
+	 * @throws IOException If walking any directory
+	 * failed.
+	 */
+	public void deploy(final HAM ham, final ApplicationLayout layout) throws IOException {
+		this.undeploy(ham.applicationName);
+		if (ham.shared != null && ham.shared.resourcesDir != null && ham.shared.resourcesDir.length() > 0) {
+			this.deploy(ham.applicationName, new File(layout.resourcesDir), ham.shared.precompressed);
+		}
+		// HOME/apps/APPLICATION/RESOURCE/resources/
+		final String appDir = FileUtils.instance.getValidDir(layout.appDir);
+		final int size = ham.resources.size();
+		for (int i = 0; i < size; i++) {
+			final HAMResource resource = ham.resources.get(i);
+			if (resource.resourcesDir == null || resource.resourcesDir.length() <= 0) continue;
+			final File dir = new File(appDir + resource.classname + File.separator + "resources");
+			this.deploy(ham.applicationName + "/" + resource.classname, dir, resource.precompressed);
+		}
+	}
+
+	/**
+	 * Deploy the given directory at the given mount,
+	 * replacing the files previously deployed there.
+	 * @param mount The <code>String</code> mount.
+	 * @param dir The <code>File</code> directory.
+	 * @param precompressed The <code>HAMPrecompressed</code>
+	 * manifest of the directory. Or <code>null</code> if
+	 * no file is precompressed.
+	 * @throws IOException If walking the directory
+	 * failed.
+	 */
+	public void deploy(final String mount, final File dir, final HAMPrecompressed precompressed) throws IOException {
+		if (!dir.isDirectory()) throw new IOException("Invalid resources directory: " + dir.getPath());
+		final Map<String, File> found = new LinkedHashMap<String, File>();
+		this.walk(dir, "", found);
+		final DateFormat format = new SimpleDateFormat(StaticFileService.DatePattern, Locale.US);
+		format.setTimeZone(TimeZone.getTimeZone("GMT"));
+		final Map<String, StaticFile> files = new HashMap<String, StaticFile>();
+		// Variants first, so their files can refer to them.
+		if (precompressed != null) {
+			for (final Map.Entry<String, List<EContentEncoding>> entry : precompressed.assets.entrySet()) {
+				for (final EContentEncoding encoding : entry.getValue()) {
+					final String path = entry.getKey() + encoding.suffix;
+					final File file = found.get(path);
+					if (file == null) continue;
+					files.put(path, new StaticFile(file, path, format.format(file.lastModified()), encoding, StaticFileService.NoVariants));
+				}
+			}
+		}
+		for (final Map.Entry<String, File> entry : found.entrySet()) {
+			final String path = entry.getKey();
+			if (files.containsKey(path)) continue;
+			final File file = entry.getValue();
+			final StaticFile[] variants = this.getVariants(path, precompressed, files);
+			files.put(path, new StaticFile(file, path, format.format(file.lastModified()), null, variants));
+		}
+		final Map<String, StaticFile> previous = this.mounts.put(mount, Collections.unmodifiableMap(files));
+		if (previous != null) this.close(previous);
+	}
+
+	/**
+	 * Collect the files of the given directory and its
+	 * sub-directories.
+	 * @param dir The <code>File</code> directory.
+	 * @param prefix The <code>String</code> relative
+	 * path of the directory.
+	 * @param files The <code>Map</code> to collect into.
+	 * @throws IOException If listing the directory
+	 * failed.
+	 */
+	private void walk(final File dir, final String prefix, final Map<String, File> files) throws IOException {
+		final File[] children = dir.listFiles();
+		if (children == null) throw new IOException("Failed to list resources directory: " + dir.getPath());
+		for (int i = 0; i < children.length; i++) {
+			final File child = children[i];
+			final String path = prefix + child.getName();
+			if (child.isDirectory()) {
+				this.walk(child, path + "/", files);
+			} else if (child.isFile()) {
+				files.put(path, child);
+			}
+		}
+	}
+
+	/**
+	 * Retrieve the deployed variants of the given file.
+	 * @param path The <code>String</code> path of the
+	 * file.
+	 * @param precompressed The <code>HAMPrecompressed</code>
+	 * manifest. Or <code>null</code> if there is none.
+	 * @param files The <code>Map</code> of the deployed
+	 * variants.
+	 * @return The <code>StaticFile</code> array of the
+	 * variants, smallest first.
+	 */
+	private StaticFile[] getVariants(final String path, final HAMPrecompressed precompressed, final Map<String, StaticFile> files) {
+		final List<EContentEncoding> encodings = (precompressed==null) ? null : precompressed.getEncodings(path);
+		if (encodings == null) return StaticFileService.NoVariants;
+		final StaticFile[] variants = new StaticFile[encodings.size()];
+		int count = 0;
+		for (final EContentEncoding encoding : encodings) {
+			final StaticFile variant = files.get(path + encoding.suffix);
+			if (variant != null) variants[count++] = variant;
+		}
+		final StaticFile[] deployed = Arrays.copyOf(variants, count);
+		Arrays.sort(deployed, StaticFileService.VariantOrder);
+		return deployed;
+	}
+
+	/**
+	 * Undeploy all the directories of the given
+	 * application.
+	 * @param applicationName The <code>String</code>
+	 * application name.
+	 */
+	public void undeploy(final String applicationName) {
+		final String prefix = applicationName + "/";
+		final Iterator<Map.Entry<String, Map<String, StaticFile>>> iterator = this.mounts.entrySet().iterator();
+		while (iterator.hasNext()) {
+			final Map.Entry<String, Map<String, StaticFile>> entry = iterator.next();
+			final String mount = entry.getKey();
+			if (mount.equals(applicationName) || mount.startsWith(prefix)) {
+				iterator.remove();
+				this.close(entry.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Close the given files.
+	 * @param files The <code>Map</code> of files.
+	 */
+	private void close(final Map<String, StaticFile> files) {
+		for (final StaticFile file : files.values()) {
+			final long dropped = file.close();
+			if (dropped > 0) this.mapped.addAndGet(-dropped);
+		}
+	}
+
+	/**
+	 * Retrieve the file of the given request, and map
+	 * the file if it became hot.
+	 * @param mount The <code>String</code> mount.
+	 * @param path The <code>String</code> path of the
+	 * file relative to the mount, separated by
+	 * <code>/</code>.
+	 * @return The <code>StaticFile</code>. Or
+	 * <code>null</code> if there is no such file.
+	 * @throws IOException If mapping the file failed.
+	 */
+	public StaticFile getFile(final String mount, final String path) throws IOException {
+		return this.getFile(mount, path, null);
+	}
+
+	/**
+	 * Retrieve the smallest variant of the file of the
+	 * given request that the client accepts, and map the
+	 * variant if it became hot.
+	 * @param mount The <code>String</code> mount.
+	 * @param path The <code>String</code> path of the
+	 * file relative to the mount, separated by
+	 * <code>/</code>.
+	 * @param acceptEncoding The <code>String</code> value
+	 * of the <code>Accept-Encoding</code> header. Or
+	 * <code>null</code> if there is none.
+	 * @return The <code>StaticFile</code>, whose encoding
+	 * is <code>null</code> if no variant is accepted. Or
+	 * <code>null</code> if there is no such file.
+	 * @throws IOException If mapping the file failed.
+	 */
+	public StaticFile getFile(final String mount, final String path, final String acceptEncoding) throws IOException {
+		final Map<String, StaticFile> files = this.mounts.get(mount);
+		if (files == null) return null;
+		final StaticFile requested = files.get(path);
+		if (requested == null) return null;
+		StaticFile file = requested;
+		if (acceptEncoding != null) {
+			for (int i = 0; i < requested.variants.length; i++) {
+				if (this.isAccepted(acceptEncoding, requested.variants[i].encoding)) {
+					file = requested.variants[i];
+					break;
+				}
+			}
+		}
+		final ConfigStaticFiles config = this.config;
+		if (file.request() >= config.hotThreshold && !file.isMapped() && file.length > 0 && file.length <= config.mappedFileSize) {
+			if (this.reserve(file.length, config.mappedCacheSize)) {
+				boolean success = false;
+				try {
+					success = file.map();
+				} finally {
+					if (!success) this.mapped.addAndGet(-file.length);
+				}
+			}
+		}
+		return file;
+	}
+
+	/**
+	 * Check if the given accepted encodings include the
+	 * given encoding with a non-zero quality.
+	 * @param acceptEncoding The <code>String</code> value
+	 * of the <code>Accept-Encoding</code> header.
+	 * @param encoding The <code>EContentEncoding</code>.
+	 * @return <code>true</code> if it is accepted.
+	 */
+	private boolean isAccepted(final String acceptEncoding, final EContentEncoding encoding) {
+		boolean wildcard = false;
+		final String[] codings = acceptEncoding.split(",");
+		for (int i = 0; i < codings.length; i++) {
+			final String coding = codings[i];
+			final int index = coding.indexOf(';');
+			final String name = ((index < 0) ? coding : coding.substring(0, index)).trim();
+			final boolean accepted = (index < 0) || !this.isZeroQuality(coding.substring(index+1));
+			if (name.equalsIgnoreCase(encoding.value)) return accepted;
+			else if (name.equals("*")) wildcard = accepted;
+		}
+		return wildcard;
+	}
+
+	/**
+	 * Check if the given coding parameters set a zero
+	 * quality.
+	 * @param parameters The <code>String</code> parameters
+	 * following the coding name.
+	 * @return <code>true</code> if the quality is zero.
+	 */
+	private boolean isZeroQuality(final String parameters) {
+		final String parameter = parameters.trim();
+		if (!parameter.startsWith("q=") && !parameter.startsWith("Q=")) return false;
+		try {
+			return (Double.parseDouble(parameter.substring(2).trim()) <= 0);
+		} catch (final NumberFormatException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Reserve the given number of mapped bytes.
+	 * @param length The <code>long</code> number of
+	 * bytes.
+	 * @param limit The <code>long</code> mapped cache
+	 * size.
+	 * @return <code>true</code> if the bytes are
+	 * reserved.
+	 */
+	private boolean reserve(final long length, final long limit) {
+		while (true) {
+			final long current = this.mapped.get();
+			if (current + length > limit) return false;
+			else if (this.mapped.compareAndSet(current, current + length)) return true;
+		}
+	}
+
+	/**
+	 * Write the bytes of the given file from the given
+	 * position to the given connection, as many as the
+	 * connection can take. The handler should wait for
+	 * the connection to become writable before writing
+	 * the remaining bytes. This method must be invoked
+	 * on the selector thread of the connection.
+	 * @param connection The <code>Connection</code> to
+	 * write to.
+	 * @param file The <code>StaticFile</code> to write.
+	 * @param position The <code>long</code> position in
+	 * the file to write from.
+	 * @return The <code>long</code> number of bytes
+	 * written.
+	 * @throws IOException If reading the file or writing
+	 * the connection failed.
+	 */
+	public long transfer(final Connection connection, final StaticFile file, final long position) throws IOException {
+		if (position >= file.length) return 0;
+		final MappedByteBuffer region = file.getRegion();
+		if (region != null) {
+			final ByteBuffer src = region.duplicate();
+			src.position((int)position);
+			return connection.write(src);
+		} else if (!connection.isSecure()) {
+			return file.getChannel().transferTo(position, file.length-position, connection.getChannel());
+		}
+		final BufferPool pool = connection.getBufferPool();
+		final ByteBuffer buffer = pool.acquire((int)Math.min(file.length-position, pool.getMaxBufferSize()));
+		try {
+			final int read = file.getChannel().read(buffer, position);
+			if (read <= 0) return 0;
+			buffer.flip();
+			return connection.write(buffer);
+		} finally {
+			pool.release(buffer);
+		}
+	}
+
+	/**
+	 * Replace the static files configuration.
+	 * @param config The new <code>ConfigStaticFiles</code>.
+	 */
+	public void setConfiguration(final ConfigStaticFiles config) {
+		this.config = config;
+	}
+
+	/**
+	 * Retrieve the number of deployed files.
+	 * @return The <code>int</code> number of files.
+	 */
+	public int getFileCount() {
+		int count = 0;
+		for (final Map<String, StaticFile> files : this.mounts.values()) {
+			count += files.size();
+		}
+		return count;
+	}
+
+	/**
+	 * Retrieve the number of bytes of the mapped files.
+	 * @return The <code>long</code> number of bytes.
+	 */
+	public long getMappedSize() {
+		return this.mapped.get();
+	}
+}
@@ -0,0 +1,358 @@
+package hemera.core.environment.socket;
+
+import hemera.core.environment.config.ConfigSocket;
+import hemera.core.environment.config.ConfigTLS;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSessionContext;
+
+/**
+ * <code>TLSService</code> defines the unit that secures
+ * the connections of a <code>SelectorServer</code> whose
+ * socket certificate is set.
+ * <p>
+ * The service holds the server context, whose session
+ * cache is sized by the TLS configuration, and the
+ * bounded pool of handshake threads. The handshakes,
+ * including their delegated key exchange tasks, run on
+ * the handshake threads only, so a storm of new clients
+ * never stalls the selector threads serving the
+ * established connections. A handshake submitted while
+ * the handshake queue is full closes its connection.
+ * <p>
+ * The completed handshakes are counted as full or
+ * resumed, which gives the session resumption rate.
+ * <p>
+ * The service does not set any platform property. The
+ * session tickets are a flag of the JVM, given to it
+ * with the JVM arguments of the configuration.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.1
+ */
+public class TLSService {
+	/**
+	 * The <code>Method</code> enabling the server cipher
+	 * suite order. Or <code>null</code> if the platform
+	 * does not provide it.
+	 */
+	private static final Method UseCipherSuitesOrder = TLSService.findUseCipherSuitesOrder();
+	/**
+	 * The server <code>SSLContext</code>.
+	 */
+	private final SSLContext context;
+	/**
+	 * The <code>ThreadPoolExecutor</code> running the
+	 * handshakes.
+	 */
+	private final ThreadPoolExecutor executor;
+	/**
+	 * The <code>AtomicLong</code> number of full
+	 * handshakes.
+	 */
+	private final AtomicLong full;
+	/**
+	 * The <code>AtomicLong</code> number of resumed
+	 * handshakes.
+	 */
+	private final AtomicLong resumed;
+	/**
+	 * The <code>AtomicLong</code> number of failed
+	 * handshakes.
+	 */
+	private final AtomicLong failed;
+	/**
+	 * The <code>AtomicLong</code> number of handshakes
+	 * rejected by the full handshake queue.
+	 */
+	private final AtomicLong rejected;
+	/**
+	 * The current <code>ConfigTLS</code>.
+	 */
+	private volatile ConfigTLS config;
+
+	/**
+	 * Constructor of <code>TLSService</code>.
+	 * @param config The <code>ConfigSocket</code> with
+	 * the certificate set.
+	 * @throws IOException If loading the certificate or
+	 * creating the context failed.
+	 */
+	public TLSService(final ConfigSocket config) throws IOException {
+		final ConfigTLS tls = config.tls;
+		try {
+			this.context = this.createContext(config.certPath, config.keyPass);
+		} catch (final GeneralSecurityException e) {
+			throw new IOException("Failed to create TLS context: " + config.certPath, e);
+		}
+		this.config = tls;
+		this.applySessionCache(tls);
+		// Fail fast on configurations the platform cannot
+		// serve.
+		this.createEngine();
+		final AtomicInteger count = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(tls.handshakeThreads, tls.handshakeThreads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(tls.handshakeQueueSize), new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable runnable) {
+				final Thread thread = new Thread(runnable, "hemera-handshake-" + count.getAndIncrement());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		this.full = new AtomicLong();
+		this.resumed = new AtomicLong();
+		this.failed = new AtomicLong();
+		this.rejected = new AtomicLong();
+	}
+
+	/**
+	 * Retrieve the server cipher suite order method,
+	 * which is only provided by newer platforms.
+	 * @return The <code>Method</code>. Or
+	 * <code>null</code> if not provided.
+	 */
+	private static Method findUseCipherSuitesOrder() {
+		try {
+			return SSLParameters.class.getMethod("setUseCipherSuitesOrder", boolean.class);
+		} catch (final NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Create the server context with the key store at
+	 * the given path.
+	 * @param certPath The <code>String</code> path to
+	 * the key store, which is read as PKCS #12 with a
+	 * <code>.p12</code> or <code>.pfx</code> extension.
+	 * @param keyPass The <code>String</code> password of
+	 * the key store and the key. Or <code>null</code> if
+	 * there is none.
+	 * @return The <code>SSLContext</code>.
+	 * @throws IOException If reading the key store
+	 * failed.
+	 * @throws GeneralSecurityException If the key store
+	 * is invalid.
+	 */
+	private SSLContext createContext(final String certPath, final String keyPass) throws IOException, GeneralSecurityException {
+		final String lower = certPath.toLowerCase();
+		final KeyStore store = KeyStore.getInstance((lower.endsWith(".p12") || lower.endsWith(".pfx")) ? "PKCS12" : KeyStore.getDefaultType());
+		final char[] password = (keyPass == null) ? new char[0] : keyPass.toCharArray();
+		final InputStream input = new FileInputStream(certPath);
+		try {
+			store.load(input, password);
+		} finally {
+			input.close();
+		}
+		final KeyManagerFactory factory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+		factory.init(store, password);
+		final SSLContext context = SSLContext.getInstance("TLS");
+		context.init(factory.getKeyManagers(), null, null);
+		return context;
+	}
+
+	/**
+	 * Apply the session cache size and lifetime of the
+	 * given configuration.
+	 * @param config The <code>ConfigTLS</code>.
+	 */
+	private void applySessionCache(final ConfigTLS config) {
+		final SSLSessionContext sessions = this.context.getServerSessionContext();
+		sessions.setSessionCacheSize(config.sessionCacheSize);
+		sessions.setSessionTimeout((int)config.getSessionLifetime(TimeUnit.SECONDS));
+	}
+
+	/**
+	 * Create a server engine with the enabled protocols
+	 * and cipher suites of the current configuration.
+	 * @return The <code>SSLEngine</code>.
+	 * @throws IllegalArgumentException If the platform
+	 * supports none of the protocols or cipher suites.
+	 */
+	SSLEngine createEngine() {
+		final ConfigTLS config = this.config;
+		final SSLEngine engine = this.context.createSSLEngine();
+		engine.setUseClientMode(false);
+		final SSLParameters parameters = engine.getSSLParameters();
+		parameters.setProtocols(this.filter(config.getProtocols(), engine.getSupportedProtocols(), "protocols"));
+		final String[] ciphers = config.getCiphers();
+		if (ciphers != null) parameters.setCipherSuites(this.filter(ciphers, engine.getSupportedCipherSuites(), "ciphers"));
+		if (TLSService.UseCipherSuitesOrder != null) {
+			try {
+				TLSService.UseCipherSuitesOrder.invoke(parameters, config.serverCipherOrder);
+			} catch (final IllegalAccessException e) {
+				// The client order is used.
+			} catch (final InvocationTargetException e) {
+				// The client order is used.
+			}
+		}
+		engine.setSSLParameters(parameters);
+		return engine;
+	}
+
+	/**
+	 * Retain the given preferred values the platform
+	 * supports, in preference order.
+	 * @param preferred The <code>String</code> array of
+	 * preferred values.
+	 * @param supported The <code>String</code> array of
+	 * supported values.
+	 * @param name The <code>String</code> name of the
+	 * values.
+	 * @return The <code>String</code> array of values.
+	 * @throws IllegalArgumentException If none of the
+	 * values is supported.
+	 */
+	private String[] filter(final String[] preferred, final String[] supported, final String name) {
+		final List<String> platform = Arrays.asList(supported);
+		final List<String> retained = new ArrayList<String>(preferred.length);
+		for (final String value : preferred) {
+			if (platform.contains(value)) retained.add(value);
+		}
+		if (retained.isEmpty()) {
+			throw new IllegalArgumentException("Invalid TLS configuration. None of the " + name + " is supported: " + Arrays.toString(preferred));
+		}
+		return retained.toArray(new String[retained.size()]);
+	}
+
+	/**
+	 * Submit the given handshake step to the handshake
+	 * threads.
+	 * @param step The <code>Runnable</code> step.
+	 * @return <code>true</code> if submitted.
+	 * <code>false</code> if the handshake queue is full
+	 * or the service is shut down.
+	 */
+	boolean submit(final Runnable step) {
+		try {
+			this.executor.execute(step);
+			return true;
+		} catch (final RejectedExecutionException e) {
+			this.rejected.incrementAndGet();
+			return false;
+		}
+	}
+
+	/**
+	 * Record a completed handshake.
+	 * @param resumed <code>true</code> if the session
+	 * was resumed.
+	 */
+	void recordHandshake(final boolean resumed) {
+		if (resumed) this.resumed.incrementAndGet();
+		else this.full.incrementAndGet();
+	}
+
+	/**
+	 * Record a failed handshake.
+	 */
+	void recordFailure() {
+		this.failed.incrementAndGet();
+	}
+
+	/**
+	 * Replace the TLS configuration. The session cache,
+	 * the protocols and the cipher suites are applied
+	 * while running, other changes require a restart.
+	 * @param config The new <code>ConfigTLS</code>.
+	 */
+	public void setConfiguration(final ConfigTLS config) {
+		this.config = config;
+		this.applySessionCache(config);
+	}
+
+	/**
+	 * Stop the handshake threads and wait for them to
+	 * terminate. Queued handshakes are dropped.
+	 * @throws InterruptedException If interrupted while
+	 * waiting.
+	 */
+	public void shutdown() throws InterruptedException {
+		this.executor.shutdownNow();
+		this.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Retrieve the number of full handshakes.
+	 * @return The <code>long</code> number of
+	 * handshakes.
+	 */
+	public long getFullHandshakeCount() {
+		return this.full.get();
+	}
+
+	/**
+	 * Retrieve the number of resumed handshakes.
+	 * @return The <code>long</code> number of
+	 * handshakes.
+	 */
+	public long getResumedHandshakeCount() {
+		return this.resumed.get();
+	}
+
+	/**
+	 * Retrieve the number of failed handshakes.
+	 * @return The <code>long</code> number of
+	 * handshakes.
+	 */
+	public long getFailedHandshakeCount() {
+		return this.failed.get();
+	}
+
+	/**
+	 * Retrieve the number of handshakes rejected by the
+	 * full handshake queue.
+	 * @return The <code>long</code> number of
+	 * handshakes.
+	 */
+	public long getRejectedHandshakeCount() {
+		return this.rejected.get();
+	}
+
+	/**
+	 * Retrieve the number of handshake steps waiting for
+	 * a handshake thread.
+	 * @return The <code>int</code> number of steps.
+	 */
+	public int getQueuedHandshakeCount() {
+		return this.executor.getQueue().size();
+	}
+
+	/**
+	 * Retrieve the fraction of the completed handshakes
+	 * that resumed a session.
+	 * @return The <code>double</code> rate between
+	 * <code>0</code> and <code>1</code>.
+	 */
+	public double getResumptionRate() {
+		final long resumed = this.resumed.get();
+		final long total = resumed + this.full.get();
+		return (total == 0) ? 0 : (double)resumed / total;
+	}
+
+	@Override
+	public String toString() {
+		return "full=" + this.full.get() + " resumed=" + this.resumed.get() + " resumption=" + String.format("%.1f%%", this.getResumptionRate() * 100) + " failed=" + this.failed.get() + " rejected=" + this.rejected.get() + " queued=" + this.getQueuedHandshakeCount();
+	}
+}
@@ -0,0 +1,407 @@
+package hemera.core.environment.socket;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLException;
+
+/**
+ * <code>TLSSession</code> defines the TLS state of one
+ * <code>Connection</code>.
+ * <p>
+ * The handshake is driven in steps on the handshake
+ * threads of the <code>TLSService</code>. A step runs
+ * until the handshake needs the connection to become
+ * readable or writable, then hands the readiness back
+ * to the selector thread, which submits the next step
+ * once the connection is ready. Once the handshake
+ * completes, the application data is encrypted and
+ * decrypted on the selector thread.
+ * <p>
+ * Like the connection, the session holds pooled buffers
+ * only while they hold data, so idle secured connections
+ * hold no buffer memory either.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.1
+ */
+final class TLSSession {
+	/**
+	 * The empty <code>ByteBuffer</code> wrapped to send
+	 * handshake and closure messages.
+	 */
+	private static final ByteBuffer Empty = ByteBuffer.allocate(0);
+	/**
+	 * The <code>TLSService</code> of the session.
+	 */
+	private final TLSService service;
+	/**
+	 * The <code>Connection</code> secured.
+	 */
+	private final Connection connection;
+	/**
+	 * The <code>SSLEngine</code>.
+	 */
+	private final SSLEngine engine;
+	/**
+	 * The <code>BufferPool</code> to borrow buffers from.
+	 */
+	private final BufferPool pool;
+	/**
+	 * The <code>ByteBuffer</code> of the received bytes
+	 * not decrypted yet. Or <code>null</code> if there
+	 * are none.
+	 * <p>
+	 * This value and the ones below are guarded by this
+	 * session, and the buffers are always left in write
+	 * mode.
+	 */
+	private ByteBuffer netIn;
+	/**
+	 * The <code>ByteBuffer</code> of the encrypted bytes
+	 * not sent yet. Or <code>null</code> if there are
+	 * none.
+	 */
+	private ByteBuffer netOut;
+	/**
+	 * The <code>ByteBuffer</code> of the decrypted bytes
+	 * not read yet. Or <code>null</code> if there are
+	 * none.
+	 */
+	private ByteBuffer appIn;
+	/**
+	 * The <code>long</code> time in milliseconds the
+	 * handshake started at.
+	 */
+	private long handshakeStart;
+	/**
+	 * The <code>boolean</code> flag indicating if the
+	 * session is closed.
+	 */
+	private volatile boolean closed;
+	/**
+	 * The <code>boolean</code> flag indicating if the
+	 * handshake is in progress.
+	 */
+	private volatile boolean handshaking;
+
+	/**
+	 * Constructor of <code>TLSSession</code>.
+	 * @param service The <code>TLSService</code>.
+	 * @param connection The <code>Connection</code>.
+	 */
+	TLSSession(final TLSService service, final Connection connection) {
+		this.service = service;
+		this.connection = connection;
+		this.engine = service.createEngine();
+		this.pool = connection.getBufferPool();
+		this.handshaking = true;
+	}
+
+	/**
+	 * Start the handshake.
+	 * @return <code>true</code> if the first step is
+	 * submitted. <code>false</code> if the handshake
+	 * queue is full.
+	 * @throws SSLException If the engine failed.
+	 */
+	boolean beginHandshake() throws SSLException {
+		this.handshakeStart = System.currentTimeMillis();
+		this.engine.beginHandshake();
+		return this.resumeHandshake();
+	}
+
+	/**
+	 * Submit the next handshake step.
+	 * @return <code>true</code> if submitted.
+	 * <code>false</code> if the handshake queue is full.
+	 */
+	boolean resumeHandshake() {
+		return this.service.submit(new Runnable() {
+			@Override
+			public void run() {
+				handshake();
+			}
+		});
+	}
+
+	/**
+	 * Run the handshake until it needs the connection to
+	 * become ready, or it completes.
+	 */
+	private synchronized void handshake() {
+		if (this.closed) return;
+		try {
+			while (true) {
+				if (!this.flush()) {
+					this.connection.setInterest(SelectionKey.OP_WRITE);
+					return;
+				}
+				final HandshakeStatus status = this.engine.getHandshakeStatus();
+				if (status == HandshakeStatus.NOT_HANDSHAKING || status == HandshakeStatus.FINISHED) {
+					this.complete();
+					return;
+				} else if (status == HandshakeStatus.NEED_TASK) {
+					this.runDelegatedTasks();
+				} else if (status == HandshakeStatus.NEED_WRAP) {
+					this.wrap(TLSSession.Empty);
+				} else if (!this.unwrap()) {
+					this.connection.setInterest(SelectionKey.OP_READ);
+					return;
+				}
+			}
+		} catch (final IOException e) {
+			this.service.recordFailure();
+			this.connection.close();
+		} catch (final RuntimeException e) {
+			this.service.recordFailure();
+			this.connection.close();
+		}
+	}
+
+	/**
+	 * Complete the handshake and hand the connection to
+	 * the selector thread. A session created before the
+	 * handshake started was resumed.
+	 */
+	private void complete() {
+		this.handshaking = false;
+		this.service.recordHandshake(this.engine.getSession().getCreationTime() < this.handshakeStart);
+		this.release();
+		this.connection.opened();
+	}
+
+	/**
+	 * Run the delegated tasks of the engine on the
+	 * current thread.
+	 */
+	private void runDelegatedTasks() {
+		for (Runnable task = this.engine.getDelegatedTask(); task != null; task = this.engine.getDelegatedTask()) {
+			task.run();
+		}
+	}
+
+	/**
+	 * Encrypt the given bytes into the pending bytes to
+	 * send.
+	 * @param src The <code>ByteBuffer</code> to encrypt.
+	 * @return The <code>int</code> number of bytes
+	 * consumed.
+	 * @throws IOException If the engine failed or is
+	 * closed.
+	 */
+	private int wrap(final ByteBuffer src) throws IOException {
+		if (this.netOut == null) this.netOut = this.pool.acquire(this.engine.getSession().getPacketBufferSize());
+		final SSLEngineResult result = this.engine.wrap(src, this.netOut);
+		if (result.getStatus() == SSLEngineResult.Status.CLOSED) throw new ClosedChannelException();
+		else if (result.getStatus() == SSLEngineResult.Status.BUFFER_OVERFLOW) throw new SSLException("Packet exceeds buffer.");
+		return result.bytesConsumed();
+	}
+
+	/**
+	 * Read and decrypt the received bytes into the
+	 * decrypted bytes not read yet.
+	 * @return <code>true</code> if any record is
+	 * decrypted. <code>false</code> if a record is not
+	 * entirely received yet.
+	 * @throws IOException If reading failed, the stream
+	 * ended or the engine failed.
+	 */
+	private boolean unwrap() throws IOException {
+		final SocketChannel channel = this.connection.getChannel();
+		if (this.netIn == null) this.netIn = this.pool.acquire(this.engine.getSession().getPacketBufferSize());
+		if (this.appIn == null) this.appIn = this.pool.acquire(this.engine.getSession().getApplicationBufferSize());
+		while (true) {
+			if (this.netIn.position() > 0) {
+				this.netIn.flip();
+				final SSLEngineResult result = this.engine.unwrap(this.netIn, this.appIn);
+				this.netIn.compact();
+				switch (result.getStatus()) {
+				case OK: return true;
+				case CLOSED: throw new EOFException();
+				case BUFFER_OVERFLOW: throw new SSLException("Record exceeds buffer.");
+				default: break;
+				}
+			}
+			if (!this.netIn.hasRemaining()) throw new SSLException("Record exceeds buffer.");
+			final int read = channel.read(this.netIn);
+			if (read < 0) throw new EOFException();
+			else if (read == 0) return false;
+		}
+	}
+
+	/**
+	 * Send the pending encrypted bytes.
+	 * @return <code>true</code> if all the bytes are
+	 * sent. <code>false</code> if the connection cannot
+	 * take more bytes yet.
+	 * @throws IOException If writing failed.
+	 */
+	private boolean flush() throws IOException {
+		if (this.netOut == null) return true;
+		this.netOut.flip();
+		this.connection.getChannel().write(this.netOut);
+		this.netOut.compact();
+		if (this.netOut.position() > 0) return false;
+		this.pool.release(this.netOut);
+		this.netOut = null;
+		return true;
+	}
+
+	/**
+	 * Decrypt the received bytes into the given buffer.
+	 * @param dst The <code>ByteBuffer</code> to read
+	 * into.
+	 * @return The <code>int</code> number of bytes read.
+	 * Or <code>-1</code> if the stream ended.
+	 * @throws IOException If reading failed.
+	 */
+	synchronized int read(final ByteBuffer dst) throws IOException {
+		if (this.closed) throw new ClosedChannelException();
+		try {
+			// Records such as key updates carry no data.
+			while (this.appIn == null || this.appIn.position() == 0) {
+				try {
+					if (!this.unwrap()) return 0;
+				} catch (final EOFException e) {
+					return -1;
+				}
+				// Answer the post-handshake messages.
+				this.runDelegatedTasks();
+				if (this.engine.getHandshakeStatus() == HandshakeStatus.NEED_WRAP) {
+					this.wrap(TLSSession.Empty);
+					if (!this.flush()) this.connection.updateInterest();
+				}
+			}
+			this.appIn.flip();
+			final int count = Math.min(this.appIn.remaining(), dst.remaining());
+			final int limit = this.appIn.limit();
+			this.appIn.limit(this.appIn.position() + count);
+			dst.put(this.appIn);
+			this.appIn.limit(limit);
+			this.appIn.compact();
+			return count;
+		} finally {
+			this.release();
+		}
+	}
+
+	/**
+	 * Encrypt and send the given bytes. The pending
+	 * encrypted bytes are sent first. If the encrypted
+	 * bytes of the consumed bytes cannot all be sent,
+	 * the connection becomes interested in writing so
+	 * they are sent once it is writable.
+	 * @param src The <code>ByteBuffer</code> to write.
+	 * @return The <code>int</code> number of bytes
+	 * consumed, which is less than the remaining bytes
+	 * if the connection cannot take more bytes yet.
+	 * @throws IOException If writing failed.
+	 */
+	synchronized int write(final ByteBuffer src) throws IOException {
+		if (this.closed) throw new ClosedChannelException();
+		int consumed = 0;
+		while (this.flush() && src.hasRemaining()) {
+			consumed += this.wrap(src);
+		}
+		if (this.netOut != null) this.connection.updateInterest();
+		return consumed;
+	}
+
+	/**
+	 * Send the pending encrypted bytes.
+	 * @return <code>true</code> if all the pending bytes
+	 * are sent.
+	 * @throws IOException If writing failed.
+	 */
+	synchronized boolean flushPending() throws IOException {
+		if (this.closed) throw new ClosedChannelException();
+		return this.flush();
+	}
+
+	/**
+	 * Close the session. While the handshake is in
+	 * progress, the session is closed by a handshake
+	 * thread, so the closing thread does not wait for a
+	 * running handshake step.
+	 */
+	void close() {
+		if (this.handshaking && this.service.submit(new Runnable() {
+			@Override
+			public void run() {
+				shutdown();
+			}
+		})) return;
+		this.shutdown();
+	}
+
+	/**
+	 * Send the closure message if the connection can
+	 * take it, and return the buffers to the pool.
+	 */
+	private synchronized void shutdown() {
+		if (this.closed) return;
+		this.closed = true;
+		this.engine.closeOutbound();
+		try {
+			if (!this.handshaking && this.flush()) {
+				this.wrap(TLSSession.Empty);
+				this.flush();
+			}
+		} catch (final IOException e) {
+			// Closed regardless.
+		}
+		this.pool.release(this.netIn);
+		this.pool.release(this.netOut);
+		this.pool.release(this.appIn);
+		this.netIn = null;
+		this.netOut = null;
+		this.appIn = null;
+	}
+
+	/**
+	 * Return the empty buffers to the pool.
+	 */
+	private void release() {
+		if (this.netIn != null && this.netIn.position() == 0) {
+			this.pool.release(this.netIn);
+			this.netIn = null;
+		}
+		if (this.appIn != null && this.appIn.position() == 0) {
+			this.pool.release(this.appIn);
+			this.appIn = null;
+		}
+	}
+
+	/**
+	 * Check if any received bytes are not read yet,
+	 * which the selector will not report as readable.
+	 * @return <code>true</code> if there are.
+	 */
+	synchronized boolean hasBufferedData() {
+		return (this.netIn != null && this.netIn.position() > 0) || (this.appIn != null && this.appIn.position() > 0);
+	}
+
+	/**
+	 * Check if any encrypted bytes are not sent yet.
+	 * @return <code>true</code> if there are.
+	 */
+	synchronized boolean hasPendingWrite() {
+		return (this.netOut != null && this.netOut.position() > 0);
+	}
+
+	/**
+	 * Check if the handshake is in progress.
+	 * @return <code>true</code> if it is.
+	 */
+	boolean isHandshaking() {
+		return this.handshaking;
+	}
+}
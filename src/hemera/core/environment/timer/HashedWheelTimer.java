@@ -0,0 +1,419 @@
+package hemera.core.environment.timer;
+
+import hemera.core.environment.config.ConfigTimer;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <code>HashedWheelTimer</code> defines the timer shared
+ * by all the timeout driven components of the runtime,
+ * such as the idle timeouts of the connections.
+ * <p>
+ * The timer is a wheel of buckets, each holding a doubly
+ * linked list of timeouts. The timer thread advances the
+ * wheel by one bucket every tick and expires the
+ * timeouts of that bucket whose remaining number of
+ * revolutions is zero. Scheduling and cancelling are both
+ * constant time and never block: scheduled timeouts are
+ * queued and moved into their bucket by the timer thread
+ * on the next tick, and cancelled timeouts are queued
+ * and unlinked from their bucket the same way. Unlike a
+ * priority queue, the cost does not grow with the
+ * number of pending timeouts, at the price of expiring
+ * each timeout up to one tick late.
+ * <p>
+ * The expired tasks run on the timer thread, and must
+ * not block. Work that may block or must run on a
+ * specific thread is handed off by the task instead.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class HashedWheelTimer {
+	/**
+	 * The <code>int</code> maximum number of scheduled
+	 * timeouts moved into the wheel per tick, so a burst
+	 * of scheduling does not delay the expiration.
+	 */
+	private static final int TransferLimit = 100000;
+	/**
+	 * The <code>long</code> tick duration in nanoseconds.
+	 */
+	private final long tickDuration;
+	/**
+	 * The <code>Bucket</code> array of the wheel.
+	 */
+	private final Bucket[] wheel;
+	/**
+	 * The <code>int</code> mask of the bucket index.
+	 */
+	private final int mask;
+	/**
+	 * The <code>Queue</code> of scheduled timeouts that
+	 * are not in the wheel yet.
+	 */
+	private final Queue<Timeout> scheduled;
+	/**
+	 * The <code>Queue</code> of cancelled timeouts that
+	 * are not removed from the wheel yet.
+	 */
+	private final Queue<Timeout> cancelled;
+	/**
+	 * The <code>AtomicLong</code> number of timeouts
+	 * neither expired nor cancelled.
+	 */
+	private final AtomicLong pending;
+	/**
+	 * The <code>long</code> time in nanoseconds the
+	 * wheel started at.
+	 */
+	private volatile long startTime;
+	/**
+	 * The <code>boolean</code> flag indicating if the
+	 * timer is running.
+	 */
+	private volatile boolean running;
+	/**
+	 * The <code>boolean</code> flag indicating if the
+	 * timer is stopped.
+	 */
+	private volatile boolean stopped;
+	/**
+	 * The timer <code>Thread</code>. Or <code>null</code>
+	 * if not started.
+	 * <p>
+	 * This value is guarded by this timer.
+	 */
+	private Thread thread;
+
+	/**
+	 * Constructor of <code>HashedWheelTimer</code>.
+	 * @param config The <code>ConfigTimer</code>.
+	 */
+	public HashedWheelTimer(final ConfigTimer config) {
+		this.tickDuration = config.getTickDuration(TimeUnit.NANOSECONDS);
+		this.wheel = new Bucket[config.wheelSize];
+		for (int i = 0; i < this.wheel.length; i++) {
+			this.wheel[i] = new Bucket();
+		}
+		this.mask = this.wheel.length - 1;
+		this.scheduled = new ConcurrentLinkedQueue<Timeout>();
+		this.cancelled = new ConcurrentLinkedQueue<Timeout>();
+		this.pending = new AtomicLong();
+	}
+
+	/**
+	 * Start the timer thread.
+	 */
+	public synchronized void start() {
+		if (this.thread != null) return;
+		else if (this.stopped) throw new IllegalStateException("Timer is stopped.");
+		this.startTime = System.nanoTime();
+		this.running = true;
+		this.thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				HashedWheelTimer.this.run();
+			}
+		}, "hemera-timer");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * Schedule the given task to run once after the
+	 * given delay. A timer that is not started yet runs
+	 * the task no earlier than it is started.
+	 * @param task The <code>Runnable</code> task.
+	 * @param delay The <code>long</code> delay.
+	 * @param unit The <code>TimeUnit</code> of the
+	 * delay.
+	 * @return The <code>ITimeout</code> of the task.
+	 */
+	public ITimeout schedule(final Runnable task, final long delay, final TimeUnit unit) {
+		if (this.stopped) throw new IllegalStateException("Timer is stopped.");
+		final Timeout timeout = new Timeout(this, task, System.nanoTime() + unit.toNanos(Math.max(0, delay)));
+		this.pending.incrementAndGet();
+		this.scheduled.add(timeout);
+		return timeout;
+	}
+
+	/**
+	 * Run the wheel until stopped.
+	 */
+	private void run() {
+		long tick = 0;
+		while (true) {
+			final long now = this.waitForTick(tick);
+			if (now < 0) return;
+			this.removeCancelled();
+			this.transferScheduled(tick);
+			this.wheel[(int)(tick & this.mask)].expire(now);
+			tick++;
+		}
+	}
+
+	/**
+	 * Wait until the given tick ends.
+	 * @param tick The <code>long</code> tick.
+	 * @return The <code>long</code> current time in
+	 * nanoseconds. Or <code>-1</code> if the timer is
+	 * stopped while waiting.
+	 */
+	private long waitForTick(final long tick) {
+		final long end = this.startTime + this.tickDuration * (tick + 1);
+		while (true) {
+			if (!this.running) return -1;
+			final long now = System.nanoTime();
+			if (now - end >= 0) return now;
+			LockSupport.parkNanos(this, end - now);
+		}
+	}
+
+	/**
+	 * Remove the cancelled timeouts from their buckets.
+	 */
+	private void removeCancelled() {
+		for (Timeout timeout = this.cancelled.poll(); timeout != null; timeout = this.cancelled.poll()) {
+			if (timeout.bucket != null) timeout.bucket.remove(timeout);
+		}
+	}
+
+	/**
+	 * Move the scheduled timeouts into their buckets.
+	 * Timeouts whose deadline has already passed are
+	 * placed into the bucket of the current tick.
+	 * @param tick The <code>long</code> current tick.
+	 */
+	private void transferScheduled(final long tick) {
+		for (int i = 0; i < HashedWheelTimer.TransferLimit; i++) {
+			final Timeout timeout = this.scheduled.poll();
+			if (timeout == null) return;
+			else if (timeout.state != Timeout.Pending) continue;
+			final long deadlineTick = Math.max(tick, (timeout.deadline - this.startTime) / this.tickDuration);
+			timeout.remainingRounds = (deadlineTick - tick) / this.wheel.length;
+			this.wheel[(int)(deadlineTick & this.mask)].add(timeout);
+		}
+	}
+
+	/**
+	 * Stop the timer thread and wait for it to terminate.
+	 * The pending timeouts are dropped without running
+	 * their tasks.
+	 * @throws InterruptedException If interrupted while
+	 * waiting.
+	 */
+	public synchronized void stop() throws InterruptedException {
+		this.stopped = true;
+		if (this.thread == null) return;
+		this.running = false;
+		LockSupport.unpark(this.thread);
+		this.thread.join();
+	}
+
+	/**
+	 * Retrieve the tick duration.
+	 * @param unit The <code>TimeUnit</code> to retrieve
+	 * the duration in.
+	 * @return The <code>long</code> duration.
+	 */
+	public long getTickDuration(final TimeUnit unit) {
+		return unit.convert(this.tickDuration, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Retrieve the number of timeouts that have neither
+	 * expired nor been cancelled.
+	 * @return The <code>long</code> number of timeouts.
+	 */
+	public long getPendingCount() {
+		return this.pending.get();
+	}
+
+	/**
+	 * <code>Timeout</code> defines a scheduled task and
+	 * its link in the list of its bucket.
+	 */
+	private static final class Timeout implements ITimeout {
+		/**
+		 * The <code>int</code> state of a timeout that is
+		 * neither expired nor cancelled.
+		 */
+		private static final int Pending = 0;
+		/**
+		 * The <code>int</code> state of a cancelled
+		 * timeout.
+		 */
+		private static final int Cancelled = 1;
+		/**
+		 * The <code>int</code> state of an expired
+		 * timeout.
+		 */
+		private static final int Expired = 2;
+		/**
+		 * The <code>AtomicIntegerFieldUpdater</code> of
+		 * the state.
+		 */
+		private static final AtomicIntegerFieldUpdater<Timeout> State = AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+		/**
+		 * The <code>HashedWheelTimer</code> the timeout
+		 * is scheduled with.
+		 */
+		private final HashedWheelTimer timer;
+		/**
+		 * The <code>Runnable</code> task.
+		 */
+		private final Runnable task;
+		/**
+		 * The <code>long</code> deadline in nanoseconds.
+		 */
+		private final long deadline;
+		/**
+		 * The <code>int</code> state.
+		 */
+		private volatile int state;
+		/**
+		 * The <code>long</code> number of revolutions of
+		 * the wheel left before the timeout expires.
+		 * <p>
+		 * This value and the ones below are confined to
+		 * the timer thread.
+		 */
+		private long remainingRounds;
+		/**
+		 * The <code>Bucket</code> holding the timeout. Or
+		 * <code>null</code> if not in the wheel.
+		 */
+		private Bucket bucket;
+		/**
+		 * The next <code>Timeout</code> of the bucket.
+		 */
+		private Timeout next;
+		/**
+		 * The previous <code>Timeout</code> of the bucket.
+		 */
+		private Timeout prev;
+
+		/**
+		 * Constructor of <code>Timeout</code>.
+		 * @param timer The <code>HashedWheelTimer</code>.
+		 * @param task The <code>Runnable</code> task.
+		 * @param deadline The <code>long</code> deadline
+		 * in nanoseconds.
+		 */
+		private Timeout(final HashedWheelTimer timer, final Runnable task, final long deadline) {
+			this.timer = timer;
+			this.task = task;
+			this.deadline = deadline;
+		}
+
+		@Override
+		public boolean cancel() {
+			if (!Timeout.State.compareAndSet(this, Timeout.Pending, Timeout.Cancelled)) return false;
+			this.timer.pending.decrementAndGet();
+			this.timer.cancelled.add(this);
+			return true;
+		}
+
+		/**
+		 * Run the task, unless the timeout is cancelled.
+		 */
+		private void expire() {
+			if (!Timeout.State.compareAndSet(this, Timeout.Pending, Timeout.Expired)) return;
+			this.timer.pending.decrementAndGet();
+			try {
+				this.task.run();
+			} catch (final RuntimeException e) {
+				// Tasks handle their own failures.
+			}
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return (this.state == Timeout.Cancelled);
+		}
+
+		@Override
+		public boolean isExpired() {
+			return (this.state == Timeout.Expired);
+		}
+	}
+
+	/**
+	 * <code>Bucket</code> defines the doubly linked list
+	 * of the timeouts of one bucket of the wheel. It is
+	 * confined to the timer thread.
+	 */
+	private static final class Bucket {
+		/**
+		 * The first <code>Timeout</code>. Or
+		 * <code>null</code> if empty.
+		 */
+		private Timeout head;
+		/**
+		 * The last <code>Timeout</code>. Or
+		 * <code>null</code> if empty.
+		 */
+		private Timeout tail;
+
+		/**
+		 * Append the given timeout.
+		 * @param timeout The <code>Timeout</code>.
+		 */
+		private void add(final Timeout timeout) {
+			timeout.bucket = this;
+			if (this.head == null) {
+				this.head = timeout;
+				this.tail = timeout;
+			} else {
+				this.tail.next = timeout;
+				timeout.prev = this.tail;
+				this.tail = timeout;
+			}
+		}
+
+		/**
+		 * Unlink the given timeout.
+		 * @param timeout The <code>Timeout</code>.
+		 * @return The next <code>Timeout</code>.
+		 */
+		private Timeout remove(final Timeout timeout) {
+			final Timeout next = timeout.next;
+			if (timeout.prev != null) timeout.prev.next = next;
+			if (next != null) next.prev = timeout.prev;
+			if (timeout == this.head) this.head = next;
+			if (timeout == this.tail) this.tail = timeout.prev;
+			timeout.prev = null;
+			timeout.next = null;
+			timeout.bucket = null;
+			return next;
+		}
+
+		/**
+		 * Expire the timeouts whose revolutions are over,
+		 * and count down the revolutions of the others.
+		 * @param now The <code>long</code> current time
+		 * in nanoseconds.
+		 */
+		private void expire(final long now) {
+			Timeout timeout = this.head;
+			while (timeout != null) {
+				if (timeout.state != Timeout.Pending) {
+					timeout = this.remove(timeout);
+				} else if (timeout.remainingRounds <= 0 && timeout.deadline - now <= 0) {
+					final Timeout next = this.remove(timeout);
+					timeout.expire();
+					timeout = next;
+				} else {
+					timeout.remainingRounds--;
+					timeout = timeout.next;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package hemera.core.environment.timer;
+
+/**
+ * <code>ITimeout</code> defines the interface of the
+ * handle of a task scheduled with a
+ * <code>HashedWheelTimer</code>.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public interface ITimeout {
+
+	/**
+	 * Cancel the task, unless it has already expired or
+	 * has been cancelled. The task is removed from the
+	 * wheel by the timer thread within one tick.
+	 * @return <code>true</code> if the task is cancelled
+	 * by this invocation.
+	 */
+	public boolean cancel();
+
+	/**
+	 * Check if the task has been cancelled.
+	 * @return <code>true</code> if it has.
+	 */
+	public boolean isCancelled();
+
+	/**
+	 * Check if the task has expired, in which case it
+	 * has been run or is being run.
+	 * @return <code>true</code> if it has.
+	 */
+	public boolean isExpired();
+}
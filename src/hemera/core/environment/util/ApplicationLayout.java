@@ -0,0 +1,48 @@
+package hemera.core.environment.util;
+
+import hemera.core.environment.enumn.EEnvironment;
+import hemera.core.utility.FileUtils;
+
+import java.io.File;
+
+/**
+ * <code>ApplicationLayout</code> defines the immutable
+ * unit of the resolved directory paths of a single
+ * application.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public class ApplicationLayout {
+	/**
+	 * The <code>String</code> application directory.
+	 */
+	public final String appDir;
+	/**
+	 * The <code>String</code> application shared
+	 * directory.
+	 */
+	public final String sharedDir;
+	/**
+	 * The <code>String</code> application shared
+	 * library directory.
+	 */
+	public final String libDir;
+	/**
+	 * The <code>String</code> application shared
+	 * resources directory.
+	 */
+	public final String resourcesDir;
+
+	/**
+	 * Constructor of <code>ApplicationLayout</code>.
+	 * @param appDir The <code>String</code> path to
+	 * the application directory.
+	 */
+	ApplicationLayout(final String appDir) {
+		this.appDir = appDir;
+		this.sharedDir = FileUtils.instance.getValidDir(appDir) + EEnvironment.AppSharedDir.value + File.separator;
+		this.libDir = this.sharedDir + EEnvironment.AppSharedLibDir.value + File.separator;
+		this.resourcesDir = this.sharedDir + EEnvironment.AppSharedResourcesDir.value + File.separator;
+	}
+}
@@ -0,0 +1,121 @@
+package hemera.core.environment.util;
+
+import hemera.core.environment.enumn.EEnvironment;
+
+import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <code>EnvironmentLayout</code> defines the unit of
+ * the resolved directory and file paths of an installed
+ * environment.
+ * <p>
+ * All paths are resolved once when the layout is
+ * created. Layouts of the applications installed in
+ * the applications directory are resolved on first
+ * access and cached. Other application directories
+ * are resolved on every access, so arbitrary paths do
+ * not accumulate.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.1
+ */
+public class EnvironmentLayout {
+	/**
+	 * The <code>String</code> home directory.
+	 */
+	public final String homeDir;
+	/**
+	 * The <code>String</code> binary directory.
+	 */
+	public final String binDir;
+	/**
+	 * The <code>String</code> logging directory.
+	 */
+	public final String logDir;
+	/**
+	 * The <code>String</code> applications directory.
+	 */
+	public final String appsDir;
+	/**
+	 * The <code>String</code> configuration directory.
+	 */
+	public final String configDir;
+	/**
+	 * The <code>String</code> temporary directory.
+	 */
+	public final String tempDir;
+	/**
+	 * The <code>String</code> configuration file path.
+	 */
+	public final String configFile;
+	/**
+	 * The <code>String</code> JSVC PID file path.
+	 */
+	public final String pidFile;
+	/**
+	 * The <code>ConcurrentHashMap</code> of installed
+	 * application directory to its
+	 * <code>ApplicationLayout</code>.
+	 */
+	private final ConcurrentHashMap<String, ApplicationLayout> applications;
+
+	/**
+	 * Constructor of <code>EnvironmentLayout</code>.
+	 * @param homeDir The <code>String</code> home
+	 * directory.
+	 */
+	EnvironmentLayout(final String homeDir) {
+		this.homeDir = homeDir;
+		this.binDir = UEnvironment.instance.getBinDir(homeDir);
+		this.logDir = UEnvironment.instance.getLogDir(homeDir);
+		this.appsDir = UEnvironment.instance.getAppsDir(homeDir);
+		this.configDir = UEnvironment.instance.getConfigDir(homeDir);
+		this.tempDir = homeDir + "temp" + File.separator;
+		this.configFile = this.configDir + EEnvironment.ConfigurationFile.value;
+		this.pidFile = this.binDir + EEnvironment.JSVCPIDFile.value;
+		this.applications = new ConcurrentHashMap<String, ApplicationLayout>();
+	}
+
+	/**
+	 * Retrieve the layout of the installed application
+	 * with the given name.
+	 * @param appName The <code>String</code> name of
+	 * the application.
+	 * @return The <code>ApplicationLayout</code>.
+	 */
+	public ApplicationLayout getApplication(final String appName) {
+		return this.getApplicationByDir(this.appsDir + appName + File.separator);
+	}
+
+	/**
+	 * Retrieve the layout of the application with the
+	 * given application directory.
+	 * @param appDir The <code>String</code> path to
+	 * the application directory.
+	 * @return The <code>ApplicationLayout</code>.
+	 */
+	public ApplicationLayout getApplicationByDir(final String appDir) {
+		if (!this.isInstalledDir(appDir)) return new ApplicationLayout(appDir);
+		final ApplicationLayout existing = this.applications.get(appDir);
+		if (existing != null) return existing;
+		final ApplicationLayout layout = new ApplicationLayout(appDir);
+		final ApplicationLayout raced = this.applications.putIfAbsent(appDir, layout);
+		return (raced==null) ? layout : raced;
+	}
+
+	/**
+	 * Check if the given directory is the directory of
+	 * an application installed in the applications
+	 * directory.
+	 * @param appDir The <code>String</code> path to
+	 * the application directory.
+	 * @return <code>true</code> if it is.
+	 */
+	private boolean isInstalledDir(final String appDir) {
+		final int start = this.appsDir.length();
+		if (appDir.length() <= start || !appDir.startsWith(this.appsDir)) return false;
+		final int separator = appDir.indexOf(File.separatorChar, start);
+		return (separator < 0 || separator == appDir.length()-1);
+	}
+}
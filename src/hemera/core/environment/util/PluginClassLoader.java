@@ -0,0 +1,208 @@
+package hemera.core.environment.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarInputStream;
+
+/**
+ * <code>PluginClassLoader</code> defines the class
+ * loader of a single listener or handler Jar file.
+ * <p>
+ * The Jar file content is indexed once when the loader
+ * is created, so looking up a class is a single map
+ * access and never reads the Jar file again. The bytes
+ * of a class are released once the class is defined.
+ * <p>
+ * The other entries are served as resources from their
+ * cached bytes, with URLs that only this loader can
+ * open, so a resource always matches the loaded classes
+ * even if the Jar file is replaced on disk. A class
+ * file is available as a resource until its class is
+ * defined.
+ * <p>
+ * The loader is registered as parallel capable, so
+ * different classes are loaded concurrently without
+ * contending on a single loader lock.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.1
+ */
+public class PluginClassLoader extends ClassLoader {
+	static {
+		ClassLoader.registerAsParallelCapable();
+	}
+
+	/**
+	 * The <code>File</code> of the Jar file.
+	 */
+	private final File jar;
+	/**
+	 * The <code>ConcurrentMap</code> of class entry
+	 * name to the bytes of the classes not yet defined.
+	 */
+	private final ConcurrentMap<String, byte[]> classes;
+	/**
+	 * The unmodifiable <code>Map</code> of entry name to
+	 * the bytes of the resources that are not classes.
+	 */
+	private final Map<String, byte[]> resources;
+	/**
+	 * The <code>ConcurrentMap</code> of the names of the
+	 * packages defined by this loader.
+	 */
+	private final ConcurrentMap<String, Boolean> packages;
+	/**
+	 * The <code>URLStreamHandler</code> opening the
+	 * resource URLs of this loader.
+	 */
+	private final URLStreamHandler handler;
+
+	/**
+	 * Constructor of <code>PluginClassLoader</code>.
+	 * @param jar The <code>File</code> of the Jar file.
+	 * @param content The <code>byte</code> array content
+	 * of the Jar file.
+	 * @param parent The parent <code>ClassLoader</code>.
+	 * @throws IOException If reading the content failed.
+	 */
+	PluginClassLoader(final File jar, final byte[] content, final ClassLoader parent) throws IOException {
+		super(parent);
+		this.jar = jar;
+		this.classes = new ConcurrentHashMap<String, byte[]>();
+		this.packages = new ConcurrentHashMap<String, Boolean>();
+		this.handler = new ResourceHandler();
+		final Map<String, byte[]> resources = new HashMap<String, byte[]>();
+		final JarInputStream input = new JarInputStream(new ByteArrayInputStream(content));
+		try {
+			final byte[] buffer = new byte[8192];
+			JarEntry entry = null;
+			while ((entry = input.getNextJarEntry()) != null) {
+				if (entry.isDirectory()) continue;
+				final ByteArrayOutputStream output = new ByteArrayOutputStream();
+				int read = 0;
+				while ((read = input.read(buffer)) != -1) {
+					output.write(buffer, 0, read);
+				}
+				if (entry.getName().endsWith(".class")) this.classes.put(entry.getName(), output.toByteArray());
+				else resources.put(entry.getName(), output.toByteArray());
+			}
+		} finally {
+			input.close();
+		}
+		this.resources = Collections.unmodifiableMap(resources);
+	}
+
+	@Override
+	protected Class<?> findClass(final String name) throws ClassNotFoundException {
+		final String entry = name.replace('.', '/').concat(".class");
+		final byte[] bytes = this.classes.get(entry);
+		if (bytes == null) throw new ClassNotFoundException(name);
+		this.definePackage(name);
+		final Class<?> loaded = this.defineClass(name, bytes, 0, bytes.length);
+		this.classes.remove(entry);
+		return loaded;
+	}
+
+	/**
+	 * Define the package of the given class if it is
+	 * not yet defined by this loader.
+	 * @param classname The <code>String</code> fully
+	 * qualified class name.
+	 */
+	private void definePackage(final String classname) {
+		final int index = classname.lastIndexOf('.');
+		if (index < 0) return;
+		final String name = classname.substring(0, index);
+		if (this.packages.putIfAbsent(name, Boolean.TRUE) != null) return;
+		try {
+			this.definePackage(name, null, null, null, null, null, null, null);
+		} catch (final IllegalArgumentException e) {
+			// Older runtimes also reject the packages
+			// already defined by a parent loader.
+		}
+	}
+
+	/**
+	 * Retrieve the cached bytes of the given entry.
+	 * @param name The <code>String</code> entry name.
+	 * @return The <code>byte</code> array. Or
+	 * <code>null</code> if there is no such entry or
+	 * its class is already defined.
+	 */
+	private byte[] getBytes(final String name) {
+		final byte[] bytes = this.resources.get(name);
+		if (bytes != null) return bytes;
+		return this.classes.get(name);
+	}
+
+	@Override
+	protected URL findResource(final String name) {
+		if (this.getBytes(name) == null) return null;
+		try {
+			return new URL("plugin", null, -1, "/" + name, this.handler);
+		} catch (final MalformedURLException e) {
+			return null;
+		}
+	}
+
+	@Override
+	protected Enumeration<URL> findResources(final String name) {
+		final URL url = this.findResource(name);
+		if (url == null) return Collections.enumeration(Collections.<URL>emptyList());
+		return Collections.enumeration(Collections.singletonList(url));
+	}
+
+	@Override
+	public String toString() {
+		return "PluginClassLoader[" + this.jar.getPath() + "]";
+	}
+
+	/**
+	 * <code>ResourceHandler</code> defines the handler
+	 * that opens the resource URLs of the loader from
+	 * the cached bytes.
+	 *
+	 * @author Yi Wang (Neakor)
+	 * @version 1.0.0
+	 */
+	private class ResourceHandler extends URLStreamHandler {
+
+		@Override
+		protected URLConnection openConnection(final URL url) throws IOException {
+			final String name = url.getPath().substring(1);
+			final byte[] bytes = getBytes(name);
+			if (bytes == null) throw new IOException("Plugin resource is no longer available: " + name);
+			return new URLConnection(url) {
+				@Override
+				public void connect() {
+					this.connected = true;
+				}
+
+				@Override
+				public InputStream getInputStream() {
+					this.connected = true;
+					return new ByteArrayInputStream(bytes);
+				}
+
+				@Override
+				public int getContentLength() {
+					return bytes.length;
+				}
+			};
+		}
+	}
+}
@@ -4,9 +4,11 @@ import hemera.core.environment.config.Configuration;
 import hemera.core.environment.enumn.EEnvironment;
 import hemera.core.utility.FileUtils;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 
+import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 
 import org.w3c.dom.Document;
@@ -30,17 +32,46 @@ public enum UEnvironment {
 	 * The <code>String</code> installed home directory.
 	 */
 	private String installedHomeDir;
+	/**
+	 * The resolved installed <code>EnvironmentLayout</code>.
+	 * <code>null</code> if not yet resolved.
+	 */
+	private volatile EnvironmentLayout installedLayout;
 	
 	/**
 	 * Explicitly set the installed home directory.
 	 * <p>
 	 * Setting this value will cause all installed
 	 * directory retrieval to use this specified home
-	 * directory value as base.
+	 * directory value as base, and clears the resolved
+	 * installed layout.
 	 * @param dir The <code>String</code> directory.
 	 */
-	public void setInstalledHomeDir(final String dir) {
+	public synchronized void setInstalledHomeDir(final String dir) {
 		this.installedHomeDir = dir;
+		this.installedLayout = null;
+	}
+
+	/**
+	 * Retrieve the resolved installed layout.
+	 * <p>
+	 * The layout is resolved on first access and
+	 * reused until the installed home directory is
+	 * explicitly set.
+	 * @return The installed <code>EnvironmentLayout</code>.
+	 */
+	public EnvironmentLayout getInstalledLayout() {
+		EnvironmentLayout layout = this.installedLayout;
+		if (layout == null) {
+			synchronized (this) {
+				layout = this.installedLayout;
+				if (layout == null) {
+					layout = new EnvironmentLayout(this.resolveInstalledHomeDir());
+					this.installedLayout = layout;
+				}
+			}
+		}
+		return layout;
 	}
 
 	/**
@@ -49,8 +80,7 @@ public enum UEnvironment {
 	 * directory.
 	 */
 	public String getInstalledBinDir() {
-		final String homeDir = this.getInstalledHomeDir();
-		return this.getBinDir(homeDir);
+		return this.getInstalledLayout().binDir;
 	}
 
 	/**
@@ -59,8 +89,7 @@ public enum UEnvironment {
 	 * directory.
 	 */
 	public String getInstalledAppsDir() {
-		final String homeDir = this.getInstalledHomeDir();
-		return this.getAppsDir(homeDir);
+		return this.getInstalledLayout().appsDir;
 	}
 
 	/**
@@ -69,7 +98,7 @@ public enum UEnvironment {
 	 * directory.
 	 */
 	public String getInstalledTempDir() {
-		return this.getInstalledHomeDir() + "temp" + File.separator;
+		return this.getInstalledLayout().tempDir;
 	}
 
 	/**
@@ -81,6 +110,14 @@ public enum UEnvironment {
 	 * @return The <code>String</code> home directory.
 	 */
 	public String getInstalledHomeDir() {
+		return this.getInstalledLayout().homeDir;
+	}
+
+	/**
+	 * Resolve the installed home directory.
+	 * @return The <code>String</code> home directory.
+	 */
+	private String resolveInstalledHomeDir() {
 		if (this.installedHomeDir == null) {
 			final String binDir = FileUtils.instance.getCurrentJarDirectory();
 			final int index = binDir.indexOf("/bin")+1;
@@ -138,6 +175,13 @@ public enum UEnvironment {
 	/**
 	 * Retrieve the configuration of the environment
 	 * located at the given path.
+	 * <p>
+	 * If the binary snapshot next to the configuration
+	 * file is fresh for the current file content and
+	 * environment version, the configuration is read
+	 * from the snapshot without parsing the XML file.
+	 * Otherwise the file is parsed and the snapshot is
+	 * rewritten.
 	 * @param homeDir The <code>String</code> home
 	 * directory.
 	 * @return The <code>Configuration</code> of the
@@ -148,8 +192,36 @@ public enum UEnvironment {
 	 * parsing file failed.
 	 */
 	public Configuration getConfiguration(final String homeDir) throws IOException, SAXException, ParserConfigurationException {
-		final String path = this.getConfigurationFile(homeDir);
-		final Document document = FileUtils.instance.readAsDocument(new File(path));
+		final File file = new File(this.getConfigurationFile(homeDir));
+		final byte[] content = USnapshot.instance.readContent(file);
+		final byte[] digest = USnapshot.instance.digest(content);
+		final File snapshot = new File(this.getConfigurationSnapshotFile(homeDir));
+		final Configuration cached = USnapshot.instance.readConfiguration(snapshot, digest);
+		if (cached != null) return cached;
+		// Parse the same content the digest is computed from.
+		final Configuration config = this.parseConfiguration(content);
+		try {
+			USnapshot.instance.writeConfiguration(snapshot, digest, config);
+		} catch (final IOException e) {
+			// The snapshot is only a cache, the configuration
+			// directory may not be writable.
+		}
+		return config;
+	}
+
+	/**
+	 * Parse the given configuration file content.
+	 * @param content The <code>byte</code> array
+	 * configuration file content.
+	 * @return The <code>Configuration</code>.
+	 * @throws IOException If reading content failed.
+	 * @throws SAXException If parsing content failed.
+	 * @throws ParserConfigurationException If
+	 * parsing content failed.
+	 */
+	private Configuration parseConfiguration(final byte[] content) throws IOException, SAXException, ParserConfigurationException {
+		final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		final Document document = factory.newDocumentBuilder().parse(new ByteArrayInputStream(content));
 		return new Configuration(document);
 	}
 
@@ -166,6 +238,19 @@ public enum UEnvironment {
 		return configDir + EEnvironment.ConfigurationFile.value;
 	}
 
+	/**
+	 * Retrieve the configuration binary snapshot file
+	 * path according to the specified home directory.
+	 * @param homeDir The <code>String</code> home
+	 * directory.
+	 * @return The <code>String</code> configuration
+	 * snapshot file path.
+	 */
+	public String getConfigurationSnapshotFile(final String homeDir) {
+		final String configDir = this.getConfigDir(homeDir);
+		return configDir + EEnvironment.ConfigurationSnapshotFile.value;
+	}
+
 	/**
 	 * Retrieve the application directory of the given
 	 * application name.
@@ -175,8 +260,7 @@ public enum UEnvironment {
 	 * directory path.
 	 */
 	public String getApplicationDir(final String appName) {
-		final String appsDir = this.getInstalledAppsDir();
-		return appsDir + appName + File.separator;
+		return this.getInstalledLayout().getApplication(appName).appDir;
 	}
 
 	/**
@@ -188,7 +272,7 @@ public enum UEnvironment {
 	 * library directory path.
 	 */
 	public String getApplicationLibDir(final String appDir) {
-		return this.getApplicationSharedDir(appDir) + EEnvironment.AppSharedLibDir.value + File.separator;
+		return this.getInstalledLayout().getApplicationByDir(appDir).libDir;
 	}
 	
 	/**
@@ -200,7 +284,7 @@ public enum UEnvironment {
 	 * shared directory path.
 	 */
 	public String getApplicationSharedDir(final String appDir) {
-		return FileUtils.instance.getValidDir(appDir) + EEnvironment.AppSharedDir.value + File.separator;
+		return this.getInstalledLayout().getApplicationByDir(appDir).sharedDir;
 	}
 	
 	/**
@@ -212,7 +296,7 @@ public enum UEnvironment {
 	 * resources directory path.
 	 */
 	public String getApplicationResourcesDir(final String appDir) {
-		return this.getApplicationSharedDir(appDir) + EEnvironment.AppSharedResourcesDir.value + File.separator;
+		return this.getInstalledLayout().getApplicationByDir(appDir).resourcesDir;
 	}
 
 	/**
@@ -244,9 +328,7 @@ public enum UEnvironment {
 	 */
 	public boolean isRunning() {
 		// Check if PID file exists.
-		final String binDir = UEnvironment.instance.getInstalledBinDir();
-		final String path = binDir + EEnvironment.JSVCPIDFile.value;
-		final File pidFile = new File(path);
+		final File pidFile = new File(this.getInstalledLayout().pidFile);
 		return pidFile.exists();
 	}
 }
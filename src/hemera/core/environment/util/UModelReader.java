@@ -0,0 +1,136 @@
+package hemera.core.environment.util;
+
+import hemera.core.environment.ham.HAM;
+import hemera.core.environment.hbm.HBM;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * <code>UModelReader</code> defines the singleton that
+ * provides single-pass streaming parsing of the Hemera
+ * application and bundle model files.
+ * <p>
+ * Unlike parsing from a <code>Document</code>, the
+ * models are built in one forward pass over the file
+ * without building a document tree, therefore the
+ * parsing time grows linearly with the number of
+ * resources and only the current tag is held in
+ * memory.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum UModelReader {
+	/**
+	 * The singleton instance.
+	 */
+	instance;
+
+	/**
+	 * The <code>XMLInputFactory</code> shared by all
+	 * readers. The factory is thread-safe once it has
+	 * been configured.
+	 */
+	private final XMLInputFactory factory;
+
+	/**
+	 * Constructor of <code>UModelReader</code>.
+	 */
+	private UModelReader() {
+		this.factory = XMLInputFactory.newInstance();
+		this.factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		this.factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+	}
+
+	/**
+	 * Read the Hemera application model from the given
+	 * file.
+	 * @param file The HAM <code>File</code> to read.
+	 * @return The <code>HAM</code> instance.
+	 * @throws IOException If reading file failed.
+	 * @throws XMLStreamException If parsing file
+	 * failed.
+	 */
+	public HAM readHAM(final File file) throws IOException, XMLStreamException {
+		final InputStream input = new BufferedInputStream(new FileInputStream(file));
+		try {
+			return this.readHAM(input);
+		} finally {
+			input.close();
+		}
+	}
+
+	/**
+	 * Read the Hemera application model from the given
+	 * input stream. The stream is not closed.
+	 * @param input The <code>InputStream</code> to
+	 * read from.
+	 * @return The <code>HAM</code> instance.
+	 * @throws XMLStreamException If parsing failed.
+	 */
+	public HAM readHAM(final InputStream input) throws XMLStreamException {
+		final XMLStreamReader reader = this.createReader(input);
+		try {
+			return new HAM(reader);
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Read the Hemera bundle model from the given file.
+	 * @param file The HBM <code>File</code> to read.
+	 * @return The <code>HBM</code> instance.
+	 * @throws IOException If reading file failed.
+	 * @throws XMLStreamException If parsing file
+	 * failed.
+	 */
+	public HBM readHBM(final File file) throws IOException, XMLStreamException {
+		final InputStream input = new BufferedInputStream(new FileInputStream(file));
+		try {
+			return this.readHBM(input);
+		} finally {
+			input.close();
+		}
+	}
+
+	/**
+	 * Read the Hemera bundle model from the given input
+	 * stream. The stream is not closed.
+	 * @param input The <code>InputStream</code> to
+	 * read from.
+	 * @return The <code>HBM</code> instance.
+	 * @throws XMLStreamException If parsing failed.
+	 */
+	public HBM readHBM(final InputStream input) throws XMLStreamException {
+		final XMLStreamReader reader = this.createReader(input);
+		try {
+			return new HBM(reader);
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Create a new stream reader positioned at the
+	 * start of the root tag of the given input.
+	 * @param input The <code>InputStream</code> to
+	 * read from.
+	 * @return The <code>XMLStreamReader</code>.
+	 * @throws XMLStreamException If there is no root
+	 * tag.
+	 */
+	private XMLStreamReader createReader(final InputStream input) throws XMLStreamException {
+		final XMLStreamReader reader = this.factory.createXMLStreamReader(input);
+		reader.nextTag();
+		return reader;
+	}
+}
@@ -0,0 +1,154 @@
+package hemera.core.environment.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <code>UPluginLoader</code> defines the singleton
+ * registry of the class loaders of the execution
+ * service listener and exception handler Jar files.
+ * <p>
+ * A loader is shared by all the lookups of the same
+ * Jar file path and content digest, so rebuilding the
+ * execution service or reloading the configuration
+ * reuses the classes already loaded. The Jar file is
+ * only read again if its size or modification time
+ * changed, and a new loader is only created if its
+ * content digest changed as well.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum UPluginLoader {
+	/**
+	 * The singleton instance.
+	 */
+	instance;
+
+	/**
+	 * The <code>ConcurrentMap</code> of canonical Jar
+	 * file path to its current <code>Plugin</code>.
+	 */
+	private final ConcurrentMap<String, Plugin> plugins;
+
+	/**
+	 * Constructor of <code>UPluginLoader</code>.
+	 */
+	private UPluginLoader() {
+		this.plugins = new ConcurrentHashMap<String, Plugin>();
+	}
+
+	/**
+	 * Retrieve the class loader of the given Jar file.
+	 * @param jarLocation The <code>String</code> Jar
+	 * file location.
+	 * @return The <code>ClassLoader</code>.
+	 * @throws IOException If reading the Jar file
+	 * failed.
+	 */
+	public ClassLoader getLoader(final String jarLocation) throws IOException {
+		final File file = new File(jarLocation).getCanonicalFile();
+		final String path = file.getPath();
+		final Plugin existing = this.plugins.get(path);
+		if (existing != null && existing.isUnchanged(file)) return existing.loader;
+		synchronized (this) {
+			final Plugin current = this.plugins.get(path);
+			if (current != null && current.isUnchanged(file)) return current.loader;
+			final long length = file.length();
+			final long modified = file.lastModified();
+			final byte[] content = USnapshot.instance.readContent(file);
+			final byte[] digest = USnapshot.instance.digest(content);
+			// A touched file with the same content keeps
+			// its loader.
+			final PluginClassLoader loader;
+			if (current != null && Arrays.equals(current.digest, digest)) loader = current.loader;
+			else loader = new PluginClassLoader(file, content, UPluginLoader.class.getClassLoader());
+			this.plugins.put(path, new Plugin(length, modified, digest, loader));
+			return loader;
+		}
+	}
+
+	/**
+	 * Load the class with the given name from the given
+	 * Jar file.
+	 * @param jarLocation The <code>String</code> Jar
+	 * file location.
+	 * @param classname The <code>String</code> fully
+	 * qualified class name.
+	 * @return The loaded <code>Class</code>.
+	 * @throws IOException If reading the Jar file
+	 * failed.
+	 * @throws ClassNotFoundException If the class is
+	 * not found.
+	 */
+	public Class<?> loadClass(final String jarLocation, final String classname) throws IOException, ClassNotFoundException {
+		return Class.forName(classname, true, this.getLoader(jarLocation));
+	}
+
+	/**
+	 * Remove all the cached loaders.
+	 */
+	public void clear() {
+		this.plugins.clear();
+	}
+
+	/**
+	 * <code>Plugin</code> defines the cached loader of
+	 * a single Jar file, along with the file state it
+	 * was created from.
+	 *
+	 * @author Yi Wang (Neakor)
+	 * @version 1.0.0
+	 */
+	private static class Plugin {
+		/**
+		 * The <code>long</code> Jar file length.
+		 */
+		private final long length;
+		/**
+		 * The <code>long</code> Jar file modification
+		 * time.
+		 */
+		private final long modified;
+		/**
+		 * The <code>byte</code> array Jar file content
+		 * digest.
+		 */
+		private final byte[] digest;
+		/**
+		 * The <code>PluginClassLoader</code>.
+		 */
+		private final PluginClassLoader loader;
+
+		/**
+		 * Constructor of <code>Plugin</code>.
+		 * @param length The <code>long</code> Jar file
+		 * length.
+		 * @param modified The <code>long</code> Jar file
+		 * modification time.
+		 * @param digest The <code>byte</code> array Jar
+		 * file content digest.
+		 * @param loader The <code>PluginClassLoader</code>.
+		 */
+		private Plugin(final long length, final long modified, final byte[] digest, final PluginClassLoader loader) {
+			this.length = length;
+			this.modified = modified;
+			this.digest = digest;
+			this.loader = loader;
+		}
+
+		/**
+		 * Check if the given Jar file is unchanged since
+		 * this plugin was created.
+		 * @param file The Jar <code>File</code>.
+		 * @return <code>true</code> if the file length
+		 * and modification time are unchanged.
+		 */
+		private boolean isUnchanged(final File file) {
+			return (file.length() == this.length && file.lastModified() == this.modified);
+		}
+	}
+}
@@ -0,0 +1,220 @@
+package hemera.core.environment.util;
+
+import hemera.core.environment.enumn.EContentEncoding;
+import hemera.core.environment.ham.HAMPrecompressed;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * <code>UPrecompressor</code> defines the singleton
+ * that precompresses the static files of the resources
+ * directories when an application is bundled.
+ * <p>
+ * The bundling step copies each resources directory
+ * into the bundle staging directory and precompresses
+ * the staged copy, never the source directory. Every
+ * compressible file is compressed with each content
+ * encoding at the maximum level, and each variant is
+ * written next to the file with the file name suffix of
+ * its encoding. A variant that is not smaller than the
+ * file is not kept. Files that are already compressed,
+ * such as images and archives, and files too small to
+ * benefit are left as they are.
+ * <p>
+ * The variants already in the directory are deleted
+ * first, so a staging directory that is reused between
+ * bundles never keeps the variants of a deleted file,
+ * or of a file that is no longer worth compressing.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.1
+ */
+public enum UPrecompressor {
+	/**
+	 * The singleton instance.
+	 */
+	instance;
+
+	/**
+	 * The <code>int</code> size in bytes of the smallest
+	 * file that is compressed.
+	 */
+	private static final int MinSize = 256;
+	/**
+	 * The <code>Set</code> of the lower case file name
+	 * extensions of the compressible files.
+	 */
+	private final Set<String> extensions = new HashSet<String>(Arrays.asList("html", "htm", "css", "js", "mjs", "json", "map", "xml", "svg", "txt", "csv", "md", "ico", "wasm", "ttf", "otf", "eot"));
+
+	/**
+	 * Precompress the compressible files of the given
+	 * staged resources directory and its sub-directories,
+	 * replacing the variants already in the directory.
+	 * @param dir The staged resources directory
+	 * <code>File</code> in the bundle staging directory.
+	 * @return The <code>HAMPrecompressed</code> manifest
+	 * of the directory. Or <code>null</code> if no file
+	 * was precompressed.
+	 * @throws IOException If reading, writing or
+	 * deleting any file failed.
+	 */
+	public HAMPrecompressed precompress(final File dir) throws IOException {
+		if (!dir.isDirectory()) throw new IOException("Invalid resources directory: " + dir.getPath());
+		final Map<String, List<EContentEncoding>> assets = new LinkedHashMap<String, List<EContentEncoding>>();
+		this.walk(dir, "", assets);
+		return assets.isEmpty() ? null : new HAMPrecompressed(assets);
+	}
+
+	/**
+	 * Precompress the files of the given directory and
+	 * its sub-directories.
+	 * @param dir The <code>File</code> directory.
+	 * @param prefix The <code>String</code> relative
+	 * path of the directory.
+	 * @param assets The <code>Map</code> to record the
+	 * precompressed files into.
+	 * @throws IOException If listing the directory or
+	 * compressing any file failed.
+	 */
+	private void walk(final File dir, final String prefix, final Map<String, List<EContentEncoding>> assets) throws IOException {
+		final File[] children = dir.listFiles();
+		if (children == null) throw new IOException("Failed to list resources directory: " + dir.getPath());
+		Arrays.sort(children);
+		// Delete the stale variants before writing the
+		// new ones, which are not in the listing.
+		for (int i = 0; i < children.length; i++) {
+			final File child = children[i];
+			if (child.isFile() && this.isVariant(child) && !child.delete()) {
+				throw new IOException("Failed to delete variant: " + child.getPath());
+			}
+		}
+		for (int i = 0; i < children.length; i++) {
+			final File child = children[i];
+			if (child.isDirectory()) {
+				this.walk(child, prefix + child.getName() + "/", assets);
+			} else if (child.isFile() && this.isCompressible(child)) {
+				final List<EContentEncoding> encodings = this.compress(child);
+				if (!encodings.isEmpty()) assets.put(prefix + child.getName(), encodings);
+			}
+		}
+	}
+
+	/**
+	 * Check if the given file is a variant written by
+	 * this precompressor, which is a file with the
+	 * suffix of a content encoding appended to the name
+	 * of a compressible file.
+	 * @param file The <code>File</code> to check.
+	 * @return <code>true</code> if it is.
+	 */
+	private boolean isVariant(final File file) {
+		final String name = file.getName();
+		final EContentEncoding[] values = EContentEncoding.values();
+		for (int i = 0; i < values.length; i++) {
+			if (!name.endsWith(values[i].suffix)) continue;
+			final String source = name.substring(0, name.length() - values[i].suffix.length());
+			if (this.hasCompressibleExtension(source)) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Check if the given file is worth compressing.
+	 * @param file The <code>File</code> to check.
+	 * @return <code>true</code> if it is.
+	 */
+	private boolean isCompressible(final File file) {
+		if (file.length() < UPrecompressor.MinSize) return false;
+		return this.hasCompressibleExtension(file.getName());
+	}
+
+	/**
+	 * Check if the given file name has the extension of
+	 * a compressible file.
+	 * @param name The <code>String</code> file name.
+	 * @return <code>true</code> if it does.
+	 */
+	private boolean hasCompressibleExtension(final String name) {
+		final int index = name.lastIndexOf('.');
+		if (index < 0) return false;
+		return this.extensions.contains(name.substring(index+1).toLowerCase());
+	}
+
+	/**
+	 * Write the variants of the given file.
+	 * @param file The <code>File</code> to compress.
+	 * @return The <code>List</code> of the content
+	 * encodings of the kept variants.
+	 * @throws IOException If reading or writing failed.
+	 */
+	private List<EContentEncoding> compress(final File file) throws IOException {
+		final byte[] content = USnapshot.instance.readContent(file);
+		final EContentEncoding[] values = EContentEncoding.values();
+		final List<EContentEncoding> encodings = new ArrayList<EContentEncoding>(values.length);
+		for (int i = 0; i < values.length; i++) {
+			final File variant = new File(file.getPath() + values[i].suffix);
+			final OutputStream output = this.open(variant, values[i]);
+			try {
+				output.write(content);
+			} finally {
+				output.close();
+			}
+			if (variant.length() < content.length) {
+				// Keep the time stamp of the file, so both
+				// carry the same last modified date.
+				variant.setLastModified(file.lastModified());
+				encodings.add(values[i]);
+			} else if (!variant.delete()) {
+				throw new IOException("Failed to delete variant: " + variant.getPath());
+			}
+		}
+		return encodings;
+	}
+
+	/**
+	 * Open the compressing stream of the given variant.
+	 * @param variant The variant <code>File</code>.
+	 * @param encoding The <code>EContentEncoding</code>.
+	 * @return The <code>OutputStream</code>.
+	 * @throws IOException If opening the file failed.
+	 */
+	private OutputStream open(final File variant, final EContentEncoding encoding) throws IOException {
+		final OutputStream output = new BufferedOutputStream(new FileOutputStream(variant));
+		switch (encoding) {
+		case Gzip:
+			return new GZIPOutputStream(output) {
+				{
+					this.def.setLevel(Deflater.BEST_COMPRESSION);
+				}
+			};
+		case Deflate:
+			return new DeflaterOutputStream(output, new Deflater(Deflater.BEST_COMPRESSION)) {
+				@Override
+				public void close() throws IOException {
+					try {
+						super.close();
+					} finally {
+						this.def.end();
+					}
+				}
+			};
+		default:
+			output.close();
+			throw new IllegalArgumentException("Unsupported content encoding: " + encoding.value);
+		}
+	}
+}
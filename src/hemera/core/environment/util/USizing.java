@@ -0,0 +1,344 @@
+package hemera.core.environment.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+
+/**
+ * <code>USizing</code> defines the singleton that
+ * resolves the sizing expressions used by the numeric
+ * values of the environment configuration.
+ * <p>
+ * A sizing expression is an integer arithmetic
+ * expression of <code>+</code>, <code>-</code>,
+ * <code>*</code>, <code>/</code> and parentheses over
+ * integer literals and the following variables:
+ * <p>
+ * <code>cores</code>: the number of processors the
+ * environment may use, which is the number of available
+ * processors bounded by the control group CPU quota.
+ * <p>
+ * <code>heap</code>: the maximum heap size in bytes.
+ * <p>
+ * For example <code>4*cores</code>, <code>cores+2</code>
+ * or <code>heap/2048</code>. A plain integer is also a
+ * valid expression, therefore existing configuration
+ * files are resolved unchanged. The variables are
+ * determined once when the singleton is loaded.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum USizing {
+	/**
+	 * The singleton instance.
+	 */
+	instance;
+
+	/**
+	 * The <code>String</code> cores variable name.
+	 */
+	private static final String Cores = "cores";
+	/**
+	 * The <code>String</code> heap variable name.
+	 */
+	private static final String Heap = "heap";
+	/**
+	 * The <code>int</code> number of usable processors.
+	 */
+	private final int cores;
+	/**
+	 * The <code>long</code> maximum heap size in bytes.
+	 */
+	private final long heap;
+
+	/**
+	 * Constructor of <code>USizing</code>.
+	 */
+	private USizing() {
+		final int available = Runtime.getRuntime().availableProcessors();
+		final int quota = this.readQuotaCores();
+		this.cores = (quota > 0) ? Math.min(available, quota) : available;
+		this.heap = Runtime.getRuntime().maxMemory();
+	}
+
+	/**
+	 * Read the number of processors allowed by the
+	 * control group CPU quota of this process.
+	 * @return The <code>int</code> number of processors
+	 * rounded up. Or <code>0</code> if there is no
+	 * quota.
+	 */
+	private int readQuotaCores() {
+		try {
+			// Control group version 2.
+			final String max = this.readLine(new File("/sys/fs/cgroup/cpu.max"));
+			if (max != null) {
+				final String[] values = max.trim().split("\\s+");
+				if (values.length != 2 || values[0].equals("max")) return 0;
+				return this.toCores(Long.parseLong(values[0]), Long.parseLong(values[1]));
+			}
+			// Control group version 1.
+			final String[] dirs = {"/sys/fs/cgroup/cpu", "/sys/fs/cgroup/cpu,cpuacct"};
+			for (final String dir : dirs) {
+				final String quota = this.readLine(new File(dir, "cpu.cfs_quota_us"));
+				final String period = this.readLine(new File(dir, "cpu.cfs_period_us"));
+				if (quota == null || period == null) continue;
+				return this.toCores(Long.parseLong(quota.trim()), Long.parseLong(period.trim()));
+			}
+		} catch (final IOException e) {
+			// No readable quota.
+		} catch (final NumberFormatException e) {
+			// Unknown quota format.
+		}
+		return 0;
+	}
+
+	/**
+	 * Convert the given quota to the number of
+	 * processors.
+	 * @param quota The <code>long</code> quota in
+	 * microseconds per period.
+	 * @param period The <code>long</code> period in
+	 * microseconds.
+	 * @return The <code>int</code> number of processors
+	 * rounded up. Or <code>0</code> if there is no
+	 * quota.
+	 */
+	private int toCores(final long quota, final long period) {
+		if (quota <= 0 || period <= 0) return 0;
+		return (int)Math.max(1, (quota + period - 1) / period);
+	}
+
+	/**
+	 * Read the first line of the given file.
+	 * @param file The <code>File</code> to read.
+	 * @return The <code>String</code> line. Or
+	 * <code>null</code> if the file does not exist.
+	 * @throws IOException If reading file failed.
+	 */
+	private String readLine(final File file) throws IOException {
+		if (!file.isFile()) return null;
+		final BufferedReader reader = new BufferedReader(new FileReader(file));
+		try {
+			return reader.readLine();
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Resolve the given sizing expression.
+	 * @param expression The <code>String</code> sizing
+	 * expression.
+	 * @return The <code>int</code> resolved value.
+	 * @throws IllegalArgumentException If the expression
+	 * is malformed, divides by zero or the value does
+	 * not fit in an <code>int</code>.
+	 */
+	public int resolve(final String expression) {
+		final long value = this.resolveLong(expression);
+		if (value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
+			throw new IllegalArgumentException("Invalid sizing expression: " + expression + ". Value out of range.");
+		}
+		return (int)value;
+	}
+
+	/**
+	 * Resolve the given sizing expression of a value
+	 * that may not fit in an <code>int</code>, such as
+	 * a memory size in bytes.
+	 * @param expression The <code>String</code> sizing
+	 * expression.
+	 * @return The <code>long</code> resolved value.
+	 * @throws IllegalArgumentException If the expression
+	 * is malformed or divides by zero.
+	 */
+	public long resolveLong(final String expression) {
+		if (expression == null) {
+			throw new IllegalArgumentException("Invalid sizing expression: null");
+		}
+		final Parser parser = new Parser(expression);
+		final long value = parser.parseExpression();
+		parser.skipSpaces();
+		if (parser.index != expression.length()) {
+			throw parser.error("Unexpected character");
+		}
+		return value;
+	}
+
+	/**
+	 * Retrieve the number of processors the environment
+	 * may use, which is the value of the
+	 * <code>cores</code> variable.
+	 * @return The <code>int</code> number of processors.
+	 */
+	public int getCores() {
+		return this.cores;
+	}
+
+	/**
+	 * Retrieve the maximum heap size, which is the value
+	 * of the <code>heap</code> variable.
+	 * @return The <code>long</code> size in bytes.
+	 */
+	public long getHeap() {
+		return this.heap;
+	}
+
+	/**
+	 * <code>Parser</code> defines the recursive descent
+	 * parser of a single sizing expression.
+	 *
+	 * @author Yi Wang (Neakor)
+	 * @version 1.0.0
+	 */
+	private final class Parser {
+		/**
+		 * The <code>String</code> expression.
+		 */
+		private final String expression;
+		/**
+		 * The <code>int</code> current character index.
+		 */
+		private int index;
+
+		/**
+		 * Constructor of <code>Parser</code>.
+		 * @param expression The <code>String</code>
+		 * expression.
+		 */
+		private Parser(final String expression) {
+			this.expression = expression;
+		}
+
+		/**
+		 * Parse a sum of terms.
+		 * @return The <code>long</code> value.
+		 */
+		private long parseExpression() {
+			long value = this.parseTerm();
+			while (true) {
+				final char c = this.peek();
+				if (c == '+') {
+					this.index++;
+					value = this.checked(value + this.parseTerm());
+				} else if (c == '-') {
+					this.index++;
+					value = this.checked(value - this.parseTerm());
+				} else {
+					return value;
+				}
+			}
+		}
+
+		/**
+		 * Parse a product of factors.
+		 * @return The <code>long</code> value.
+		 */
+		private long parseTerm() {
+			long value = this.parseFactor();
+			while (true) {
+				final char c = this.peek();
+				if (c == '*') {
+					this.index++;
+					final long factor = this.parseFactor();
+					if (factor != 0 && Math.abs(value) > Integer.MAX_VALUE * (long)Integer.MAX_VALUE / Math.abs(factor)) {
+						throw this.error("Value out of range");
+					}
+					value = this.checked(value * factor);
+				} else if (c == '/') {
+					this.index++;
+					final long divisor = this.parseFactor();
+					if (divisor == 0) throw this.error("Division by zero");
+					value = value / divisor;
+				} else {
+					return value;
+				}
+			}
+		}
+
+		/**
+		 * Parse a literal, a variable, a negation or a
+		 * parenthesized expression.
+		 * @return The <code>long</code> value.
+		 */
+		private long parseFactor() {
+			final char c = this.peek();
+			if (c == '-') {
+				this.index++;
+				return -this.parseFactor();
+			} else if (c == '(') {
+				this.index++;
+				final long value = this.parseExpression();
+				if (this.peek() != ')') throw this.error("Missing closing parenthesis");
+				this.index++;
+				return value;
+			} else if (Character.isDigit(c)) {
+				final int start = this.index;
+				while (this.index < this.expression.length() && Character.isDigit(this.expression.charAt(this.index))) {
+					this.index++;
+				}
+				try {
+					return this.checked(Long.parseLong(this.expression.substring(start, this.index)));
+				} catch (final NumberFormatException e) {
+					throw this.error("Value out of range");
+				}
+			} else if (Character.isLetter(c)) {
+				final int start = this.index;
+				while (this.index < this.expression.length() && Character.isLetter(this.expression.charAt(this.index))) {
+					this.index++;
+				}
+				final String name = this.expression.substring(start, this.index).toLowerCase();
+				if (name.equals(USizing.Cores)) return USizing.this.cores;
+				else if (name.equals(USizing.Heap)) return USizing.this.heap;
+				throw this.error("Unknown variable " + name);
+			}
+			throw this.error("Unexpected character");
+		}
+
+		/**
+		 * Skip the white spaces and retrieve the current
+		 * character without consuming it.
+		 * @return The <code>char</code> current character.
+		 * Or <code>0</code> at the end of the expression.
+		 */
+		private char peek() {
+			this.skipSpaces();
+			if (this.index >= this.expression.length()) return 0;
+			return this.expression.charAt(this.index);
+		}
+
+		/**
+		 * Skip the white spaces at the current index.
+		 */
+		private void skipSpaces() {
+			while (this.index < this.expression.length() && Character.isWhitespace(this.expression.charAt(this.index))) {
+				this.index++;
+			}
+		}
+
+		/**
+		 * Ensure the given intermediate value stays in a
+		 * range that cannot overflow further arithmetic.
+		 * @param value The <code>long</code> value.
+		 * @return The <code>long</code> value.
+		 */
+		private long checked(final long value) {
+			if (Math.abs(value) > Integer.MAX_VALUE * (long)Integer.MAX_VALUE) {
+				throw this.error("Value out of range");
+			}
+			return value;
+		}
+
+		/**
+		 * Create the error for the current index.
+		 * @param reason The <code>String</code> reason.
+		 * @return The <code>IllegalArgumentException</code>.
+		 */
+		private IllegalArgumentException error(final String reason) {
+			return new IllegalArgumentException("Invalid sizing expression: " + this.expression + ". " + reason + " at index " + this.index + ".");
+		}
+	}
+}
@@ -0,0 +1,223 @@
+package hemera.core.environment.util;
+
+import hemera.core.environment.config.Configuration;
+import hemera.core.environment.enumn.EEnvironment;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * <code>USnapshot</code> defines the singleton that
+ * provides the binary snapshot cache of the parsed
+ * environment configuration.
+ * <p>
+ * A snapshot is written next to the configuration
+ * file and is keyed by the configuration file content
+ * digest, the environment version and the snapshot
+ * format. A fresh snapshot is read back with a single
+ * memory mapping without loading the XML stack.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.1
+ */
+public enum USnapshot {
+	/**
+	 * The singleton instance.
+	 */
+	instance;
+
+	/**
+	 * The <code>int</code> snapshot file magic number.
+	 */
+	private static final int Magic = 0x48454D53;
+	/**
+	 * The <code>int</code> snapshot binary format. This
+	 * value must be incremented whenever the binary
+	 * layout of any configuration section changes.
+	 */
+	private static final int Format = 16;
+	/**
+	 * The <code>Charset</code> used to encode strings.
+	 */
+	private final Charset charset = Charset.forName("UTF-8");
+
+	/**
+	 * Read the entire content of the given file.
+	 * @param file The <code>File</code> to read.
+	 * @return The <code>byte</code> array content.
+	 * @throws IOException If reading file failed.
+	 */
+	public byte[] readContent(final File file) throws IOException {
+		final long length = file.length();
+		if (length > Integer.MAX_VALUE) {
+			throw new IOException("File too large: " + file.getPath());
+		}
+		final byte[] content = new byte[(int)length];
+		final DataInputStream input = new DataInputStream(new FileInputStream(file));
+		try {
+			input.readFully(content);
+		} finally {
+			input.close();
+		}
+		return content;
+	}
+
+	/**
+	 * Compute the 64-bit FNV-1a digest of the given
+	 * content. The digest is computed without loading
+	 * any security provider, which would otherwise
+	 * dominate the warm start time.
+	 * @param content The <code>byte</code> array
+	 * content.
+	 * @return The <code>byte</code> array digest.
+	 */
+	public byte[] digest(final byte[] content) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < content.length; i++) {
+			hash ^= (content[i] & 0xff);
+			hash *= 0x100000001b3L;
+		}
+		return ByteBuffer.allocate(8).putLong(hash).array();
+	}
+
+	/**
+	 * Read the configuration from the given snapshot
+	 * file if the snapshot is fresh for the given
+	 * configuration content digest.
+	 * @param file The snapshot <code>File</code>.
+	 * @param digest The <code>byte</code> array digest
+	 * of the current configuration file content.
+	 * @return The <code>Configuration</code>. Or
+	 * <code>null</code> if there is no snapshot, or the
+	 * snapshot is stale or corrupted.
+	 * @throws IOException If reading file failed.
+	 */
+	public Configuration readConfiguration(final File file, final byte[] digest) throws IOException {
+		if (!file.isFile()) return null;
+		final RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			final FileChannel channel = raf.getChannel();
+			final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			// Verify header.
+			if (buffer.getInt() != USnapshot.Magic) return null;
+			if (buffer.getInt() != USnapshot.Format) return null;
+			if (!EEnvironment.Version.value.equals(this.readString(buffer))) return null;
+			final int digestLength = buffer.getInt();
+			if (digestLength != digest.length) return null;
+			final byte[] snapshotDigest = new byte[digestLength];
+			buffer.get(snapshotDigest);
+			if (!Arrays.equals(digest, snapshotDigest)) return null;
+			// Read body.
+			return new Configuration(buffer);
+		} catch (final BufferUnderflowException e) {
+			return null;
+		} catch (final IllegalArgumentException e) {
+			return null;
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Write the given configuration to the snapshot
+	 * file keyed with the given digest.
+	 * <p>
+	 * The snapshot is written to a uniquely named
+	 * temporary file in the same directory that then
+	 * replaces the snapshot file, so concurrent readers
+	 * never see a partially written snapshot, and
+	 * concurrent writers never write the same file.
+	 * @param file The snapshot <code>File</code>.
+	 * @param digest The <code>byte</code> array digest
+	 * of the configuration file content.
+	 * @param config The <code>Configuration</code> to
+	 * write.
+	 * @throws IOException If writing file failed.
+	 */
+	public void writeConfiguration(final File file, final byte[] digest, final Configuration config) throws IOException {
+		final File temp = File.createTempFile(file.getName() + ".", ".tmp", file.getParentFile());
+		boolean written = false;
+		try {
+			final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+			try {
+				// Header.
+				output.writeInt(USnapshot.Magic);
+				output.writeInt(USnapshot.Format);
+				this.writeString(output, EEnvironment.Version.value);
+				output.writeInt(digest.length);
+				output.write(digest);
+				// Body.
+				config.write(output);
+			} finally {
+				output.close();
+			}
+			written = true;
+		} finally {
+			if (!written) temp.delete();
+		}
+		if (!temp.renameTo(file)) {
+			file.delete();
+			if (!temp.renameTo(file)) {
+				temp.delete();
+				throw new IOException("Failed to replace snapshot: " + file.getPath());
+			}
+		}
+	}
+
+	/**
+	 * Read a nullable string value.
+	 * @param buffer The <code>ByteBuffer</code> to read
+	 * from.
+	 * @return The <code>String</code> value. Or
+	 * <code>null</code> if a <code>null</code> value was
+	 * written.
+	 */
+	public String readString(final ByteBuffer buffer) {
+		final int length = buffer.getInt();
+		if (length < 0) return null;
+		else if (length > buffer.remaining()) throw new BufferUnderflowException();
+		final byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, this.charset);
+	}
+
+	/**
+	 * Read a boolean value.
+	 * @param buffer The <code>ByteBuffer</code> to read
+	 * from.
+	 * @return The <code>boolean</code> value.
+	 */
+	public boolean readBoolean(final ByteBuffer buffer) {
+		return (buffer.get() != 0);
+	}
+
+	/**
+	 * Write a nullable string value.
+	 * @param output The <code>DataOutput</code> to
+	 * write to.
+	 * @param value The <code>String</code> value.
+	 * @throws IOException If writing failed.
+	 */
+	public void writeString(final DataOutput output, final String value) throws IOException {
+		if (value == null) {
+			output.writeInt(-1);
+		} else {
+			final byte[] bytes = value.getBytes(this.charset);
+			output.writeInt(bytes.length);
+			output.write(bytes);
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package hemera.core.environment.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <code>UTime</code> defines the singleton that parses
+ * the time values of the environment configuration,
+ * which are written as a value followed by the name of
+ * its <code>TimeUnit</code>, such as
+ * <code>200 MILLISECONDS</code>.
+ *
+ * @author Yi Wang (Neakor)
+ * @version 1.0.0
+ */
+public enum UTime {
+	/**
+	 * The singleton instance.
+	 */
+	instance;
+
+	/**
+	 * Parse the given time value.
+	 * @param value The <code>String</code> time value.
+	 * @param unit The <code>TimeUnit</code> to convert
+	 * the value to.
+	 * @return The <code>long</code> time in the given
+	 * unit.
+	 * @throws IllegalArgumentException If the value is
+	 * not a non-negative number followed by a time unit
+	 * name.
+	 */
+	public long parse(final String value, final TimeUnit unit) {
+		if (value == null) {
+			throw new IllegalArgumentException("Invalid time value: null");
+		}
+		final String[] parts = value.trim().split("\\s+");
+		if (parts.length != 2) {
+			throw new IllegalArgumentException("Invalid time value: " + value + ". Must be a number followed by a time unit.");
+		}
+		final long time;
+		final TimeUnit source;
+		try {
+			time = Long.parseLong(parts[0]);
+			source = TimeUnit.valueOf(parts[1].toUpperCase());
+		} catch (final IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid time value: " + value + ". Must be a number followed by a time unit.");
+		}
+		if (time < 0) {
+			throw new IllegalArgumentException("Invalid time value: " + value + ". Must not be negative.");
+		}
+		return unit.convert(time, source);
+	}
+}